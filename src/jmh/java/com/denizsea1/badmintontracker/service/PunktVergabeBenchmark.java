@@ -0,0 +1,83 @@
+package com.denizsea1.badmintontracker.service;
+
+import com.denizsea1.badmintontracker.BadmintonTrackerApplication;
+import com.denizsea1.badmintontracker.model.*;
+import com.denizsea1.badmintontracker.repository.TeamRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-End: SpielService.punktFuerTeamA gegen eine eingebettete H2 (In-Memory).
+ *
+ * Gemessen wird der echte Pfad inkl. LiveSpielEngine, Ballwechsel-Protokoll,
+ * SpielGeaendertEvent und dem Write-Behind im Hintergrund. Ist ein Spiel
+ * beendet (alle 42 Punkte), startet derselbe Aufruf ein neues mit denselben Teams –
+ * das Speichern bei Satz-/Spielende ist also anteilig mitgemessen.
+ *
+ * Ausführen: ./mvnw -Pjmh test-compile exec:exec -Djmh.args="PunktVergabeBenchmark -prof gc"
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PunktVergabeBenchmark {
+
+    private ConfigurableApplicationContext kontext;
+    private SpielService spielService;
+
+    private Long teamAId;
+    private Long teamBId;
+    private Long spielId;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        kontext = new SpringApplicationBuilder(BadmintonTrackerApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.main.banner-mode=off",
+                        "spring.datasource.url=jdbc:h2:mem:jmh;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "spring.jpa.show-sql=false",
+                        "spring.h2.console.enabled=false",
+                        "logging.level.root=WARN")
+                .run();
+
+        spielService = kontext.getBean(SpielService.class);
+        TeamRepository teamRepository = kontext.getBean(TeamRepository.class);
+
+        teamAId = teamRepository.save(team("Max", "Mueller", "Lara", "Schulz")).getId();
+        teamBId = teamRepository.save(team("Paul", "Meier", "Anna", "Schmidt")).getId();
+        spielId = starteSpiel();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        kontext.close();
+    }
+
+    @Benchmark
+    public Spiel punktFuerTeamA() {
+        Spiel spiel = spielService.punktFuerTeamA(spielId);
+        if (spiel.getStatus() != SpielStatus.LAUFEND) {
+            spielId = starteSpiel();
+        }
+        return spiel;
+    }
+
+    private Long starteSpiel() {
+        return spielService.startNeuesSpiel(teamAId, teamBId, true, Seite.RECHTS).getId();
+    }
+
+    private static Team team(String v1, String n1, String v2, String n2) {
+        Team team = new Team();
+        team.addSpieler(new Spieler(v1, n1, Seite.RECHTS));
+        team.addSpieler(new Spieler(v2, n2, Seite.LINKS));
+        return team;
+    }
+}
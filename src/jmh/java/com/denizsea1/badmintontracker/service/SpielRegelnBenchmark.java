@@ -0,0 +1,125 @@
+package com.denizsea1.badmintontracker.service;
+
+import com.denizsea1.badmintontracker.model.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.reflect.Field;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Misst die reinen Spielregeln ohne Datenbank:
+ * - istSatzBeendet
+ * - ermittleAktuellenSatz
+ * - wendeAufschlagUndPositionsLogikAn
+ *
+ * Die Regeln brauchen keine Repositories, daher wird der Service
+ * ohne Spring-Kontext (alle Abhängigkeiten null) erzeugt.
+ *
+ * Ausführen: ./mvnw -Pjmh test-compile exec:exec -Djmh.args="SpielRegelnBenchmark -prof gc"
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SpielRegelnBenchmark {
+
+    /**
+     * Verschiedene Spielstände (Zweierpotenz, damit "& MASKE" statt "%" reicht).
+     */
+    private static final int ANZAHL_STAENDE = 64;
+    private static final int MASKE = ANZAHL_STAENDE - 1;
+
+    private SpielService spielService;
+
+    private Satz[] staende;
+    private int index;
+
+    private Spiel spiel;
+    private Team teamA;
+    private Team teamB;
+    private Satz aktuellerSatz;
+    private boolean punktFuerA;
+
+    @Setup
+    public void setup() throws ReflectiveOperationException {
+        spielService = new SpielService(null, null, null, null, null, null, null, null, null);
+
+        // Stände quer über den Satz: normale Punkte, Verlängerung, 29:29 / 30:29
+        staende = new Satz[ANZAHL_STAENDE];
+        for (int i = 0; i < ANZAHL_STAENDE; i++) {
+            Satz satz = new Satz(1);
+            satz.setPunkteTeamA(i % 31);
+            satz.setPunkteTeamB((i * 7) % 31);
+            staende[i] = satz;
+        }
+
+        teamA = team(1L, "Max", "Mueller", "Lara", "Schulz");
+        teamB = team(2L, "Paul", "Meier", "Anna", "Schmidt");
+
+        spiel = new Spiel(LocalDate.now());
+        spiel.addTeam(teamA);
+        spiel.addTeam(teamB);
+        spiel.setAufschlagTeam(teamA);
+        spiel.setAufschlagSeite(Seite.RECHTS);
+        spiel.setStatus(SpielStatus.LAUFEND);
+
+        // Drei Sätze, damit ermittleAktuellenSatz wirklich suchen muss
+        for (int nummer = 1; nummer <= 3; nummer++) {
+            Satz satz = new Satz(nummer);
+            satz.setPunkteTeamA(nummer == 3 ? 11 : 21);
+            satz.setPunkteTeamB(nummer == 3 ? 9 : 15);
+            spiel.addSatz(satz);
+        }
+        aktuellerSatz = spielService.ermittleAktuellenSatz(spiel);
+    }
+
+    @Benchmark
+    public boolean istSatzBeendet() {
+        return spielService.istSatzBeendet(staende[index++ & MASKE]);
+    }
+
+    @Benchmark
+    public Satz ermittleAktuellenSatz() {
+        return spielService.ermittleAktuellenSatz(spiel);
+    }
+
+    /**
+     * Aufschlagteam punktet immer: Positionswechsel im Team + Seitenwechsel.
+     */
+    @Benchmark
+    public void aufschlagBleibt(Blackhole bh) {
+        spiel.setAufschlagTeam(teamA);
+        spielService.wendeAufschlagUndPositionsLogikAn(spiel, teamA, teamB, aktuellerSatz, true);
+        bh.consume(spiel.getAufschlagSeite());
+    }
+
+    /**
+     * Die Teams punkten abwechselnd: Aufschlagsrecht wechselt bei jedem Punkt.
+     */
+    @Benchmark
+    public void aufschlagWechselt(Blackhole bh) {
+        punktFuerA = !punktFuerA;
+        spielService.wendeAufschlagUndPositionsLogikAn(spiel, teamA, teamB, aktuellerSatz, punktFuerA);
+        bh.consume(spiel.getAufschlagSeite());
+    }
+
+    /**
+     * Team mit fester ID – die Aufschlaglogik vergleicht Teams über die ID,
+     * ohne Datenbank wird sie daher direkt gesetzt.
+     */
+    private static Team team(Long id, String v1, String n1, String v2, String n2)
+            throws ReflectiveOperationException {
+        Team team = new Team();
+        team.addSpieler(new Spieler(v1, n1, Seite.RECHTS));
+        team.addSpieler(new Spieler(v2, n2, Seite.LINKS));
+
+        Field idFeld = Team.class.getDeclaredField("id");
+        idFeld.setAccessible(true);
+        idFeld.set(team, id);
+        return team;
+    }
+}
@@ -0,0 +1,80 @@
+package com.denizsea1.badmintontracker.last;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Sammelt Antwortzeiten pro Endpunkt und wertet sie am Ende aus (p50/p95/p99).
+ *
+ * Alle Messwerte werden aufgehoben und erst am Ende sortiert – bei einigen
+ * hunderttausend Aufrufen pro Lauf ist das deutlich einfacher als ein Histogramm
+ * und trotzdem genau.
+ */
+class LatenzStatistik {
+
+    /**
+     * Endpunkt (z.B. "POST /spiele/{id}/punktA") -> Messwerte.
+     * Nur unter synchronized(endpunkte) verwenden.
+     */
+    private final Map<String, Messwerte> endpunkte = new TreeMap<>();
+
+    void erfasse(String endpunkt, long dauerNanos, boolean erfolgreich) {
+        synchronized (endpunkte) {
+            Messwerte m = endpunkte.computeIfAbsent(endpunkt, e -> new Messwerte());
+            if (m.anzahl == m.dauern.length) {
+                m.dauern = Arrays.copyOf(m.dauern, m.dauern.length * 2);
+            }
+            m.dauern[m.anzahl++] = dauerNanos;
+            if (!erfolgreich) {
+                m.fehler++;
+            }
+        }
+    }
+
+    /**
+     * Eine Zeile pro Endpunkt: Aufrufe, Fehler, p50/p95/p99/max in Millisekunden.
+     */
+    List<String> bericht() {
+        List<String> zeilen = new ArrayList<>();
+        zeilen.add(String.format("%-32s %9s %7s %9s %9s %9s %9s",
+                "Endpunkt", "Aufrufe", "Fehler", "p50 ms", "p95 ms", "p99 ms", "max ms"));
+
+        synchronized (endpunkte) {
+            endpunkte.forEach((endpunkt, m) -> {
+                long[] sortiert = Arrays.copyOf(m.dauern, m.anzahl);
+                Arrays.sort(sortiert);
+                zeilen.add(String.format("%-32s %9d %7d %9.2f %9.2f %9.2f %9.2f",
+                        endpunkt, m.anzahl, m.fehler,
+                        millis(perzentil(sortiert, 0.50)),
+                        millis(perzentil(sortiert, 0.95)),
+                        millis(perzentil(sortiert, 0.99)),
+                        millis(sortiert.length > 0 ? sortiert[sortiert.length - 1] : 0)));
+            });
+        }
+        return zeilen;
+    }
+
+    /**
+     * Nearest-Rank-Perzentil auf einem sortierten Array.
+     */
+    static long perzentil(long[] sortiert, double anteil) {
+        if (sortiert.length == 0) {
+            return 0;
+        }
+        int rang = (int) Math.ceil(anteil * sortiert.length);
+        return sortiert[Math.clamp(rang - 1, 0, sortiert.length - 1)];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static final class Messwerte {
+        private long[] dauern = new long[1024];
+        private int anzahl;
+        private int fehler;
+    }
+}
@@ -0,0 +1,223 @@
+package com.denizsea1.badmintontracker.last;
+
+import com.denizsea1.badmintontracker.BadmintonTrackerApplication;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lastsimulation für einen Turniertag: N Courts spielen gleichzeitig über die
+ * echten HTTP-Endpunkte.
+ *
+ * Pro Court (ein virtueller Thread):
+ * - legt zwei Teams über POST /teams an,
+ * - startet ein Spiel über POST /spiele/start,
+ * - spielt Punkte (zufällig A/B) mit gelegentlichem Undo,
+ * - bricht einen Teil der Spiele mittendrin ab,
+ * - startet nach Spielende sofort das nächste Spiel, bis die Laufzeit vorbei ist.
+ *
+ * Am Ende: p50/p95/p99 pro Endpunkt und gehaltene Punkte pro Sekunde.
+ *
+ * Ausführen (startet die App selbst, mit der lokalen H2-Datei-DB aus application.properties):
+ *   ./mvnw -Plasttest test-compile exec:java -Dlast.courts=32 -Dlast.dauer-sekunden=120
+ * Gegen eine bereits laufende Instanz:
+ *   ./mvnw -Plasttest test-compile exec:java -Dlast.url=http://localhost:8080
+ */
+public class TurnierLastSimulator {
+
+    private final String basisUrl;
+    private final int courts;
+    private final Duration dauer;
+    private final long punktPauseMs;
+    private final double undoAnteil;
+    private final double abbruchAnteil;
+    private final long seed;
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final LatenzStatistik statistik = new LatenzStatistik();
+    private final AtomicLong punkte = new AtomicLong();
+    private final AtomicLong spiele = new AtomicLong();
+
+    TurnierLastSimulator(String basisUrl, int courts, Duration dauer, long punktPauseMs,
+                         double undoAnteil, double abbruchAnteil, long seed) {
+        this.basisUrl = basisUrl;
+        this.courts = courts;
+        this.dauer = dauer;
+        this.punktPauseMs = punktPauseMs;
+        this.undoAnteil = undoAnteil;
+        this.abbruchAnteil = abbruchAnteil;
+        this.seed = seed;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String url = System.getProperty("last.url", "");
+        int courts = Integer.getInteger("last.courts", 16);
+        Duration dauer = Duration.ofSeconds(Long.getLong("last.dauer-sekunden", 60L));
+        long punktPauseMs = Long.getLong("last.punkt-pause-ms", 50L);
+        double undoAnteil = Double.parseDouble(System.getProperty("last.undo-anteil", "0.03"));
+        double abbruchAnteil = Double.parseDouble(System.getProperty("last.abbruch-anteil", "0.05"));
+        long seed = Long.getLong("last.seed", 42L);
+
+        // Ohne URL die App selbst starten (lokale H2-Datei-DB, SQL-Log aus)
+        ConfigurableApplicationContext kontext = null;
+        if (url.isBlank()) {
+            kontext = new SpringApplicationBuilder(BadmintonTrackerApplication.class)
+                    .properties("server.port=0", "spring.jpa.show-sql=false", "spring.main.banner-mode=off")
+                    .run(args);
+            url = "http://localhost:" + kontext.getEnvironment().getProperty("local.server.port");
+        }
+
+        try {
+            new TurnierLastSimulator(url, courts, dauer, punktPauseMs, undoAnteil, abbruchAnteil, seed).lauf();
+        } finally {
+            if (kontext != null) {
+                kontext.close();
+            }
+        }
+    }
+
+    void lauf() throws Exception {
+        System.out.printf("Lastsimulation: %d Courts, %d s, Pause %d ms, Undo %.0f %%, Abbruch %.0f %% gegen %s%n",
+                courts, dauer.toSeconds(), punktPauseMs, undoAnteil * 100, abbruchAnteil * 100, basisUrl);
+
+        long ende = System.nanoTime() + dauer.toNanos();
+        long start = System.nanoTime();
+
+        try (ExecutorService courtThreads = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> laeufe = new ArrayList<>();
+            for (int court = 1; court <= courts; court++) {
+                int nummer = court;
+                laeufe.add(courtThreads.submit(() -> {
+                    spieleCourt(nummer, ende);
+                    return null;
+                }));
+            }
+            for (Future<?> lauf : laeufe) {
+                lauf.get();
+            }
+        }
+
+        double sekunden = (System.nanoTime() - start) / 1_000_000_000.0;
+        System.out.println();
+        statistik.bericht().forEach(System.out::println);
+        System.out.println();
+        System.out.printf("Spiele gestartet: %d, Punkte: %d, Punkte/s: %.1f%n",
+                spiele.get(), punkte.get(), punkte.get() / sekunden);
+    }
+
+    // -------------------------------------------------------------------------
+    // Ein Court
+    // -------------------------------------------------------------------------
+
+    private void spieleCourt(int court, long ende) throws Exception {
+        Random zufall = new Random(seed + court);
+
+        long teamAId = legeTeamAn("Court" + court, "A");
+        long teamBId = legeTeamAn("Court" + court, "B");
+
+        while (System.nanoTime() < ende) {
+            JsonNode spiel = post("POST /spiele/start", "/spiele/start?teamAId=" + teamAId
+                    + "&teamBId=" + teamBId + "&aufschlagTeamIstA=" + zufall.nextBoolean() + "&startSeite=RECHTS");
+            if (spiel == null) {
+                return;
+            }
+            spiele.incrementAndGet();
+            long spielId = spiel.get("id").asLong();
+
+            // Abgebrochene Spiele enden irgendwo zwischen Punkt 5 und 40
+            int abbruchNachPunkten = zufall.nextDouble() < abbruchAnteil ? 5 + zufall.nextInt(36) : -1;
+            int gespielt = 0;
+            int imProtokoll = 0; // so viele Ballwechsel kann ein Undo noch zurücknehmen
+
+            while (System.nanoTime() < ende && "LAUFEND".equals(spiel.get("status").asText())) {
+                pausiere();
+
+                if (gespielt == abbruchNachPunkten) {
+                    spiel = post("POST /spiele/{id}/abbrechen",
+                            "/spiele/" + spielId + "/abbrechen?teamAGibtAuf=" + zufall.nextBoolean());
+                } else if (imProtokoll > 0 && zufall.nextDouble() < undoAnteil) {
+                    spiel = post("POST /spiele/{id}/undo", "/spiele/" + spielId + "/undo");
+                    imProtokoll--;
+                } else {
+                    boolean punktFuerA = zufall.nextBoolean();
+                    spiel = post(punktFuerA ? "POST /spiele/{id}/punktA" : "POST /spiele/{id}/punktB",
+                            "/spiele/" + spielId + (punktFuerA ? "/punktA" : "/punktB"));
+                    if (spiel != null) {
+                        punkte.incrementAndGet();
+                        gespielt++;
+                        imProtokoll++;
+                    }
+                }
+                if (spiel == null) {
+                    return; // Fehler ist in der Statistik, Court hört auf
+                }
+            }
+        }
+    }
+
+    private long legeTeamAn(String vorname, String team) throws Exception {
+        String json = """
+                {"spieler": [
+                  {"vorname": "%s", "nachname": "%s1"},
+                  {"vorname": "%s", "nachname": "%s2"}
+                ]}
+                """.formatted(vorname, team, vorname, team);
+        JsonNode antwort = sende("POST /teams", HttpRequest.newBuilder(URI.create(basisUrl + "/teams"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build());
+        if (antwort == null) {
+            throw new IllegalStateException("Team konnte nicht angelegt werden");
+        }
+        return antwort.get("id").asLong();
+    }
+
+    private void pausiere() throws InterruptedException {
+        if (punktPauseMs > 0) {
+            Thread.sleep(punktPauseMs);
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // HTTP
+    // -------------------------------------------------------------------------
+
+    private JsonNode post(String endpunkt, String pfad) throws Exception {
+        return sende(endpunkt, HttpRequest.newBuilder(URI.create(basisUrl + pfad))
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build());
+    }
+
+    /**
+     * Schickt die Anfrage, misst die Zeit bis zur vollständigen Antwort
+     * und liefert den JSON-Body – oder null bei einem Fehlerstatus.
+     */
+    private JsonNode sende(String endpunkt, HttpRequest anfrage) throws Exception {
+        long start = System.nanoTime();
+        HttpResponse<byte[]> antwort = http.send(anfrage, HttpResponse.BodyHandlers.ofByteArray());
+        long dauer = System.nanoTime() - start;
+
+        boolean erfolgreich = antwort.statusCode() < 300;
+        statistik.erfasse(endpunkt, dauer, erfolgreich);
+        return erfolgreich ? objectMapper.readTree(antwort.body()) : null;
+    }
+}
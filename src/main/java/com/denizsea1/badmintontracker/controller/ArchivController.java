@@ -0,0 +1,64 @@
+package com.denizsea1.badmintontracker.controller;
+
+import com.denizsea1.badmintontracker.dto.ArchivLauf;
+import com.denizsea1.badmintontracker.service.SpielArchiv;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+
+/**
+ * Zugriff auf archivierte Spiele (siehe SpielArchiv).
+ *
+ * Beispiel-URLs:
+ * /archiv/spiele/123
+ * /archiv/spiele?von=2023-09-01&bis=2024-06-30     (NDJSON)
+ * POST /archiv/verschieben?vor=2024-01-01
+ *
+ * Die Antworten sind die gespeicherten JSON-Zeilen, unverändert aus der Archivdatei.
+ */
+@RestController
+@RequestMapping("/archiv")
+public class ArchivController {
+
+    private final SpielArchiv spielArchiv;
+
+    public ArchivController(SpielArchiv spielArchiv) {
+        this.spielArchiv = spielArchiv;
+    }
+
+    @GetMapping("/spiele/{spielId}")
+    public ResponseEntity<StreamingResponseBody> getSpiel(@PathVariable Long spielId) {
+        if (!spielArchiv.enthaelt(spielId)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(ausgabe -> spielArchiv.schreibe(spielId, ausgabe));
+    }
+
+    /**
+     * Alle archivierten Spiele im Datumsbereich, eine Zeile pro Spiel
+     * (in der Reihenfolge, in der sie archiviert wurden).
+     */
+    @GetMapping("/spiele")
+    public ResponseEntity<StreamingResponseBody> getSpiele(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate von,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate bis) {
+        return ResponseEntity.ok()
+                .contentType(ExportController.NDJSON)
+                .body(ausgabe -> spielArchiv.schreibeBereich(von, bis, ausgabe));
+    }
+
+    /**
+     * Verschiebt alle abgeschlossenen Spiele mit Datum vor 'vor' sofort ins Archiv
+     * (sonst zeitgesteuert nach badminton.archiv.alter-tage).
+     */
+    @PostMapping("/verschieben")
+    public ArchivLauf verschiebe(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate vor) {
+        return spielArchiv.verschiebe(vor);
+    }
+}
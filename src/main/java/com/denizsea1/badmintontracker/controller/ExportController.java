@@ -0,0 +1,122 @@
+package com.denizsea1.badmintontracker.controller;
+
+import com.denizsea1.badmintontracker.dto.SpielFilter;
+import com.denizsea1.badmintontracker.model.SpielStatus;
+import com.denizsea1.badmintontracker.service.SpielExport;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Export der Spielhistorie, z.B. als Saison-Dump (siehe SpielExport).
+ *
+ * Beispiel-URLs:
+ * /export/spiele                                   (NDJSON, alle Spiele)
+ * /export/spiele?format=csv&status=BEENDET&von=2024-09-01&bis=2025-06-30
+ * /export/spiele?spieler=meier
+ *
+ * Mit "Accept-Encoding: gzip" kommt die Antwort gzip-komprimiert
+ * (curl --compressed ...) – nicht bei "gzip;q=0" (ausdrücklich abgelehnt).
+ */
+@RestController
+@RequestMapping("/export")
+public class ExportController {
+
+    static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    static final MediaType CSV = MediaType.parseMediaType("text/csv;charset=UTF-8");
+
+    private final SpielExport spielExport;
+
+    public ExportController(SpielExport spielExport) {
+        this.spielExport = spielExport;
+    }
+
+    /**
+     * Streamt die Spiele (neueste zuerst) direkt in die Antwort – der Speicherbedarf
+     * hängt nicht von der Anzahl der Spiele ab.
+     *
+     * @param format ndjson (Standard) oder csv
+     */
+    @GetMapping("/spiele")
+    public ResponseEntity<StreamingResponseBody> exportiereSpiele(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) SpielStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate von,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate bis,
+            @RequestParam(required = false) String spieler,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        boolean csv = "csv".equalsIgnoreCase(format);
+        if (!csv && !"ndjson".equalsIgnoreCase(format)) {
+            return ResponseEntity.badRequest().build();
+        }
+        boolean gzip = akzeptiertGzip(acceptEncoding);
+        SpielFilter filter = new SpielFilter(status, von, bis, spieler);
+
+        StreamingResponseBody body = ausgabe -> {
+            OutputStream ziel = gzip ? new GZIPOutputStream(ausgabe, true) : ausgabe;
+            if (csv) {
+                spielExport.schreibeCsv(filter, ziel);
+            } else {
+                spielExport.schreibeNdjson(filter, ziel);
+            }
+            if (ziel instanceof GZIPOutputStream komprimiert) {
+                komprimiert.finish();
+            }
+        };
+
+        ResponseEntity.BodyBuilder antwort = ResponseEntity.ok()
+                .contentType(csv ? CSV : NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(csv ? "spiele.csv" : "spiele.ndjson")
+                        .build().toString())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            antwort.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return antwort.body(body);
+    }
+
+    /**
+     * Wertet Accept-Encoding samt q-Werten aus (RFC 9110, 12.5.3):
+     * gzip bzw. x-gzip mit q > 0, sonst "*" mit q > 0, falls gzip nicht genannt ist.
+     */
+    static boolean akzeptiertGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzip = null;
+        Double alle = null;
+        for (String teil : acceptEncoding.split(",")) {
+            String[] angaben = teil.split(";");
+            String kodierung = angaben[0].trim().toLowerCase();
+            double q = 1.0;
+            for (int i = 1; i < angaben.length; i++) {
+                String parameter = angaben[i].trim().toLowerCase();
+                if (parameter.startsWith("q=")) {
+                    try {
+                        q = Double.parseDouble(parameter.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        q = 0; // ungültig -> nicht akzeptiert
+                    }
+                }
+            }
+            if (kodierung.equals("gzip") || kodierung.equals("x-gzip")) {
+                gzip = gzip == null ? q : Math.max(gzip, q);
+            } else if (kodierung.equals("*")) {
+                alle = q;
+            }
+        }
+        if (gzip != null) {
+            return gzip > 0;
+        }
+        return alle != null && alle > 0;
+    }
+}
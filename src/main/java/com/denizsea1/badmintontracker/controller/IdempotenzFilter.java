@@ -0,0 +1,229 @@
+package com.denizsea1.badmintontracker.controller;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Idempotenz für alle ändernden Spiel-Endpunkte (POST /spiele/...).
+ *
+ * Schickt der Client einen Header "Idempotency-Key", wird die Antwort zu diesem
+ * Schlüssel eine Zeit lang gemerkt. Eine Wiederholung (z.B. nach Timeout im
+ * Hallen-WLAN) bekommt dieselbe Antwort noch einmal – ohne dass der Punkt
+ * erneut gezählt oder die Datenbank angefasst wird.
+ *
+ * - Derselbe Schlüssel für eine ANDERE Anfrage (Methode/URL) -> 422.
+ * - Läuft die erste Anfrage noch, wartet die Wiederholung auf deren Antwort
+ *   (höchstens WARTEZEIT_SEKUNDEN, sonst 409). Schlägt die erste Anfrage fehl,
+ *   führt die Wiederholung die Anfrage selbst aus.
+ * - Serverfehler (5xx) werden nicht gemerkt, damit ein Retry es erneut versuchen kann.
+ * - Der Speicher ist begrenzt (älteste Einträge fliegen raus) und Einträge verfallen.
+ */
+@Component
+public class IdempotenzFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Idempotency-Key";
+
+    /**
+     * So lange wartet eine Wiederholung auf die noch laufende Erstanfrage.
+     */
+    private static final long WARTEZEIT_SEKUNDEN = 10;
+
+    private final int maxEintraege;
+    private final long ttlNanos;
+
+    /**
+     * Schlüssel -> Eintrag, in Einfügereihenfolge (ältester zuerst).
+     * Nur unter synchronized(eintraege) verwenden.
+     */
+    private final LinkedHashMap<String, Eintrag> eintraege = new LinkedHashMap<>();
+
+    public IdempotenzFilter(@Value("${badminton.idempotenz.max-eintraege:10000}") int maxEintraege,
+                            @Value("${badminton.idempotenz.ttl-sekunden:600}") long ttlSekunden) {
+        this.maxEintraege = maxEintraege;
+        this.ttlNanos = Duration.ofSeconds(ttlSekunden).toNanos();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod())
+                || !istSpielPfad(request.getRequestURI())
+                || request.getHeader(HEADER) == null
+                || request.getHeader(HEADER).isBlank();
+    }
+
+    /**
+     * Genau /spiele oder darunter – nicht z.B. /spieler.
+     */
+    private static boolean istSpielPfad(String uri) {
+        return uri.equals("/spiele") || uri.startsWith("/spiele/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String schluessel = request.getHeader(HEADER).trim();
+        String anfrage = request.getMethod() + " " + request.getRequestURI()
+                + (request.getQueryString() != null ? "?" + request.getQueryString() : "");
+
+        // ----- 1) Schlüssel schon bekannt? -----
+        // Erneut prüfen, solange die Erstanfrage fehlschlägt: ihr Eintrag ist
+        // dann entfernt, und diese Anfrage wird selbst zur Erstanfrage.
+        Eintrag neu = new Eintrag(anfrage, System.nanoTime());
+        while (true) {
+            Eintrag vorhanden;
+            synchronized (eintraege) {
+                vorhanden = eintraege.get(schluessel);
+                if (vorhanden != null && vorhanden.istAbgelaufen(System.nanoTime(), ttlNanos)) {
+                    eintraege.remove(schluessel);
+                    vorhanden = null;
+                }
+                if (vorhanden == null) {
+                    eintraege.put(schluessel, neu);
+                    begrenze();
+                }
+            }
+            if (vorhanden == null) {
+                break;
+            }
+            if (wiederhole(vorhanden, anfrage, response)) {
+                return;
+            }
+        }
+
+        // ----- 2) Erstanfrage ausführen und Antwort merken -----
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        try {
+            filterChain.doFilter(request, wrapper);
+        } catch (ServletException | IOException | RuntimeException e) {
+            vergiss(schluessel, neu);
+            throw e;
+        }
+
+        if (wrapper.getStatus() >= 500) {
+            vergiss(schluessel, neu);
+        } else {
+            neu.antwort.complete(new Antwort(
+                    wrapper.getStatus(), wrapper.getContentType(), wrapper.getContentAsByteArray()));
+        }
+        wrapper.copyBodyToResponse();
+    }
+
+    /**
+     * Beantwortet eine Wiederholung mit der gemerkten Antwort.
+     *
+     * @return false, falls die Erstanfrage fehlgeschlagen ist – dann wurde noch
+     *         nichts geantwortet und der Aufrufer führt die Anfrage selbst aus
+     */
+    private boolean wiederhole(Eintrag eintrag, String anfrage, HttpServletResponse response) throws IOException {
+        if (!eintrag.anfrage.equals(anfrage)) {
+            response.sendError(HttpStatus.UNPROCESSABLE_ENTITY.value(),
+                    HEADER + " wurde bereits für eine andere Anfrage verwendet.");
+            return true;
+        }
+
+        Antwort antwort;
+        try {
+            antwort = eintrag.antwort.get(WARTEZEIT_SEKUNDEN, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            // Erstanfrage fehlgeschlagen (Eintrag ist schon entfernt) -> selbst ausführen
+            return false;
+        } catch (TimeoutException e) {
+            // Erstanfrage läuft noch -> Client soll es gleich erneut versuchen
+            response.sendError(HttpStatus.CONFLICT.value(), "Anfrage mit diesem " + HEADER + " ist noch in Arbeit.");
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value());
+            return true;
+        }
+
+        response.setStatus(antwort.status());
+        if (antwort.contentType() != null) {
+            response.setContentType(antwort.contentType());
+        }
+        response.setHeader("Idempotent-Replay", "true");
+        response.setContentLength(antwort.body().length);
+        response.getOutputStream().write(antwort.body());
+        return true;
+    }
+
+    /**
+     * Entfernt einen Eintrag wieder (Fehlschlag) – wartende Wiederholungen
+     * führen die Anfrage dann selbst aus.
+     */
+    private void vergiss(String schluessel, Eintrag eintrag) {
+        synchronized (eintraege) {
+            eintraege.remove(schluessel, eintrag);
+        }
+        eintrag.antwort.completeExceptionally(new IllegalStateException("Erstanfrage fehlgeschlagen"));
+    }
+
+    /**
+     * Hält die Anzahl der Einträge unter maxEintraege (älteste zuerst raus).
+     * Aufruf nur unter synchronized(eintraege).
+     */
+    private void begrenze() {
+        Iterator<Map.Entry<String, Eintrag>> it = eintraege.entrySet().iterator();
+        while (eintraege.size() > maxEintraege && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    /**
+     * Räumt abgelaufene Einträge auf (älteste stehen vorne).
+     */
+    @Scheduled(fixedDelay = 60_000)
+    public void entferneAbgelaufene() {
+        long jetzt = System.nanoTime();
+        synchronized (eintraege) {
+            Iterator<Eintrag> it = eintraege.values().iterator();
+            while (it.hasNext() && it.next().istAbgelaufen(jetzt, ttlNanos)) {
+                it.remove();
+            }
+        }
+    }
+
+    public int anzahlEintraege() {
+        synchronized (eintraege) {
+            return eintraege.size();
+        }
+    }
+
+    private static final class Eintrag {
+        private final String anfrage;
+        private final long erstelltNanos;
+        private final CompletableFuture<Antwort> antwort = new CompletableFuture<>();
+
+        private Eintrag(String anfrage, long erstelltNanos) {
+            this.anfrage = anfrage;
+            this.erstelltNanos = erstelltNanos;
+        }
+
+        private boolean istAbgelaufen(long jetzt, long ttlNanos) {
+            return jetzt - erstelltNanos > ttlNanos;
+        }
+    }
+
+    private record Antwort(int status, String contentType, byte[] body) {
+    }
+}
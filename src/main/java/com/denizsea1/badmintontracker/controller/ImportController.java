@@ -0,0 +1,39 @@
+package com.denizsea1.badmintontracker.controller;
+
+import com.denizsea1.badmintontracker.dto.ImportErgebnis;
+import com.denizsea1.badmintontracker.service.SpielImport;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Import historischer Spiele (Papier-Spielberichte), siehe SpielImport / ImportSpiel.
+ *
+ * Beispiel:
+ * curl -X POST -H "Content-Type: application/x-ndjson" --data-binary @saison-2023.ndjson \
+ *      http://localhost:8080/import/spiele
+ */
+@RestController
+@RequestMapping("/import")
+public class ImportController {
+
+    private final SpielImport spielImport;
+
+    public ImportController(SpielImport spielImport) {
+        this.spielImport = spielImport;
+    }
+
+    /**
+     * Liest den Body als Stream – auch sehr große Dateien landen nie komplett im Speicher.
+     *
+     * @param neuaufbau false -> Statistik, Spieler-Index und Wertung nicht neu aufbauen
+     *                  (z.B. bei mehreren Dateien hintereinander: nur beim letzten true)
+     */
+    @PostMapping(value = "/spiele", consumes = {"application/x-ndjson", MediaType.TEXT_PLAIN_VALUE})
+    public ImportErgebnis importiereSpiele(InputStream body,
+                                           @RequestParam(defaultValue = "true") boolean neuaufbau) throws IOException {
+        return spielImport.importiere(body, neuaufbau);
+    }
+}
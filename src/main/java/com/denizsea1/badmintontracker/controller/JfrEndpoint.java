@@ -0,0 +1,132 @@
+package com.denizsea1.badmintontracker.controller;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Java Flight Recorder auf Abruf, ohne Neustart (/actuator/jfr).
+ *
+ * - POST   /actuator/jfr  {"sekunden": 60}  startet eine Aufzeichnung (Einstellungen "profile")
+ * - GET    /actuator/jfr                    Status der Aufzeichnung
+ * - DELETE /actuator/jfr                    stoppt sie und liefert die .jfr-Datei zurück
+ *
+ * Die Aufzeichnung ist begrenzt: sie endet spätestens nach badminton.jfr.max-sekunden
+ * von selbst und wird nie größer als badminton.jfr.max-mb. Es läuft immer höchstens eine.
+ * Die Datei bleibt bis zur nächsten Aufzeichnung im Temp-Verzeichnis liegen.
+ */
+@Component
+@Endpoint(id = "jfr")
+public class JfrEndpoint {
+
+    private static final int STANDARD_SEKUNDEN = 60;
+    private static final int STATUS_CONFLICT = 409;
+
+    private final int maxSekunden;
+    private final long maxBytes;
+
+    /**
+     * Nur unter synchronized(this) verwenden.
+     */
+    private Recording aufzeichnung;
+    private Path letzteDatei;
+
+    public JfrEndpoint(@Value("${badminton.jfr.max-sekunden:300}") int maxSekunden,
+                       @Value("${badminton.jfr.max-mb:100}") long maxMb) {
+        this.maxSekunden = maxSekunden;
+        this.maxBytes = maxMb * 1024 * 1024;
+    }
+
+    @ReadOperation
+    public synchronized Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        if (aufzeichnung == null) {
+            status.put("zustand", "KEINE");
+            return status;
+        }
+        status.put("zustand", aufzeichnung.getState().name());
+        status.put("start", aufzeichnung.getStartTime());
+        status.put("dauerMax", aufzeichnung.getDuration());
+        status.put("bytes", aufzeichnung.getSize());
+        return status;
+    }
+
+    @WriteOperation
+    public synchronized WebEndpointResponse<Map<String, Object>> starte(@Nullable Integer sekunden)
+            throws IOException, ParseException {
+        if (aufzeichnung != null && aufzeichnung.getState() == RecordingState.RUNNING) {
+            return new WebEndpointResponse<>(status(), STATUS_CONFLICT);
+        }
+        raeumeAuf();
+
+        int dauer = Math.clamp(sekunden != null ? sekunden : STANDARD_SEKUNDEN, 1, maxSekunden);
+        Recording neu = new Recording(Configuration.getConfiguration("profile"));
+        neu.setName("badminton-" + Instant.now());
+        neu.setToDisk(true);
+        neu.setMaxSize(maxBytes);
+        neu.setDuration(Duration.ofSeconds(dauer));
+        neu.enable("badminton.SpielOperation");
+        neu.start();
+        aufzeichnung = neu;
+
+        return new WebEndpointResponse<>(status(), WebEndpointResponse.STATUS_OK);
+    }
+
+    /**
+     * Stoppt die Aufzeichnung (falls sie nicht schon von selbst geendet hat)
+     * und liefert die Datei als application/octet-stream.
+     */
+    @DeleteOperation
+    public synchronized WebEndpointResponse<Resource> stoppe() throws IOException {
+        if (aufzeichnung == null || aufzeichnung.getState() == RecordingState.CLOSED) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        if (aufzeichnung.getState() == RecordingState.RUNNING) {
+            aufzeichnung.stop();
+        }
+
+        Path datei = Files.createTempFile("badminton-", ".jfr");
+        aufzeichnung.dump(datei);
+        aufzeichnung.close();
+        aufzeichnung = null;
+        if (letzteDatei != null) {
+            Files.deleteIfExists(letzteDatei);
+        }
+        letzteDatei = datei;
+
+        return new WebEndpointResponse<>(new FileSystemResource(datei), WebEndpointResponse.STATUS_OK);
+    }
+
+    /**
+     * Alte Aufzeichnung schließen und die zuletzt ausgelieferte Datei löschen.
+     */
+    private void raeumeAuf() throws IOException {
+        if (aufzeichnung != null) {
+            aufzeichnung.close();
+            aufzeichnung = null;
+        }
+        if (letzteDatei != null) {
+            Files.deleteIfExists(letzteDatei);
+            letzteDatei = null;
+        }
+    }
+}
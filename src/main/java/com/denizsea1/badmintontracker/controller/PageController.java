@@ -10,6 +10,7 @@ import org.springframework.web.bind.annotation.PathVariable;
  * - "/"       -> index.html (Startseite)
  * - "/match"  -> match.html (laufendes Spiel anzeigen)
  * - "/history"-> history.html (übersicht gespeicherter Partien)
+ * - "/halle"  -> halle.html (Hallen-Anzeige aller laufenden Spiele)
  *
  * Die eigentlichen Daten holt sich das Frontend über die REST-Controller
  * (SpielController, TeamController, SpielerController).
@@ -36,10 +37,19 @@ public class PageController {
 
     /**
      * Übersicht über gespeicherte Partien.
-     * Das Template lädt die Daten über GET /spiele.
+     * Das Template lädt die Daten über GET /spiele/historie (schlanke Zeilen, seitenweise).
      */
     @GetMapping("/history")
     public String history() {
         return "history"; // src/main/resources/templates/history.html
     }
+
+    /**
+     * Hallen-Anzeige: alle laufenden Spiele auf einen Blick.
+     * Das Template hört auf GET /spiele/live/stream.
+     */
+    @GetMapping("/halle")
+    public String halle() {
+        return "halle"; // src/main/resources/templates/halle.html
+    }
 }
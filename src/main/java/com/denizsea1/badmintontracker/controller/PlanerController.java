@@ -0,0 +1,58 @@
+package com.denizsea1.badmintontracker.controller;
+
+import com.denizsea1.badmintontracker.dto.PlanerStatus;
+import com.denizsea1.badmintontracker.service.FeldPlaner;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Feldplanung für Turniere: Paarungen ansetzen, automatisch starten lassen.
+ *
+ * Beispiel-URLs:
+ * - GET /planer                                            (Felder + Warteschlange)
+ * - POST /planer/ansetzungen?teamAId=1&teamBId=2&prioritaet=5
+ * - DELETE /planer/ansetzungen/7
+ */
+@RestController
+@RequestMapping("/planer")
+public class PlanerController {
+
+    private final FeldPlaner feldPlaner;
+
+    public PlanerController(FeldPlaner feldPlaner) {
+        this.feldPlaner = feldPlaner;
+    }
+
+    @GetMapping
+    public PlanerStatus status() {
+        return feldPlaner.status();
+    }
+
+    /**
+     * Setzt eine Paarung an; sie startet, sobald ein Feld und alle vier
+     * Spieler:innen frei sind (höhere Priorität zuerst).
+     */
+    @PostMapping("/ansetzungen")
+    public ResponseEntity<PlanerStatus.Ansetzung> reiheEin(@RequestParam Long teamAId,
+                                                           @RequestParam Long teamBId,
+                                                           @RequestParam(defaultValue = "0") int prioritaet) {
+        try {
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .body(feldPlaner.reiheEin(teamAId, teamBId, prioritaet));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @DeleteMapping("/ansetzungen/{id}")
+    public ResponseEntity<Void> entferne(@PathVariable long id) {
+        return feldPlaner.entferne(id)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+}
@@ -1,12 +1,31 @@
 package com.denizsea1.badmintontracker.controller;
 
+import com.denizsea1.badmintontracker.dto.BallwechselErgebnis;
+import com.denizsea1.badmintontracker.dto.HistorienZeile;
+import com.denizsea1.badmintontracker.dto.ProtokollVerdichtung;
+import com.denizsea1.badmintontracker.dto.SpielCursor;
+import com.denizsea1.badmintontracker.dto.SpielFilter;
+import com.denizsea1.badmintontracker.dto.SpielSeite;
+import com.denizsea1.badmintontracker.dto.Spielstand;
+import com.denizsea1.badmintontracker.dto.Zwischenstand;
 import com.denizsea1.badmintontracker.model.Seite;
 import com.denizsea1.badmintontracker.model.Spiel;
-import com.denizsea1.badmintontracker.repository.SpielRepository;
+import com.denizsea1.badmintontracker.model.SpielStatus;
+import com.denizsea1.badmintontracker.service.BallwechselArchiv;
+import com.denizsea1.badmintontracker.service.LiveUebersichtStreams;
 import com.denizsea1.badmintontracker.service.SpielService;
+import com.denizsea1.badmintontracker.service.SpielstandLangabfragen;
+import com.denizsea1.badmintontracker.service.SpielstandStreams;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,22 +33,40 @@ import java.util.Optional;
  * REST-Controller für die Verwaltung von Spielen.
  *
  * Bietet Endpunkte für:
- * - Liste aller Spiele / einzelnes Spiel
+ * - Spielliste (seitenweise, filterbar) / einzelnes Spiel (mit ETag / Long-Polling)
  * - Start eines neuen Spiels
- * - Punktevergabe für Team A / Team B
+ * - Punktevergabe für Team A / Team B (einzeln oder mehrere Ballwechsel auf einmal)
  * - Pausenempfehlung
+ * - Live-Stream des Spielstands (Server-Sent Events)
+ * - Hallen-Anzeige: alle laufenden Spiele in einem Stream
+ * - Punkt-für-Punkt-Verlauf (Stand nach einem beliebigen Ballwechsel)
  */
 @RestController
 @RequestMapping("/spiele")
 public class SpielController {
 
-    private final SpielRepository spielRepository;
+    /**
+     * Obergrenze für nachgetragene Ballwechsel pro Anfrage
+     * (ein ganzes Spiel über 3 Sätze hat höchstens 3 x 59 Ballwechsel).
+     */
+    static final int MAX_BALLWECHSEL = 200;
+
     private final SpielService spielService;
+    private final SpielstandStreams spielstandStreams;
+    private final LiveUebersichtStreams liveUebersichtStreams;
+    private final SpielstandLangabfragen spielstandLangabfragen;
+    private final BallwechselArchiv ballwechselArchiv;
 
-    public SpielController(SpielRepository spielRepository,
-                           SpielService spielService) {
-        this.spielRepository = spielRepository;
+    public SpielController(SpielService spielService,
+                           SpielstandStreams spielstandStreams,
+                           LiveUebersichtStreams liveUebersichtStreams,
+                           SpielstandLangabfragen spielstandLangabfragen,
+                           BallwechselArchiv ballwechselArchiv) {
         this.spielService = spielService;
+        this.spielstandStreams = spielstandStreams;
+        this.liveUebersichtStreams = liveUebersichtStreams;
+        this.spielstandLangabfragen = spielstandLangabfragen;
+        this.ballwechselArchiv = ballwechselArchiv;
     }
 
     // ---------------------------------------------------------------------
@@ -37,23 +74,97 @@ public class SpielController {
     // ---------------------------------------------------------------------
 
     /**
-     * Liefert alle Spiele zurück.
+     * Liefert die Spiele seitenweise zurück, neueste zuerst (nach Datum, dann ID).
+     *
+     * Beispiel-URLs:
+     * /spiele?limit=50
+     * /spiele?status=BEENDET&von=2025-01-01&bis=2025-06-30&spieler=meier
+     * /spiele?limit=50&nachDatum=2025-03-14&nachId=123   (nächste Seite)
+     *
+     * Die Werte für nachDatum/nachId stehen in "naechste" der vorherigen Antwort.
      */
     @GetMapping
-    public List<Spiel> getAlleSpiele() {
-        return spielRepository.findAll();
+    public ResponseEntity<SpielSeite<Spiel>> getSpiele(
+            @RequestParam(required = false) SpielStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate von,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate bis,
+            @RequestParam(required = false) String spieler,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate nachDatum,
+            @RequestParam(required = false) Long nachId,
+            @RequestParam(defaultValue = "" + SpielService.SEITE_STANDARD) int limit) {
+        if ((nachDatum == null) != (nachId == null)) {
+            // Cursor nur vollständig sinnvoll
+            return ResponseEntity.badRequest().build();
+        }
+        SpielCursor nach = nachDatum != null ? new SpielCursor(nachDatum, nachId) : null;
+        SpielFilter filter = new SpielFilter(status, von, bis, spieler);
+        return ResponseEntity.ok(spielService.findeSpiele(filter, nach, limit));
+    }
+
+    /**
+     * Wie GET /spiele (gleiche Filter und Cursor), aber nur die Spalten der
+     * Historien-Tabelle: Datum, Spielernamen, Satzstände, Gewinner, Status.
+     * Wird von history.html genutzt.
+     */
+    @GetMapping("/historie")
+    public ResponseEntity<SpielSeite<HistorienZeile>> getHistorie(
+            @RequestParam(required = false) SpielStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate von,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate bis,
+            @RequestParam(required = false) String spieler,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate nachDatum,
+            @RequestParam(required = false) Long nachId,
+            @RequestParam(defaultValue = "" + SpielService.SEITE_STANDARD) int limit) {
+        if ((nachDatum == null) != (nachId == null)) {
+            return ResponseEntity.badRequest().build();
+        }
+        SpielCursor nach = nachDatum != null ? new SpielCursor(nachDatum, nachId) : null;
+        SpielFilter filter = new SpielFilter(status, von, bis, spieler);
+        return ResponseEntity.ok(spielService.findeHistorie(filter, nach, limit));
     }
 
     /**
      * Liefert ein Spiel nach ID zurück oder 404, wenn nicht gefunden.
+     * Laufende Spiele kommen direkt aus dem Speicher (aktuellster Stand).
+     *
+     * Mit ETag (Spiel-ID + Stand-Version): schickt der Client ihn als
+     * If-None-Match zurück und hat sich nichts geändert, kommt 304 – dafür
+     * wird nur die Stand-Version gelesen, nicht das Spiel.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Spiel> getSpielById(@PathVariable Long id) {
-        Optional<Spiel> spielOpt = spielRepository.findById(id);
-        return spielOpt.map(ResponseEntity::ok)
+    public ResponseEntity<Spiel> getSpielById(@PathVariable Long id, WebRequest request) {
+        Optional<Long> standVersion = spielService.findeStandVersion(id);
+        if (standVersion.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (request.checkNotModified(SpielstandLangabfragen.etag(id, standVersion.get()))) {
+            return null; // 304, Header sind schon gesetzt
+        }
+        Optional<Spiel> spielOpt = spielService.findeAktuellenStand(id);
+        return spielOpt.map(SpielstandLangabfragen::antwort)
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
+    /**
+     * Long-Polling für Anzeigen ohne SSE: antwortet, sobald das Spiel mindestens
+     * Stand-Version warteAufVersion hat (üblich: bekannte Version + 1), sonst
+     * nach badminton.live.warte-timeout-ms mit 304.
+     *
+     * Beispiel-URL:
+     * /spiele/7?warteAufVersion=42
+     */
+    @GetMapping(value = "/{id}", params = "warteAufVersion")
+    public DeferredResult<ResponseEntity<Spiel>> warteAufSpiel(@PathVariable Long id,
+                                                              @RequestParam long warteAufVersion) {
+        Optional<Long> standVersion = spielService.findeStandVersion(id);
+        if (standVersion.isEmpty()) {
+            DeferredResult<ResponseEntity<Spiel>> nichtGefunden = new DeferredResult<>();
+            nichtGefunden.setResult(ResponseEntity.notFound().build());
+            return nichtGefunden;
+        }
+        return spielstandLangabfragen.warte(id, warteAufVersion, standVersion.get());
+    }
+
     // ---------------------------------------------------------------------
     // 2) Spielstart
     // ---------------------------------------------------------------------
@@ -92,6 +203,32 @@ public class SpielController {
         return spielService.punktFuerTeamB(spielId);
     }
 
+    /**
+     * Mehrere Ballwechsel auf einmal nachtragen, z.B. wenn ein Gerät am Court
+     * offline war: Body ist die Liste der Gewinner in Reihenfolge, z.B. ["A","A","B"].
+     *
+     * Endet das Spiel unterwegs, wird der Rest ignoriert
+     * (siehe angewendet / spielendeBeiIndex in der Antwort).
+     */
+    @PostMapping("/{spielId}/ballwechsel")
+    public ResponseEntity<BallwechselErgebnis> spieleBallwechsel(@PathVariable Long spielId,
+                                                                 @RequestBody List<String> gewinner) {
+        if (gewinner == null || gewinner.isEmpty() || gewinner.size() > MAX_BALLWECHSEL) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<Boolean> punkteFuerA = new ArrayList<>(gewinner.size());
+        for (String g : gewinner) {
+            if ("A".equals(g)) {
+                punkteFuerA.add(true);
+            } else if ("B".equals(g)) {
+                punkteFuerA.add(false);
+            } else {
+                return ResponseEntity.badRequest().build();
+            }
+        }
+        return ResponseEntity.ok(spielService.spieleBallwechselFolge(spielId, punkteFuerA));
+    }
+
     // ---------------------------------------------------------------------
     // 4) Pausenempfehlung
     // ---------------------------------------------------------------------
@@ -105,6 +242,78 @@ public class SpielController {
         return spielService.istPauseEmpfohlen(spielId);
     }
 
+    // ---------------------------------------------------------------------
+    // 5) Live-Stream (Server-Sent Events)
+    // ---------------------------------------------------------------------
+
+    /**
+     * Öffnet einen SSE-Stream für ein Spiel.
+     * Nach jeder Änderung (Punkt, Undo, Abbruch) kommt ein Event "spielstand"
+     * mit dem kompakten Stand inkl. Pausenempfehlung – kein Polling nötig.
+     */
+    @GetMapping(value = "/{spielId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamSpielstand(@PathVariable Long spielId) {
+        return spielService.findeAktuellenSpielstand(spielId)
+                .map(stand -> ResponseEntity.ok(spielstandStreams.abonniere(spielId, stand)))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    // ---------------------------------------------------------------------
+    // 6) Hallen-Anzeige (alle laufenden Spiele)
+    // ---------------------------------------------------------------------
+
+    /**
+     * Kompakter Stand aller laufenden Spiele – statt GET /spiele,
+     * das jedes jemals gespielte Spiel komplett liefert.
+     */
+    @GetMapping("/live")
+    public List<Spielstand> getLiveSpielstaende() {
+        return liveUebersichtStreams.liveSpielstaende();
+    }
+
+    /**
+     * SSE-Stream für Hallen-Anzeigen:
+     * - "vollstand":    alle laufenden Spiele (beim Verbinden / nach Rückstand)
+     * - "spielstaende": nur die seit dem letzten Frame geänderten Spiele
+     */
+    @GetMapping(value = "/live/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamLiveSpielstaende() {
+        return liveUebersichtStreams.abonniere();
+    }
+
+    // ---------------------------------------------------------------------
+    // 7) Punkt-für-Punkt-Verlauf
+    // ---------------------------------------------------------------------
+
+    /**
+     * Stand nach einem bestimmten Ballwechsel – nachgespielt aus dem Protokoll
+     * (Satzstände, Aufschlag, Positionen).
+     *
+     * Beispiel-URLs:
+     * /spiele/7/verlauf?nachBallwechsel=25
+     * /spiele/7/verlauf                    (nach dem letzten Ballwechsel)
+     */
+    @GetMapping("/{spielId}/verlauf")
+    public ResponseEntity<Zwischenstand> getZwischenstand(@PathVariable Long spielId,
+                                                          @RequestParam(required = false) Integer nachBallwechsel) {
+        try {
+            return ballwechselArchiv.findeZwischenstand(spielId, nachBallwechsel)
+                    .map(ResponseEntity::ok)
+                    .orElseGet(() -> ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Verdichtet die Ballwechsel-Protokolle abgeschlossener Spiele, die noch
+     * Zeile für Zeile gespeichert sind (neue Spiele werden bei Spielende verdichtet).
+     */
+    @PostMapping("/protokolle/verdichten")
+    public ProtokollVerdichtung verdichteProtokolle() {
+        return ballwechselArchiv.verdichteAlle();
+    }
+
     ///
 
     @PostMapping("/{id}/undoA")
@@ -117,6 +326,18 @@ public class SpielController {
         return spielService.undoPunktFuerTeamB(id);
     }
 
+    /**
+     * Nimmt die letzten n Ballwechsel zurück (auch über Satzgrenzen hinweg).
+     *
+     * Beispiel-URL:
+     * /spiele/7/undo?schritte=3
+     */
+    @PostMapping("/{id}/undo")
+    public Spiel undoBallwechsel(@PathVariable Long id,
+                                 @RequestParam(defaultValue = "1") int schritte) {
+        return spielService.undoBallwechsel(id, schritte);
+    }
+
     @PostMapping("/{id}/abbrechen")
     public Spiel spielAbbrechen(
             @PathVariable Long id,
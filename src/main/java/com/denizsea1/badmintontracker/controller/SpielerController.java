@@ -1,7 +1,7 @@
 package com.denizsea1.badmintontracker.controller;
 
 import com.denizsea1.badmintontracker.model.Spieler;
-import com.denizsea1.badmintontracker.repository.SpielerRepository;
+import com.denizsea1.badmintontracker.service.StammdatenService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -12,23 +12,23 @@ import java.util.Optional;
 @RequestMapping("/spieler")
 public class SpielerController {
 
-    private final SpielerRepository spielerRepository;
+    private final StammdatenService stammdatenService;
 
-    // Konstruktor-Injection: Spring "gibt" uns automatisch ein SpielerRepository
-    public SpielerController(SpielerRepository spielerRepository) {
-        this.spielerRepository = spielerRepository;
+    // Konstruktor-Injection: Spring "gibt" uns automatisch den StammdatenService
+    public SpielerController(StammdatenService stammdatenService) {
+        this.stammdatenService = stammdatenService;
     }
 
-    // 1) ALLE Spieler holen: GET /spieler
+    // 1) ALLE Spieler holen: GET /spieler (zwischengespeichert)
     @GetMapping
     public List<Spieler> getAlleSpieler() {
-        return spielerRepository.findAll();
+        return stammdatenService.alleSpieler();
     }
 
     // 2) EINEN Spieler nach ID holen: GET /spieler/{id}
     @GetMapping("/{id}")
     public ResponseEntity<Spieler> getSpielerById(@PathVariable Long id) {
-        Optional<Spieler> spielerOpt = spielerRepository.findById(id);
+        Optional<Spieler> spielerOpt = Optional.ofNullable(stammdatenService.spieler(id));
         // 200 OK + Spieler im Body
         // 404 Not Found
         return spielerOpt.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
@@ -38,14 +38,13 @@ public class SpielerController {
     @PostMapping
     public Spieler createSpieler(@RequestBody Spieler spieler) {
         // spieler.id ist null → wird von der DB automatisch vergeben
-        return spielerRepository.save(spieler);
+        return stammdatenService.speichereSpieler(spieler);
     }
 
     // 4) Spieler löschen: DELETE /spieler/{id}
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteSpieler(@PathVariable Long id) {
-        if (spielerRepository.existsById(id)) {
-            spielerRepository.deleteById(id);
+        if (stammdatenService.loescheSpieler(id)) {
             return ResponseEntity.noContent().build();     // 204 No Content
         } else {
             return ResponseEntity.notFound().build();      // 404 Not Found
@@ -0,0 +1,106 @@
+package com.denizsea1.badmintontracker.controller;
+
+import com.denizsea1.badmintontracker.dto.Direktvergleich;
+import com.denizsea1.badmintontracker.dto.HistorienZeile;
+import com.denizsea1.badmintontracker.dto.SpielCursor;
+import com.denizsea1.badmintontracker.dto.SpielSeite;
+import com.denizsea1.badmintontracker.dto.StatistikNeuaufbau;
+import com.denizsea1.badmintontracker.dto.TeilnahmeNeuaufbau;
+import com.denizsea1.badmintontracker.model.SpielerStatistik;
+import com.denizsea1.badmintontracker.model.TeamStatistik;
+import com.denizsea1.badmintontracker.service.KarriereService;
+import com.denizsea1.badmintontracker.service.SpielService;
+import com.denizsea1.badmintontracker.service.StatistikService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Spieler- und Team-Statistik (Siegquote, Sätze, Punkte, Anzahl Spiele).
+ *
+ * Beispiel-URLs:
+ * - /statistik/spieler?name=Max Mueller
+ * - /statistik/team?spieler=Max Mueller&spieler=Lara Schulz
+ * - /statistik/karriere?name=Max Mueller
+ * - /statistik/direktvergleich?team1=Max Mueller&team1=Lara Schulz&team2=Paul Meier&team2=Anna Schmidt
+ */
+@RestController
+@RequestMapping("/statistik")
+public class StatistikController {
+
+    private final StatistikService statistikService;
+    private final KarriereService karriereService;
+
+    public StatistikController(StatistikService statistikService,
+                               KarriereService karriereService) {
+        this.statistikService = statistikService;
+        this.karriereService = karriereService;
+    }
+
+    @GetMapping("/spieler")
+    public ResponseEntity<SpielerStatistik> spieler(@RequestParam String name) {
+        return statistikService.findeSpieler(name)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/team")
+    public ResponseEntity<TeamStatistik> team(@RequestParam List<String> spieler) {
+        return statistikService.findeTeam(spieler)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Baut beide Statistik-Tabellen aus allen abgeschlossenen Spielen neu auf (Backfill).
+     */
+    @PostMapping("/neuaufbau")
+    public StatistikNeuaufbau neuaufbau() {
+        return statistikService.bauNeuAuf();
+    }
+
+    /**
+     * Alle Spiele einer Spielerin / eines Spielers, neueste zuerst
+     * (Cursor wie bei /spiele/historie).
+     */
+    @GetMapping("/karriere")
+    public ResponseEntity<SpielSeite<HistorienZeile>> karriere(
+            @RequestParam String name,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate nachDatum,
+            @RequestParam(required = false) Long nachId,
+            @RequestParam(defaultValue = "" + SpielService.SEITE_STANDARD) int limit) {
+        if ((nachDatum == null) != (nachId == null)) {
+            return ResponseEntity.badRequest().build();
+        }
+        SpielCursor nach = nachDatum != null ? new SpielCursor(nachDatum, nachId) : null;
+        return ResponseEntity.ok(karriereService.findeKarriere(name, nach, limit));
+    }
+
+    /**
+     * Bilanz und Spiele zweier Paarungen gegeneinander, aus Sicht von team1.
+     */
+    @GetMapping("/direktvergleich")
+    public ResponseEntity<Direktvergleich> direktvergleich(
+            @RequestParam List<String> team1,
+            @RequestParam List<String> team2,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate nachDatum,
+            @RequestParam(required = false) Long nachId,
+            @RequestParam(defaultValue = "" + SpielService.SEITE_STANDARD) int limit) {
+        if ((nachDatum == null) != (nachId == null) || team1.isEmpty() || team2.isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        SpielCursor nach = nachDatum != null ? new SpielCursor(nachDatum, nachId) : null;
+        return ResponseEntity.ok(karriereService.findeDirektvergleich(team1, team2, nach, limit));
+    }
+
+    /**
+     * Trägt Spiele, die vor dem Spieler-Index gestartet wurden, in spiel_teilnahme nach.
+     */
+    @PostMapping("/teilnahmen/neuaufbau")
+    public TeilnahmeNeuaufbau teilnahmenNeuaufbau() {
+        return karriereService.bauNeuAuf();
+    }
+}
@@ -2,7 +2,7 @@ package com.denizsea1.badmintontracker.controller;
 
 import com.denizsea1.badmintontracker.model.Team;
 import com.denizsea1.badmintontracker.model.Spieler;
-import com.denizsea1.badmintontracker.repository.TeamRepository;
+import com.denizsea1.badmintontracker.service.StammdatenService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -13,22 +13,22 @@ import java.util.Optional;
 @RequestMapping("/teams")
 public class TeamController {
 
-    private final TeamRepository teamRepository;
+    private final StammdatenService stammdatenService;
 
-    public TeamController(TeamRepository teamRepository) {
-        this.teamRepository = teamRepository;
+    public TeamController(StammdatenService stammdatenService) {
+        this.stammdatenService = stammdatenService;
     }
 
-    // 1) Alle Teams holen: GET /teams
+    // 1) Alle Teams holen: GET /teams (zwischengespeichert)
     @GetMapping
     public List<Team> getAlleTeams() {
-        return teamRepository.findAll();
+        return stammdatenService.alleTeams();
     }
 
     // 2) Ein Team nach ID holen: GET /teams/{id}
     @GetMapping("/{id}")
     public ResponseEntity<Team> getTeamById(@PathVariable Long id) {
-        Optional<Team> teamOpt = teamRepository.findById(id);
+        Optional<Team> teamOpt = Optional.ofNullable(stammdatenService.team(id));
         return teamOpt.map(ResponseEntity::ok)
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
@@ -48,14 +48,13 @@ public class TeamController {
         // Startpositionen im Team vergeben (RECHTS/LINKS)
         team.initialisierePositionen();
 
-        return teamRepository.save(team);
+        return stammdatenService.speichereTeam(team);
     }
 
     // 4) Team löschen: DELETE /teams/{id}
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteTeam(@PathVariable Long id) {
-        if (teamRepository.existsById(id)) {
-            teamRepository.deleteById(id);
+        if (stammdatenService.loescheTeam(id)) {
             return ResponseEntity.noContent().build();
         } else {
             return ResponseEntity.notFound().build();
@@ -0,0 +1,61 @@
+package com.denizsea1.badmintontracker.controller;
+
+import com.denizsea1.badmintontracker.dto.WertungNeuberechnung;
+import com.denizsea1.badmintontracker.model.SpielerWertung;
+import com.denizsea1.badmintontracker.service.EloRechner;
+import com.denizsea1.badmintontracker.service.WertungService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Elo-Rangliste der Spieler:innen.
+ *
+ * Beispiel-URLs:
+ * - /wertung?limit=20
+ * - /wertung/spieler?name=Max Mueller
+ * - POST /wertung/neuberechnung?kFaktor=24   (übrige Parameter bleiben)
+ */
+@RestController
+@RequestMapping("/wertung")
+public class WertungController {
+
+    private final WertungService wertungService;
+
+    public WertungController(WertungService wertungService) {
+        this.wertungService = wertungService;
+    }
+
+    @GetMapping
+    public List<SpielerWertung> rangliste(
+            @RequestParam(defaultValue = "" + WertungService.RANGLISTE_STANDARD) int limit) {
+        return wertungService.findeRangliste(limit);
+    }
+
+    @GetMapping("/spieler")
+    public ResponseEntity<SpielerWertung> spieler(@RequestParam String name) {
+        return wertungService.findeSpieler(name)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Wertet alle abgeschlossenen Spiele neu. Nicht angegebene Parameter
+     * bleiben wie bisher; angegebene gelten danach auch für neue Spiele.
+     */
+    @PostMapping("/neuberechnung")
+    public ResponseEntity<WertungNeuberechnung> neuberechnung(
+            @RequestParam(required = false) Double kFaktor,
+            @RequestParam(required = false) Double startWert,
+            @RequestParam(required = false) Double abbruchFaktor) {
+        EloRechner bisher = wertungService.getRechner();
+        double k = kFaktor != null ? kFaktor : bisher.kFaktor();
+        double abbruch = abbruchFaktor != null ? abbruchFaktor : bisher.abbruchFaktor();
+        if (k <= 0 || abbruch < 0 || abbruch > 1) {
+            return ResponseEntity.badRequest().build();
+        }
+        EloRechner neu = new EloRechner(k, startWert != null ? startWert : bisher.startWert(), abbruch);
+        return ResponseEntity.ok(wertungService.berechneNeu(neu));
+    }
+}
@@ -0,0 +1,14 @@
+package com.denizsea1.badmintontracker.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Ergebnis eines Archivlaufs (POST /archiv/verschieben oder zeitgesteuert).
+ *
+ * @param vor     archiviert wurden abgeschlossene Spiele mit Datum vor diesem Tag
+ * @param spiele  verschobene Spiele
+ * @param bytes   an die Archivdatei angehängte Bytes
+ * @param dauerMs Dauer des Laufs
+ */
+public record ArchivLauf(LocalDate vor, int spiele, long bytes, long dauerMs) {
+}
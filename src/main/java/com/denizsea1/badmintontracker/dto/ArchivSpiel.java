@@ -0,0 +1,37 @@
+package com.denizsea1.badmintontracker.dto;
+
+import com.denizsea1.badmintontracker.model.Seite;
+
+import java.util.List;
+
+/**
+ * Ein Spiel im Archiv (eine Zeile der Archivdatei, siehe SpielArchiv).
+ *
+ * @param spiel       Zeile wie in GET /spiele/historie
+ * @param ballwechsel Punktfolge (BallwechselFolge, in JSON Base64) oder null
+ * @param start       Startzustand für die Punktfolge oder null
+ *                    (ohne verdichtetes Protokoll bzw. vor Einführung archiviert)
+ */
+public record ArchivSpiel(HistorienZeile spiel, byte[] ballwechsel, Start start) {
+
+    /**
+     * Start-Snapshot des Protokolls (wie spiel_snapshot) plus die Spieler-IDs
+     * je Team – genug, um jeden Zwischenstand ohne Datenbank nachzuspielen.
+     *
+     * @param sequenz        Sequenz des Snapshots, nach der die Punktfolge beginnt
+     * @param satzstaende    z.B. "21:15;3:2"
+     * @param aufschlagTeamA true, falls Team A aufschlägt
+     * @param aufschlagSeite Aufschlagseite
+     * @param positionen     z.B. "12=RECHTS,13=LINKS" (Spieler-ID = Position)
+     * @param spielerTeamA   Spieler-IDs von Team A (Teams[0])
+     * @param spielerTeamB   Spieler-IDs von Team B (Teams[1])
+     */
+    public record Start(int sequenz,
+                        String satzstaende,
+                        boolean aufschlagTeamA,
+                        Seite aufschlagSeite,
+                        String positionen,
+                        List<Long> spielerTeamA,
+                        List<Long> spielerTeamB) {
+    }
+}
@@ -0,0 +1,16 @@
+package com.denizsea1.badmintontracker.dto;
+
+import com.denizsea1.badmintontracker.model.Spiel;
+
+/**
+ * Ergebnis von POST /spiele/{id}/ballwechsel (mehrere Ballwechsel auf einmal).
+ *
+ * @param spiel              Stand nach dem letzten angewendeten Ballwechsel
+ * @param angewendet         Anzahl der tatsächlich gespielten Ballwechsel
+ * @param spielendeBeiIndex  Index (0-basiert) des Ballwechsels, mit dem das Spiel endete,
+ *                           sonst null; alles danach wurde ignoriert
+ */
+public record BallwechselErgebnis(Spiel spiel,
+                                  int angewendet,
+                                  Integer spielendeBeiIndex) {
+}
@@ -0,0 +1,19 @@
+package com.denizsea1.badmintontracker.dto;
+
+/**
+ * Ergebnis von GET /statistik/direktvergleich – alles aus Sicht von Team 1.
+ *
+ * @param team1      Namen von Team 1, z.B. "Lara Schulz / Max Mueller"
+ * @param team2      Namen von Team 2
+ * @param spiele     alle Spiele der beiden Teams gegeneinander (auch laufende)
+ * @param siegeTeam1 von Team 1 gewonnen
+ * @param siegeTeam2 von Team 2 gewonnen
+ * @param seite      die Spiele selbst, neueste zuerst (Keyset wie /spiele/historie)
+ */
+public record Direktvergleich(String team1,
+                              String team2,
+                              long spiele,
+                              long siegeTeam1,
+                              long siegeTeam2,
+                              SpielSeite<HistorienZeile> seite) {
+}
@@ -0,0 +1,35 @@
+package com.denizsea1.badmintontracker.dto;
+
+import com.denizsea1.badmintontracker.model.SpielStatus;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Eine Zeile der Spiel-Historie (history.html) – nur, was die Tabelle anzeigt.
+ *
+ * Wird direkt per Abfrage befüllt, ohne Spiel/Team/Spieler-Entities zu laden.
+ *
+ * @param id             ID des Spiels
+ * @param datum          Spieldatum
+ * @param status         LAUFEND / BEENDET / ABGEBROCHEN
+ * @param teamA          Team A (Teams[0])
+ * @param teamB          Team B (Teams[1])
+ * @param saetze         Satzstände, nach Nummer sortiert
+ * @param gewinnerTeamId ID des Gewinnerteams oder null
+ */
+public record HistorienZeile(Long id,
+                             LocalDate datum,
+                             SpielStatus status,
+                             TeamZeile teamA,
+                             TeamZeile teamB,
+                             List<Spielstand.SatzStand> saetze,
+                             Long gewinnerTeamId) {
+
+    /**
+     * @param id      ID des Teams
+     * @param spieler "Vorname Nachname" je Spieler:in
+     */
+    public record TeamZeile(Long id, List<String> spieler) {
+    }
+}
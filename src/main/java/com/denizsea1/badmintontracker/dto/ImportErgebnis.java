@@ -0,0 +1,23 @@
+package com.denizsea1.badmintontracker.dto;
+
+import java.util.List;
+
+/**
+ * Ergebnis von POST /import/spiele.
+ *
+ * @param zeilen            gelesene (nicht leere) Zeilen
+ * @param spiele            gespeicherte Spiele
+ * @param saetze            gespeicherte Sätze
+ * @param uebersprungen     fehlerhafte Zeilen (nicht gespeichert)
+ * @param fehler            Meldungen zu den ersten fehlerhaften Zeilen ("Zeile n: ...")
+ * @param dauerMs           Dauer des Imports (ohne Neuaufbau der Statistiken)
+ * @param spieleProSekunde  Durchsatz
+ */
+public record ImportErgebnis(long zeilen,
+                             long spiele,
+                             long saetze,
+                             long uebersprungen,
+                             List<String> fehler,
+                             long dauerMs,
+                             double spieleProSekunde) {
+}
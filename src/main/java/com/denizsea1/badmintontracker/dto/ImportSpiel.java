@@ -0,0 +1,31 @@
+package com.denizsea1.badmintontracker.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Eine Zeile der Import-Datei für POST /import/spiele (NDJSON: ein Spiel pro Zeile), z.B.
+ *
+ * {"datum":"2023-10-07",
+ *  "teamA":[{"vorname":"Max","nachname":"Mueller"},{"vorname":"Lara","nachname":"Schulz"}],
+ *  "teamB":[{"vorname":"Paul","nachname":"Meier"},{"vorname":"Anna","nachname":"Schmidt"}],
+ *  "saetze":[[21,17],[19,21],[21,15]]}
+ *
+ * (im Beispiel umgebrochen, in der Datei steht jedes Spiel in einer Zeile)
+ *
+ * @param datum    Spieltag
+ * @param teamA    zwei Spieler:innen von Team A
+ * @param teamB    zwei Spieler:innen von Team B
+ * @param saetze   Satzstände [Team A, Team B], in Reihenfolge
+ * @param gewinner nur für abgebrochene Spiele (ohne zwei Gewinnsätze):
+ *                 "A" oder "B" – das Team, das nicht aufgegeben hat
+ */
+public record ImportSpiel(LocalDate datum,
+                          List<Person> teamA,
+                          List<Person> teamB,
+                          List<int[]> saetze,
+                          String gewinner) {
+
+    public record Person(String vorname, String nachname) {
+    }
+}
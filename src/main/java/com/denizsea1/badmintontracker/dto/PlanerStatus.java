@@ -0,0 +1,40 @@
+package com.denizsea1.badmintontracker.dto;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Antwort von GET /planer: Belegung der Felder und wartende Ansetzungen
+ * in der Reihenfolge, in der sie drankommen (sofern alle Spieler:innen frei sind).
+ *
+ * @param felder  alle Felder, nach Nummer
+ * @param wartend noch nicht gestartete Ansetzungen
+ */
+public record PlanerStatus(List<FeldBelegung> felder, List<Ansetzung> wartend) {
+
+    /**
+     * @param nummer Feldnummer (ab 1)
+     * @param spielId laufendes Spiel auf dem Feld oder null, wenn frei
+     */
+    public record FeldBelegung(int nummer, Long spielId) {
+    }
+
+    /**
+     * Eine angesetzte Paarung.
+     *
+     * @param id         Nummer der Ansetzung (in Reihenfolge des Eintragens)
+     * @param teamAId    Team A (hat den ersten Aufschlag)
+     * @param teamBId    Team B
+     * @param prioritaet höhere Werte kommen zuerst dran, bei Gleichstand die ältere
+     * @param spielerIds alle vier Spieler:innen – müssen frei sein
+     * @param eingereiht Zeitpunkt des Eintragens
+     */
+    public record Ansetzung(long id,
+                            Long teamAId,
+                            Long teamBId,
+                            int prioritaet,
+                            Set<Long> spielerIds,
+                            Instant eingereiht) {
+    }
+}
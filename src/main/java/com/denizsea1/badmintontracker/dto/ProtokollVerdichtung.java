@@ -0,0 +1,11 @@
+package com.denizsea1.badmintontracker.dto;
+
+/**
+ * Ergebnis von POST /spiele/protokolle/verdichten.
+ *
+ * @param spiele      verdichtete Spiele
+ * @param ballwechsel entfernte Ballwechsel-Zeilen
+ * @param dauerMs     Dauer der Verdichtung
+ */
+public record ProtokollVerdichtung(int spiele, int ballwechsel, long dauerMs) {
+}
@@ -0,0 +1,14 @@
+package com.denizsea1.badmintontracker.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Position in der Spielliste (Keyset-Pagination).
+ *
+ * Die Liste ist absteigend nach (datum, id) sortiert – die nächste Seite
+ * beginnt direkt NACH dem Spiel mit diesem Datum und dieser ID.
+ * Anders als ein Offset bleibt das auch bei tausenden Spielen gleich schnell
+ * und verrutscht nicht, wenn währenddessen neue Spiele dazukommen.
+ */
+public record SpielCursor(LocalDate datum, Long id) {
+}
@@ -0,0 +1,24 @@
+package com.denizsea1.badmintontracker.dto;
+
+import com.denizsea1.badmintontracker.model.SpielStatus;
+
+import java.time.LocalDate;
+
+/**
+ * Filter für die Spielliste (GET /spiele). Nicht gesetzte Felder (null) filtern nicht.
+ *
+ * @param status  nur Spiele mit diesem Status
+ * @param von     Datum ab (inklusive)
+ * @param bis     Datum bis (inklusive)
+ * @param spieler Teil eines Spielernamens (Vorname, Nachname oder "Vorname Nachname"),
+ *                Groß-/Kleinschreibung egal
+ */
+public record SpielFilter(SpielStatus status,
+                          LocalDate von,
+                          LocalDate bis,
+                          String spieler) {
+
+    public boolean hatSpieler() {
+        return spieler != null && !spieler.isBlank();
+    }
+}
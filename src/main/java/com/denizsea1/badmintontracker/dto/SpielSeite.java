@@ -0,0 +1,13 @@
+package com.denizsea1.badmintontracker.dto;
+
+import java.util.List;
+
+/**
+ * Eine Seite der Spielliste.
+ *
+ * @param eintraege höchstens "limit" Einträge, neueste zuerst
+ * @param naechste  Cursor für die nächste Seite (als nachDatum/nachId mitschicken),
+ *                  null, wenn es keine weiteren Einträge gibt
+ */
+public record SpielSeite<T>(List<T> eintraege, SpielCursor naechste) {
+}
@@ -0,0 +1,41 @@
+package com.denizsea1.badmintontracker.dto;
+
+import com.denizsea1.badmintontracker.model.Seite;
+import com.denizsea1.badmintontracker.model.SpielStatus;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Kompakter Spielstand für Live-Anzeigen (SSE-Stream).
+ *
+ * Enthält nur, was sich während eines Spiels ändert – Namen der Spieler
+ * holt sich die Anzeige einmalig über GET /spiele/{id}.
+ *
+ * @param spielId        ID des Spiels
+ * @param status         LAUFEND / BEENDET / ABGEBROCHEN
+ * @param teamAId        ID von Team A (Teams[0])
+ * @param teamBId        ID von Team B (Teams[1])
+ * @param saetze         Satzstände, nach Nummer sortiert
+ * @param aufschlagTeamA true -> Team A schlägt auf, false -> Team B, null -> unbekannt
+ * @param aufschlagSeite aktuelle Aufschlagseite
+ * @param positionen     Spieler-ID -> Position im Team
+ * @param gewinnerTeamA  true/false, sobald ein Gewinner feststeht, sonst null
+ * @param pauseEmpfohlen true ab 11 Punkten eines Teams im aktuellen Satz
+ * @param standVersion   steigt mit jeder Änderung (wie Spiel.standVersion)
+ */
+public record Spielstand(Long spielId,
+                         SpielStatus status,
+                         Long teamAId,
+                         Long teamBId,
+                         List<SatzStand> saetze,
+                         Boolean aufschlagTeamA,
+                         Seite aufschlagSeite,
+                         Map<Long, Seite> positionen,
+                         Boolean gewinnerTeamA,
+                         boolean pauseEmpfohlen,
+                         long standVersion) {
+
+    public record SatzStand(int nummer, int punkteTeamA, int punkteTeamB) {
+    }
+}
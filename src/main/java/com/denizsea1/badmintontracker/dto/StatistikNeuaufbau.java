@@ -0,0 +1,12 @@
+package com.denizsea1.badmintontracker.dto;
+
+/**
+ * Ergebnis von POST /statistik/neuaufbau.
+ *
+ * @param spiele  ausgewertete (beendete + abgebrochene) Spiele
+ * @param spieler Zeilen in spieler_statistik
+ * @param teams   Zeilen in team_statistik
+ * @param dauerMs Dauer des Neuaufbaus
+ */
+public record StatistikNeuaufbau(int spiele, int spieler, int teams, long dauerMs) {
+}
@@ -0,0 +1,11 @@
+package com.denizsea1.badmintontracker.dto;
+
+/**
+ * Ergebnis von POST /statistik/teilnahmen/neuaufbau.
+ *
+ * @param spiele    nachgetragene Spiele
+ * @param eintraege neue Zeilen in spiel_teilnahme
+ * @param dauerMs   Dauer des Nachtragens
+ */
+public record TeilnahmeNeuaufbau(int spiele, int eintraege, long dauerMs) {
+}
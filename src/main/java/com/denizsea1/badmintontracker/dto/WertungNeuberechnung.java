@@ -0,0 +1,19 @@
+package com.denizsea1.badmintontracker.dto;
+
+/**
+ * Ergebnis von POST /wertung/neuberechnung.
+ *
+ * @param spiele        gewertete Spiele (beendet/abgebrochen mit Gewinner)
+ * @param spieler       Zeilen in spieler_wertung
+ * @param kFaktor       verwendeter K-Faktor (gilt ab jetzt auch für neue Spiele)
+ * @param startWert     verwendete Startwertung
+ * @param abbruchFaktor verwendeter Faktor für abgebrochene Spiele
+ * @param dauerMs       Dauer der Neuberechnung
+ */
+public record WertungNeuberechnung(int spiele,
+                                   int spieler,
+                                   double kFaktor,
+                                   double startWert,
+                                   double abbruchFaktor,
+                                   long dauerMs) {
+}
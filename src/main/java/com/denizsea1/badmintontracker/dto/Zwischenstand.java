@@ -0,0 +1,12 @@
+package com.denizsea1.badmintontracker.dto;
+
+/**
+ * Ergebnis von GET /spiele/{id}/verlauf: der Stand nach einem bestimmten Ballwechsel.
+ *
+ * @param ballwechsel       Nummer des Ballwechsels, nach dem der Stand gilt (0 = Spielstart);
+ *                          gezählt werden nur wirksame, per Undo zurückgenommene nicht
+ * @param anzahlBallwechsel Nummer des letzten wirksamen Ballwechsels
+ * @param stand             nachgespielter Stand (Satzstände, Aufschlag, Positionen)
+ */
+public record Zwischenstand(int ballwechsel, int anzahlBallwechsel, Spielstand stand) {
+}
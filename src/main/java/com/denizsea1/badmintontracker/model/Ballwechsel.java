@@ -0,0 +1,164 @@
+package com.denizsea1.badmintontracker.model;
+
+import com.denizsea1.badmintontracker.repository.IdSequenzen;
+import jakarta.persistence.*;
+
+/**
+ * Ein einzelner Ballwechsel (Rally) eines Spiels – unveränderlicher Protokolleintrag.
+ *
+ * Pro Punkt wird genau ein Eintrag angehängt (append-only):
+ * - wer den Punkt gemacht hat
+ * - Aufschlagteam/-seite vor und nach dem Punkt
+ *
+ * Ein Undo wird ebenfalls angehängt, als Schnitt (zurueckAuf gesetzt): alle
+ * Einträge mit zurueckAuf < Sequenz < Sequenz des Schnitts gelten nicht mehr,
+ * bleiben aber im Protokoll. Zeilen werden nie geändert oder einzeln gelöscht.
+ *
+ * Aus Snapshot + wirksamen Ballwechseln lässt sich jeder Zwischenstand
+ * rekonstruieren (Undo über mehrere Schritte und über Satzgrenzen hinweg).
+ *
+ * Nach Spielende werden die Zeilen eines Spiels zu einem SpielProtokoll
+ * verdichtet und gelöscht (BallwechselArchiv).
+ */
+@Entity
+@Table(
+        name = "ballwechsel",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"spiel_id", "sequenz"})
+)
+public class Ballwechsel {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ballwechsel_seq")
+    @SequenceGenerator(name = "ballwechsel_seq", sequenceName = "ballwechsel_seq", allocationSize = IdSequenzen.SCHRITT)
+    private Long id;
+
+    /**
+     * ID des Spiels (bewusst ohne @ManyToOne, damit das Anhängen
+     * nur ein kleines INSERT ist und nichts nachgeladen wird).
+     */
+    @Column(name = "spiel_id", nullable = false)
+    private Long spielId;
+
+    /**
+     * Fortlaufende Nummer innerhalb des Spiels, beginnend bei 1 (Punkte und Schnitte).
+     */
+    @Column(nullable = false)
+    private int sequenz;
+
+    /**
+     * In welchem Satz der Ballwechsel gespielt wurde.
+     */
+    private int satzNummer;
+
+    /**
+     * true -> Punkt für Team A (Teams[0]), false -> Team B (Teams[1]).
+     */
+    private boolean punktFuerA;
+
+    private boolean aufschlagTeamAVorher;
+
+    @Enumerated(EnumType.STRING)
+    private Seite aufschlagSeiteVorher;
+
+    private boolean aufschlagTeamANachher;
+
+    @Enumerated(EnumType.STRING)
+    private Seite aufschlagSeiteNachher;
+
+    /**
+     * Nur bei einem Schnitt (Undo): Sequenz, auf die zurückgenommen wurde.
+     * Die Punkt-Felder sind dann ohne Bedeutung.
+     */
+    @Column(name = "zurueck_auf")
+    private Integer zurueckAuf;
+
+    public Ballwechsel() {
+    }
+
+    public Ballwechsel(Long spielId,
+                       int sequenz,
+                       int satzNummer,
+                       boolean punktFuerA,
+                       boolean aufschlagTeamAVorher,
+                       Seite aufschlagSeiteVorher,
+                       boolean aufschlagTeamANachher,
+                       Seite aufschlagSeiteNachher) {
+        this.spielId = spielId;
+        this.sequenz = sequenz;
+        this.satzNummer = satzNummer;
+        this.punktFuerA = punktFuerA;
+        this.aufschlagTeamAVorher = aufschlagTeamAVorher;
+        this.aufschlagSeiteVorher = aufschlagSeiteVorher;
+        this.aufschlagTeamANachher = aufschlagTeamANachher;
+        this.aufschlagSeiteNachher = aufschlagSeiteNachher;
+    }
+
+    /**
+     * Schnitt (Undo): nimmt alles nach 'zurueckAuf' bis zu dieser Sequenz zurück.
+     */
+    public static Ballwechsel schnitt(Long spielId, int sequenz, int zurueckAuf) {
+        Ballwechsel schnitt = new Ballwechsel();
+        schnitt.spielId = spielId;
+        schnitt.sequenz = sequenz;
+        schnitt.zurueckAuf = zurueckAuf;
+        return schnitt;
+    }
+
+    /**
+     * Neue, noch nicht gespeicherte Kopie (ohne ID) – zum Persistieren,
+     * damit der In-Memory-Eintrag selbst nie eine ID bekommt.
+     */
+    public Ballwechsel kopie() {
+        Ballwechsel kopie = new Ballwechsel(spielId, sequenz, satzNummer, punktFuerA,
+                aufschlagTeamAVorher, aufschlagSeiteVorher,
+                aufschlagTeamANachher, aufschlagSeiteNachher);
+        kopie.zurueckAuf = zurueckAuf;
+        return kopie;
+    }
+
+    public boolean istSchnitt() {
+        return zurueckAuf != null;
+    }
+
+    // ---- Getter ----
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getSpielId() {
+        return spielId;
+    }
+
+    public int getSequenz() {
+        return sequenz;
+    }
+
+    public int getSatzNummer() {
+        return satzNummer;
+    }
+
+    public boolean isPunktFuerA() {
+        return punktFuerA;
+    }
+
+    public boolean isAufschlagTeamAVorher() {
+        return aufschlagTeamAVorher;
+    }
+
+    public Seite getAufschlagSeiteVorher() {
+        return aufschlagSeiteVorher;
+    }
+
+    public boolean isAufschlagTeamANachher() {
+        return aufschlagTeamANachher;
+    }
+
+    public Seite getAufschlagSeiteNachher() {
+        return aufschlagSeiteNachher;
+    }
+
+    public Integer getZurueckAuf() {
+        return zurueckAuf;
+    }
+}
@@ -0,0 +1,134 @@
+package com.denizsea1.badmintontracker.model;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Punktfolge eines Spiels in kompakter Form: ein Bit pro Ballwechsel
+ * (1 = Punkt für Team A) plus die Anzahl Ballwechsel je Satz als Satzgrenzen.
+ *
+ * Kodiert (Format 1):
+ * - 1 Byte  Formatversion
+ * - 1 Byte  Anzahl Sätze k (0..3)
+ * - k Zahlen Ballwechsel pro Satz, je als Varint (7 Bit pro Byte)
+ * - die Bits aller Ballwechsel in Reihenfolge, niederwertigstes Bit zuerst
+ *
+ * Ein Spiel über drei Sätze (höchstens 3 x 59 Ballwechsel) braucht damit
+ * weniger als 30 Byte statt einer Tabellenzeile pro Ballwechsel.
+ * Aufschlag und Positionen stehen bewusst nicht drin – sie ergeben sich beim
+ * Nachspielen aus den Regeln (siehe SpielService).
+ */
+public final class BallwechselFolge {
+
+    public static final int FORMAT = 1;
+
+    private final byte[] bits;
+    private final int anzahl;
+    private final List<Integer> ballwechselProSatz;
+
+    private BallwechselFolge(byte[] bits, int anzahl, List<Integer> ballwechselProSatz) {
+        this.bits = bits;
+        this.anzahl = anzahl;
+        this.ballwechselProSatz = Collections.unmodifiableList(ballwechselProSatz);
+    }
+
+    /**
+     * Folge aus dem Ballwechsel-Protokoll (nach Sequenz sortiert).
+     * Satzgrenzen ergeben sich aus dem Wechsel der Satznummer.
+     */
+    public static BallwechselFolge aus(List<Ballwechsel> ballwechsel) {
+        byte[] bits = new byte[(ballwechsel.size() + 7) / 8];
+        List<Integer> proSatz = new ArrayList<>();
+        int satzNummer = Integer.MIN_VALUE;
+        for (int i = 0; i < ballwechsel.size(); i++) {
+            Ballwechsel b = ballwechsel.get(i);
+            if (b.getSatzNummer() != satzNummer) {
+                satzNummer = b.getSatzNummer();
+                proSatz.add(0);
+            }
+            proSatz.set(proSatz.size() - 1, proSatz.getLast() + 1);
+            if (b.isPunktFuerA()) {
+                bits[i >> 3] |= (byte) (1 << (i & 7));
+            }
+        }
+        return new BallwechselFolge(bits, ballwechsel.size(), proSatz);
+    }
+
+    // ---- Kodieren / Dekodieren ----
+
+    public byte[] kodiere() {
+        ByteArrayOutputStream aus = new ByteArrayOutputStream(2 + 2 * ballwechselProSatz.size() + bits.length);
+        aus.write(FORMAT);
+        aus.write(ballwechselProSatz.size());
+        for (int n : ballwechselProSatz) {
+            while (n >= 0x80) {
+                aus.write((n & 0x7F) | 0x80);
+                n >>>= 7;
+            }
+            aus.write(n);
+        }
+        aus.writeBytes(bits);
+        return aus.toByteArray();
+    }
+
+    /**
+     * @throws IllegalArgumentException bei unbekanntem Format oder abgeschnittenen Daten
+     */
+    public static BallwechselFolge dekodiere(byte[] daten) {
+        if (daten == null || daten.length < 2) {
+            throw new IllegalArgumentException("Ballwechsel-Folge zu kurz");
+        }
+        if (daten[0] != FORMAT) {
+            throw new IllegalArgumentException("Unbekanntes Format der Ballwechsel-Folge: " + daten[0]);
+        }
+        int saetze = daten[1] & 0xFF;
+        int pos = 2;
+        int anzahl = 0;
+        List<Integer> proSatz = new ArrayList<>(saetze);
+        for (int s = 0; s < saetze; s++) {
+            int n = 0;
+            int verschiebung = 0;
+            int b;
+            do {
+                if (pos >= daten.length || verschiebung > 28) {
+                    throw new IllegalArgumentException("Satzgrenzen der Ballwechsel-Folge unvollständig");
+                }
+                b = daten[pos++] & 0xFF;
+                n |= (b & 0x7F) << verschiebung;
+                verschiebung += 7;
+            } while ((b & 0x80) != 0);
+            proSatz.add(n);
+            anzahl += n;
+        }
+        int laenge = (anzahl + 7) / 8;
+        if (daten.length - pos != laenge) {
+            throw new IllegalArgumentException("Ballwechsel-Folge: " + laenge + " Byte erwartet, "
+                    + (daten.length - pos) + " vorhanden");
+        }
+        byte[] bits = new byte[laenge];
+        System.arraycopy(daten, pos, bits, 0, laenge);
+        return new BallwechselFolge(bits, anzahl, proSatz);
+    }
+
+    // ---- Lesen ----
+
+    public int anzahl() {
+        return anzahl;
+    }
+
+    /**
+     * @param index 0-basiert (Ballwechsel mit Sequenz index + 1)
+     */
+    public boolean punktFuerA(int index) {
+        if (index < 0 || index >= anzahl) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return (bits[index >> 3] & (1 << (index & 7))) != 0;
+    }
+
+    public List<Integer> ballwechselProSatz() {
+        return ballwechselProSatz;
+    }
+}
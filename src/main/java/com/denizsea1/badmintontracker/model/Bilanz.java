@@ -0,0 +1,98 @@
+package com.denizsea1.badmintontracker.model;
+
+import jakarta.persistence.Embeddable;
+
+/**
+ * Zähler einer Statistik (für Spieler:innen wie für Teams gleich).
+ *
+ * Abgebrochene Spiele zählen als gespielt und für die Gewinnerseite als Sieg;
+ * ihr letzter, nicht beendeter Satz zählt nur bei den Punkten mit.
+ */
+@Embeddable
+public class Bilanz {
+
+    private int spiele;
+    private int siege;
+    private int niederlagen;
+    private int abgebrocheneSpiele;
+    private int saetzeGewonnen;
+    private int saetzeVerloren;
+    private int punkteFuer;
+    private int punkteGegen;
+
+    public Bilanz() {
+    }
+
+    /**
+     * Bilanz eines einzelnen Spiels aus Sicht einer Seite.
+     */
+    public static Bilanz einSpiel(boolean gewonnen, boolean verloren, boolean abgebrochen,
+                                  int saetzeGewonnen, int saetzeVerloren,
+                                  int punkteFuer, int punkteGegen) {
+        Bilanz b = new Bilanz();
+        b.spiele = 1;
+        b.siege = gewonnen ? 1 : 0;
+        b.niederlagen = verloren ? 1 : 0;
+        b.abgebrocheneSpiele = abgebrochen ? 1 : 0;
+        b.saetzeGewonnen = saetzeGewonnen;
+        b.saetzeVerloren = saetzeVerloren;
+        b.punkteFuer = punkteFuer;
+        b.punkteGegen = punkteGegen;
+        return b;
+    }
+
+    /**
+     * Zählt eine andere Bilanz hinzu.
+     */
+    public void addiere(Bilanz andere) {
+        spiele += andere.spiele;
+        siege += andere.siege;
+        niederlagen += andere.niederlagen;
+        abgebrocheneSpiele += andere.abgebrocheneSpiele;
+        saetzeGewonnen += andere.saetzeGewonnen;
+        saetzeVerloren += andere.saetzeVerloren;
+        punkteFuer += andere.punkteFuer;
+        punkteGegen += andere.punkteGegen;
+    }
+
+    /**
+     * Anteil gewonnener Spiele (0.0 – 1.0).
+     */
+    public double getSiegquote() {
+        return spiele == 0 ? 0.0 : (double) siege / spiele;
+    }
+
+    // ---- Getter ----
+
+    public int getSpiele() {
+        return spiele;
+    }
+
+    public int getSiege() {
+        return siege;
+    }
+
+    public int getNiederlagen() {
+        return niederlagen;
+    }
+
+    public int getAbgebrocheneSpiele() {
+        return abgebrocheneSpiele;
+    }
+
+    public int getSaetzeGewonnen() {
+        return saetzeGewonnen;
+    }
+
+    public int getSaetzeVerloren() {
+        return saetzeVerloren;
+    }
+
+    public int getPunkteFuer() {
+        return punkteFuer;
+    }
+
+    public int getPunkteGegen() {
+        return punkteGegen;
+    }
+}
@@ -1,5 +1,6 @@
 package com.denizsea1.badmintontracker.model;
 
+import com.denizsea1.badmintontracker.repository.IdSequenzen;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 
@@ -11,7 +12,8 @@ import jakarta.persistence.*;
 public class Satz {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "satz_seq")
+    @SequenceGenerator(name = "satz_seq", sequenceName = "satz_seq", allocationSize = IdSequenzen.SCHRITT)
     private Long id;
 
     /**
@@ -30,10 +32,18 @@ public class Satz {
      */
     private int punkteTeamB;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JsonIgnore
     private Spiel spiel;
 
+    /**
+     * Optimistische Sperre (siehe Spiel.version).
+     */
+    @Version
+    @Column(columnDefinition = "bigint default 0")
+    @JsonIgnore
+    private Long version;
+
     public Satz() {
     }
 
@@ -41,12 +51,28 @@ public class Satz {
         this.nummer = nummer;
     }
 
+    /**
+     * Losgelöste Kopie (gleiche ID, ohne Spiel) – siehe Spiel.kopie().
+     */
+    public Satz kopie() {
+        Satz kopie = new Satz(nummer);
+        kopie.id = id;
+        kopie.version = version;
+        kopie.punkteTeamA = punkteTeamA;
+        kopie.punkteTeamB = punkteTeamB;
+        return kopie;
+    }
+
     // ---- Getter/Setter ----
 
     public Long getId() {
         return id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
     public int getNummer() {
         return nummer;
     }
@@ -1,19 +1,30 @@
 package com.denizsea1.badmintontracker.model;
 
+import com.denizsea1.badmintontracker.repository.IdSequenzen;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * Repräsentiert ein Badminton-Doppel-Match (Best-of-Three).
+ *
+ * Die Indizes passen zur Spielliste (neueste zuerst, optional nach Status gefiltert),
+ * siehe SpielSucheRepositoryImpl.
  */
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_spiel_datum_id", columnList = "datum DESC, id DESC"),
+        @Index(name = "idx_spiel_status_datum_id", columnList = "status, datum DESC, id DESC")
+})
 public class Spiel {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "spiel_seq")
+    @SequenceGenerator(name = "spiel_seq", sequenceName = "spiel_seq", allocationSize = IdSequenzen.SCHRITT)
     private Long id;
 
     /**
@@ -31,6 +42,7 @@ public class Spiel {
      * Wir nutzen die Reihenfolge:
      *   teams.get(0) = Team A
      *   teams.get(1) = Team B
+     * Sie steht ausdrücklich in spiel_team.team_nr (0/1), siehe TeamReihenfolge.
      */
     @ManyToMany
     @JoinTable(
@@ -38,6 +50,7 @@ public class Spiel {
             joinColumns = @JoinColumn(name = "spiel_id"),
             inverseJoinColumns = @JoinColumn(name = "team_id")
     )
+    @OrderColumn(name = "team_nr")
     private List<Team> teams = new ArrayList<>();
 
     /**
@@ -49,13 +62,13 @@ public class Spiel {
     /**
      * Gewinnerteam dieses Spiels (falls vorhanden).
      */
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Team gewinnerTeam;
 
     /**
      * Welches Team hat aktuell das Aufschlagsrecht?
      */
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Team aufschlagTeam;
 
     /**
@@ -70,6 +83,23 @@ public class Spiel {
     @Enumerated(EnumType.STRING)
     private SpielStatus status;
 
+    /**
+     * Optimistische Sperre: wird bei jedem Speichern erhöht.
+     * "default 0", damit bestehende Zeilen beim Schema-Update einen Wert bekommen.
+     */
+    @Version
+    @Column(columnDefinition = "bigint default 0")
+    @JsonIgnore
+    private Long version;
+
+    /**
+     * Stand-Version: wird bei jeder Änderung (Punkt, Undo, Abbruch) um 1 erhöht,
+     * auch wenn diese erst später gespeichert wird (anders als "version").
+     * Grundlage für ETag und Long-Polling von GET /spiele/{id}.
+     */
+    @Column(columnDefinition = "bigint default 0")
+    private long standVersion;
+
     public Spiel() {
     }
 
@@ -95,6 +125,59 @@ public class Spiel {
         satz.setSpiel(this);
     }
 
+    /**
+     * Losgelöste Kopie des Objektgraphen (Teams, Spieler:innen, Sätze) mit
+     * denselben IDs und Versionen. Aufschlag- und Gewinnerteam zeigen auf
+     * die kopierten Teams.
+     *
+     * Damit verlässt der Live-Stand eines Spiels nie seine Sperre
+     * (siehe LiveSpielEngine) – die Kopie darf z.B. in Ruhe serialisiert werden.
+     */
+    public Spiel kopie() {
+        Spiel kopie = new Spiel(datum);
+        kopie.id = id;
+        kopie.version = version;
+        kopie.standVersion = standVersion;
+        kopie.status = status;
+        kopie.aufschlagSeite = aufschlagSeite;
+        for (Team team : teams) {
+            Team teamKopie = team.kopie();
+            kopie.addTeam(teamKopie);
+            // Vergleich über die ID – aufschlagTeam/gewinnerTeam können Lazy-Proxys sein
+            if (aufschlagTeam != null && Objects.equals(aufschlagTeam.getId(), team.getId())) {
+                kopie.aufschlagTeam = teamKopie;
+            }
+            if (gewinnerTeam != null && Objects.equals(gewinnerTeam.getId(), team.getId())) {
+                kopie.gewinnerTeam = teamKopie;
+            }
+        }
+        for (Satz satz : saetze) {
+            kopie.addSatz(satz.kopie());
+        }
+        return kopie;
+    }
+
+    /**
+     * Losgelöstes Spiel, das nur aus IDs besteht (Teams, Spieler:innen, ohne
+     * Sätze und Namen) – z.B. um ein archiviertes Spiel ab seinem
+     * Start-Snapshot nachzuspielen, ohne dass es in der Datenbank existiert.
+     *
+     * @param teamIds    Team A, Team B
+     * @param spielerIds Spieler-IDs je Team, in derselben Reihenfolge
+     */
+    public static Spiel losgeloest(Long id, LocalDate datum, List<Long> teamIds, List<List<Long>> spielerIds) {
+        Spiel spiel = new Spiel(datum);
+        spiel.id = id;
+        for (int i = 0; i < teamIds.size(); i++) {
+            Team team = new Team(teamIds.get(i));
+            for (Long spielerId : spielerIds.get(i)) {
+                team.addSpieler(new Spieler(spielerId));
+            }
+            spiel.addTeam(team);
+        }
+        return spiel;
+    }
+
     // -------------------------------------------------------------------------
     // Getter/Setter
     // -------------------------------------------------------------------------
@@ -103,6 +186,22 @@ public class Spiel {
         return id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public long getStandVersion() {
+        return standVersion;
+    }
+
+    public void setStandVersion(long standVersion) {
+        this.standVersion = standVersion;
+    }
+
+    public void erhoeheStandVersion() {
+        standVersion++;
+    }
+
     public LocalDate getDatum() {
         return datum;
     }
@@ -0,0 +1,84 @@
+package com.denizsea1.badmintontracker.model;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * Archiviertes Ballwechsel-Protokoll eines abgeschlossenen Spiels:
+ * eine Zeile pro Spiel statt einer Zeile pro Ballwechsel.
+ *
+ * Die Punktfolge liegt kodiert in 'ballwechsel' (siehe BallwechselFolge) und
+ * beginnt nach dem Start-Snapshot (Sequenz startSequenz, meist 0), der als
+ * einziger Snapshot des Spiels erhalten bleibt.
+ *
+ * Persistable: wird genau einmal per INSERT angelegt (nicht per merge).
+ */
+@Entity
+@Table(name = "spiel_protokoll")
+public class SpielProtokoll implements Persistable<Long> {
+
+    @Id
+    @Column(name = "spiel_id")
+    private Long spielId;
+
+    /**
+     * Sequenz des Snapshots, ab dem die Folge nachgespielt wird.
+     */
+    private int startSequenz;
+
+    private int anzahlBallwechsel;
+
+    @Column(nullable = false, length = 255)
+    private byte[] ballwechsel;
+
+    @Transient
+    private boolean neu = true;
+
+    public SpielProtokoll() {
+    }
+
+    public SpielProtokoll(Long spielId, int startSequenz, BallwechselFolge folge) {
+        this.spielId = spielId;
+        this.startSequenz = startSequenz;
+        this.anzahlBallwechsel = folge.anzahl();
+        this.ballwechsel = folge.kodiere();
+    }
+
+    @PostLoad
+    @PostPersist
+    void gespeichert() {
+        this.neu = false;
+    }
+
+    @Override
+    public Long getId() {
+        return spielId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return neu;
+    }
+
+    public BallwechselFolge folge() {
+        return BallwechselFolge.dekodiere(ballwechsel);
+    }
+
+    // ---- Getter ----
+
+    public Long getSpielId() {
+        return spielId;
+    }
+
+    public int getStartSequenz() {
+        return startSequenz;
+    }
+
+    public int getAnzahlBallwechsel() {
+        return anzahlBallwechsel;
+    }
+
+    public byte[] getBallwechsel() {
+        return ballwechsel;
+    }
+}
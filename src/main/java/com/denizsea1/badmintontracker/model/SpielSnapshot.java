@@ -0,0 +1,198 @@
+package com.denizsea1.badmintontracker.model;
+
+import com.denizsea1.badmintontracker.repository.IdSequenzen;
+import jakarta.persistence.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Vollständiger Spielstand zu einem Zeitpunkt im Ballwechsel-Protokoll.
+ *
+ * Wird beim Spielstart (sequenz = 0) und zu Beginn jedes neuen Satzes angelegt.
+ * Undo setzt das Spiel auf den letzten passenden Snapshot zurück und spielt
+ * nur die Ballwechsel danach erneut ab.
+ *
+ * Kompakt als Text gespeichert:
+ * - satzstaende: "21:15;3:2"                      (Satz 1, Satz 2, ...)
+ * - positionen:  "12=RECHTS,13=LINKS,14=LINKS,..." (Spieler-ID = Position)
+ */
+@Entity
+@Table(
+        name = "spiel_snapshot",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"spiel_id", "sequenz"})
+)
+public class SpielSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "spiel_snapshot_seq")
+    @SequenceGenerator(name = "spiel_snapshot_seq", sequenceName = "spiel_snapshot_seq", allocationSize = IdSequenzen.SCHRITT)
+    private Long id;
+
+    @Column(name = "spiel_id", nullable = false)
+    private Long spielId;
+
+    /**
+     * Stand NACH dem Ballwechsel mit dieser Sequenz (0 = Spielstart).
+     */
+    @Column(nullable = false)
+    private int sequenz;
+
+    private String satzstaende;
+
+    private boolean aufschlagTeamA;
+
+    @Enumerated(EnumType.STRING)
+    private Seite aufschlagSeite;
+
+    @Column(length = 1000)
+    private String positionen;
+
+    public SpielSnapshot() {
+    }
+
+    private SpielSnapshot(Long spielId, int sequenz, String satzstaende,
+                          boolean aufschlagTeamA, Seite aufschlagSeite, String positionen) {
+        this.spielId = spielId;
+        this.sequenz = sequenz;
+        this.satzstaende = satzstaende;
+        this.aufschlagTeamA = aufschlagTeamA;
+        this.aufschlagSeite = aufschlagSeite;
+        this.positionen = positionen;
+    }
+
+    /**
+     * Hält den aktuellen Stand eines Spiels fest.
+     * Erwartet Teams[0] = Team A, Teams[1] = Team B.
+     */
+    public static SpielSnapshot aus(Spiel spiel, int sequenz) {
+        List<Satz> saetze = new ArrayList<>(spiel.getSaetze());
+        saetze.sort((s1, s2) -> Integer.compare(s1.getNummer(), s2.getNummer()));
+
+        StringBuilder staende = new StringBuilder();
+        for (Satz satz : saetze) {
+            if (!staende.isEmpty()) {
+                staende.append(';');
+            }
+            staende.append(satz.getPunkteTeamA()).append(':').append(satz.getPunkteTeamB());
+        }
+
+        StringBuilder pos = new StringBuilder();
+        for (Team team : spiel.getTeams()) {
+            for (Spieler s : team.getSpieler()) {
+                if (s.getPositionImTeam() == null) {
+                    continue;
+                }
+                if (!pos.isEmpty()) {
+                    pos.append(',');
+                }
+                pos.append(s.getId()).append('=').append(s.getPositionImTeam().name());
+            }
+        }
+
+        Team teamA = spiel.getTeams().isEmpty() ? null : spiel.getTeams().get(0);
+        boolean aufschlagA = teamA != null
+                && spiel.getAufschlagTeam() != null
+                && teamA.getId().equals(spiel.getAufschlagTeam().getId());
+
+        return new SpielSnapshot(spiel.getId(), sequenz, staende.toString(),
+                aufschlagA, spiel.getAufschlagSeite(), pos.toString());
+    }
+
+    /**
+     * Snapshot aus gespeicherten Werten (z.B. aus dem SpielArchiv), nicht persistiert.
+     */
+    public static SpielSnapshot aus(Long spielId, int sequenz, String satzstaende,
+                                    boolean aufschlagTeamA, Seite aufschlagSeite, String positionen) {
+        return new SpielSnapshot(spielId, sequenz, satzstaende, aufschlagTeamA, aufschlagSeite, positionen);
+    }
+
+    /**
+     * Setzt Satzstände, Aufschlag und Spielerpositionen des Spiels
+     * auf diesen Snapshot zurück. Sätze, die es im Snapshot noch nicht gab,
+     * werden entfernt; das Spiel ist danach wieder LAUFEND.
+     */
+    public void stelleWiederHer(Spiel spiel) {
+        String[] staende = satzstaende == null || satzstaende.isEmpty()
+                ? new String[0]
+                : satzstaende.split(";");
+
+        spiel.getSaetze().removeIf(s -> s.getNummer() > staende.length);
+        for (int i = 0; i < staende.length; i++) {
+            int nummer = i + 1;
+            String[] punkte = staende[i].split(":");
+            Satz satz = null;
+            for (Satz s : spiel.getSaetze()) {
+                if (s.getNummer() == nummer) {
+                    satz = s;
+                    break;
+                }
+            }
+            if (satz == null) {
+                satz = new Satz(nummer);
+                spiel.addSatz(satz);
+            }
+            satz.setPunkteTeamA(Integer.parseInt(punkte[0]));
+            satz.setPunkteTeamB(Integer.parseInt(punkte[1]));
+        }
+
+        spiel.setAufschlagTeam(spiel.getTeams().get(aufschlagTeamA ? 0 : 1));
+        spiel.setAufschlagSeite(aufschlagSeite);
+        spiel.setStatus(SpielStatus.LAUFEND);
+
+        Map<Long, Seite> positionNachSpieler = new HashMap<>();
+        if (positionen != null && !positionen.isEmpty()) {
+            for (String eintrag : positionen.split(",")) {
+                String[] teile = eintrag.split("=");
+                positionNachSpieler.put(Long.valueOf(teile[0]), Seite.valueOf(teile[1]));
+            }
+        }
+        for (Team team : spiel.getTeams()) {
+            for (Spieler s : team.getSpieler()) {
+                Seite seite = positionNachSpieler.get(s.getId());
+                if (seite != null) {
+                    s.setPositionImTeam(seite);
+                }
+            }
+        }
+    }
+
+    /**
+     * Neue, noch nicht gespeicherte Kopie (ohne ID).
+     */
+    public SpielSnapshot kopie() {
+        return new SpielSnapshot(spielId, sequenz, satzstaende, aufschlagTeamA, aufschlagSeite, positionen);
+    }
+
+    // ---- Getter ----
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getSpielId() {
+        return spielId;
+    }
+
+    public int getSequenz() {
+        return sequenz;
+    }
+
+    public String getSatzstaende() {
+        return satzstaende;
+    }
+
+    public boolean isAufschlagTeamA() {
+        return aufschlagTeamA;
+    }
+
+    public Seite getAufschlagSeite() {
+        return aufschlagSeite;
+    }
+
+    public String getPositionen() {
+        return positionen;
+    }
+}
@@ -0,0 +1,164 @@
+package com.denizsea1.badmintontracker.model;
+
+import com.denizsea1.badmintontracker.dto.HistorienZeile;
+import com.denizsea1.badmintontracker.repository.IdSequenzen;
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Index "Spieler:in → Spiel" (eine Zeile pro Spieler:in und Spiel).
+ *
+ * Teams sind nur ein Paar von Spieler-Zeilen und werden pro Spiel neu angelegt –
+ * "alle Spiele von X" oder "X/Y gegen Z/W" liefen sonst über spiel_team, team
+ * und spieler. Hier stehen die normalisierten Namen (wie in der Statistik)
+ * direkt neben der Spiel-ID, Karriere und Direktvergleich sind damit ein
+ * Bereichs-Scan über einen Index.
+ *
+ * Wird beim Spielstart angelegt; "gewonnen" wird beim Spielende gesetzt.
+ */
+@Entity
+@Table(name = "spiel_teilnahme", indexes = {
+        @Index(name = "idx_teilnahme_spieler", columnList = "spieler_schluessel, datum DESC, spiel_id DESC"),
+        @Index(name = "idx_teilnahme_paarung",
+                columnList = "spieler_schluessel, team_schluessel, gegner_schluessel, datum DESC, spiel_id DESC"),
+        @Index(name = "idx_teilnahme_spiel", columnList = "spiel_id")
+})
+public class SpielTeilnahme {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "spiel_teilnahme_seq")
+    @SequenceGenerator(name = "spiel_teilnahme_seq", sequenceName = "spiel_teilnahme_seq", allocationSize = IdSequenzen.SCHRITT)
+    private Long id;
+
+    @Column(name = "spiel_id", nullable = false)
+    private Long spielId;
+
+    private LocalDate datum;
+
+    /**
+     * Normalisierter Name, siehe SpielerStatistik.schluessel.
+     */
+    @Column(name = "spieler_schluessel", nullable = false, length = 200)
+    private String spielerSchluessel;
+
+    /**
+     * Eigenes Team, siehe TeamStatistik.schluessel.
+     */
+    @Column(name = "team_schluessel", nullable = false, length = 400)
+    private String teamSchluessel;
+
+    @Column(name = "gegner_schluessel", nullable = false, length = 400)
+    private String gegnerSchluessel;
+
+    /**
+     * true = Teams[0] (Team A).
+     */
+    private boolean teamA;
+
+    /**
+     * true/false nach Spielende, null solange das Spiel läuft
+     * oder falls es keinen Gewinner gibt.
+     */
+    private Boolean gewonnen;
+
+    public SpielTeilnahme() {
+    }
+
+    private SpielTeilnahme(Long spielId, LocalDate datum, String name,
+                           String teamSchluessel, String gegnerSchluessel,
+                           boolean teamA, Boolean gewonnen) {
+        this.spielId = spielId;
+        this.datum = datum;
+        this.spielerSchluessel = SpielerStatistik.schluessel(name);
+        this.teamSchluessel = teamSchluessel;
+        this.gegnerSchluessel = gegnerSchluessel;
+        this.teamA = teamA;
+        this.gewonnen = gewonnen;
+    }
+
+    /**
+     * Zeilen für ein gerade gestartetes Spiel (Teams[0] = A, Teams[1] = B).
+     */
+    public static List<SpielTeilnahme> aus(Spiel spiel) {
+        return aus(spiel.getId(), spiel.getDatum(),
+                namen(spiel.getTeams().get(0)), namen(spiel.getTeams().get(1)), null);
+    }
+
+    /**
+     * Zeilen aus einer Historien-Zeile (Neuaufbau für ältere Spiele).
+     */
+    public static List<SpielTeilnahme> aus(HistorienZeile zeile) {
+        Boolean teamAGewinnt = zeile.gewinnerTeamId() == null || zeile.teamA() == null
+                ? null
+                : zeile.gewinnerTeamId().equals(zeile.teamA().id());
+        return aus(zeile.id(), zeile.datum(),
+                zeile.teamA() != null ? zeile.teamA().spieler() : List.of(),
+                zeile.teamB() != null ? zeile.teamB().spieler() : List.of(),
+                teamAGewinnt);
+    }
+
+    private static List<SpielTeilnahme> aus(Long spielId, LocalDate datum,
+                                            List<String> spielerA, List<String> spielerB,
+                                            Boolean teamAGewinnt) {
+        List<SpielTeilnahme> zeilen = new ArrayList<>();
+        if (spielerA.isEmpty() || spielerB.isEmpty()) {
+            return zeilen;
+        }
+        String teamA = TeamStatistik.schluessel(spielerA);
+        String teamB = TeamStatistik.schluessel(spielerB);
+        for (String name : spielerA) {
+            zeilen.add(new SpielTeilnahme(spielId, datum, name, teamA, teamB, true, teamAGewinnt));
+        }
+        for (String name : spielerB) {
+            zeilen.add(new SpielTeilnahme(spielId, datum, name, teamB, teamA, false,
+                    teamAGewinnt == null ? null : !teamAGewinnt));
+        }
+        return zeilen;
+    }
+
+    private static List<String> namen(Team team) {
+        List<String> namen = new ArrayList<>();
+        for (Spieler s : team.getSpieler()) {
+            namen.add(((s.getVorname() != null ? s.getVorname() : "") + " "
+                    + (s.getNachname() != null ? s.getNachname() : "")).trim());
+        }
+        return namen;
+    }
+
+    // ---- Getter ----
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getSpielId() {
+        return spielId;
+    }
+
+    public LocalDate getDatum() {
+        return datum;
+    }
+
+    public String getSpielerSchluessel() {
+        return spielerSchluessel;
+    }
+
+    public String getTeamSchluessel() {
+        return teamSchluessel;
+    }
+
+    public String getGegnerSchluessel() {
+        return gegnerSchluessel;
+    }
+
+    public boolean isTeamA() {
+        return teamA;
+    }
+
+    public Boolean getGewonnen() {
+        return gewonnen;
+    }
+}
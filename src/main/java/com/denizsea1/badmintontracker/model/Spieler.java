@@ -1,5 +1,6 @@
 package com.denizsea1.badmintontracker.model;
 
+import com.denizsea1.badmintontracker.repository.IdSequenzen;
 import jakarta.persistence.*;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
@@ -10,7 +11,8 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 public class Spieler {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "spieler_seq")
+    @SequenceGenerator(name = "spieler_seq", sequenceName = "spieler_seq", allocationSize = IdSequenzen.SCHRITT)
     private Long id;
 
     private String vorname;
@@ -22,7 +24,7 @@ public class Spieler {
     @Enumerated(EnumType.STRING)
     private Seite positionImTeam;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JsonIgnore
     private Team team;
 
@@ -40,6 +42,23 @@ public class Spieler {
         this.positionImTeam = positionImTeam;
     }
 
+    /**
+     * Nur mit ID, ohne Namen – für losgelöst nachgebaute Spiele (Spiel.losgeloest).
+     */
+    Spieler(Long id) {
+        this.id = id;
+    }
+
+    /**
+     * Losgelöste Kopie (gleiche ID, ohne Team) – siehe Spiel.kopie().
+     */
+    public Spieler kopie() {
+        Spieler kopie = new Spieler(vorname, nachname, positionImTeam);
+        kopie.id = id;
+        kopie.inAktivemSpiel = inAktivemSpiel;
+        return kopie;
+    }
+
     // ---- Getter/Setter ----
 
     public Long getId() {
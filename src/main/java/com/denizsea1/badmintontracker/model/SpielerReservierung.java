@@ -0,0 +1,67 @@
+package com.denizsea1.badmintontracker.model;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * Dauerhafte Reservierung einer Spielerin / eines Spielers für ein laufendes Spiel.
+ *
+ * Primärschlüssel ist die Spieler-ID – die Datenbank lässt also höchstens
+ * ein laufendes Spiel pro Spieler:in zu, auch wenn der Speicherstand
+ * (SpielerReservierungen) einmal danebenliegen sollte.
+ * Angelegt beim Spielstart, gelöscht bei Spielende oder Abbruch.
+ *
+ * Persistable: neue Zeilen werden per INSERT angelegt (nicht per merge) –
+ * eine schon vorhandene Spieler-ID führt so zu einem Fehler statt zu einem
+ * stillen Überschreiben.
+ */
+@Entity
+@Table(name = "spieler_reservierung", indexes = {
+        @Index(name = "idx_reservierung_spiel", columnList = "spiel_id")
+})
+public class SpielerReservierung implements Persistable<Long> {
+
+    @Id
+    @Column(name = "spieler_id")
+    private Long spielerId;
+
+    @Column(name = "spiel_id", nullable = false)
+    private Long spielId;
+
+    @Transient
+    private boolean neu = true;
+
+    public SpielerReservierung() {
+    }
+
+    public SpielerReservierung(Long spielerId, Long spielId) {
+        this.spielerId = spielerId;
+        this.spielId = spielId;
+    }
+
+    @PostLoad
+    @PostPersist
+    void gespeichert() {
+        this.neu = false;
+    }
+
+    @Override
+    public Long getId() {
+        return spielerId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return neu;
+    }
+
+    // ---- Getter ----
+
+    public Long getSpielerId() {
+        return spielerId;
+    }
+
+    public Long getSpielId() {
+        return spielId;
+    }
+}
@@ -0,0 +1,74 @@
+package com.denizsea1.badmintontracker.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Laufend gepflegte Statistik einer Spielerin / eines Spielers.
+ *
+ * Spieler-Entities hängen an genau einem Team; wer in mehreren Teams spielt,
+ * taucht also mehrfach auf. Die Statistik fasst daher über den Namen zusammen
+ * (schluessel = normalisierter "Vorname Nachname").
+ */
+@Entity
+@Table(name = "spieler_statistik")
+public class SpielerStatistik {
+
+    private static final Pattern LEERZEICHEN = Pattern.compile("\\s+");
+
+    @Id
+    @Column(length = 200)
+    private String schluessel;
+
+    /**
+     * Name zur Anzeige (wie beim ersten Spiel erfasst).
+     */
+    private String name;
+
+    @Embedded
+    private Bilanz bilanz = new Bilanz();
+
+    @Version
+    @Column(columnDefinition = "bigint default 0")
+    @JsonIgnore
+    private Long version;
+
+    public SpielerStatistik() {
+    }
+
+    public SpielerStatistik(String name) {
+        this.schluessel = schluessel(name);
+        this.name = name;
+    }
+
+    /**
+     * Normalisierter Name: getrimmt, Leerzeichen zusammengefasst, klein geschrieben.
+     */
+    public static String schluessel(String name) {
+        return LEERZEICHEN.matcher(name.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Übernimmt die Zähler einer neu berechneten Bilanz (Neuaufbau).
+     */
+    public void ersetzeBilanz(Bilanz neu) {
+        this.bilanz = neu;
+    }
+
+    // ---- Getter ----
+
+    public String getSchluessel() {
+        return schluessel;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Bilanz getBilanz() {
+        return bilanz;
+    }
+}
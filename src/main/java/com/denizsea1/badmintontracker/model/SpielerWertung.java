@@ -0,0 +1,81 @@
+package com.denizsea1.badmintontracker.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+
+/**
+ * Elo-Wertung einer Spielerin / eines Spielers für die Rangliste.
+ *
+ * Wie SpielerStatistik über den normalisierten Namen zusammengefasst
+ * (schluessel = SpielerStatistik.schluessel), nicht über die Spieler-Entity.
+ */
+@Entity
+@Table(name = "spieler_wertung", indexes = {
+        @Index(name = "idx_wertung_wert", columnList = "wert DESC")
+})
+public class SpielerWertung {
+
+    @Id
+    @Column(length = 200)
+    private String schluessel;
+
+    /**
+     * Name zur Anzeige (wie beim ersten Spiel erfasst).
+     */
+    private String name;
+
+    private double wert;
+
+    /**
+     * Gewertete Spiele (ohne Spiele ohne Gewinner).
+     */
+    private int spiele;
+
+    @Version
+    @Column(columnDefinition = "bigint default 0")
+    @JsonIgnore
+    private Long version;
+
+    public SpielerWertung() {
+    }
+
+    public SpielerWertung(String name, double startWert) {
+        this.schluessel = SpielerStatistik.schluessel(name);
+        this.name = name;
+        this.wert = startWert;
+    }
+
+    /**
+     * Ändert die Wertung um "aenderung" und zählt ein gewertetes Spiel.
+     */
+    public void aendere(double aenderung) {
+        this.wert += aenderung;
+        this.spiele++;
+    }
+
+    /**
+     * Übernimmt das Ergebnis einer Neuberechnung.
+     */
+    public void ersetze(double wert, int spiele) {
+        this.wert = wert;
+        this.spiele = spiele;
+    }
+
+    // ---- Getter ----
+
+    public String getSchluessel() {
+        return schluessel;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public double getWert() {
+        return wert;
+    }
+
+    public int getSpiele() {
+        return spiele;
+    }
+}
@@ -1,21 +1,28 @@
 package com.denizsea1.badmintontracker.model;
 
+import com.denizsea1.badmintontracker.repository.IdSequenzen;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Repräsentiert ein Team (zwei Spieler) in einem Spiel.
+ *
+ * Spiel.aufschlagTeam / gewinnerTeam werden lazy geladen und können daher
+ * Hibernate-Proxys sein – deren interne Felder nicht ins JSON übernehmen.
  */
 @Entity
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Team {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "team_seq")
+    @SequenceGenerator(name = "team_seq", sequenceName = "team_seq", allocationSize = IdSequenzen.SCHRITT)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JsonIgnore
     private Spiel spiel;
 
@@ -55,6 +62,25 @@ public class Team {
         }
     }
 
+    /**
+     * Nur mit ID – für losgelöst nachgebaute Spiele (Spiel.losgeloest).
+     */
+    Team(Long id) {
+        this.id = id;
+    }
+
+    /**
+     * Losgelöste Kopie mit kopierten Spieler:innen (gleiche IDs) – siehe Spiel.kopie().
+     */
+    public Team kopie() {
+        Team kopie = new Team();
+        kopie.id = id;
+        for (Spieler s : spieler) {
+            kopie.addSpieler(s.kopie());
+        }
+        return kopie;
+    }
+
     // ---- Getter/Setter ----
 
     public Long getId() {
@@ -0,0 +1,84 @@
+package com.denizsea1.badmintontracker.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Laufend gepflegte Statistik einer Paarung (Doppel).
+ *
+ * Wie bei SpielerStatistik über die Namen zusammengefasst: dieselben zwei
+ * Spieler:innen sind dasselbe Team, egal wie oft es neu angelegt wurde
+ * und in welcher Reihenfolge sie eingetragen sind.
+ */
+@Entity
+@Table(name = "team_statistik")
+public class TeamStatistik {
+
+    @Id
+    @Column(length = 400)
+    private String schluessel;
+
+    /**
+     * Namen zur Anzeige, z.B. "Lara Schulz / Max Mueller".
+     */
+    private String name;
+
+    @Embedded
+    private Bilanz bilanz = new Bilanz();
+
+    @Version
+    @Column(columnDefinition = "bigint default 0")
+    @JsonIgnore
+    private Long version;
+
+    public TeamStatistik() {
+    }
+
+    public TeamStatistik(List<String> spieler) {
+        List<String> sortiert = sortiert(spieler);
+        this.schluessel = schluessel(spieler);
+        this.name = String.join(" / ", sortiert);
+    }
+
+    /**
+     * Schlüssel aus den normalisierten Namen, unabhängig von der Reihenfolge.
+     */
+    public static String schluessel(List<String> spieler) {
+        List<String> schluessel = new ArrayList<>();
+        for (String name : sortiert(spieler)) {
+            schluessel.add(SpielerStatistik.schluessel(name));
+        }
+        return String.join("|", schluessel);
+    }
+
+    private static List<String> sortiert(List<String> spieler) {
+        List<String> sortiert = new ArrayList<>(spieler);
+        sortiert.sort(Comparator.comparing(SpielerStatistik::schluessel));
+        return sortiert;
+    }
+
+    /**
+     * Übernimmt die Zähler einer neu berechneten Bilanz (Neuaufbau).
+     */
+    public void ersetzeBilanz(Bilanz neu) {
+        this.bilanz = neu;
+    }
+
+    // ---- Getter ----
+
+    public String getSchluessel() {
+        return schluessel;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Bilanz getBilanz() {
+        return bilanz;
+    }
+}
@@ -0,0 +1,38 @@
+package com.denizsea1.badmintontracker.repository;
+
+import com.denizsea1.badmintontracker.model.Ballwechsel;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface BallwechselRepository extends JpaRepository<Ballwechsel, Long> {
+
+    List<Ballwechsel> findBySpielIdOrderBySequenz(Long spielId);
+
+    /**
+     * Entfernt alle Ballwechsel ab der angegebenen Sequenz – nur beim Verdichten
+     * und Archivieren abgeschlossener Spiele. Undo hängt einen Schnitt an.
+     */
+    @Modifying
+    @Query("delete from Ballwechsel b where b.spielId = :spielId and b.sequenz >= :abSequenz")
+    int loescheAb(@Param("spielId") Long spielId, @Param("abSequenz") int abSequenz);
+
+    /**
+     * IDs abgeschlossener Spiele, die noch Ballwechsel-Zeilen haben
+     * (Nachverdichtung, aufsteigend ab nachId).
+     */
+    @Query("""
+            select s.id from Spiel s
+            where s.id > :nachId
+              and s.status <> com.denizsea1.badmintontracker.model.SpielStatus.LAUFEND
+              and exists (select 1 from Ballwechsel b where b.spielId = s.id)
+            order by s.id
+            """)
+    List<Long> findeAbgeschlosseneSpieleMitBallwechseln(@Param("nachId") Long nachId, Pageable seite);
+}
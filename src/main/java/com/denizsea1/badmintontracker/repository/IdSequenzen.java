@@ -0,0 +1,75 @@
+package com.denizsea1.badmintontracker.repository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * ID-Sequenzen für Spieler, Team, Spiel, Satz, SpielTeilnahme und das
+ * Ballwechsel-Protokoll (Ballwechsel, SpielSnapshot).
+ *
+ * Mit IDENTITY-Spalten kann Hibernate INSERTs nicht bündeln (jede ID kommt
+ * erst aus dem INSERT zurück). Mit Sequenzen holt Hibernate je SCHRITT IDs auf
+ * einmal ("pooled") und schickt die INSERTs als JDBC-Batch
+ * (hibernate.jdbc.batch_size) – wichtig für den Import (SpielImport) und den
+ * Write-Behind-Flush der LiveSpielEngine, der vor allem Ballwechsel anhängt.
+ *
+ * Bestehende Datenbanken haben schon Zeilen aus der IDENTITY-Zeit, neu angelegte
+ * Sequenzen beginnen aber bei 1. Deshalb wird jede Sequenz beim Start – bevor
+ * der Webserver Anfragen annimmt – hinter die größte vorhandene ID gesetzt.
+ */
+@Component
+public class IdSequenzen implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(IdSequenzen.class);
+
+    /**
+     * IDs pro Sequenz-Abruf (= INCREMENT BY der Sequenz, allocationSize der Entities).
+     */
+    public static final int SCHRITT = 50;
+
+    /**
+     * Tabelle → Sequenz.
+     */
+    private static final Map<String, String> SEQUENZEN = Map.of(
+            "spieler", "spieler_seq",
+            "team", "team_seq",
+            "spiel", "spiel_seq",
+            "satz", "satz_seq",
+            "spiel_teilnahme", "spiel_teilnahme_seq",
+            "ballwechsel", "ballwechsel_seq",
+            "spiel_snapshot", "spiel_snapshot_seq");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public IdSequenzen(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Läuft nach dem Schema-Update (ddl-auto) und vor dem Start des Webservers.
+     *
+     * Hibernate vergibt zu einem Sequenzwert w die IDs (w - SCHRITT, w]. Liegt das
+     * unter der größten ID, wird die Sequenz auf größte ID + SCHRITT + 1 gesetzt.
+     * Der Prüfwert selbst geht verloren – höchstens SCHRITT IDs pro Start.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        SEQUENZEN.forEach((tabelle, sequenz) -> {
+            Long groessteId = jdbcTemplate.queryForObject(
+                    "select coalesce(max(id), 0) from " + tabelle, Long.class);
+            Long naechsterWert = jdbcTemplate.queryForObject(
+                    "select next value for " + sequenz, Long.class);
+            if (groessteId != null && naechsterWert != null && naechsterWert - SCHRITT < groessteId) {
+                long neu = groessteId + SCHRITT + 1;
+                jdbcTemplate.execute("alter sequence " + sequenz + " restart with " + neu);
+                log.info("Sequenz {} hinter die größte ID von {} gesetzt ({} -> {})",
+                        sequenz, tabelle, naechsterWert, neu);
+            }
+        });
+    }
+}
@@ -0,0 +1,12 @@
+package com.denizsea1.badmintontracker.repository;
+
+import com.denizsea1.badmintontracker.model.SpielProtokoll;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Archivierte Ballwechsel-Protokolle abgeschlossener Spiele (Schlüssel = Spiel-ID).
+ */
+@Repository
+public interface SpielProtokollRepository extends JpaRepository<SpielProtokoll, Long> {
+}
@@ -1,9 +1,85 @@
 package com.denizsea1.badmintontracker.repository;
 
 import com.denizsea1.badmintontracker.model.Spiel;
+import com.denizsea1.badmintontracker.model.SpielStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
-public interface SpielRepository extends JpaRepository<Spiel, Long> {
-}
\ No newline at end of file
+public interface SpielRepository extends JpaRepository<Spiel, Long>, SpielSucheRepository {
+
+    /**
+     * Nur die IDs – z.B. um alle laufenden Spiele einmal zu laden.
+     */
+    @Query("select s.id from Spiel s where s.status = :status order by s.id")
+    List<Long> findIdsByStatus(SpielStatus status);
+
+    /**
+     * Nur die Stand-Version – für ETag-Prüfungen, ohne den Objektgraphen zu laden.
+     */
+    @Query("select s.standVersion from Spiel s where s.id = :id")
+    Optional<Long> findStandVersion(@Param("id") Long id);
+
+    /**
+     * Anzahl der Spiele mit diesem Status (z.B. für die Metrik "laufende Spiele").
+     */
+    long countByStatus(SpielStatus status);
+
+    // ---- Ladepläne für die Spiellogik ----
+    // Teams und Sätze sind beides Listen (Bags) und lassen sich nicht in einer
+    // Abfrage mitladen; daher je eine Abfrage, die dieselbe Spiel-Instanz ergänzt.
+
+    /**
+     * Spiel mit Teams, Aufschlag- und Gewinnerteam (ohne Spieler, ohne Sätze).
+     */
+    @Query("""
+            select s from Spiel s
+            left join fetch s.teams
+            left join fetch s.aufschlagTeam
+            left join fetch s.gewinnerTeam
+            where s.id = :id
+            """)
+    Optional<Spiel> findMitTeams(@Param("id") Long id);
+
+    /**
+     * Wie findMitTeams, erhöht aber beim Commit die Version des Spiels –
+     * auch wenn sich nur Sätze oder Spieler geändert haben.
+     * So bemerkt jeder andere Schreiber, dass das Spiel inzwischen gespeichert wurde.
+     */
+    @Lock(LockModeType.OPTIMISTIC_FORCE_INCREMENT)
+    @Query("""
+            select s from Spiel s
+            left join fetch s.teams
+            left join fetch s.aufschlagTeam
+            left join fetch s.gewinnerTeam
+            where s.id = :id
+            """)
+    Optional<Spiel> findMitTeamsZumSchreiben(@Param("id") Long id);
+
+    /**
+     * Spiel mit seinen Sätzen (z.B. für die Pausenempfehlung).
+     */
+    @Query("select s from Spiel s left join fetch s.saetze where s.id = :id")
+    Optional<Spiel> findMitSaetze(@Param("id") Long id);
+
+    /**
+     * IDs abgeschlossener Spiele mit Datum vor 'vor' (Archivierung, aufsteigend ab nachId).
+     */
+    @Query("""
+            select s.id from Spiel s
+            where s.id > :nachId
+              and s.datum < :vor
+              and s.status <> com.denizsea1.badmintontracker.model.SpielStatus.LAUFEND
+            order by s.id
+            """)
+    List<Long> findeArchivierbare(@Param("vor") LocalDate vor, @Param("nachId") Long nachId, Pageable seite);
+}
@@ -0,0 +1,33 @@
+package com.denizsea1.badmintontracker.repository;
+
+import com.denizsea1.badmintontracker.model.SpielSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface SpielSnapshotRepository extends JpaRepository<SpielSnapshot, Long> {
+
+    List<SpielSnapshot> findBySpielIdOrderBySequenz(Long spielId);
+
+    /**
+     * Start-Snapshots der verdichteten Protokolle mehrerer Spiele
+     * (Sequenz = spiel_protokoll.startSequenz), in einer Abfrage.
+     */
+    @Query("select s from SpielSnapshot s, SpielProtokoll p "
+            + "where p.spielId = s.spielId and s.sequenz = p.startSequenz and s.spielId in :spielIds")
+    List<SpielSnapshot> findeStartSnapshots(@Param("spielIds") Collection<Long> spielIds);
+
+    /**
+     * Entfernt alle Snapshots ab der angegebenen Sequenz – nur beim Verdichten
+     * und Archivieren abgeschlossener Spiele.
+     */
+    @Modifying
+    @Query("delete from SpielSnapshot s where s.spielId = :spielId and s.sequenz >= :abSequenz")
+    int loescheAb(@Param("spielId") Long spielId, @Param("abSequenz") int abSequenz);
+}
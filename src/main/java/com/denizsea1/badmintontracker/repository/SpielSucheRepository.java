@@ -0,0 +1,35 @@
+package com.denizsea1.badmintontracker.repository;
+
+import com.denizsea1.badmintontracker.dto.HistorienZeile;
+import com.denizsea1.badmintontracker.dto.SpielCursor;
+import com.denizsea1.badmintontracker.dto.SpielFilter;
+import com.denizsea1.badmintontracker.model.Spiel;
+
+import java.util.List;
+
+/**
+ * Gefilterte, seitenweise Suche über Spiele (Teil von SpielRepository).
+ */
+public interface SpielSucheRepository {
+
+    /**
+     * Spiele absteigend nach (datum, id), beginnend nach dem Cursor.
+     *
+     * @param filter Filter (null-Felder werden ignoriert)
+     * @param nach   Cursor der vorherigen Seite oder null für die erste Seite
+     * @param anzahl maximale Anzahl Treffer
+     */
+    List<Spiel> sucheSeite(SpielFilter filter, SpielCursor nach, int anzahl);
+
+    /**
+     * Wie sucheSeite, aber direkt als Historien-Zeilen:
+     * eine Abfrage für die Spiele der Seite, eine für deren Teams, Spieler und Sätze.
+     */
+    List<HistorienZeile> sucheHistorie(SpielFilter filter, SpielCursor nach, int anzahl);
+
+    /**
+     * Historien-Zeilen zu bekannten Spiel-IDs, in der übergebenen Reihenfolge
+     * (z.B. aus dem Spieler-Index spiel_teilnahme).
+     */
+    List<HistorienZeile> ladeHistorie(List<Long> spielIds);
+}
@@ -0,0 +1,248 @@
+package com.denizsea1.badmintontracker.repository;
+
+import com.denizsea1.badmintontracker.dto.HistorienZeile;
+import com.denizsea1.badmintontracker.dto.SpielCursor;
+import com.denizsea1.badmintontracker.dto.SpielFilter;
+import com.denizsea1.badmintontracker.dto.Spielstand;
+import com.denizsea1.badmintontracker.model.Spiel;
+import com.denizsea1.badmintontracker.model.SpielStatus;
+import com.denizsea1.badmintontracker.model.Spieler;
+import com.denizsea1.badmintontracker.model.Team;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.*;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Baut die Suchabfrage nur aus den gesetzten Filtern zusammen,
+ * damit die Datenbank jeweils den passenden Index nutzen kann:
+ * - ohne Status:  idx_spiel_datum_id        (datum, id)
+ * - mit Status:   idx_spiel_status_datum_id (status, datum, id)
+ *
+ * Der Cursor wird als "datum <= :d and (datum < :d or id < :id)" formuliert –
+ * der erste Teil ist ein reiner Bereich auf dem Index, ab dem gelesen wird;
+ * durch die passende Sortierung kann nach "anzahl" Zeilen abgebrochen werden.
+ */
+class SpielSucheRepositoryImpl implements SpielSucheRepository {
+
+    /**
+     * Teams, Spieler und Sätze aller Spiele einer Seite in EINER Abfrage.
+     *
+     * Pro Spiel höchstens 2 Teams x 2 Spieler x 3 Sätze = 12 Zeilen.
+     * Team A/B ergibt sich – wie beim Laden von Spiel.teams – aus der
+     * Spalte spiel_team.team_nr (0 = Team A, 1 = Team B).
+     */
+    private static final String TEAMS_SPIELER_SAETZE = """
+            select st.spiel_id, st.team_id, sp.id, sp.vorname, sp.nachname,
+                   sa.nummer, sa.punkte_teama, sa.punkte_teamb
+            from spiel_team st
+            left join spieler sp on sp.team_id = st.team_id
+            left join satz sa on sa.spiel_id = st.spiel_id
+            where st.spiel_id in (:spielIds)
+            order by st.spiel_id, st.team_nr, sp.id, sa.nummer
+            """;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Spiel> sucheSeite(SpielFilter filter, SpielCursor nach, int anzahl) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Spiel> query = cb.createQuery(Spiel.class);
+        Root<Spiel> spiel = query.from(Spiel.class);
+
+        query.select(spiel)
+                .where(bedingungen(cb, query, spiel, filter, nach))
+                .orderBy(cb.desc(spiel.get("datum")), cb.desc(spiel.get("id")));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(anzahl)
+                .getResultList();
+    }
+
+    @Override
+    public List<HistorienZeile> sucheHistorie(SpielFilter filter, SpielCursor nach, int anzahl) {
+        // ----- 1) Spiele der Seite (nur Spalten aus "spiel") -----
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Spiel> spiel = query.from(Spiel.class);
+        Join<Spiel, Team> gewinner = spiel.join("gewinnerTeam", JoinType.LEFT);
+
+        query.multiselect(
+                        spiel.get("id"),
+                        spiel.get("datum"),
+                        spiel.get("status"),
+                        gewinner.get("id"))
+                .where(bedingungen(cb, query, spiel, filter, nach))
+                .orderBy(cb.desc(spiel.get("datum")), cb.desc(spiel.get("id")));
+
+        List<Tuple> koepfe = entityManager.createQuery(query)
+                .setMaxResults(anzahl)
+                .getResultList();
+        return alsZeilen(koepfe);
+    }
+
+    @Override
+    public List<HistorienZeile> ladeHistorie(List<Long> spielIds) {
+        if (spielIds.isEmpty()) {
+            return List.of();
+        }
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Spiel> spiel = query.from(Spiel.class);
+        Join<Spiel, Team> gewinner = spiel.join("gewinnerTeam", JoinType.LEFT);
+
+        query.multiselect(
+                        spiel.get("id"),
+                        spiel.get("datum"),
+                        spiel.get("status"),
+                        gewinner.get("id"))
+                .where(spiel.get("id").in(spielIds));
+
+        // Reihenfolge wie übergeben
+        Map<Long, Integer> position = new HashMap<>();
+        for (int i = 0; i < spielIds.size(); i++) {
+            position.putIfAbsent(spielIds.get(i), i);
+        }
+        List<Tuple> koepfe = new ArrayList<>(entityManager.createQuery(query).getResultList());
+        koepfe.sort(Comparator.comparingInt((Tuple kopf) -> position.get(kopf.get(0, Long.class))));
+        return alsZeilen(koepfe);
+    }
+
+    /**
+     * Ergänzt die Köpfe aus Abfrage 1 um Teams, Spieler und Sätze (Abfrage 2).
+     */
+    private List<HistorienZeile> alsZeilen(List<Tuple> koepfe) {
+        if (koepfe.isEmpty()) {
+            return List.of();
+        }
+
+        // ----- 2) Teams, Spieler und Sätze dieser Spiele -----
+        List<Long> spielIds = new ArrayList<>();
+        for (Tuple kopf : koepfe) {
+            spielIds.add(kopf.get(0, Long.class));
+        }
+        Map<Long, Details> details = ladeDetails(spielIds);
+
+        // ----- 3) Zusammensetzen (Reihenfolge aus Abfrage 1) -----
+        List<HistorienZeile> zeilen = new ArrayList<>();
+        for (Tuple kopf : koepfe) {
+            Long spielId = kopf.get(0, Long.class);
+            Details d = details.getOrDefault(spielId, new Details());
+            List<HistorienZeile.TeamZeile> teams = d.teams();
+
+            zeilen.add(new HistorienZeile(
+                    spielId,
+                    kopf.get(1, LocalDate.class),
+                    kopf.get(2, SpielStatus.class),
+                    teams.size() > 0 ? teams.get(0) : null,
+                    teams.size() > 1 ? teams.get(1) : null,
+                    new ArrayList<>(d.saetze.values()),
+                    kopf.get(3, Long.class)));
+        }
+        return zeilen;
+    }
+
+    private Map<Long, Details> ladeDetails(List<Long> spielIds) {
+        @SuppressWarnings("unchecked")
+        List<Object[]> zeilen = entityManager.createNativeQuery(TEAMS_SPIELER_SAETZE)
+                .setParameter("spielIds", spielIds)
+                .getResultList();
+
+        Map<Long, Details> details = new HashMap<>();
+        for (Object[] z : zeilen) {
+            Details d = details.computeIfAbsent(alsLong(z[0]), id -> new Details());
+
+            Long teamId = alsLong(z[1]);
+            Map<Long, String> spieler = d.spielerNachTeam.computeIfAbsent(teamId, id -> new LinkedHashMap<>());
+            if (z[2] != null) {
+                String name = ((z[3] != null ? z[3] : "") + " " + (z[4] != null ? z[4] : "")).trim();
+                spieler.putIfAbsent(alsLong(z[2]), name);
+            }
+
+            if (z[5] != null) {
+                int nummer = ((Number) z[5]).intValue();
+                d.saetze.putIfAbsent(nummer, new Spielstand.SatzStand(
+                        nummer, ((Number) z[6]).intValue(), ((Number) z[7]).intValue()));
+            }
+        }
+        return details;
+    }
+
+    private static Long alsLong(Object wert) {
+        return wert == null ? null : ((Number) wert).longValue();
+    }
+
+    /**
+     * Zwischenstand pro Spiel beim Einsammeln der Zeilen aus Abfrage 2.
+     */
+    private static final class Details {
+        private final Map<Long, Map<Long, String>> spielerNachTeam = new LinkedHashMap<>();
+        private final SortedMap<Integer, Spielstand.SatzStand> saetze = new TreeMap<>();
+
+        private List<HistorienZeile.TeamZeile> teams() {
+            List<HistorienZeile.TeamZeile> teams = new ArrayList<>();
+            spielerNachTeam.forEach((teamId, spieler) ->
+                    teams.add(new HistorienZeile.TeamZeile(teamId, List.copyOf(spieler.values()))));
+            return teams;
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Filter + Cursor
+    // -------------------------------------------------------------------------
+
+    private Predicate[] bedingungen(CriteriaBuilder cb, CriteriaQuery<?> query, Root<Spiel> spiel,
+                                    SpielFilter filter, SpielCursor nach) {
+        Path<LocalDate> datum = spiel.get("datum");
+        Path<Long> id = spiel.get("id");
+
+        List<Predicate> bedingungen = new ArrayList<>();
+
+        if (filter.status() != null) {
+            bedingungen.add(cb.equal(spiel.get("status"), filter.status()));
+        }
+        if (filter.von() != null) {
+            bedingungen.add(cb.greaterThanOrEqualTo(datum, filter.von()));
+        }
+        if (filter.bis() != null) {
+            bedingungen.add(cb.lessThanOrEqualTo(datum, filter.bis()));
+        }
+        if (filter.hatSpieler()) {
+            bedingungen.add(cb.exists(spielerSubquery(cb, query, spiel, filter.spieler())));
+        }
+        if (nach != null) {
+            bedingungen.add(cb.lessThanOrEqualTo(datum, nach.datum()));
+            bedingungen.add(cb.or(
+                    cb.lessThan(datum, nach.datum()),
+                    cb.lessThan(id, nach.id())));
+        }
+        return bedingungen.toArray(new Predicate[0]);
+    }
+
+    /**
+     * Gibt es in einem der Teams des Spiels eine:n Spieler:in, deren Name passt?
+     */
+    private Subquery<Long> spielerSubquery(CriteriaBuilder cb, CriteriaQuery<?> query,
+                                           Root<Spiel> spiel, String name) {
+        String muster = "%" + name.trim().toLowerCase(Locale.ROOT) + "%";
+
+        Subquery<Long> sub = query.subquery(Long.class);
+        Root<Spiel> s = sub.correlate(spiel);
+        Join<Spiel, Team> team = s.join("teams");
+        Join<Team, Spieler> spieler = team.join("spieler");
+
+        Expression<String> vorname = cb.lower(spieler.get("vorname"));
+        Expression<String> nachname = cb.lower(spieler.get("nachname"));
+        Expression<String> vollerName = cb.concat(cb.concat(vorname, " "), nachname);
+
+        return sub.select(spieler.get("id"))
+                .where(cb.or(
+                        cb.like(vorname, muster),
+                        cb.like(nachname, muster),
+                        cb.like(vollerName, muster)));
+    }
+}
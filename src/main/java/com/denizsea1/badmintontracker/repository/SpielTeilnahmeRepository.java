@@ -0,0 +1,104 @@
+package com.denizsea1.badmintontracker.repository;
+
+import com.denizsea1.badmintontracker.model.SpielTeilnahme;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Index Spieler:in → Spiel. Alle Abfragen liefern nur Spiel-IDs, neueste zuerst
+ * (Keyset über datum/spielId wie die Spielliste); die Zeilen dazu lädt
+ * SpielSucheRepository.ladeHistorie.
+ */
+@Repository
+public interface SpielTeilnahmeRepository extends JpaRepository<SpielTeilnahme, Long> {
+
+    // ---- Karriere einer Spielerin / eines Spielers ----
+
+    @Query("""
+            select t.spielId from SpielTeilnahme t
+            where t.spielerSchluessel = :spieler
+            order by t.datum desc, t.spielId desc
+            """)
+    List<Long> findeSpielIds(@Param("spieler") String spieler, Pageable seite);
+
+    @Query("""
+            select t.spielId from SpielTeilnahme t
+            where t.spielerSchluessel = :spieler
+              and (t.datum < :datum or (t.datum = :datum and t.spielId < :id))
+            order by t.datum desc, t.spielId desc
+            """)
+    List<Long> findeSpielIdsNach(@Param("spieler") String spieler,
+                                 @Param("datum") LocalDate datum,
+                                 @Param("id") Long id,
+                                 Pageable seite);
+
+    // ---- Direktvergleich zweier Teams ----
+    // Über die erste Spielerin / den ersten Spieler von Team 1 -> eine Zeile pro Spiel
+
+    @Query("""
+            select t.spielId from SpielTeilnahme t
+            where t.spielerSchluessel = :spieler
+              and t.teamSchluessel = :team and t.gegnerSchluessel = :gegner
+            order by t.datum desc, t.spielId desc
+            """)
+    List<Long> findeDirektvergleich(@Param("spieler") String spieler,
+                                    @Param("team") String team,
+                                    @Param("gegner") String gegner,
+                                    Pageable seite);
+
+    @Query("""
+            select t.spielId from SpielTeilnahme t
+            where t.spielerSchluessel = :spieler
+              and t.teamSchluessel = :team and t.gegnerSchluessel = :gegner
+              and (t.datum < :datum or (t.datum = :datum and t.spielId < :id))
+            order by t.datum desc, t.spielId desc
+            """)
+    List<Long> findeDirektvergleichNach(@Param("spieler") String spieler,
+                                        @Param("team") String team,
+                                        @Param("gegner") String gegner,
+                                        @Param("datum") LocalDate datum,
+                                        @Param("id") Long id,
+                                        Pageable seite);
+
+    /**
+     * Anzahl Spiele je Ergebnis aus Sicht von Team 1: [gewonnen (true/false/null), anzahl].
+     */
+    @Query("""
+            select t.gewonnen, count(t) from SpielTeilnahme t
+            where t.spielerSchluessel = :spieler
+              and t.teamSchluessel = :team and t.gegnerSchluessel = :gegner
+            group by t.gewonnen
+            """)
+    List<Object[]> zaehleDirektvergleich(@Param("spieler") String spieler,
+                                         @Param("team") String team,
+                                         @Param("gegner") String gegner);
+
+    // ---- Pflege ----
+
+    /**
+     * Trägt das Ergebnis eines abgeschlossenen Spiels für eine Seite ein.
+     */
+    @Modifying
+    @Query("update SpielTeilnahme t set t.gewonnen = :gewonnen where t.spielId = :spielId and t.teamA = :teamA")
+    int setzeErgebnis(@Param("spielId") Long spielId,
+                      @Param("teamA") boolean teamA,
+                      @Param("gewonnen") Boolean gewonnen);
+
+    /**
+     * Spiele, die noch keine Einträge im Index haben (vor Einführung des Index gestartet).
+     */
+    @Query("""
+            select s.id from Spiel s
+            where s.id > :nachId
+              and not exists (select 1 from SpielTeilnahme t where t.spielId = s.id)
+            order by s.id
+            """)
+    List<Long> findeSpieleOhneTeilnahme(@Param("nachId") Long nachId, Pageable seite);
+}
@@ -6,4 +6,9 @@ import org.springframework.stereotype.Repository;
 
 @Repository
 public interface SpielerRepository extends JpaRepository<Spieler, Long> {
+
+    /**
+     * Anzahl der Spieler:innen, die gerade in einem laufenden Spiel stehen.
+     */
+    long countByInAktivemSpielTrue();
 }
@@ -0,0 +1,34 @@
+package com.denizsea1.badmintontracker.repository;
+
+import com.denizsea1.badmintontracker.model.SpielerReservierung;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Reservierungen Spieler:in → laufendes Spiel (Schlüssel = Spieler-ID).
+ */
+@Repository
+public interface SpielerReservierungRepository extends JpaRepository<SpielerReservierung, Long> {
+
+    @Modifying
+    @Query("delete from SpielerReservierung r where r.spielId = :spielId")
+    int loescheFuerSpiel(@Param("spielId") Long spielId);
+
+    /**
+     * [Spiel-ID, Spieler-ID] aller Spieler:innen in laufenden Spielen,
+     * älteste Spiele zuerst (Neuaufbau beim Start der Anwendung).
+     */
+    @Query("""
+            select s.id, sp.id from Spiel s
+            join s.teams t
+            join t.spieler sp
+            where s.status = com.denizsea1.badmintontracker.model.SpielStatus.LAUFEND
+            order by s.id
+            """)
+    List<Object[]> findeSpielerInLaufendenSpielen();
+}
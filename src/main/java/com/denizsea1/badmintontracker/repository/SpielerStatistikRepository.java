@@ -0,0 +1,20 @@
+package com.denizsea1.badmintontracker.repository;
+
+import com.denizsea1.badmintontracker.model.SpielerStatistik;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Statistik pro Spieler:in, Schlüssel = normalisierter Name.
+ */
+@Repository
+public interface SpielerStatistikRepository extends JpaRepository<SpielerStatistik, String> {
+
+    /**
+     * Keyset-Seite nach Schlüssel (Neuaufbau, siehe ZeilenErsatz).
+     */
+    List<SpielerStatistik> findBySchluesselGreaterThanOrderBySchluessel(String nach, Pageable seite);
+}
@@ -0,0 +1,25 @@
+package com.denizsea1.badmintontracker.repository;
+
+import com.denizsea1.badmintontracker.model.SpielerWertung;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Elo-Wertung pro Spieler:in, Schlüssel = normalisierter Name.
+ */
+@Repository
+public interface SpielerWertungRepository extends JpaRepository<SpielerWertung, String> {
+
+    /**
+     * Rangliste, beste Wertung zuerst.
+     */
+    List<SpielerWertung> findAllByOrderByWertDesc(Pageable seite);
+
+    /**
+     * Keyset-Seite nach Schlüssel (Neuaufbau, siehe ZeilenErsatz).
+     */
+    List<SpielerWertung> findBySchluesselGreaterThanOrderBySchluessel(String nach, Pageable seite);
+}
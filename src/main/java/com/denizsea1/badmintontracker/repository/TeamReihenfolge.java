@@ -0,0 +1,41 @@
+package com.denizsea1.badmintontracker.repository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Füllt spiel_team.team_nr (Team A/B, @OrderColumn an Spiel.teams) für Zeilen
+ * aus der Zeit vor dieser Spalte.
+ *
+ * Damals ergab sich Team A/B nur aus der Einfügereihenfolge der Zeilen; die
+ * wird hier einmalig über _ROWID_ (H2) in team_nr übernommen. Danach hängt
+ * keine Abfrage mehr an der physischen Reihenfolge. Läuft wie IdSequenzen nach
+ * dem Schema-Update und vor dem Start des Webservers.
+ */
+@Component
+public class TeamReihenfolge implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(TeamReihenfolge.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TeamReihenfolge(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        int gefuellt = jdbcTemplate.update("""
+                update spiel_team st
+                set team_nr = (select count(*) from spiel_team x
+                               where x.spiel_id = st.spiel_id and x._rowid_ < st._rowid_)
+                where team_nr is null
+                """);
+        if (gefuellt > 0) {
+            log.info("Team-Reihenfolge für {} Zeilen in spiel_team nachgetragen", gefuellt);
+        }
+    }
+}
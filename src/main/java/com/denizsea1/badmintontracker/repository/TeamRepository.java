@@ -2,8 +2,25 @@ package com.denizsea1.badmintontracker.repository;
 
 import com.denizsea1.badmintontracker.model.Team;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface TeamRepository extends JpaRepository<Team, Long> {
+
+    /**
+     * Teams samt Spieler:innen in einer Abfrage (z.B. beide Teams eines Spiels).
+     */
+    @Query("select t from Team t left join fetch t.spieler where t.id in :ids")
+    List<Team> findMitSpieler(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Alle Teams samt Spieler:innen in einer Abfrage (GET /teams, zwischengespeichert).
+     */
+    @Query("select distinct t from Team t left join fetch t.spieler order by t.id")
+    List<Team> findAlleMitSpieler();
 }
@@ -0,0 +1,20 @@
+package com.denizsea1.badmintontracker.repository;
+
+import com.denizsea1.badmintontracker.model.TeamStatistik;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Statistik pro Paarung, Schlüssel = normalisierte Namen beider Spieler:innen.
+ */
+@Repository
+public interface TeamStatistikRepository extends JpaRepository<TeamStatistik, String> {
+
+    /**
+     * Keyset-Seite nach Schlüssel (Neuaufbau, siehe ZeilenErsatz).
+     */
+    List<TeamStatistik> findBySchluesselGreaterThanOrderBySchluessel(String nach, Pageable seite);
+}
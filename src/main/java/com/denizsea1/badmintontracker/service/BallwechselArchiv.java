@@ -0,0 +1,302 @@
+package com.denizsea1.badmintontracker.service;
+
+import com.denizsea1.badmintontracker.dto.ArchivSpiel;
+import com.denizsea1.badmintontracker.dto.HistorienZeile;
+import com.denizsea1.badmintontracker.dto.ProtokollVerdichtung;
+import com.denizsea1.badmintontracker.dto.Zwischenstand;
+import com.denizsea1.badmintontracker.model.Ballwechsel;
+import com.denizsea1.badmintontracker.model.BallwechselFolge;
+import com.denizsea1.badmintontracker.model.Spiel;
+import com.denizsea1.badmintontracker.model.SpielProtokoll;
+import com.denizsea1.badmintontracker.model.SpielSnapshot;
+import com.denizsea1.badmintontracker.model.Team;
+import com.denizsea1.badmintontracker.repository.BallwechselRepository;
+import com.denizsea1.badmintontracker.repository.SpielProtokollRepository;
+import com.denizsea1.badmintontracker.repository.SpielRepository;
+import com.denizsea1.badmintontracker.repository.SpielSnapshotRepository;
+import com.denizsea1.badmintontracker.repository.TeamRepository;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Archiv der Ballwechsel-Protokolle: Punkt-für-Punkt-Verlauf in kompakter Form.
+ *
+ * - Während des Spiels bleibt das Protokoll Zeile für Zeile (ballwechsel,
+ *   spiel_snapshot) – Undo braucht Aufschlag vorher/nachher und Snapshots je Satz.
+ * - Bei Spielende wird es zu einer Zeile spiel_protokoll verdichtet
+ *   (BallwechselFolge, ein Bit pro wirksamem Ballwechsel); Ballwechsel-Zeilen
+ *   samt Schnitten (Undo) und alle Snapshots außer dem Start-Snapshot werden
+ *   gelöscht. Nur hier verschwinden Zeilen aus dem Protokoll – Undo geht nach
+ *   dem Spielende ohnehin nicht mehr.
+ * - Jeder Zwischenstand lässt sich daraus nachspielen: Start-Snapshot + die
+ *   ersten n Punkte durch die Regeln im SpielService – Aufschlag und
+ *   Positionen ergeben sich dabei von selbst.
+ * - Archivierte Spiele (SpielArchiv) tragen Punktfolge und Start-Snapshot in
+ *   ihrer Archivzeile und lassen sich genauso nachspielen.
+ */
+@Service
+public class BallwechselArchiv {
+
+    private static final Logger log = LoggerFactory.getLogger(BallwechselArchiv.class);
+
+    /**
+     * Spiele pro Seite bei der Nachverdichtung.
+     */
+    static final int VERDICHTUNG_SEITE = 200;
+
+    private final SpielRepository spielRepository;
+    private final TeamRepository teamRepository;
+    private final BallwechselRepository ballwechselRepository;
+    private final SpielSnapshotRepository snapshotRepository;
+    private final SpielProtokollRepository protokollRepository;
+    private final SpielService spielService;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final SpielAbschlussAufgaben abschlussAufgaben;
+    private final SpielArchiv spielArchiv;
+
+    public BallwechselArchiv(SpielRepository spielRepository,
+                             TeamRepository teamRepository,
+                             BallwechselRepository ballwechselRepository,
+                             SpielSnapshotRepository snapshotRepository,
+                             SpielProtokollRepository protokollRepository,
+                             SpielService spielService,
+                             EntityManager entityManager,
+                             PlatformTransactionManager transactionManager,
+                             SpielAbschlussAufgaben abschlussAufgaben,
+                             SpielArchiv spielArchiv) {
+        this.spielRepository = spielRepository;
+        this.teamRepository = teamRepository;
+        this.ballwechselRepository = ballwechselRepository;
+        this.snapshotRepository = snapshotRepository;
+        this.protokollRepository = protokollRepository;
+        this.spielService = spielService;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.abschlussAufgaben = abschlussAufgaben;
+        this.spielArchiv = spielArchiv;
+    }
+
+    // -------------------------------------------------------------------------
+    // 1) Verdichten
+    // -------------------------------------------------------------------------
+
+    /**
+     * Kommt nach dem sofortigen Speichern des Spielendes – das Protokoll
+     * ist dann vollständig in der Datenbank. Verdichtet wird auf dem Thread
+     * "spiel-abschluss-protokoll" (siehe SpielAbschlussAufgaben).
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSpielAbgeschlossen(SpielAbgeschlossenEvent event) {
+        Long spielId = event.abschluss().spielId();
+        abschlussAufgaben.fuehreAus("protokoll", spielId, () -> verdichte(spielId));
+    }
+
+    /**
+     * Verdichtet die Protokolle aller abgeschlossenen Spiele, die noch
+     * Ballwechsel-Zeilen haben (z.B. vor Einführung des Archivs beendet).
+     * Eine Transaktion pro Seite.
+     */
+    public ProtokollVerdichtung verdichteAlle() {
+        long start = System.nanoTime();
+        int spiele = 0;
+        int ballwechsel = 0;
+
+        Long nachId = 0L;
+        List<Long> ids;
+        do {
+            List<Long> seitenIds = ballwechselRepository.findeAbgeschlosseneSpieleMitBallwechseln(
+                    nachId, PageRequest.of(0, VERDICHTUNG_SEITE));
+            int[] seite = transactionTemplate.execute(status -> {
+                int[] summe = {0, 0};
+                for (Long spielId : seitenIds) {
+                    int entfernt = verdichte(spielId);
+                    if (entfernt > 0) {
+                        summe[0]++;
+                        summe[1] += entfernt;
+                    }
+                }
+                return summe;
+            });
+            if (seite != null) {
+                spiele += seite[0];
+                ballwechsel += seite[1];
+            }
+            ids = seitenIds;
+            if (!ids.isEmpty()) {
+                nachId = ids.getLast();
+            }
+        } while (ids.size() == VERDICHTUNG_SEITE);
+
+        long dauerMs = (System.nanoTime() - start) / 1_000_000;
+        log.info("Ballwechsel-Protokolle verdichtet: {} Spiele, {} Zeilen entfernt in {} ms",
+                spiele, ballwechsel, dauerMs);
+        return new ProtokollVerdichtung(spiele, ballwechsel, dauerMs);
+    }
+
+    /**
+     * Verdichtet das Protokoll eines Spiels (muss innerhalb einer Transaktion laufen).
+     *
+     * Übersprungen werden Spiele ohne Start-Snapshot (vor Einführung des
+     * Protokolls gestartet) und Protokolle mit Lücken – sie bleiben als Zeilen.
+     *
+     * @return Anzahl entfernter Ballwechsel-Zeilen (0 = nichts verdichtet)
+     */
+    private int verdichte(Long spielId) {
+        if (protokollRepository.existsById(spielId)) {
+            return 0;
+        }
+        List<SpielSnapshot> snapshots = snapshotRepository.findBySpielIdOrderBySequenz(spielId);
+        if (snapshots.isEmpty()) {
+            log.debug("Spiel {} hat keinen Start-Snapshot, Protokoll bleibt unverdichtet", spielId);
+            return 0;
+        }
+        SpielSnapshot start = snapshots.getFirst();
+
+        // Sequenzen werden lückenlos vergeben (Punkte und Schnitte) – eine Lücke heißt, es fehlt etwas
+        List<Ballwechsel> alle = ballwechselRepository.findBySpielIdOrderBySequenz(spielId);
+        int erwartet = start.getSequenz() + 1;
+        for (Ballwechsel b : alle) {
+            if (b.getSequenz() > start.getSequenz()) {
+                if (b.getSequenz() != erwartet) {
+                    log.warn("Protokoll von Spiel {} hat eine Lücke vor Sequenz {}, bleibt unverdichtet",
+                            spielId, b.getSequenz());
+                    return 0;
+                }
+                erwartet++;
+            }
+        }
+        List<Ballwechsel> nachStart = nachStart(alle, start);
+
+        protokollRepository.save(new SpielProtokoll(spielId, start.getSequenz(), BallwechselFolge.aus(nachStart)));
+        ballwechselRepository.loescheAb(spielId, 0);
+        snapshotRepository.loescheAb(spielId, start.getSequenz() + 1);
+        return alle.size();
+    }
+
+    // -------------------------------------------------------------------------
+    // 2) Nachspielen
+    // -------------------------------------------------------------------------
+
+    /**
+     * Stand eines Spiels nach einem bestimmten Ballwechsel.
+     *
+     * Abgeschlossene Spiele kommen aus spiel_protokoll, laufende aus den
+     * Ballwechsel-Zeilen (Stand der letzten Speicherung, siehe LiveSpielEngine),
+     * archivierte aus ihrer Zeile im SpielArchiv. Nachgespielt wird auf einer vom Persistenzkontext gelösten Kopie –
+     * nichts davon wird je gespeichert.
+     *
+     * @param nachBallwechsel Anzahl wirksamer Ballwechsel (0 = Spielstart), null = letzter Ballwechsel
+     * @return leer, falls es das Spiel nicht gibt
+     * @throws IllegalArgumentException falls die Sequenz außerhalb des Protokolls liegt
+     * @throws IllegalStateException    falls es für das Spiel kein Protokoll gibt
+     */
+    public Optional<Zwischenstand> findeZwischenstand(Long spielId, Integer nachBallwechsel) {
+        Optional<Zwischenstand> ausDatenbank = ausDatenbank(spielId, nachBallwechsel);
+        if (ausDatenbank.isPresent()) {
+            return ausDatenbank;
+        }
+        return spielArchiv.ladeSpiel(spielId).map(archiviert -> ausArchiv(archiviert, nachBallwechsel));
+    }
+
+    private Optional<Zwischenstand> ausDatenbank(Long spielId, Integer nachBallwechsel) {
+        return transactionTemplate.execute(status -> {
+            Optional<Spiel> geladen = ladeLosgeloest(spielId);
+            if (geladen.isEmpty()) {
+                return Optional.empty();
+            }
+
+            List<SpielSnapshot> snapshots = snapshotRepository.findBySpielIdOrderBySequenz(spielId);
+            if (snapshots.isEmpty()) {
+                throw new IllegalStateException("Für Spiel " + spielId + " gibt es kein Ballwechsel-Protokoll.");
+            }
+            SpielSnapshot start = snapshots.getFirst();
+            BallwechselFolge folge = protokollRepository.findById(spielId)
+                    .map(SpielProtokoll::folge)
+                    .orElseGet(() -> BallwechselFolge.aus(
+                            nachStart(ballwechselRepository.findBySpielIdOrderBySequenz(spielId), start)));
+            return Optional.of(spieleNach(geladen.get(), start, folge, nachBallwechsel));
+        });
+    }
+
+    /**
+     * Baut das Spiel aus der Archivzeile nach (nur IDs, siehe Spiel.losgeloest)
+     * und spielt es ab dem archivierten Start-Snapshot nach.
+     */
+    private Zwischenstand ausArchiv(ArchivSpiel archiviert, Integer nachBallwechsel) {
+        HistorienZeile zeile = archiviert.spiel();
+        ArchivSpiel.Start start = archiviert.start();
+        if (start == null || archiviert.ballwechsel() == null) {
+            throw new IllegalStateException("Für Spiel " + zeile.id() + " gibt es kein Ballwechsel-Protokoll.");
+        }
+        Spiel spiel = Spiel.losgeloest(zeile.id(), zeile.datum(),
+                List.of(zeile.teamA().id(), zeile.teamB().id()),
+                List.of(start.spielerTeamA(), start.spielerTeamB()));
+        SpielSnapshot snapshot = SpielSnapshot.aus(zeile.id(), start.sequenz(), start.satzstaende(),
+                start.aufschlagTeamA(), start.aufschlagSeite(), start.positionen());
+        return spieleNach(spiel, snapshot, BallwechselFolge.dekodiere(archiviert.ballwechsel()), nachBallwechsel);
+    }
+
+    /**
+     * @throws IllegalArgumentException falls die Sequenz außerhalb des Protokolls liegt
+     */
+    private Zwischenstand spieleNach(Spiel spiel, SpielSnapshot start, BallwechselFolge folge,
+                                     Integer nachBallwechsel) {
+        int ende = start.getSequenz() + folge.anzahl();
+        int nach = nachBallwechsel != null ? nachBallwechsel : ende;
+        if (nach < start.getSequenz() || nach > ende) {
+            throw new IllegalArgumentException("Ballwechsel " + nach + " liegt nicht im Protokoll ("
+                    + start.getSequenz() + " bis " + ende + ").");
+        }
+        return new Zwischenstand(nach, ende, spielService.spieleNach(spiel, start, folge, nach - start.getSequenz()));
+    }
+
+    /**
+     * Wirksame Ballwechsel nach dem Start-Snapshot (Schnitte ausgewertet).
+     */
+    private static List<Ballwechsel> nachStart(List<Ballwechsel> protokoll, SpielSnapshot start) {
+        List<Ballwechsel> nachStart = new ArrayList<>();
+        for (Ballwechsel b : SpielVerlauf.wirksameBallwechsel(protokoll)) {
+            if (b.getSequenz() > start.getSequenz()) {
+                nachStart.add(b);
+            }
+        }
+        return nachStart;
+    }
+
+    /**
+     * Lädt Spiel, Teams, Spieler und Sätze (wie LiveSpielEngine.ladeGraph) und
+     * löst sie vom Persistenzkontext, damit Änderungen beim Nachspielen nie
+     * geschrieben werden.
+     */
+    private Optional<Spiel> ladeLosgeloest(Long spielId) {
+        Optional<Spiel> spiel = spielRepository.findMitTeams(spielId);
+        if (spiel.isEmpty()) {
+            return spiel;
+        }
+        spielRepository.findMitSaetze(spielId);
+        List<Long> teamIds = new ArrayList<>();
+        for (Team team : spiel.get().getTeams()) {
+            teamIds.add(team.getId());
+        }
+        if (!teamIds.isEmpty()) {
+            teamRepository.findMitSpieler(teamIds);
+        }
+
+        for (Team team : spiel.get().getTeams()) {
+            entityManager.detach(team); // Spieler per Cascade
+        }
+        entityManager.detach(spiel.get()); // Sätze per Cascade
+        return spiel;
+    }
+}
@@ -0,0 +1,13 @@
+package com.denizsea1.badmintontracker.service;
+
+import java.util.Set;
+
+/**
+ * Wird vom SpielService veröffentlicht, wenn sich Spieler.inAktivemSpiel
+ * ändert – beim Start und beim Ende / Abbruch eines Spiels.
+ *
+ * @param teamIds    betroffene Teams
+ * @param spielerIds betroffene Spieler:innen
+ */
+public record BelegungGeaendertEvent(Set<Long> teamIds, Set<Long> spielerIds) {
+}
@@ -0,0 +1,39 @@
+package com.denizsea1.badmintontracker.service;
+
+/**
+ * Elo für Doppel: ein Team spielt mit dem Mittelwert seiner beiden Wertungen,
+ * beide Spieler:innen eines Teams bekommen dieselbe Änderung.
+ *
+ * Erwartung von Team A:  E = 1 / (1 + 10^((B - A) / 400))
+ * Änderung für Team A:   K * (S - E), S = 1 (Sieg) bzw. 0 (Niederlage)
+ * Team B bekommt genau das Negative – die Summe aller Wertungen bleibt gleich.
+ *
+ * @param kFaktor       maximale Änderung pro Spiel
+ * @param startWert     Wertung neuer Spieler:innen
+ * @param abbruchFaktor K wird bei abgebrochenen Spielen damit multipliziert
+ *                      (0 = Abbrüche zählen nicht, 1 = wie ein normales Spiel)
+ */
+public record EloRechner(double kFaktor, double startWert, double abbruchFaktor) {
+
+    public EloRechner {
+        if (kFaktor <= 0 || abbruchFaktor < 0 || abbruchFaktor > 1) {
+            throw new IllegalArgumentException(
+                    "Ungültige Elo-Parameter: k=" + kFaktor + ", abbruchFaktor=" + abbruchFaktor);
+        }
+    }
+
+    /**
+     * Änderung für jede Person in Team A (Team B: negativ).
+     *
+     * @param wertungA     mittlere Wertung von Team A
+     * @param wertungB     mittlere Wertung von Team B
+     * @param teamAGewinnt Ergebnis
+     * @param abgebrochen  true bei ABGEBROCHEN
+     */
+    public double aenderungTeamA(double wertungA, double wertungB,
+                                 boolean teamAGewinnt, boolean abgebrochen) {
+        double erwartung = 1.0 / (1.0 + Math.pow(10.0, (wertungB - wertungA) / 400.0));
+        double k = abgebrochen ? kFaktor * abbruchFaktor : kFaktor;
+        return k * ((teamAGewinnt ? 1.0 : 0.0) - erwartung);
+    }
+}
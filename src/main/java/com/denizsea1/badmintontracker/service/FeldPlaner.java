@@ -0,0 +1,237 @@
+package com.denizsea1.badmintontracker.service;
+
+import com.denizsea1.badmintontracker.dto.PlanerStatus;
+import com.denizsea1.badmintontracker.dto.PlanerStatus.Ansetzung;
+import com.denizsea1.badmintontracker.dto.PlanerStatus.FeldBelegung;
+import com.denizsea1.badmintontracker.model.Seite;
+import com.denizsea1.badmintontracker.model.Spiel;
+import com.denizsea1.badmintontracker.model.Team;
+import com.denizsea1.badmintontracker.repository.TeamRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Feldplanung für Turniere: angesetzte Paarungen warten in einer
+ * Prioritäts-Warteschlange und werden automatisch gestartet, sobald ein Feld
+ * und alle vier Spieler:innen frei sind.
+ *
+ * - Warteschlange: TreeSet nach (Priorität absteigend, Ansetzung aufsteigend).
+ *   Anders als eine PriorityQueue lässt sie sich der Reihe nach durchlaufen –
+ *   ist die erste Paarung blockiert, kommt die nächste spielbereite dran.
+ * - Belegung: über SpielerReservierungen (auch für manuell gestartete
+ *   Spiele). Die Prüfung "alle frei?" sind vier Map-Zugriffe, ohne
+ *   Spieler-Zeilen aus der Datenbank zu lesen.
+ * - Gestartet wird auf einem eigenen Thread ("feld-planer"): nie in der
+ *   Transaktion oder Messung der Operation, die ein Spiel beendet hat.
+ *
+ * Die Felder gehören nur dem Planer; manuell gestartete Spiele (POST /spiele/start)
+ * belegen Spieler:innen, aber kein Feld. Warteschlange und Felder liegen nur im
+ * Speicher – nach einem Neustart sind die Felder frei und die Ansetzungen neu einzutragen.
+ */
+@Service
+public class FeldPlaner {
+
+    private static final Logger log = LoggerFactory.getLogger(FeldPlaner.class);
+
+    private static final Comparator<Ansetzung> REIHENFOLGE =
+            Comparator.comparingInt(Ansetzung::prioritaet).reversed()
+                    .thenComparingLong(Ansetzung::id);
+
+    private final SpielService spielService;
+    private final TeamRepository teamRepository;
+    private final SpielerReservierungen reservierungen;
+
+    // ---- Zustand, nur unter synchronized(this) ----
+
+    private final NavigableSet<Ansetzung> wartend = new TreeSet<>(REIHENFOLGE);
+    private final Map<Long, Ansetzung> wartendNachId = new HashMap<>();
+
+    /**
+     * Index = Feldnummer - 1, Wert = laufendes Spiel oder null.
+     * Wird nur vom Planer-Thread geändert.
+     */
+    private final Long[] felder;
+
+    private long naechsteId = 1;
+
+    private final ExecutorService planer = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "feld-planer");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public FeldPlaner(SpielService spielService,
+                      TeamRepository teamRepository,
+                      SpielerReservierungen reservierungen,
+                      @Value("${badminton.planer.felder:4}") int anzahlFelder) {
+        this.spielService = spielService;
+        this.teamRepository = teamRepository;
+        this.reservierungen = reservierungen;
+        this.felder = new Long[anzahlFelder];
+    }
+
+    // -------------------------------------------------------------------------
+    // 1) Spielende
+    // -------------------------------------------------------------------------
+
+    /**
+     * Kommt nach dem Speichern des Spielendes (die Spieler:innen sind in
+     * SpielerReservierungen schon frei) – Feld freigeben und neu verteilen
+     * auf dem Planer-Thread.
+     */
+    @EventListener
+    public void onSpielAbgeschlossen(SpielAbgeschlossenEvent event) {
+        Long spielId = event.abschluss().spielId();
+        planer.execute(() -> {
+            gebeFrei(spielId);
+            verteile();
+        });
+    }
+
+    private synchronized void gebeFrei(Long spielId) {
+        for (int i = 0; i < felder.length; i++) {
+            if (spielId.equals(felder[i])) {
+                felder[i] = null;
+            }
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // 2) Ansetzungen
+    // -------------------------------------------------------------------------
+
+    /**
+     * Setzt eine Paarung an. Team A hat später den ersten Aufschlag (von RECHTS).
+     *
+     * @throws NoSuchElementException   falls ein Team nicht existiert
+     * @throws IllegalArgumentException falls beide Teams Spieler:innen teilen
+     */
+    public Ansetzung reiheEin(Long teamAId, Long teamBId, int prioritaet) {
+        Map<Long, Team> teamsNachId = new HashMap<>();
+        for (Team team : teamRepository.findMitSpieler(List.of(teamAId, teamBId))) {
+            teamsNachId.put(team.getId(), team);
+        }
+        Team teamA = Optional.ofNullable(teamsNachId.get(teamAId))
+                .orElseThrow(() -> new NoSuchElementException("Team A nicht gefunden: " + teamAId));
+        Team teamB = Optional.ofNullable(teamsNachId.get(teamBId))
+                .orElseThrow(() -> new NoSuchElementException("Team B nicht gefunden: " + teamBId));
+
+        Set<Long> spielerIds = SpielService.spielerIds(teamA, teamB);
+        if (teamAId.equals(teamBId)
+                || spielerIds.size() < teamA.getSpieler().size() + teamB.getSpieler().size()) {
+            throw new IllegalArgumentException("Team A und Team B dürfen keine Spieler:innen teilen.");
+        }
+
+        Ansetzung ansetzung;
+        synchronized (this) {
+            ansetzung = new Ansetzung(naechsteId++, teamAId, teamBId, prioritaet,
+                    Set.copyOf(spielerIds), Instant.now());
+            wartend.add(ansetzung);
+            wartendNachId.put(ansetzung.id(), ansetzung);
+        }
+        planer.execute(this::verteile);
+        return ansetzung;
+    }
+
+    /**
+     * Entfernt eine noch wartende Ansetzung.
+     *
+     * @return false, falls sie nicht (mehr) wartet
+     */
+    public synchronized boolean entferne(long ansetzungId) {
+        Ansetzung ansetzung = wartendNachId.remove(ansetzungId);
+        return ansetzung != null && wartend.remove(ansetzung);
+    }
+
+    public synchronized PlanerStatus status() {
+        List<FeldBelegung> belegung = new ArrayList<>();
+        for (int i = 0; i < felder.length; i++) {
+            belegung.add(new FeldBelegung(i + 1, felder[i]));
+        }
+        return new PlanerStatus(belegung, new ArrayList<>(wartend));
+    }
+
+    // -------------------------------------------------------------------------
+    // 3) Verteilen (nur auf dem Planer-Thread)
+    // -------------------------------------------------------------------------
+
+    /**
+     * Startet so lange die jeweils erste spielbereite Ansetzung, bis kein Feld
+     * mehr frei ist oder keine Ansetzung mehr spielen kann.
+     */
+    private void verteile() {
+        Set<Long> uebersprungen = new HashSet<>();
+        while (true) {
+            int feld;
+            Ansetzung naechste;
+            synchronized (this) {
+                feld = freiesFeld();
+                naechste = feld < 0 ? null : ersteSpielbereite(uebersprungen);
+                if (naechste == null) {
+                    return;
+                }
+                wartend.remove(naechste);
+                wartendNachId.remove(naechste.id());
+            }
+
+            try {
+                Spiel spiel = spielService.startNeuesSpiel(
+                        naechste.teamAId(), naechste.teamBId(), true, Seite.RECHTS);
+                synchronized (this) {
+                    felder[feld] = spiel.getId();
+                }
+            } catch (IllegalStateException e) {
+                // Jemand ist doch belegt (z.B. gleichzeitig manuell gestartet) – später erneut
+                log.debug("Ansetzung {} noch nicht startbar: {}", naechste.id(), e.getMessage());
+                uebersprungen.add(naechste.id());
+                stelleZurueck(naechste);
+            } catch (NoSuchElementException e) {
+                log.warn("Ansetzung {} verworfen: {}", naechste.id(), e.getMessage());
+            } catch (RuntimeException e) {
+                // z.B. Datenbankfehler – Ansetzung nicht verlieren, später erneut
+                log.error("Ansetzung {} konnte nicht gestartet werden, bleibt in der Warteschlange",
+                        naechste.id(), e);
+                uebersprungen.add(naechste.id());
+                stelleZurueck(naechste);
+            }
+        }
+    }
+
+    private synchronized void stelleZurueck(Ansetzung ansetzung) {
+        wartend.add(ansetzung);
+        wartendNachId.put(ansetzung.id(), ansetzung);
+    }
+
+    private int freiesFeld() {
+        for (int i = 0; i < felder.length; i++) {
+            if (felder[i] == null) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private Ansetzung ersteSpielbereite(Set<Long> uebersprungen) {
+        for (Ansetzung ansetzung : wartend) {
+            if (!uebersprungen.contains(ansetzung.id())
+                    && ansetzung.spielerIds().stream().allMatch(reservierungen::istFrei)) {
+                return ansetzung;
+            }
+        }
+        return null;
+    }
+
+    @PreDestroy
+    public void beenden() {
+        planer.shutdownNow();
+    }
+}
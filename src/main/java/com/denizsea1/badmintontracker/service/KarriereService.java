@@ -0,0 +1,232 @@
+package com.denizsea1.badmintontracker.service;
+
+import com.denizsea1.badmintontracker.dto.Direktvergleich;
+import com.denizsea1.badmintontracker.dto.HistorienZeile;
+import com.denizsea1.badmintontracker.dto.SpielCursor;
+import com.denizsea1.badmintontracker.dto.SpielSeite;
+import com.denizsea1.badmintontracker.dto.TeilnahmeNeuaufbau;
+import com.denizsea1.badmintontracker.model.SpielTeilnahme;
+import com.denizsea1.badmintontracker.model.SpielerStatistik;
+import com.denizsea1.badmintontracker.model.TeamStatistik;
+import com.denizsea1.badmintontracker.repository.SpielRepository;
+import com.denizsea1.badmintontracker.repository.SpielTeilnahmeRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Karriere einer Spielerin / eines Spielers und Direktvergleich zweier Teams
+ * über den Index spiel_teilnahme.
+ *
+ * - Die Zeilen entstehen beim Spielstart (SpielService.startNeuesSpiel),
+ *   das Ergebnis wird beim Spielende nachgetragen.
+ * - Lesen: erst die Spiel-IDs einer Seite über den Index, dann die
+ *   Historien-Zeilen genau dieser Spiele (SpielSucheRepository.ladeHistorie,
+ *   archivierte Spiele aus dem SpielArchiv).
+ *   Beides hängt nur von der Seitengröße ab, nicht von der Anzahl aller Spiele.
+ * - Neuaufbau: trägt Spiele nach, die vor dem Index gestartet wurden –
+ *   eine Transaktion pro Seite.
+ */
+@Service
+public class KarriereService {
+
+    /**
+     * Spiele pro Durchgang beim Nachtragen.
+     */
+    private static final int NEUAUFBAU_SEITE = 500;
+
+    private final SpielRepository spielRepository;
+    private final SpielTeilnahmeRepository teilnahmeRepository;
+    private final SpielArchiv spielArchiv;
+    private final SpielAbschlussAufgaben abschlussAufgaben;
+    private final TransactionTemplate transactionTemplate;
+
+    public KarriereService(SpielRepository spielRepository,
+                           SpielTeilnahmeRepository teilnahmeRepository,
+                           SpielArchiv spielArchiv,
+                           SpielAbschlussAufgaben abschlussAufgaben,
+                           PlatformTransactionManager transactionManager) {
+        this.spielRepository = spielRepository;
+        this.teilnahmeRepository = teilnahmeRepository;
+        this.spielArchiv = spielArchiv;
+        this.abschlussAufgaben = abschlussAufgaben;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // -------------------------------------------------------------------------
+    // 1) Ergebnis bei Spielende / Abbruch
+    // -------------------------------------------------------------------------
+
+    /**
+     * Nach dem Commit des Spielendes, auf dem Thread "spiel-abschluss-karriere"
+     * (siehe SpielAbschlussAufgaben).
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSpielAbgeschlossen(SpielAbgeschlossenEvent event) {
+        SpielAbschluss abschluss = event.abschluss();
+        Boolean teamAGewinnt = abschluss.teamAGewinnt();
+        if (teamAGewinnt == null) {
+            return;
+        }
+        abschlussAufgaben.fuehreAus("karriere", abschluss.spielId(), () -> {
+            teilnahmeRepository.setzeErgebnis(abschluss.spielId(), true, teamAGewinnt);
+            teilnahmeRepository.setzeErgebnis(abschluss.spielId(), false, !teamAGewinnt);
+        });
+    }
+
+    // -------------------------------------------------------------------------
+    // 2) Lesen
+    // -------------------------------------------------------------------------
+
+    /**
+     * Alle Spiele einer Spielerin / eines Spielers (Name wird normalisiert), neueste zuerst.
+     */
+    public SpielSeite<HistorienZeile> findeKarriere(String name, SpielCursor nach, int limit) {
+        int anzahl = Math.clamp(limit, 1, SpielService.SEITE_MAX);
+        String spieler = SpielerStatistik.schluessel(name);
+        PageRequest seite = PageRequest.of(0, anzahl + 1);
+
+        List<Long> ids = nach == null
+                ? teilnahmeRepository.findeSpielIds(spieler, seite)
+                : teilnahmeRepository.findeSpielIdsNach(spieler, nach.datum(), nach.id(), seite);
+        return alsSeite(ids, anzahl);
+    }
+
+    /**
+     * Direktvergleich zweier Paarungen – Reihenfolge der Namen innerhalb
+     * eines Teams egal. Zähler über alle Spiele, Spiele seitenweise.
+     */
+    public Direktvergleich findeDirektvergleich(List<String> team1, List<String> team2,
+                                                SpielCursor nach, int limit) {
+        int anzahl = Math.clamp(limit, 1, SpielService.SEITE_MAX);
+        String team = TeamStatistik.schluessel(team1);
+        String gegner = TeamStatistik.schluessel(team2);
+        // Eine Person aus Team 1 genügt – so liefert der Index genau eine Zeile pro Spiel
+        String spieler = team1.stream()
+                .map(SpielerStatistik::schluessel)
+                .min(Comparator.naturalOrder())
+                .orElseThrow();
+        PageRequest seite = PageRequest.of(0, anzahl + 1);
+
+        List<Long> ids = nach == null
+                ? teilnahmeRepository.findeDirektvergleich(spieler, team, gegner, seite)
+                : teilnahmeRepository.findeDirektvergleichNach(spieler, team, gegner,
+                        nach.datum(), nach.id(), seite);
+
+        long spiele = 0;
+        long siegeTeam1 = 0;
+        long siegeTeam2 = 0;
+        for (Object[] zeile : teilnahmeRepository.zaehleDirektvergleich(spieler, team, gegner)) {
+            long n = (Long) zeile[1];
+            spiele += n;
+            if (Boolean.TRUE.equals(zeile[0])) {
+                siegeTeam1 += n;
+            } else if (Boolean.FALSE.equals(zeile[0])) {
+                siegeTeam2 += n;
+            }
+        }
+
+        return new Direktvergleich(new TeamStatistik(team1).getName(), new TeamStatistik(team2).getName(),
+                spiele, siegeTeam1, siegeTeam2, alsSeite(ids, anzahl));
+    }
+
+    /**
+     * Es wird eine ID mehr gelesen als angefordert – gibt es sie, existiert
+     * eine weitere Seite (wie SpielService.findeHistorie).
+     */
+    private SpielSeite<HistorienZeile> alsSeite(List<Long> ids, int anzahl) {
+        boolean weitere = ids.size() > anzahl;
+        List<Long> seite = weitere ? ids.subList(0, anzahl) : ids;
+        List<HistorienZeile> zeilen = spielRepository.ladeHistorie(seite);
+        if (zeilen.size() < seite.size()) {
+            zeilen = ergaenzeAusArchiv(seite, zeilen);
+        }
+        if (!weitere || zeilen.isEmpty()) {
+            return new SpielSeite<>(zeilen, null);
+        }
+        HistorienZeile letzte = zeilen.getLast();
+        return new SpielSeite<>(zeilen, new SpielCursor(letzte.datum(), letzte.id()));
+    }
+
+    /**
+     * Spiele, die nicht mehr in der Datenbank sind, kommen aus dem SpielArchiv –
+     * Reihenfolge wie in 'ids'.
+     */
+    private List<HistorienZeile> ergaenzeAusArchiv(List<Long> ids, List<HistorienZeile> ausDb) {
+        Map<Long, HistorienZeile> nachId = new HashMap<>();
+        for (HistorienZeile zeile : ausDb) {
+            nachId.put(zeile.id(), zeile);
+        }
+        List<Long> fehlend = new ArrayList<>();
+        for (Long id : ids) {
+            if (!nachId.containsKey(id)) {
+                fehlend.add(id);
+            }
+        }
+        nachId.putAll(spielArchiv.lade(fehlend));
+
+        List<HistorienZeile> zeilen = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            HistorienZeile zeile = nachId.get(id);
+            if (zeile != null) {
+                zeilen.add(zeile);
+            }
+        }
+        return zeilen;
+    }
+
+    // -------------------------------------------------------------------------
+    // 3) Neuaufbau
+    // -------------------------------------------------------------------------
+
+    /**
+     * Legt Index-Zeilen für alle Spiele an, die noch keine haben.
+     * Mehrfach aufrufbar – bereits erfasste Spiele bleiben unverändert;
+     * bricht ein Lauf ab, bleiben die schon gespeicherten Seiten erhalten.
+     */
+    public TeilnahmeNeuaufbau bauNeuAuf() {
+        long start = System.nanoTime();
+        int spiele = 0;
+        int eintraege = 0;
+
+        Long nachId = 0L;
+        List<Long> ids;
+        do {
+            List<Long> seitenIds = teilnahmeRepository.findeSpieleOhneTeilnahme(
+                    nachId, PageRequest.of(0, NEUAUFBAU_SEITE));
+            int[] seite = transactionTemplate.execute(status -> {
+                int[] summe = {0, 0};
+                List<SpielTeilnahme> neu = new ArrayList<>();
+                for (HistorienZeile zeile : spielRepository.ladeHistorie(seitenIds)) {
+                    List<SpielTeilnahme> zeilen = SpielTeilnahme.aus(zeile);
+                    if (!zeilen.isEmpty()) {
+                        summe[0]++;
+                        neu.addAll(zeilen);
+                    }
+                }
+                teilnahmeRepository.saveAll(neu);
+                summe[1] = neu.size();
+                return summe;
+            });
+            if (seite != null) {
+                spiele += seite[0];
+                eintraege += seite[1];
+            }
+            ids = seitenIds;
+            if (!ids.isEmpty()) {
+                nachId = ids.getLast();
+            }
+        } while (ids.size() == NEUAUFBAU_SEITE);
+
+        long dauerMs = (System.nanoTime() - start) / 1_000_000;
+        return new TeilnahmeNeuaufbau(spiele, eintraege, dauerMs);
+    }
+}
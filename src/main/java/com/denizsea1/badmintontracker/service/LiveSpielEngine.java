@@ -0,0 +1,675 @@
+package com.denizsea1.badmintontracker.service;
+
+import com.denizsea1.badmintontracker.model.*;
+import com.denizsea1.badmintontracker.repository.BallwechselRepository;
+import com.denizsea1.badmintontracker.repository.SpielRepository;
+import com.denizsea1.badmintontracker.repository.SpielSnapshotRepository;
+import com.denizsea1.badmintontracker.repository.TeamRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+
+/**
+ * Hält den Zustand aller LAUFENDEN Spiele im Speicher (Write-Behind).
+ *
+ * - Ein Spiel wird beim ersten Zugriff einmal vollständig geladen
+ *   (Spiel -> Teams -> Spieler, Sätze) und danach nur noch im Speicher geändert.
+ *   Der Ladeplan ist fest: 3 Abfragen für den Objektgraphen + 2 für das Protokoll,
+ *   danach kommen Punkt, Undo und Pausenprüfung ohne SQL aus.
+ * - Punkte, Undo usw. ändern den gecachten Objektgraphen unter einer
+ *   Sperre pro Spiel – ohne Datenbankzugriff.
+ * - Ein Hintergrund-Job schreibt alle geänderten Spiele gesammelt
+ *   in einer Transaktion zurück (spätestens nach badminton.live.flush-intervall-ms).
+ *   Scheitert die gemeinsame Transaktion, wird jedes Spiel einzeln wiederholt;
+ *   ein Spiel, das MAX_FEHLVERSUCHE-mal in Folge nicht gespeichert werden kann,
+ *   nimmt keine Änderungen mehr an, bis es wieder gespeichert ist.
+ * - Bei Satzende, Matchende/Abbruch und beim Herunterfahren wird sofort gespeichert.
+ * - Befehle auf dasselbe Spiel laufen nacheinander (Monitor pro Spiel),
+ *   verschiedene Spiele vollständig parallel – es gibt keine globale Sperre.
+ * - Beim Speichern wird die Version des Spiels geprüft: hat seit dem Laden
+ *   jemand anderes gespeichert (z.B. eine zweite Instanz), wird nichts
+ *   überschrieben, sondern der Speicherstand verworfen und neu geladen.
+ * - Zu jedem Spiel wird das Ballwechsel-Protokoll (SpielVerlauf) mitgeführt;
+ *   neue Ballwechsel werden beim Speichern als kleine INSERTs angehängt.
+ * - Nach außen geht nie der Live-Objektgraph, sondern eine unter der Sperre
+ *   erstellte Kopie (Spiel.kopie()) – Serialisieren kann sonst mitten in
+ *   einen Punkt eines anderen Threads geraten.
+ *
+ * Die Spielregeln selbst liegen weiterhin im SpielService – die Engine
+ * stellt nur den (gesperrten) Objektgraphen bereit.
+ */
+@Component
+public class LiveSpielEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(LiveSpielEngine.class);
+
+    /**
+     * Fehlgeschlagene Speicherversuche in Folge, ab denen ein Spiel
+     * keine Änderungen mehr annimmt.
+     */
+    static final int MAX_FEHLVERSUCHE = 3;
+
+    private final SpielRepository spielRepository;
+    private final TeamRepository teamRepository;
+    private final BallwechselRepository ballwechselRepository;
+    private final SpielSnapshotRepository snapshotRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int flushBatchGroesse;
+
+    private final ConcurrentHashMap<Long, LiveSpiel> spiele = new ConcurrentHashMap<>();
+
+    public LiveSpielEngine(SpielRepository spielRepository,
+                           TeamRepository teamRepository,
+                           BallwechselRepository ballwechselRepository,
+                           SpielSnapshotRepository snapshotRepository,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${badminton.live.flush-batch-groesse:200}") int flushBatchGroesse) {
+        this.spielRepository = spielRepository;
+        this.teamRepository = teamRepository;
+        this.ballwechselRepository = ballwechselRepository;
+        this.snapshotRepository = snapshotRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.flushBatchGroesse = flushBatchGroesse;
+    }
+
+    // -------------------------------------------------------------------------
+    // 1) Zugriff auf laufende Spiele
+    // -------------------------------------------------------------------------
+
+    /**
+     * Wendet eine Änderung auf den In-Memory-Zustand eines Spiels an.
+     *
+     * - Ist das Spiel noch nicht im Speicher, wird es einmal geladen.
+     * - Ist das Spiel nicht (mehr) LAUFEND, wird es nicht gecacht;
+     *   die Änderung läuft dann direkt auf dem geladenen Spiel
+     *   (die Regeln im SpielService werfen in diesem Fall eine Exception).
+     * - Wurde der Speicherstand verworfen, während auf die Sperre gewartet
+     *   wurde (Spielende, Versionskonflikt), wird neu geladen.
+     * - Nach Satzende oder Spielende wird sofort gespeichert,
+     *   ein beendetes Spiel verlässt danach den Speicher. Scheitert das
+     *   Speichern, wird der Speicherstand verworfen (nächster Befehl lädt
+     *   den gespeicherten Stand) und die Exception weitergegeben.
+     *
+     * @return Kopie des neuen (In-Memory-)Stands
+     * @throws IllegalStateException falls das Spiel wiederholt nicht gespeichert werden konnte
+     */
+    public Spiel aendere(Long spielId, BiConsumer<Spiel, SpielVerlauf> aenderung) {
+        while (true) {
+            LiveSpiel live = spiele.get(spielId);
+            if (live == null) {
+                LiveSpiel geladen = ladeVollstaendig(spielId);
+                if (geladen.spiel.getStatus() != SpielStatus.LAUFEND) {
+                    aenderung.accept(geladen.spiel, geladen.verlauf);
+                    return geladen.spiel;
+                }
+                live = spiele.computeIfAbsent(spielId, id -> geladen);
+            }
+
+            Optional<Spiel> stand = aendere(live, aenderung);
+            if (stand.isPresent()) {
+                return stand.get();
+            }
+        }
+    }
+
+    /**
+     * @return leer, falls der Eintrag inzwischen nicht mehr im Speicher ist
+     */
+    private Optional<Spiel> aendere(LiveSpiel live, BiConsumer<Spiel, SpielVerlauf> aenderung) {
+        Long spielId = live.spiel.getId();
+        boolean satzWechsel;
+        boolean spielEnde;
+        Spiel stand;
+        synchronized (live) {
+            if (spiele.get(spielId) != live) {
+                return Optional.empty();
+            }
+            if (live.fehlversuche >= MAX_FEHLVERSUCHE) {
+                throw new IllegalStateException("Spiel " + spielId + " kann derzeit nicht gespeichert werden ("
+                        + live.letzterFehler + "), Änderungen werden abgelehnt.");
+            }
+            Spiel spiel = live.spiel;
+            int saetzeVorher = spiel.getSaetze().size();
+
+            aenderung.accept(spiel, live.verlauf);
+            live.aenderungen++;
+
+            satzWechsel = spiel.getSaetze().size() != saetzeVorher;
+            spielEnde = spiel.getStatus() != SpielStatus.LAUFEND;
+            stand = spiel.kopie();
+        }
+
+        // Außerhalb des Monitors, damit die Sperr-Reihenfolge
+        // (speicherSperre -> Monitor) überall gleich ist.
+        if (satzWechsel || spielEnde) {
+            speichereSofort(live);
+        }
+        if (spielEnde) {
+            spiele.remove(spielId, live);
+        }
+        return Optional.of(stand);
+    }
+
+    /**
+     * Liefert den aktuellen Stand eines Spiels:
+     * aus dem Speicher (als Kopie), falls es live ist, sonst aus der Datenbank.
+     */
+    public Optional<Spiel> aktuellerStand(Long spielId) {
+        return imSpeicher(spielId).or(() -> spielRepository.findById(spielId));
+    }
+
+    /**
+     * Wie aktuellerStand, aber Spiele aus der Datenbank kommen mit vollständigem
+     * Objektgraphen (3 Abfragen, siehe ladeGraph) – nutzbar auch ohne offene
+     * Session, z.B. auf einem eigenen Thread.
+     */
+    public Optional<Spiel> aktuellerStandVollstaendig(Long spielId) {
+        return imSpeicher(spielId).or(() -> transactionTemplate.execute(status -> ladeGraph(spielId, false)));
+    }
+
+    /**
+     * Nur der In-Memory-Stand eines laufenden Spiels, ohne Datenbankzugriff –
+     * als Kopie, unter der Sperre des Spiels erstellt.
+     */
+    public Optional<Spiel> imSpeicher(Long spielId) {
+        LiveSpiel live = spiele.get(spielId);
+        if (live == null) {
+            return Optional.empty();
+        }
+        synchronized (live) {
+            return Optional.of(live.spiel.kopie());
+        }
+    }
+
+    /**
+     * Stand-Version eines laufenden Spiels aus dem Speicher (unter seiner Sperre gelesen).
+     */
+    public OptionalLong standVersionImSpeicher(Long spielId) {
+        LiveSpiel live = spiele.get(spielId);
+        if (live == null) {
+            return OptionalLong.empty();
+        }
+        synchronized (live) {
+            return OptionalLong.of(live.spiel.getStandVersion());
+        }
+    }
+
+    /**
+     * Nimmt ein frisch gestartetes Spiel in den Speicher auf –
+     * erst nach erfolgreichem Commit, damit der Flush-Job es auch findet.
+     *
+     * @param startSnapshot bereits gespeicherter Snapshot des Startzustands (Sequenz 0)
+     */
+    public void registriere(Spiel spiel, SpielSnapshot startSnapshot) {
+        if (spiel.getId() == null || spiel.getStatus() != SpielStatus.LAUFEND) {
+            return;
+        }
+        LiveSpiel live = new LiveSpiel(spiel, new SpielVerlauf(spiel.getId(), List.of(), List.of(startSnapshot)));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    spiele.putIfAbsent(spiel.getId(), live);
+                }
+            });
+        } else {
+            spiele.putIfAbsent(spiel.getId(), live);
+        }
+    }
+
+    /**
+     * Anzahl der aktuell im Speicher gehaltenen Spiele.
+     */
+    public int anzahlLiveSpiele() {
+        return spiele.size();
+    }
+
+    /**
+     * Verwirft alle Speicherstände, ohne zu speichern – der nächste Befehl
+     * lädt das Spiel wieder aus der Datenbank. Für Tests, deren Transaktion
+     * zurückgerollt wird: sonst blieben Stände von Spielen im Speicher, die
+     * es in der Datenbank nie gab.
+     */
+    public void verwirfAlle() {
+        spiele.clear();
+    }
+
+    /**
+     * Anzahl der Spiele, die wiederholt nicht gespeichert werden konnten
+     * und deshalb keine Änderungen annehmen.
+     */
+    public int anzahlNichtSpeicherbar() {
+        int anzahl = 0;
+        for (LiveSpiel live : spiele.values()) {
+            if (live.istNichtSpeicherbar()) {
+                anzahl++;
+            }
+        }
+        return anzahl;
+    }
+
+    // -------------------------------------------------------------------------
+    // 2) Write-Behind
+    // -------------------------------------------------------------------------
+
+    /**
+     * Schreibt alle geänderten Spiele gesammelt zurück.
+     * Läuft periodisch; die Verzögerung bis zur Persistenz ist damit
+     * durch das Flush-Intervall begrenzt.
+     *
+     * Spiele, deren letzter Speicherversuch gescheitert ist, werden einzeln
+     * geschrieben – sie sollen die gemeinsame Transaktion nicht jedes Mal
+     * zurückrollen.
+     */
+    @Scheduled(fixedDelayString = "${badminton.live.flush-intervall-ms:250}")
+    public void speichereGeaenderte() {
+        List<LiveSpiel> geaendert = new ArrayList<>();
+        List<LiveSpiel> fehlgeschlagen = new ArrayList<>();
+        for (LiveSpiel live : spiele.values()) {
+            if (live.istGeaendert()) {
+                (live.hatFehlversuche() ? fehlgeschlagen : geaendert).add(live);
+            }
+        }
+
+        for (int i = 0; i < geaendert.size(); i += flushBatchGroesse) {
+            List<LiveSpiel> batch = geaendert.subList(i, Math.min(i + flushBatchGroesse, geaendert.size()));
+            speichereBatch(batch);
+        }
+        for (LiveSpiel live : fehlgeschlagen) {
+            speichereBatch(List.of(live));
+        }
+    }
+
+    /**
+     * Beim Herunterfahren: alles Ungespeicherte sichern.
+     */
+    @PreDestroy
+    public void speichereAlle() {
+        speichereGeaenderte();
+    }
+
+    private void speichereBatch(List<LiveSpiel> batch) {
+        List<LiveSpiel> gesperrt = new ArrayList<>();
+        try {
+            for (LiveSpiel live : batch) {
+                // Spiel wird gerade synchron gespeichert -> nächster Durchlauf
+                if (live.speicherSperre.tryLock()) {
+                    gesperrt.add(live);
+                }
+            }
+            if (gesperrt.isEmpty()) {
+                return;
+            }
+
+            try {
+                speichereInEinerTransaktion(gesperrt);
+            } catch (RuntimeException e) {
+                if (gesperrt.size() == 1) {
+                    zaehleFehlversuch(gesperrt.getFirst(), e);
+                    return;
+                }
+                // Ein einzelnes Spiel rollt die ganze Transaktion zurück –
+                // einzeln wiederholen, damit die übrigen trotzdem gespeichert werden
+                log.warn("Gemeinsames Speichern von {} Live-Spielen fehlgeschlagen, speichere einzeln: {}",
+                        gesperrt.size(), e.getMessage());
+                for (LiveSpiel live : gesperrt) {
+                    try {
+                        speichereInEinerTransaktion(List.of(live));
+                    } catch (RuntimeException einzeln) {
+                        zaehleFehlversuch(live, einzeln);
+                    }
+                }
+            }
+        } finally {
+            for (LiveSpiel live : gesperrt) {
+                live.speicherSperre.unlock();
+            }
+        }
+    }
+
+    /**
+     * Schreibt die Spiele in einer gemeinsamen Transaktion (speicherSperre
+     * muss gehalten werden). Erst nach dem Commit gelten sie als gespeichert.
+     */
+    private void speichereInEinerTransaktion(List<LiveSpiel> liveSpiele) {
+        Map<LiveSpiel, Geschrieben> geschrieben = new HashMap<>();
+        List<LiveSpiel> konflikte = new ArrayList<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            for (LiveSpiel live : liveSpiele) {
+                try {
+                    // Nicht (mehr) in der DB sichtbar (z.B. Start noch nicht committed):
+                    // im Speicher lassen, nächster Durchlauf versucht es erneut.
+                    schreibe(live).ifPresent(g -> geschrieben.put(live, g));
+                } catch (ObjectOptimisticLockingFailureException e) {
+                    // Vor jedem Schreibzugriff geprüft -> die übrigen Spiele bleiben gültig
+                    konflikte.add(live);
+                }
+            }
+        });
+
+        geschrieben.forEach((live, g) -> {
+            synchronized (live) {
+                live.gespeichert = Math.max(live.gespeichert, g.aenderungen());
+                live.verlauf.bestaetige(g.protokoll());
+                live.version = g.ziel().getVersion();
+                live.fehlversuche = 0;
+                live.letzterFehler = null;
+            }
+        });
+        konflikte.forEach(this::verwerfe);
+    }
+
+    /**
+     * Zustand bleibt "geändert" und wird beim nächsten Durchlauf erneut
+     * (einzeln) geschrieben; nach MAX_FEHLVERSUCHE werden Änderungen abgelehnt.
+     */
+    private void zaehleFehlversuch(LiveSpiel live, RuntimeException e) {
+        int versuche;
+        synchronized (live) {
+            versuche = ++live.fehlversuche;
+            live.letzterFehler = e.getMessage();
+        }
+        if (versuche == MAX_FEHLVERSUCHE) {
+            log.error("Live-Spiel {} konnte {}-mal in Folge nicht gespeichert werden, "
+                    + "weitere Änderungen werden abgelehnt", live.spiel.getId(), versuche, e);
+        } else {
+            log.warn("Speichern von Live-Spiel {} fehlgeschlagen (Versuch {}): {}",
+                    live.spiel.getId(), versuche, e.getMessage());
+        }
+    }
+
+    /**
+     * Sofortiges Speichern (Satzende, Matchende, Abbruch).
+     * Läuft in der Transaktion des Aufrufers, falls vorhanden.
+     *
+     * Der Stand bleibt bewusst als "geändert" markiert: der Flush-Job schreibt
+     * ihn danach noch einmal (idempotent), falls eine parallele Hintergrund-
+     * Transaktion einen älteren Stand darübergeschrieben hat.
+     *
+     * Scheitert das Speichern, wird der Speicherstand verworfen – sonst bliebe
+     * z.B. ein nicht gespeichertes Spielende im Speicher stehen.
+     */
+    private void speichereSofort(LiveSpiel live) {
+        live.speicherSperre.lock();
+        try {
+            long start = System.nanoTime();
+            Optional<Geschrieben> geschrieben = transactionTemplate.execute(status -> schreibe(live));
+            SpielOperationEvent.datenbank(System.nanoTime() - start,
+                    geschrieben != null ? geschrieben.map(Geschrieben::anzahlEntitaeten).orElse(0) : 0);
+            if (geschrieben != null && geschrieben.isPresent()) {
+                synchronized (live) {
+                    live.verlauf.bestaetige(geschrieben.get().protokoll());
+                    live.version = geschrieben.get().ziel().getVersion();
+                }
+            }
+        } catch (ObjectOptimisticLockingFailureException e) {
+            verwerfe(live);
+            throw e;
+        } catch (RuntimeException e) {
+            if (spiele.remove(live.spiel.getId(), live)) {
+                log.warn("Sofortiges Speichern von Live-Spiel {} fehlgeschlagen, Speicherstand verworfen: {}",
+                        live.spiel.getId(), e.getMessage());
+            }
+            throw e;
+        } finally {
+            live.speicherSperre.unlock();
+        }
+    }
+
+    /**
+     * Schreibt Stand und offenes Ballwechsel-Protokoll eines Spiels
+     * (muss innerhalb einer Transaktion laufen).
+     *
+     * @return was geschrieben wurde, oder leer, falls das Spiel in der DB nicht sichtbar ist
+     * @throws ObjectOptimisticLockingFailureException wenn seit dem Laden jemand anderes
+     *         das Spiel gespeichert hat (geprüft, bevor etwas geschrieben wird)
+     */
+    private Optional<Geschrieben> schreibe(LiveSpiel live) {
+        Long spielId = live.spiel.getId();
+        Optional<Spiel> ziel = ladeGraph(spielId, true);
+        if (ziel.isEmpty()) {
+            log.debug("Live-Spiel {} ist in der Datenbank nicht sichtbar, Speichern übersprungen", spielId);
+            return Optional.empty();
+        }
+        if (!Objects.equals(ziel.get().getVersion(), live.version)) {
+            throw new ObjectOptimisticLockingFailureException(Spiel.class, spielId);
+        }
+
+        long aenderungen;
+        SpielVerlauf.OffeneAenderungen protokoll;
+        synchronized (live) {
+            uebertrageZustand(live.spiel, ziel.get());
+            aenderungen = live.aenderungen;
+            protokoll = live.verlauf.offeneAenderungen();
+        }
+
+        if (!protokoll.leer()) {
+            // Nur anhängen – ein Undo steht als Schnitt in protokoll.ballwechsel()
+            for (Ballwechsel b : protokoll.ballwechsel()) {
+                ballwechselRepository.save(b.kopie());
+            }
+            for (SpielSnapshot s : protokoll.snapshots()) {
+                snapshotRepository.save(s.kopie());
+            }
+        }
+        return Optional.of(new Geschrieben(aenderungen, protokoll, ziel.get()));
+    }
+
+    /**
+     * Verwirft den Speicherstand eines Spiels nach einem Versionskonflikt.
+     * Der nächste Befehl lädt das Spiel frisch aus der Datenbank.
+     */
+    private void verwerfe(LiveSpiel live) {
+        if (spiele.remove(live.spiel.getId(), live)) {
+            log.warn("Live-Spiel {} wurde zwischenzeitlich anderweitig gespeichert (Version {}), "
+                    + "Speicherstand verworfen", live.spiel.getId(), live.version);
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // 3) Laden / Zustand übertragen
+    // -------------------------------------------------------------------------
+
+    /**
+     * Lädt ein Spiel inkl. aller Beziehungen, die die Spiellogik braucht,
+     * damit der Objektgraph auch außerhalb der Transaktion nutzbar bleibt,
+     * sowie sein Ballwechsel-Protokoll.
+     *
+     * Spiele ohne Snapshot (vor Einführung des Protokolls gestartet) bekommen
+     * einen Snapshot des aktuellen Stands – Undo reicht dann bis hierhin zurück.
+     */
+    private LiveSpiel ladeVollstaendig(Long spielId) {
+        long start = System.nanoTime();
+        try {
+            return ladeVollstaendigInTransaktion(spielId);
+        } finally {
+            SpielOperationEvent.datenbank(System.nanoTime() - start, 0);
+        }
+    }
+
+    private LiveSpiel ladeVollstaendigInTransaktion(Long spielId) {
+        return transactionTemplate.execute(status -> {
+            Spiel spiel = ladeGraph(spielId, false)
+                    .orElseThrow(() -> new NoSuchElementException("Spiel nicht gefunden: " + spielId));
+
+            SpielVerlauf verlauf = new SpielVerlauf(spielId,
+                    ballwechselRepository.findBySpielIdOrderBySequenz(spielId),
+                    snapshotRepository.findBySpielIdOrderBySequenz(spielId));
+            if (verlauf.anzahlSnapshots() == 0 && spiel.getStatus() == SpielStatus.LAUFEND) {
+                verlauf.fuegeSnapshotHinzu(SpielSnapshot.aus(spiel, verlauf.naechsteSequenz() - 1));
+            }
+            return new LiveSpiel(spiel, verlauf);
+        });
+    }
+
+    /**
+     * Lädt den Objektgraphen, den Spiellogik und Speichern brauchen,
+     * in genau drei Abfragen (muss innerhalb einer Transaktion laufen):
+     * 1) Spiel + Teams + Aufschlag-/Gewinnerteam, 2) Sätze, 3) Spieler beider Teams.
+     * Abfrage 2 und 3 ergänzen die Instanzen aus Abfrage 1.
+     *
+     * @param zumSchreiben true -> die Version des Spiels wird beim Commit erhöht
+     */
+    private Optional<Spiel> ladeGraph(Long spielId, boolean zumSchreiben) {
+        Optional<Spiel> spiel = zumSchreiben
+                ? spielRepository.findMitTeamsZumSchreiben(spielId)
+                : spielRepository.findMitTeams(spielId);
+        if (spiel.isEmpty()) {
+            return spiel;
+        }
+        spielRepository.findMitSaetze(spielId);
+
+        List<Long> teamIds = new ArrayList<>();
+        for (Team team : spiel.get().getTeams()) {
+            teamIds.add(team.getId());
+        }
+        if (!teamIds.isEmpty()) {
+            teamRepository.findMitSpieler(teamIds);
+        }
+        return spiel;
+    }
+
+    /**
+     * Überträgt den In-Memory-Stand auf die verwaltete Entity in der Datenbank:
+     * Aufschlag, Status/Gewinner, Satzstände und Spielerpositionen/-flags.
+     * Sätze werden über ihre Nummer zugeordnet, Teams/Spieler über ihre ID.
+     */
+    private void uebertrageZustand(Spiel quelle, Spiel ziel) {
+        if (quelle == ziel) {
+            return; // gleiche Instanz (z.B. innerhalb derselben Transaktion geladen)
+        }
+
+        Map<Long, Team> teamsNachId = new HashMap<>();
+        Map<Long, Spieler> spielerNachId = new HashMap<>();
+        for (Team team : ziel.getTeams()) {
+            teamsNachId.put(team.getId(), team);
+            for (Spieler s : team.getSpieler()) {
+                spielerNachId.put(s.getId(), s);
+            }
+        }
+
+        ziel.setAufschlagTeam(quelle.getAufschlagTeam() != null
+                ? teamsNachId.get(quelle.getAufschlagTeam().getId())
+                : null);
+        ziel.setAufschlagSeite(quelle.getAufschlagSeite());
+        if (quelle.getGewinnerTeam() != null) {
+            ziel.setGewinnerTeam(teamsNachId.get(quelle.getGewinnerTeam().getId()));
+        }
+        ziel.setStatus(quelle.getStatus());
+        ziel.setStandVersion(quelle.getStandVersion());
+
+        // Sätze über die Nummer abgleichen
+        Set<Integer> nummernQuelle = new HashSet<>();
+        for (Satz satz : quelle.getSaetze()) {
+            nummernQuelle.add(satz.getNummer());
+            Satz zielSatz = null;
+            for (Satz s : ziel.getSaetze()) {
+                if (s.getNummer() == satz.getNummer()) {
+                    zielSatz = s;
+                    break;
+                }
+            }
+            if (zielSatz == null) {
+                zielSatz = new Satz(satz.getNummer());
+                ziel.addSatz(zielSatz);
+            }
+            zielSatz.setPunkteTeamA(satz.getPunkteTeamA());
+            zielSatz.setPunkteTeamB(satz.getPunkteTeamB());
+        }
+        ziel.getSaetze().removeIf(s -> !nummernQuelle.contains(s.getNummer()));
+
+        // Spielerpositionen und Aktiv-Flag
+        for (Team team : quelle.getTeams()) {
+            for (Spieler s : team.getSpieler()) {
+                Spieler zielSpieler = spielerNachId.get(s.getId());
+                if (zielSpieler != null) {
+                    zielSpieler.setPositionImTeam(s.getPositionImTeam());
+                    zielSpieler.setInAktivemSpiel(s.isInAktivemSpiel());
+                }
+            }
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // 4) Zustand pro Spiel
+    // -------------------------------------------------------------------------
+
+    /**
+     * In-Memory-Zustand eines laufenden Spiels.
+     *
+     * - Änderungen am Objektgraphen nur unter synchronized(this).
+     * - speicherSperre verhindert, dass Flush-Job und sofortiges Speichern
+     *   desselben Spiels sich überholen.
+     */
+    private static final class LiveSpiel {
+
+        private final Spiel spiel;
+        private final SpielVerlauf verlauf;
+        private final ReentrantLock speicherSperre = new ReentrantLock();
+
+        /** Anzahl der Änderungen seit dem Laden. */
+        private long aenderungen;
+
+        /** Stand (Anzahl Änderungen), der zuletzt im Hintergrund gespeichert wurde. */
+        private long gespeichert;
+
+        /** Version des Spiels in der Datenbank beim Laden bzw. letzten eigenen Speichern. */
+        private Long version;
+
+        /** Fehlgeschlagene Speicherversuche im Hintergrund seit dem letzten Erfolg. */
+        private int fehlversuche;
+
+        /** Meldung des letzten fehlgeschlagenen Speicherversuchs. */
+        private String letzterFehler;
+
+        private LiveSpiel(Spiel spiel, SpielVerlauf verlauf) {
+            this.spiel = spiel;
+            this.verlauf = verlauf;
+            this.version = spiel.getVersion();
+        }
+
+        private synchronized boolean istGeaendert() {
+            return aenderungen > gespeichert;
+        }
+
+        private synchronized boolean hatFehlversuche() {
+            return fehlversuche > 0;
+        }
+
+        private synchronized boolean istNichtSpeicherbar() {
+            return fehlversuche >= MAX_FEHLVERSUCHE;
+        }
+    }
+
+    /**
+     * Ergebnis eines Schreibvorgangs: gespeicherter Änderungsstand + Protokollteil,
+     * dazu die gespeicherte Entity (ihre Version ist nach dem Commit die neue).
+     */
+    private record Geschrieben(long aenderungen, SpielVerlauf.OffeneAenderungen protokoll, Spiel ziel) {
+
+        /**
+         * Spiel, Sätze und Spieler:innen (Zustand übertragen) plus neue Protokolleinträge.
+         */
+        int anzahlEntitaeten() {
+            int spieler = 0;
+            for (Team team : ziel.getTeams()) {
+                spieler += team.getSpieler().size();
+            }
+            return 1 + ziel.getSaetze().size() + spieler
+                    + protokoll.ballwechsel().size() + protokoll.snapshots().size();
+        }
+    }
+}
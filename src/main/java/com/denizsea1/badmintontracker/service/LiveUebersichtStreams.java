@@ -0,0 +1,260 @@
+package com.denizsea1.badmintontracker.service;
+
+import com.denizsea1.badmintontracker.dto.Spielstand;
+import com.denizsea1.badmintontracker.model.SpielStatus;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hallen-Anzeige: ein Stream für ALLE laufenden Spiele (GET /spiele/live/stream).
+ *
+ * - Jede Änderung überschreibt nur den letzten Stand ihres Spiels (Zusammenfassen):
+ *   ein Court, der schnell punktet, erzeugt höchstens einen Eintrag pro Frame.
+ * - Ein Takt (badminton.halle.frame-intervall-ms) schickt die gesammelten
+ *   Änderungen als EIN Frame an alle Anzeigen.
+ * - Jede Anzeige hat höchstens einen Frame "unterwegs". Ist sie noch mit dem
+ *   letzten beschäftigt, wird sie in diesem Takt übersprungen und bekommt beim
+ *   nächsten freien Takt den Vollstand statt der verpassten Deltas.
+ *   Wer zu viele Frames in Folge verpasst oder dessen Versand länger als
+ *   badminton.halle.sende-timeout-ms hängt, wird getrennt (der Browser
+ *   verbindet neu) – ein hängender Versand wird dabei unterbrochen (SseVerbindung).
+ * - Die Punktevergabe legt nur den Stand in eine Map – sie wartet nie auf Anzeigen.
+ */
+@Component
+public class LiveUebersichtStreams {
+
+    /**
+     * Wie bei SpielstandStreams: nach 30 Minuten neu verbinden lassen.
+     */
+    private static final long TIMEOUT_MS = 30 * 60 * 1000L;
+
+    private final SpielService spielService;
+    private final int maxVerpassteFrames;
+    private final long sendeTimeoutNanos;
+
+    /**
+     * Letzter Stand aller laufenden Spiele (für den Vollstand).
+     */
+    private final Map<Long, Spielstand> laufend = new ConcurrentHashMap<>();
+
+    /**
+     * Seit dem letzten Frame geänderte Spiele – pro Spiel nur der neueste Stand.
+     */
+    private final Map<Long, Spielstand> geaendert = new ConcurrentHashMap<>();
+
+    private final Set<Anzeige> anzeigen = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Versand-Threads. Die Warteschlange bleibt klein, weil jede Anzeige
+     * höchstens einen Auftrag gleichzeitig hat.
+     */
+    private final ExecutorService versand;
+
+    public LiveUebersichtStreams(SpielService spielService,
+                                 @Value("${badminton.halle.versand-threads:4}") int versandThreads,
+                                 @Value("${badminton.halle.max-verpasste-frames:20}") int maxVerpassteFrames,
+                                 @Value("${badminton.halle.sende-timeout-ms:5000}") long sendeTimeoutMs) {
+        this.spielService = spielService;
+        this.maxVerpassteFrames = maxVerpassteFrames;
+        this.sendeTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendeTimeoutMs);
+
+        AtomicInteger nummer = new AtomicInteger();
+        this.versand = Executors.newFixedThreadPool(versandThreads, r -> {
+            Thread t = new Thread(r, "live-uebersicht-sse-" + nummer.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    // -------------------------------------------------------------------------
+    // 1) Stände sammeln
+    // -------------------------------------------------------------------------
+
+    /**
+     * Beim Start alle laufenden Spiele einmal laden.
+     * Stände, die schon per Event kamen, sind neuer und bleiben.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void ladeLaufendeSpiele() {
+        for (Spielstand stand : spielService.findeLaufendeSpielstaende()) {
+            laufend.putIfAbsent(stand.spielId(), stand);
+        }
+    }
+
+    /**
+     * Läuft noch unter der Sperre des Spiels – daher nur Map-Zugriffe.
+     *
+     * Events können sich überholen: der Start wird erst nach Abschluss der
+     * Transaktion gemeldet, die Engine nimmt aber schon nach dem Commit Punkte
+     * an. Ein Stand ersetzt daher nur einen mit kleinerer standVersion.
+     */
+    @EventListener
+    public void onSpielGeaendert(SpielGeaendertEvent event) {
+        Spielstand stand = event.stand();
+        if (stand.status() == SpielStatus.LAUFEND) {
+            // Veralteter Stand: auch nicht als Delta schicken – der letzte Frame war schon neuer
+            if (laufend.merge(stand.spielId(), stand, LiveUebersichtStreams::neuerer) != stand) {
+                return;
+            }
+        } else {
+            laufend.computeIfPresent(stand.spielId(),
+                    (id, alt) -> alt.standVersion() > stand.standVersion() ? alt : null);
+        }
+        // Auch das Ende wird einmal gemeldet, damit Anzeigen das Spiel entfernen
+        geaendert.merge(stand.spielId(), stand, LiveUebersichtStreams::neuerer);
+    }
+
+    private static Spielstand neuerer(Spielstand alt, Spielstand neu) {
+        return neu.standVersion() > alt.standVersion() ? neu : alt;
+    }
+
+    /**
+     * Aktueller Stand aller laufenden Spiele, nach Spiel-ID sortiert.
+     */
+    public List<Spielstand> liveSpielstaende() {
+        List<Spielstand> staende = new ArrayList<>(laufend.values());
+        staende.sort(Comparator.comparing(Spielstand::spielId));
+        return staende;
+    }
+
+    // -------------------------------------------------------------------------
+    // 2) Anzeigen verwalten
+    // -------------------------------------------------------------------------
+
+    /**
+     * Neue Anzeige: bekommt mit dem nächsten Takt den Vollstand.
+     */
+    public SseEmitter abonniere() {
+        SseEmitter emitter = new SseEmitter(TIMEOUT_MS);
+        Anzeige anzeige = new Anzeige(new SseVerbindung(emitter));
+        anzeigen.add(anzeige);
+
+        Runnable entfernen = () -> anzeigen.remove(anzeige);
+        emitter.onCompletion(entfernen);
+        emitter.onTimeout(entfernen);
+        emitter.onError(e -> entfernen.run());
+        return emitter;
+    }
+
+    public int anzahlAnzeigen() {
+        return anzeigen.size();
+    }
+
+    // -------------------------------------------------------------------------
+    // 3) Frames verschicken
+    // -------------------------------------------------------------------------
+
+    @Scheduled(fixedRateString = "${badminton.halle.frame-intervall-ms:500}")
+    public void sendeFrame() {
+        List<Spielstand> delta = entnehmeAenderungen();
+        List<Spielstand> vollstand = null;
+
+        for (Anzeige anzeige : anzeigen) {
+            if (!anzeige.verbindung.belege()) {
+                // Letzter Frame noch unterwegs -> Delta verpasst
+                if (anzeige.verbindung.haengt(sendeTimeoutNanos)) {
+                    trenne(anzeige);
+                } else if (!delta.isEmpty()) {
+                    anzeige.brauchtVollstand = true;
+                    if (++anzeige.verpassteFrames > maxVerpassteFrames) {
+                        trenne(anzeige);
+                    }
+                }
+                continue;
+            }
+            anzeige.verpassteFrames = 0;
+
+            String name;
+            List<Spielstand> inhalt;
+            if (anzeige.brauchtVollstand) {
+                if (vollstand == null) {
+                    vollstand = liveSpielstaende();
+                }
+                anzeige.brauchtVollstand = false;
+                name = "vollstand";
+                inhalt = vollstand;
+            } else if (!delta.isEmpty()) {
+                name = "spielstaende";
+                inhalt = delta;
+            } else {
+                anzeige.verbindung.gibFrei();
+                continue;
+            }
+
+            versand.execute(() -> sende(anzeige, name, inhalt));
+        }
+    }
+
+    /**
+     * Holt alle seit dem letzten Frame geänderten Stände heraus.
+     * Was währenddessen neu kommt, landet im nächsten Frame.
+     */
+    private List<Spielstand> entnehmeAenderungen() {
+        List<Spielstand> delta = new ArrayList<>();
+        for (Long spielId : geaendert.keySet()) {
+            Spielstand stand = geaendert.remove(spielId);
+            if (stand != null) {
+                delta.add(stand);
+            }
+        }
+        delta.sort(Comparator.comparing(Spielstand::spielId));
+        return List.copyOf(delta);
+    }
+
+    private void sende(Anzeige anzeige, String name, List<Spielstand> inhalt) {
+        try {
+            if (!anzeige.verbindung.sende(SseEmitter.event().name(name).data(inhalt))) {
+                // Anzeige ist weg oder wurde getrennt -> Verbindung verwerfen
+                anzeigen.remove(anzeige);
+            }
+        } finally {
+            anzeige.verbindung.gibFrei();
+        }
+    }
+
+    /**
+     * Blockiert nicht: ein laufender Versand wird unterbrochen und schließt
+     * die Verbindung selbst ab (siehe SseVerbindung.trenne).
+     */
+    private void trenne(Anzeige anzeige) {
+        anzeigen.remove(anzeige);
+        anzeige.verbindung.trenne();
+    }
+
+    @PreDestroy
+    public void beenden() {
+        versand.shutdownNow();
+        anzeigen.forEach(a -> a.verbindung.trenne());
+        anzeigen.clear();
+    }
+
+    /**
+     * Eine verbundene Anzeige mit ihrem Versand-Zustand.
+     * verpassteFrames wird nur vom Takt-Thread geändert.
+     */
+    private static final class Anzeige {
+        private final SseVerbindung verbindung;
+        private volatile boolean brauchtVollstand = true;
+        private int verpassteFrames;
+
+        private Anzeige(SseVerbindung verbindung) {
+            this.verbindung = verbindung;
+        }
+    }
+}
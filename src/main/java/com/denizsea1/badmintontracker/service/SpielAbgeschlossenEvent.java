@@ -0,0 +1,9 @@
+package com.denizsea1.badmintontracker.service;
+
+/**
+ * Wird vom SpielService veröffentlicht, sobald ein Spiel beendet oder
+ * abgebrochen ist – erst NACH dem sofortigen Speichern und außerhalb der
+ * Sperre des Spiels. Listener dürfen hier also auf die Datenbank zugreifen.
+ */
+public record SpielAbgeschlossenEvent(SpielAbschluss abschluss) {
+}
@@ -0,0 +1,112 @@
+package com.denizsea1.badmintontracker.service;
+
+import com.denizsea1.badmintontracker.dto.HistorienZeile;
+import com.denizsea1.badmintontracker.dto.Spielstand;
+import com.denizsea1.badmintontracker.model.*;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Was die Statistik von einem beendeten oder abgebrochenen Spiel braucht.
+ *
+ * Entsteht entweder live beim Spielende (aus dem In-Memory-Spiel) oder beim
+ * Neuaufbau aus einer HistorienZeile – beide Wege rechnen damit gleich.
+ *
+ * @param spielId      ID des Spiels
+ * @param status       BEENDET oder ABGEBROCHEN
+ * @param spielerA     Namen von Team A ("Vorname Nachname")
+ * @param spielerB     Namen von Team B
+ * @param saetze       Satzstände, nach Nummer sortiert
+ * @param teamAGewinnt true/false, null falls kein Gewinner feststeht
+ */
+public record SpielAbschluss(Long spielId,
+                             SpielStatus status,
+                             List<String> spielerA,
+                             List<String> spielerB,
+                             List<Spielstand.SatzStand> saetze,
+                             Boolean teamAGewinnt) {
+
+    /**
+     * Aus dem In-Memory-Spiel (Teams[0] = A, Teams[1] = B).
+     */
+    public static SpielAbschluss aus(Spiel spiel) {
+        Team teamA = spiel.getTeams().get(0);
+        Team teamB = spiel.getTeams().get(1);
+
+        List<Satz> sortiert = new ArrayList<>(spiel.getSaetze());
+        sortiert.sort(Comparator.comparingInt(Satz::getNummer));
+        List<Spielstand.SatzStand> saetze = new ArrayList<>();
+        for (Satz s : sortiert) {
+            saetze.add(new Spielstand.SatzStand(s.getNummer(), s.getPunkteTeamA(), s.getPunkteTeamB()));
+        }
+
+        Boolean teamAGewinnt = spiel.getGewinnerTeam() == null
+                ? null
+                : spiel.getGewinnerTeam().getId().equals(teamA.getId());
+
+        return new SpielAbschluss(spiel.getId(), spiel.getStatus(),
+                namen(teamA), namen(teamB), saetze, teamAGewinnt);
+    }
+
+    /**
+     * Aus einer Zeile der Historie (Neuaufbau).
+     */
+    public static SpielAbschluss aus(HistorienZeile zeile) {
+        Boolean teamAGewinnt = zeile.gewinnerTeamId() == null || zeile.teamA() == null
+                ? null
+                : zeile.gewinnerTeamId().equals(zeile.teamA().id());
+
+        return new SpielAbschluss(zeile.id(), zeile.status(),
+                zeile.teamA() != null ? zeile.teamA().spieler() : List.of(),
+                zeile.teamB() != null ? zeile.teamB().spieler() : List.of(),
+                zeile.saetze(), teamAGewinnt);
+    }
+
+    /**
+     * Bilanz dieses Spiels aus Sicht von Team A (true) oder Team B (false).
+     *
+     * Bei abgebrochenen Spielen ist der letzte Satz nicht zu Ende gespielt
+     * und zählt deshalb nicht als gewonnener/verlorener Satz.
+     */
+    public Bilanz bilanz(boolean fuerA) {
+        int beendeteSaetze = status == SpielStatus.ABGEBROCHEN
+                ? Math.max(saetze.size() - 1, 0)
+                : saetze.size();
+
+        int saetzeGewonnen = 0;
+        int saetzeVerloren = 0;
+        int punkteFuer = 0;
+        int punkteGegen = 0;
+        for (int i = 0; i < saetze.size(); i++) {
+            Spielstand.SatzStand satz = saetze.get(i);
+            int eigene = fuerA ? satz.punkteTeamA() : satz.punkteTeamB();
+            int andere = fuerA ? satz.punkteTeamB() : satz.punkteTeamA();
+            punkteFuer += eigene;
+            punkteGegen += andere;
+            if (i < beendeteSaetze) {
+                if (eigene > andere) {
+                    saetzeGewonnen++;
+                } else if (andere > eigene) {
+                    saetzeVerloren++;
+                }
+            }
+        }
+
+        boolean gewonnen = teamAGewinnt != null && teamAGewinnt == fuerA;
+        boolean verloren = teamAGewinnt != null && teamAGewinnt != fuerA;
+        return Bilanz.einSpiel(gewonnen, verloren, status == SpielStatus.ABGEBROCHEN,
+                saetzeGewonnen, saetzeVerloren, punkteFuer, punkteGegen);
+    }
+
+    private static List<String> namen(Team team) {
+        List<String> namen = new ArrayList<>();
+        for (Spieler s : team.getSpieler()) {
+            String name = ((s.getVorname() != null ? s.getVorname() : "") + " "
+                    + (s.getNachname() != null ? s.getNachname() : "")).trim();
+            namen.add(name);
+        }
+        return namen;
+    }
+}
@@ -0,0 +1,125 @@
+package com.denizsea1.badmintontracker.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Folgearbeiten eines Spielendes (Statistik, Spieler-Index, Elo-Wertung,
+ * Verdichten des Ballwechsel-Protokolls) – nach dem Commit auf eigenen
+ * Threads statt im Request, der das Spiel beendet hat.
+ *
+ * - Jede Aufgabe hat einen eigenen Thread ("spiel-abschluss-<aufgabe>"):
+ *   pro Aufgabe werden Spiele in der Reihenfolge ihres Endes verarbeitet
+ *   (wichtig für Elo), eine langsame oder fehlerhafte Aufgabe hält die
+ *   anderen nicht auf.
+ * - Jede Ausführung läuft in einer eigenen Transaktion. Versionskonflikte und
+ *   doppelte Schlüssel (z.B. zwei Spiele legen dieselbe Statistik-Zeile an,
+ *   Neuaufbau parallel) werden bis zu MAX_VERSUCHE-mal wiederholt, alles
+ *   andere wird geloggt – der Punkt, der das Spiel beendet hat, zählt trotzdem.
+ *
+ * Die Listener hängen mit @TransactionalEventListener(fallbackExecution = true)
+ * am SpielAbgeschlossenEvent: in einer Transaktion erst nach deren Commit,
+ * ohne Transaktion (Normalfall, siehe LiveSpielEngine) sofort.
+ */
+@Component
+public class SpielAbschlussAufgaben {
+
+    private static final Logger log = LoggerFactory.getLogger(SpielAbschlussAufgaben.class);
+
+    static final int MAX_VERSUCHE = 3;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<String, ExecutorService> ausfuehrung = new ConcurrentHashMap<>();
+
+    public SpielAbschlussAufgaben(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Reiht die Arbeit für ein beendetes Spiel auf dem Thread der Aufgabe ein.
+     *
+     * @param aufgabe Name der Aufgabe (ein Thread pro Name)
+     * @param spielId betroffenes Spiel (nur für das Log)
+     * @param arbeit  läuft in einer Transaktion, ggf. mehrmals
+     */
+    public void fuehreAus(String aufgabe, Long spielId, Runnable arbeit) {
+        thread(aufgabe).execute(() -> {
+            for (int versuch = 1; ; versuch++) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> arbeit.run());
+                    return;
+                } catch (OptimisticLockingFailureException | DataIntegrityViolationException e) {
+                    if (versuch >= MAX_VERSUCHE) {
+                        log.error("Abschluss-Aufgabe {} für Spiel {} nach {} Versuchen aufgegeben",
+                                aufgabe, spielId, versuch, e);
+                        return;
+                    }
+                    log.debug("Abschluss-Aufgabe {} für Spiel {}: Konflikt, Versuch {} – erneut: {}",
+                            aufgabe, spielId, versuch, e.getMessage());
+                } catch (RuntimeException e) {
+                    log.error("Abschluss-Aufgabe {} für Spiel {} fehlgeschlagen", aufgabe, spielId, e);
+                    return;
+                }
+            }
+        });
+    }
+
+    /**
+     * Wartet, bis alle bis jetzt eingereihten Arbeiten erledigt sind
+     * (z.B. in Tests, bevor Statistik oder Wertung geprüft werden).
+     *
+     * @return false, falls die Zeit vorher abgelaufen ist
+     */
+    public boolean warteAufErledigt(long timeoutMs) throws InterruptedException {
+        List<CountDownLatch> marken = new ArrayList<>();
+        for (ExecutorService thread : ausfuehrung.values()) {
+            CountDownLatch marke = new CountDownLatch(1);
+            thread.execute(marke::countDown);
+            marken.add(marke);
+        }
+        long ende = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        for (CountDownLatch marke : marken) {
+            if (!marke.await(ende - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private ExecutorService thread(String aufgabe) {
+        return ausfuehrung.computeIfAbsent(aufgabe, name -> Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "spiel-abschluss-" + name);
+            t.setDaemon(true);
+            return t;
+        }));
+    }
+
+    /**
+     * Beim Herunterfahren: Eingereihtes noch kurz abarbeiten lassen.
+     */
+    @PreDestroy
+    public void beenden() throws InterruptedException {
+        for (ExecutorService thread : ausfuehrung.values()) {
+            thread.shutdown();
+        }
+        for (ExecutorService thread : ausfuehrung.values()) {
+            thread.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+}
@@ -0,0 +1,520 @@
+package com.denizsea1.badmintontracker.service;
+
+import com.denizsea1.badmintontracker.dto.ArchivLauf;
+import com.denizsea1.badmintontracker.dto.ArchivSpiel;
+import com.denizsea1.badmintontracker.dto.HistorienZeile;
+import com.denizsea1.badmintontracker.model.Spieler;
+import com.denizsea1.badmintontracker.model.SpielProtokoll;
+import com.denizsea1.badmintontracker.model.SpielSnapshot;
+import com.denizsea1.badmintontracker.model.Team;
+import com.denizsea1.badmintontracker.repository.BallwechselRepository;
+import com.denizsea1.badmintontracker.repository.SpielProtokollRepository;
+import com.denizsea1.badmintontracker.repository.SpielRepository;
+import com.denizsea1.badmintontracker.repository.SpielSnapshotRepository;
+import com.denizsea1.badmintontracker.repository.TeamRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Archiv für alte abgeschlossene Spiele – außerhalb der H2-Datenbank.
+ *
+ * - Ein Archivlauf (zeitgesteuert oder POST /archiv/verschieben) verschiebt
+ *   BEENDETE und ABGEBROCHENE Spiele, die älter als badminton.archiv.alter-tage
+ *   sind: erst anhängen und auf die Platte zwingen, dann aus der Datenbank
+ *   löschen (Spiel, Sätze, Ballwechsel-Protokoll). Bricht der Lauf dazwischen
+ *   ab, hängt der nächste nichts doppelt an, sondern löscht nur nach.
+ * - spiel-archiv.ndjson: nur angehängt, eine Zeile ArchivSpiel (JSON) pro Spiel –
+ *   die Datei ist selbst gültiges NDJSON. Gelesen wird über ein Memory-Mapping:
+ *   GET /archiv/... schreibt die Bytes direkt aus dem Mapping in die Antwort,
+ *   ohne JSON zu parsen oder Objekte zu bauen.
+ * - spiel-archiv.idx: 24 Byte pro Spiel (ID, Datum als Epochentag, Länge, Position),
+ *   beim Start in den Speicher gelesen. Ein halb geschriebener Eintrag und nicht
+ *   indizierte Bytes am Ende der Datei (Abbruch beim Anhängen) werden abgeschnitten.
+ *
+ * Spieler-Index (spiel_teilnahme) und Statistik bleiben in der Datenbank;
+ * Karriere-Listen, Statistik-Neuaufbau und Wertung lesen archivierte Spiele
+ * von hier. Jede Zeile enthält auch den Start-Snapshot des Protokolls, damit
+ * der Verlauf (BallwechselArchiv) archivierte Spiele weiter nachspielen kann.
+ * Spiel-Historie und Export zeigen nur die Datenbank.
+ *
+ * Der zeitgesteuerte Lauf hat einen eigenen Thread ("spiel-archiv") statt des
+ * gemeinsamen Spring-Schedulers – ein langer erster Lauf hält so weder den
+ * Write-Behind-Flush noch die Hallen-Anzeige auf.
+ */
+@Service
+public class SpielArchiv {
+
+    private static final Logger log = LoggerFactory.getLogger(SpielArchiv.class);
+
+    /**
+     * Bytes pro Index-Eintrag: ID (8), Epochentag (4), Länge (4), Position (8).
+     */
+    static final int INDEX_EINTRAG = 24;
+
+    /**
+     * Spiele pro Transaktion beim Verschieben.
+     */
+    static final int ARCHIV_SEITE = 200;
+
+    private final SpielRepository spielRepository;
+    private final BallwechselRepository ballwechselRepository;
+    private final SpielSnapshotRepository snapshotRepository;
+    private final SpielProtokollRepository protokollRepository;
+    private final TeamRepository teamRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectWriter schreiber;
+    private final ObjectReader leser;
+    private final Path verzeichnis;
+    private final int alterTage;
+    private final long intervallMs;
+
+    private final ScheduledExecutorService zeitplan = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "spiel-archiv");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final Map<Long, Eintrag> nachId = new ConcurrentHashMap<>();
+
+    // ---- Zustand, nur unter synchronized(this) ----
+
+    private final List<Eintrag> eintraege = new ArrayList<>();
+    private FileChannel daten;
+    private FileChannel index;
+    private long datenEnde;
+
+    /**
+     * Read-only Mapping von [0, datenEnde) – wird nach jedem Anhängen ersetzt;
+     * das alte gibt der GC frei, sobald kein Leser es mehr hält.
+     */
+    private volatile MemorySegment abbild = MemorySegment.NULL;
+
+    public SpielArchiv(SpielRepository spielRepository,
+                       BallwechselRepository ballwechselRepository,
+                       SpielSnapshotRepository snapshotRepository,
+                       SpielProtokollRepository protokollRepository,
+                       TeamRepository teamRepository,
+                       PlatformTransactionManager transactionManager,
+                       ObjectMapper objectMapper,
+                       @Value("${badminton.archiv.verzeichnis:./data}") Path verzeichnis,
+                       @Value("${badminton.archiv.alter-tage:365}") int alterTage,
+                       @Value("${badminton.archiv.intervall-ms:3600000}") long intervallMs) {
+        this.spielRepository = spielRepository;
+        this.ballwechselRepository = ballwechselRepository;
+        this.snapshotRepository = snapshotRepository;
+        this.protokollRepository = protokollRepository;
+        this.teamRepository = teamRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.schreiber = objectMapper.writerFor(ArchivSpiel.class);
+        this.leser = objectMapper.readerFor(ArchivSpiel.class);
+        this.verzeichnis = verzeichnis;
+        if (intervallMs <= 0) {
+            // fixedDelay 0 würde den Lauf ohne Pause wiederholen; abschalten über alter-tage=0
+            throw new IllegalArgumentException("badminton.archiv.intervall-ms muss > 0 sein: " + intervallMs);
+        }
+        this.alterTage = alterTage;
+        this.intervallMs = intervallMs;
+    }
+
+    // -------------------------------------------------------------------------
+    // 1) Öffnen / Schließen
+    // -------------------------------------------------------------------------
+
+    @PostConstruct
+    public synchronized void oeffne() throws IOException {
+        Files.createDirectories(verzeichnis);
+        daten = FileChannel.open(verzeichnis.resolve("spiel-archiv.ndjson"), READ, WRITE, CREATE);
+        index = FileChannel.open(verzeichnis.resolve("spiel-archiv.idx"), READ, WRITE, CREATE);
+
+        long indexGroesse = index.size() - index.size() % INDEX_EINTRAG;
+        if (indexGroesse < index.size()) {
+            index.truncate(indexGroesse);
+        }
+        if (indexGroesse > 0) {
+            MappedByteBuffer eintraegeImIndex = index.map(FileChannel.MapMode.READ_ONLY, 0, indexGroesse);
+            while (eintraegeImIndex.hasRemaining()) {
+                Eintrag eintrag = new Eintrag(eintraegeImIndex.getLong(), eintraegeImIndex.getInt(),
+                        eintraegeImIndex.getInt(), eintraegeImIndex.getLong());
+                eintraege.add(eintrag);
+                nachId.put(eintrag.spielId(), eintrag);
+                datenEnde = Math.max(datenEnde, eintrag.position() + eintrag.laenge());
+            }
+        }
+        if (daten.size() > datenEnde) {
+            log.warn("Archiv: {} nicht indizierte Bytes am Dateiende abgeschnitten", daten.size() - datenEnde);
+            daten.truncate(datenEnde);
+        }
+        bildeAb();
+        log.info("Archiv geöffnet: {} Spiele, {} Bytes", eintraege.size(), datenEnde);
+
+        if (alterTage > 0) {
+            zeitplan.scheduleWithFixedDelay(this::archiviereFaellige, intervallMs, intervallMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void schliesse() throws IOException {
+        zeitplan.shutdownNow();
+        schliesseDateien();
+    }
+
+    private synchronized void schliesseDateien() throws IOException {
+        if (daten != null) {
+            daten.close();
+        }
+        if (index != null) {
+            index.close();
+        }
+    }
+
+    private void bildeAb() throws IOException {
+        abbild = datenEnde == 0
+                ? MemorySegment.NULL
+                : daten.map(FileChannel.MapMode.READ_ONLY, 0, datenEnde, Arena.ofAuto());
+    }
+
+    // -------------------------------------------------------------------------
+    // 2) Verschieben
+    // -------------------------------------------------------------------------
+
+    /**
+     * Zeitgesteuerter Archivlauf (nur eingeplant, wenn badminton.archiv.alter-tage > 0).
+     * Fehler werden nur protokolliert – eine Exception würde alle weiteren Läufe
+     * des ScheduledExecutorService stillschweigend beenden.
+     */
+    private void archiviereFaellige() {
+        try {
+            verschiebe(LocalDate.now().minusDays(alterTage));
+        } catch (RuntimeException e) {
+            log.error("Archiv: zeitgesteuerter Lauf fehlgeschlagen", e);
+        }
+    }
+
+    /**
+     * Verschiebt alle abgeschlossenen Spiele mit Datum vor 'vor' ins Archiv,
+     * eine Transaktion pro Seite.
+     */
+    public ArchivLauf verschiebe(LocalDate vor) {
+        long start = System.nanoTime();
+        int spiele = 0;
+        long bytes = 0;
+
+        Long nachId = 0L;
+        List<Long> ids;
+        do {
+            List<Long> seitenIds = spielRepository.findeArchivierbare(vor, nachId, PageRequest.of(0, ARCHIV_SEITE));
+            Long angehaengt = transactionTemplate.execute(status -> verschiebeSeite(seitenIds));
+            bytes += angehaengt != null ? angehaengt : 0;
+            spiele += seitenIds.size();
+            ids = seitenIds;
+            if (!ids.isEmpty()) {
+                nachId = ids.getLast();
+            }
+        } while (ids.size() == ARCHIV_SEITE);
+
+        long dauerMs = (System.nanoTime() - start) / 1_000_000;
+        if (spiele > 0) {
+            log.info("Archiv: {} Spiele vor {} verschoben ({} Bytes) in {} ms", spiele, vor, bytes, dauerMs);
+        }
+        return new ArchivLauf(vor, spiele, bytes, dauerMs);
+    }
+
+    /**
+     * Hängt die Spiele an (soweit noch nicht im Archiv) und löscht sie danach
+     * aus der Datenbank. Schlägt das Löschen fehl, bleiben sie in beiden – der
+     * nächste Lauf löscht sie dann nur noch.
+     *
+     * @return angehängte Bytes
+     */
+    private long verschiebeSeite(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        Map<Long, byte[]> protokolle = new HashMap<>();
+        for (SpielProtokoll protokoll : protokollRepository.findAllById(ids)) {
+            protokolle.put(protokoll.getSpielId(), protokoll.getBallwechsel());
+        }
+        Map<Long, SpielSnapshot> startSnapshots = new HashMap<>();
+        for (SpielSnapshot snapshot : snapshotRepository.findeStartSnapshots(ids)) {
+            startSnapshots.put(snapshot.getSpielId(), snapshot);
+        }
+        List<HistorienZeile> zeilen = spielRepository.ladeHistorie(ids);
+        Map<Long, List<Long>> spielerNachTeam = spielerNachTeam(zeilen);
+
+        List<ArchivSpiel> neu = new ArrayList<>();
+        for (HistorienZeile zeile : zeilen) {
+            // Vorabprüfung ohne Sperre; verbindlich prüft haengeAn
+            if (!nachId.containsKey(zeile.id())) {
+                neu.add(new ArchivSpiel(zeile, protokolle.get(zeile.id()),
+                        start(zeile, startSnapshots.get(zeile.id()), spielerNachTeam)));
+            }
+        }
+        long bytes = haengeAn(neu);
+
+        for (Long spielId : ids) {
+            ballwechselRepository.loescheAb(spielId, 0);
+            snapshotRepository.loescheAb(spielId, 0);
+        }
+        protokollRepository.deleteAllByIdInBatch(ids);
+        spielRepository.deleteAll(spielRepository.findAllById(ids)); // Sätze per Cascade
+        return bytes;
+    }
+
+    /**
+     * Spieler-IDs je Team aller Spiele einer Seite, in einer Abfrage.
+     */
+    private Map<Long, List<Long>> spielerNachTeam(List<HistorienZeile> zeilen) {
+        Set<Long> teamIds = new HashSet<>();
+        for (HistorienZeile zeile : zeilen) {
+            if (zeile.teamA() != null) {
+                teamIds.add(zeile.teamA().id());
+            }
+            if (zeile.teamB() != null) {
+                teamIds.add(zeile.teamB().id());
+            }
+        }
+        Map<Long, List<Long>> spieler = new HashMap<>();
+        if (teamIds.isEmpty()) {
+            return spieler;
+        }
+        for (Team team : teamRepository.findMitSpieler(teamIds)) {
+            spieler.put(team.getId(), team.getSpieler().stream().map(Spieler::getId).toList());
+        }
+        return spieler;
+    }
+
+    /**
+     * Startzustand zum Nachspielen – null, falls das Spiel kein verdichtetes
+     * Protokoll mit Start-Snapshot hat oder ein Team fehlt.
+     */
+    private static ArchivSpiel.Start start(HistorienZeile zeile, SpielSnapshot snapshot,
+                                           Map<Long, List<Long>> spielerNachTeam) {
+        if (snapshot == null || zeile.teamA() == null || zeile.teamB() == null) {
+            return null;
+        }
+        List<Long> spielerA = spielerNachTeam.get(zeile.teamA().id());
+        List<Long> spielerB = spielerNachTeam.get(zeile.teamB().id());
+        if (spielerA == null || spielerB == null) {
+            return null;
+        }
+        return new ArchivSpiel.Start(snapshot.getSequenz(), snapshot.getSatzstaende(),
+                snapshot.isAufschlagTeamA(), snapshot.getAufschlagSeite(), snapshot.getPositionen(),
+                spielerA, spielerB);
+    }
+
+    /**
+     * Schreibt erst die Daten, dann die Index-Einträge – jeweils bis auf die Platte.
+     * Ein Eintrag im Index zeigt so nie auf nicht geschriebene Daten.
+     *
+     * Bereits archivierte Spiele werden hier unter der Sperre noch einmal
+     * aussortiert: zwei gleichzeitige Läufe (zeitgesteuert und per POST)
+     * können dieselbe Seite gelesen haben.
+     */
+    private synchronized long haengeAn(List<ArchivSpiel> kandidaten) {
+        List<ArchivSpiel> spiele = new ArrayList<>(kandidaten.size());
+        for (ArchivSpiel spiel : kandidaten) {
+            if (!nachId.containsKey(spiel.spiel().id())) {
+                spiele.add(spiel);
+            }
+        }
+        if (spiele.isEmpty()) {
+            return 0;
+        }
+        try {
+            ByteArrayOutputStream zeilen = new ByteArrayOutputStream();
+            ByteBuffer neuerIndex = ByteBuffer.allocate(spiele.size() * INDEX_EINTRAG);
+            List<Eintrag> neu = new ArrayList<>(spiele.size());
+            for (ArchivSpiel spiel : spiele) {
+                byte[] json = schreiber.writeValueAsBytes(spiel);
+                Eintrag eintrag = new Eintrag(spiel.spiel().id(), (int) spiel.spiel().datum().toEpochDay(),
+                        json.length + 1, datenEnde + zeilen.size());
+                zeilen.write(json);
+                zeilen.write('\n');
+                neuerIndex.putLong(eintrag.spielId()).putInt(eintrag.tag())
+                        .putInt(eintrag.laenge()).putLong(eintrag.position());
+                neu.add(eintrag);
+            }
+
+            schreibeVoll(daten, ByteBuffer.wrap(zeilen.toByteArray()), datenEnde);
+            daten.force(false);
+            schreibeVoll(index, neuerIndex.flip(), index.size());
+            index.force(false);
+
+            datenEnde += zeilen.size();
+            bildeAb();
+            for (Eintrag eintrag : neu) {
+                eintraege.add(eintrag);
+                nachId.put(eintrag.spielId(), eintrag);
+            }
+            return zeilen.size();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Archiv: Anhängen fehlgeschlagen", e);
+        }
+    }
+
+    private static void schreibeVoll(FileChannel kanal, ByteBuffer puffer, long position) throws IOException {
+        while (puffer.hasRemaining()) {
+            position += kanal.write(puffer, position);
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // 3) Lesen
+    // -------------------------------------------------------------------------
+
+    public boolean enthaelt(Long spielId) {
+        return nachId.containsKey(spielId);
+    }
+
+    /**
+     * Schreibt die JSON-Zeile eines Spiels unverändert aus dem Mapping.
+     *
+     * @return false, falls das Spiel nicht im Archiv ist
+     */
+    public boolean schreibe(Long spielId, OutputStream ausgabe) throws IOException {
+        Eintrag eintrag = nachId.get(spielId);
+        if (eintrag == null) {
+            return false;
+        }
+        WritableByteChannel kanal = Channels.newChannel(ausgabe);
+        kanal.write(ausschnitt(abbild, eintrag));
+        ausgabe.flush();
+        return true;
+    }
+
+    /**
+     * Schreibt alle Spiele mit Datum in [von, bis] als NDJSON (Reihenfolge der Archivierung).
+     *
+     * @param von null = ohne Untergrenze
+     * @param bis null = ohne Obergrenze
+     */
+    public void schreibeBereich(LocalDate von, LocalDate bis, OutputStream ausgabe) throws IOException {
+        long ab = von != null ? von.toEpochDay() : Long.MIN_VALUE;
+        long bisTag = bis != null ? bis.toEpochDay() : Long.MAX_VALUE;
+        List<Eintrag> passend = new ArrayList<>();
+        MemorySegment segment;
+        synchronized (this) {
+            segment = abbild;
+            for (Eintrag eintrag : eintraege) {
+                if (eintrag.tag() >= ab && eintrag.tag() <= bisTag) {
+                    passend.add(eintrag);
+                }
+            }
+        }
+        WritableByteChannel kanal = Channels.newChannel(ausgabe);
+        for (Eintrag eintrag : passend) {
+            kanal.write(ausschnitt(segment, eintrag));
+        }
+        ausgabe.flush();
+    }
+
+    /**
+     * Ein archiviertes Spiel mit Punktfolge und Start-Snapshot (Verlauf).
+     * Reihenfolge Eintrag vor Mapping wie in lade.
+     */
+    public Optional<ArchivSpiel> ladeSpiel(Long spielId) {
+        Eintrag eintrag = nachId.get(spielId);
+        if (eintrag == null) {
+            return Optional.empty();
+        }
+        return Optional.of(lies(abbild, eintrag));
+    }
+
+    /**
+     * Historien-Zeilen archivierter Spiele (fehlende IDs werden übergangen).
+     *
+     * Erst die Index-Einträge, dann das Mapping lesen: haengeAn ersetzt das
+     * Mapping, bevor es die Einträge sichtbar macht – in dieser Reihenfolge
+     * deckt das Mapping jeden gefundenen Eintrag ab (wie in schreibe).
+     */
+    public Map<Long, HistorienZeile> lade(Collection<Long> spielIds) {
+        List<Eintrag> gefunden = new ArrayList<>();
+        for (Long spielId : spielIds) {
+            Eintrag eintrag = nachId.get(spielId);
+            if (eintrag != null) {
+                gefunden.add(eintrag);
+            }
+        }
+        if (gefunden.isEmpty()) {
+            return Map.of();
+        }
+        MemorySegment segment = abbild;
+        Map<Long, HistorienZeile> zeilen = new HashMap<>();
+        for (Eintrag eintrag : gefunden) {
+            zeilen.put(eintrag.spielId(), lies(segment, eintrag).spiel());
+        }
+        return zeilen;
+    }
+
+    /**
+     * Alle archivierten Spiele der Reihe nach (Statistik-Neuaufbau, Wertung).
+     */
+    public void fuerAlle(Consumer<HistorienZeile> verbraucher) {
+        List<Eintrag> alle;
+        MemorySegment segment;
+        synchronized (this) {
+            alle = new ArrayList<>(eintraege);
+            segment = abbild;
+        }
+        for (Eintrag eintrag : alle) {
+            verbraucher.accept(lies(segment, eintrag).spiel());
+        }
+    }
+
+    private ArchivSpiel lies(MemorySegment segment, Eintrag eintrag) {
+        try {
+            return leser.readValue(segment.asSlice(eintrag.position(), eintrag.laenge())
+                    .toArray(ValueLayout.JAVA_BYTE));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Archiv: Spiel " + eintrag.spielId() + " nicht lesbar", e);
+        }
+    }
+
+    private static ByteBuffer ausschnitt(MemorySegment segment, Eintrag eintrag) {
+        return segment.asSlice(eintrag.position(), eintrag.laenge()).asByteBuffer();
+    }
+
+    /**
+     * @param tag      Spieldatum als Epochentag (für Datumsbereiche ohne Parsen)
+     * @param laenge   Länge der Zeile inkl. Zeilenumbruch
+     * @param position Byte-Position in spiel-archiv.ndjson
+     */
+    private record Eintrag(long spielId, int tag, int laenge, long position) {
+    }
+}
@@ -0,0 +1,148 @@
+package com.denizsea1.badmintontracker.service;
+
+import com.denizsea1.badmintontracker.dto.HistorienZeile;
+import com.denizsea1.badmintontracker.dto.SpielCursor;
+import com.denizsea1.badmintontracker.dto.SpielFilter;
+import com.denizsea1.badmintontracker.dto.Spielstand;
+import com.denizsea1.badmintontracker.repository.SpielRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * Export der Spielhistorie (GET /export/spiele) als NDJSON oder CSV.
+ *
+ * - Gelesen wird seitenweise über den Keyset-Cursor der Historie
+ *   (sucheHistorie, neueste zuerst) – pro Seite zwei kurze Abfragen, keine
+ *   Verbindung bleibt für die Dauer des Downloads offen.
+ * - Jede Seite wird sofort geschrieben und geflusht; im Speicher liegt nie
+ *   mehr als eine Seite, egal wie lang die Historie ist.
+ * - Zeilen haben die Form von GET /spiele/historie (HistorienZeile).
+ */
+@Service
+public class SpielExport {
+
+    /**
+     * Spiele pro Seite beim Lesen.
+     */
+    static final int EXPORT_SEITE = 500;
+
+    /**
+     * Semikolon statt Komma – so öffnet ein deutsches Excel die Datei direkt in Spalten.
+     */
+    static final char CSV_TRENNER = ';';
+
+    static final String CSV_KOPF = "id;datum;status;teamA;teamB;saetze;gewinner";
+
+    private final SpielRepository spielRepository;
+    private final ObjectWriter jsonSchreiber;
+
+    public SpielExport(SpielRepository spielRepository, ObjectMapper objectMapper) {
+        this.spielRepository = spielRepository;
+        this.jsonSchreiber = objectMapper.writerFor(HistorienZeile.class);
+    }
+
+    // -------------------------------------------------------------------------
+    // 1) Formate
+    // -------------------------------------------------------------------------
+
+    /**
+     * Ein Spiel pro Zeile als JSON-Objekt.
+     */
+    public void schreibeNdjson(SpielFilter filter, OutputStream ausgabe) throws IOException {
+        schreibe(filter, ausgabe, null, jsonSchreiber::writeValueAsString);
+    }
+
+    /**
+     * Eine Kopfzeile, dann ein Spiel pro Zeile:
+     * Teams als "Vorname Nachname / Vorname Nachname", Sätze als "21:17 19:21 21:15",
+     * Gewinner als A, B oder leer.
+     */
+    public void schreibeCsv(SpielFilter filter, OutputStream ausgabe) throws IOException {
+        schreibe(filter, ausgabe, CSV_KOPF, SpielExport::csvZeile);
+    }
+
+    static String csvZeile(HistorienZeile zeile) {
+        StringJoiner saetze = new StringJoiner(" ");
+        for (Spielstand.SatzStand satz : zeile.saetze()) {
+            saetze.add(satz.punkteTeamA() + ":" + satz.punkteTeamB());
+        }
+        String gewinner = "";
+        if (zeile.gewinnerTeamId() != null) {
+            if (zeile.teamA() != null && zeile.gewinnerTeamId().equals(zeile.teamA().id())) {
+                gewinner = "A";
+            } else if (zeile.teamB() != null && zeile.gewinnerTeamId().equals(zeile.teamB().id())) {
+                gewinner = "B";
+            }
+        }
+
+        StringJoiner spalten = new StringJoiner(String.valueOf(CSV_TRENNER));
+        spalten.add(String.valueOf(zeile.id()));
+        spalten.add(String.valueOf(zeile.datum()));
+        spalten.add(String.valueOf(zeile.status()));
+        spalten.add(csvFeld(namen(zeile.teamA())));
+        spalten.add(csvFeld(namen(zeile.teamB())));
+        spalten.add(saetze.toString());
+        spalten.add(gewinner);
+        return spalten.toString();
+    }
+
+    private static String namen(HistorienZeile.TeamZeile team) {
+        return team != null ? String.join(" / ", team.spieler()) : "";
+    }
+
+    /**
+     * Anführungszeichen nur, wo nötig (Trenner, Anführungszeichen, Zeilenumbruch im Namen).
+     */
+    private static String csvFeld(String wert) {
+        if (wert.indexOf(CSV_TRENNER) < 0 && wert.indexOf('"') < 0
+                && wert.indexOf('\n') < 0 && wert.indexOf('\r') < 0) {
+            return wert;
+        }
+        return '"' + wert.replace("\"", "\"\"") + '"';
+    }
+
+    // -------------------------------------------------------------------------
+    // 2) Seitenweise lesen und schreiben
+    // -------------------------------------------------------------------------
+
+    /**
+     * Liest alle passenden Spiele seitenweise und schreibt jede Seite sofort raus.
+     */
+    private void schreibe(SpielFilter filter, OutputStream ausgabe, String kopf, Zeilenformat format)
+            throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(ausgabe, StandardCharsets.UTF_8));
+        if (kopf != null) {
+            writer.write(kopf);
+            writer.write('\n');
+        }
+        SpielCursor nach = null;
+        List<HistorienZeile> seite;
+        do {
+            seite = spielRepository.sucheHistorie(filter, nach, EXPORT_SEITE);
+            for (HistorienZeile zeile : seite) {
+                writer.write(format.zeile(zeile));
+                writer.write('\n');
+            }
+            writer.flush(); // Seite geht sofort an den Client
+            if (!seite.isEmpty()) {
+                HistorienZeile letzte = seite.getLast();
+                nach = new SpielCursor(letzte.datum(), letzte.id());
+            }
+        } while (seite.size() == EXPORT_SEITE);
+    }
+
+    @FunctionalInterface
+    private interface Zeilenformat {
+        String zeile(HistorienZeile zeile) throws IOException;
+    }
+}
@@ -0,0 +1,14 @@
+package com.denizsea1.badmintontracker.service;
+
+import com.denizsea1.badmintontracker.dto.Spielstand;
+
+/**
+ * Wird vom SpielService nach jeder Änderung eines Spiels veröffentlicht
+ * (Start, Punkt, Undo, Abbruch).
+ *
+ * Achtung: wird noch unter der Sperre des Spiels veröffentlicht, damit die
+ * Reihenfolge stimmt. Listener dürfen hier nur kurz etwas übergeben
+ * (z.B. an einen eigenen Thread), aber nicht blockieren.
+ */
+public record SpielGeaendertEvent(Spielstand stand) {
+}
@@ -0,0 +1,294 @@
+package com.denizsea1.badmintontracker.service;
+
+import com.denizsea1.badmintontracker.dto.ImportErgebnis;
+import com.denizsea1.badmintontracker.dto.ImportSpiel;
+import com.denizsea1.badmintontracker.model.Satz;
+import com.denizsea1.badmintontracker.model.Spiel;
+import com.denizsea1.badmintontracker.model.SpielStatus;
+import com.denizsea1.badmintontracker.model.Spieler;
+import com.denizsea1.badmintontracker.model.Team;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Import abgeschlossener Spiele aus Papier-Spielberichten (NDJSON, siehe ImportSpiel).
+ *
+ * - Die Datei wird zeilenweise gelesen; im Speicher liegt höchstens ein Block
+ *   (badminton.import.block-groesse Spiele), unabhängig von der Dateigröße.
+ * - Jeder Block wird in einer eigenen Transaktion gespeichert und danach aus dem
+ *   Persistenzkontext entfernt. Dank Sequenz-IDs (IdSequenzen) und
+ *   hibernate.jdbc.batch_size gehen die INSERTs als JDBC-Batches raus.
+ * - Fehlerhafte Zeilen werden übersprungen und gemeldet, der Rest läuft weiter.
+ *   Bereits gespeicherte Blöcke bleiben auch bei einem späteren Abbruch erhalten.
+ * - Fortschritt und Durchsatz stehen nach jedem Block im Log.
+ *
+ * Importierte Spiele lösen keine Spielende-Events aus – Statistik, Spieler-Index
+ * und Wertung werden danach einmal neu aufgebaut (abschaltbar).
+ */
+@Service
+public class SpielImport {
+
+    private static final Logger log = LoggerFactory.getLogger(SpielImport.class);
+
+    /**
+     * So viele Fehlermeldungen kommen höchstens in die Antwort.
+     */
+    static final int MAX_FEHLER = 100;
+
+    private final ObjectReader leser;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final SpielService spielService;
+    private final StatistikService statistikService;
+    private final KarriereService karriereService;
+    private final WertungService wertungService;
+    private final StammdatenService stammdatenService;
+    private final int blockGroesse;
+
+    public SpielImport(ObjectMapper objectMapper,
+                       EntityManager entityManager,
+                       PlatformTransactionManager transactionManager,
+                       SpielService spielService,
+                       StatistikService statistikService,
+                       KarriereService karriereService,
+                       WertungService wertungService,
+                       StammdatenService stammdatenService,
+                       @Value("${badminton.import.block-groesse:500}") int blockGroesse) {
+        this.leser = objectMapper.readerFor(ImportSpiel.class);
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.spielService = spielService;
+        this.statistikService = statistikService;
+        this.karriereService = karriereService;
+        this.wertungService = wertungService;
+        this.stammdatenService = stammdatenService;
+        this.blockGroesse = blockGroesse;
+    }
+
+    // -------------------------------------------------------------------------
+    // 1) Import
+    // -------------------------------------------------------------------------
+
+    /**
+     * @param eingabe   NDJSON, UTF-8; leere Zeilen werden ignoriert
+     * @param neuaufbau true -> danach Statistik, Spieler-Index und Wertung neu aufbauen
+     */
+    public ImportErgebnis importiere(InputStream eingabe, boolean neuaufbau) throws IOException {
+        long start = System.nanoTime();
+        long zeilen = 0;
+        long spiele = 0;
+        long saetze = 0;
+        long uebersprungen = 0;
+        List<String> fehler = new ArrayList<>();
+        List<Spiel> block = new ArrayList<>(blockGroesse);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(eingabe, StandardCharsets.UTF_8))) {
+            long nummer = 0;
+            String zeile;
+            while ((zeile = reader.readLine()) != null) {
+                nummer++;
+                if (zeile.isBlank()) {
+                    continue;
+                }
+                zeilen++;
+                try {
+                    block.add(baueSpiel(leser.readValue(zeile)));
+                } catch (JsonProcessingException | IllegalArgumentException e) {
+                    uebersprungen++;
+                    if (fehler.size() < MAX_FEHLER) {
+                        String meldung = e instanceof JsonProcessingException json ? json.getOriginalMessage() : e.getMessage();
+                        fehler.add("Zeile " + nummer + ": " + meldung);
+                    }
+                }
+
+                if (block.size() == blockGroesse) {
+                    saetze += speichere(block);
+                    spiele += block.size();
+                    block.clear();
+                    log.info("Import: {} Spiele gespeichert ({} Spiele/s), {} Zeilen übersprungen",
+                            spiele, Math.round(proSekunde(spiele, start)), uebersprungen);
+                }
+            }
+        }
+        if (!block.isEmpty()) {
+            saetze += speichere(block);
+            spiele += block.size();
+        }
+
+        long dauerNanos = System.nanoTime() - start;
+        ImportErgebnis ergebnis = new ImportErgebnis(zeilen, spiele, saetze, uebersprungen, fehler,
+                dauerNanos / 1_000_000, proSekunde(spiele, start));
+        log.info("Import abgeschlossen: {} Spiele, {} Sätze in {} ms ({} Spiele/s), {} Zeilen übersprungen",
+                spiele, saetze, ergebnis.dauerMs(), Math.round(ergebnis.spieleProSekunde()), uebersprungen);
+
+        if (spiele > 0) {
+            stammdatenService.leereAlles();
+            if (neuaufbau) {
+                karriereService.bauNeuAuf();
+                statistikService.bauNeuAuf();
+                wertungService.berechneNeu(null);
+            }
+        }
+        return ergebnis;
+    }
+
+    /**
+     * Speichert einen Block in einer Transaktion und leert danach den Persistenzkontext.
+     *
+     * @return Anzahl gespeicherter Sätze
+     */
+    private int speichere(List<Spiel> block) {
+        Integer saetze = transactionTemplate.execute(status -> {
+            int anzahl = 0;
+            for (Spiel spiel : block) {
+                for (Team team : spiel.getTeams()) {
+                    entityManager.persist(team); // Spieler per Cascade
+                }
+                entityManager.persist(spiel); // Sätze per Cascade
+                anzahl += spiel.getSaetze().size();
+            }
+            entityManager.flush();
+            entityManager.clear();
+            return anzahl;
+        });
+        return saetze != null ? saetze : 0;
+    }
+
+    private static double proSekunde(long anzahl, long startNanos) {
+        long nanos = Math.max(System.nanoTime() - startNanos, 1);
+        return anzahl * 1_000_000_000.0 / nanos;
+    }
+
+    // -------------------------------------------------------------------------
+    // 2) Zeile -> Spiel (mit Prüfung)
+    // -------------------------------------------------------------------------
+
+    /**
+     * Baut ein abgeschlossenes Spiel aus einer Zeile.
+     *
+     * - Alle Sätze außer dem letzten müssen nach den Satzregeln beendet sein.
+     * - Beendete Sätze müssen genau so geendet haben: 21 bei höchstens 19 des
+     *   Gegners, über 21 nur mit genau 2 Punkten Vorsprung, oder 30:29
+     *   (z.B. 25:21 oder 30:27 gibt es nicht).
+     * - Zwei Gewinnsätze -> BEENDET; sonst ABGEBROCHEN, dann ist "gewinner" Pflicht.
+     *
+     * @throws IllegalArgumentException bei unvollständigen oder unmöglichen Angaben
+     */
+    Spiel baueSpiel(ImportSpiel zeile) {
+        if (zeile.datum() == null) {
+            throw new IllegalArgumentException("datum fehlt");
+        }
+        Team teamA = baueTeam(zeile.teamA(), "teamA");
+        Team teamB = baueTeam(zeile.teamB(), "teamB");
+        List<int[]> punkte = zeile.saetze();
+        if (punkte == null || punkte.isEmpty() || punkte.size() > 3) {
+            throw new IllegalArgumentException("1 bis 3 Sätze erwartet");
+        }
+
+        Spiel spiel = new Spiel(zeile.datum());
+        spiel.addTeam(teamA);
+        spiel.addTeam(teamB);
+
+        int gewonneneSaetzeA = 0;
+        int gewonneneSaetzeB = 0;
+        for (int i = 0; i < punkte.size(); i++) {
+            int nummer = i + 1;
+            int[] stand = punkte.get(i);
+            if (stand == null || stand.length != 2
+                    || stand[0] < 0 || stand[1] < 0 || stand[0] > 30 || stand[1] > 30) {
+                throw new IllegalArgumentException("Satz " + nummer + ": zwei Punktzahlen von 0 bis 30 erwartet");
+            }
+            if (gewonneneSaetzeA == 2 || gewonneneSaetzeB == 2) {
+                throw new IllegalArgumentException("Satz " + nummer + " nach dem Spielende");
+            }
+
+            Satz satz = new Satz(nummer);
+            satz.setPunkteTeamA(stand[0]);
+            satz.setPunkteTeamB(stand[1]);
+            spiel.addSatz(satz);
+
+            if (spielService.istSatzBeendet(satz)) {
+                if (!istMoeglicherEndstand(Math.max(stand[0], stand[1]), Math.min(stand[0], stand[1]))) {
+                    throw new IllegalArgumentException("Satz " + nummer + ": " + stand[0] + ":" + stand[1]
+                            + " ist kein möglicher Endstand");
+                }
+                if (stand[0] > stand[1]) {
+                    gewonneneSaetzeA++;
+                } else {
+                    gewonneneSaetzeB++;
+                }
+            } else if (nummer < punkte.size()) {
+                throw new IllegalArgumentException("Satz " + nummer + " ist nicht beendet");
+            }
+        }
+
+        if (gewonneneSaetzeA == 2 || gewonneneSaetzeB == 2) {
+            String gewinner = gewonneneSaetzeA == 2 ? "A" : "B";
+            if (zeile.gewinner() != null && !zeile.gewinner().equals(gewinner)) {
+                throw new IllegalArgumentException("gewinner " + zeile.gewinner() + " passt nicht zu den Sätzen");
+            }
+            spiel.setGewinnerTeam(gewonneneSaetzeA == 2 ? teamA : teamB); // setzt BEENDET
+        } else {
+            if (!"A".equals(zeile.gewinner()) && !"B".equals(zeile.gewinner())) {
+                throw new IllegalArgumentException("Spiel ohne zwei Gewinnsätze: gewinner (A/B) angeben");
+            }
+            spiel.setGewinnerTeam("A".equals(zeile.gewinner()) ? teamA : teamB);
+            spiel.setStatus(SpielStatus.ABGEBROCHEN);
+        }
+        return spiel;
+    }
+
+    /**
+     * Der Satz endet beim ersten Punkt, der die Satzregeln erfüllt
+     * (SpielService.istSatzBeendet) – danach kommt keiner mehr dazu.
+     */
+    private static boolean istMoeglicherEndstand(int sieger, int verlierer) {
+        if (sieger == 21) {
+            return verlierer <= 19;
+        }
+        if (sieger == 30) {
+            return verlierer == 28 || verlierer == 29;
+        }
+        return sieger > 21 && sieger - verlierer == 2;
+    }
+
+    private static Team baueTeam(List<ImportSpiel.Person> personen, String feld) {
+        if (personen == null || personen.size() != 2) {
+            throw new IllegalArgumentException(feld + ": genau zwei Spieler:innen erwartet");
+        }
+        Team team = new Team();
+        for (ImportSpiel.Person person : personen) {
+            if (person == null
+                    || (istLeer(person.vorname()) && istLeer(person.nachname()))) {
+                throw new IllegalArgumentException(feld + ": Name fehlt");
+            }
+            Spieler spieler = new Spieler();
+            spieler.setVorname(person.vorname() != null ? person.vorname().trim() : null);
+            spieler.setNachname(person.nachname() != null ? person.nachname().trim() : null);
+            spieler.setInAktivemSpiel(false);
+            team.addSpieler(spieler);
+        }
+        team.initialisierePositionen();
+        return team;
+    }
+
+    private static boolean istLeer(String text) {
+        return text == null || text.isBlank();
+    }
+}
@@ -0,0 +1,142 @@
+package com.denizsea1.badmintontracker.service;
+
+import com.denizsea1.badmintontracker.model.Spiel;
+import com.denizsea1.badmintontracker.model.SpielStatus;
+import com.denizsea1.badmintontracker.repository.SpielRepository;
+import com.denizsea1.badmintontracker.repository.SpielerRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Fachliche Metriken (Micrometer), abrufbar unter /actuator/prometheus.
+ *
+ * - badminton.spiel.operation     Timer pro Operation (start, punkt, ballwechsel, undo,
+ *                                 abbruch, pause) und Ergebnis (ok/fehler), mit Histogramm
+ *                                 für Perzentile in Prometheus
+ * - badminton.punkte              gespielte Punkte
+ * - badminton.saetze.beendet      beendete Sätze
+ * - badminton.spiele.beendet      regulär beendete Spiele
+ * - badminton.spiele.abgebrochen  abgebrochene Spiele
+ * - badminton.spiele.laufend      Spiele mit Status LAUFEND (Gauge)
+ * - badminton.spieler.reserviert  Spieler:innen in einem laufenden Spiel (Gauge)
+ * - badminton.live.nicht.speicherbar  Live-Spiele, die wiederholt nicht gespeichert
+ *                                 werden konnten und Änderungen ablehnen (Gauge)
+ *
+ * Die Gauges zählen in der Datenbank bzw. im Speicher der LiveSpielEngine –
+ * erst beim Abruf, nicht bei jedem Punkt.
+ * Start, Spielende und Abbruch werden sofort gespeichert, die Zahlen sind also aktuell.
+ */
+@Component
+public class SpielMetriken {
+
+    private final MeterRegistry registry;
+
+    private final Counter punkte;
+    private final Counter saetzeBeendet;
+    private final Counter spieleBeendet;
+    private final Counter spieleAbgebrochen;
+
+    /**
+     * "operation:ergebnis" -> Timer, damit der Punkt-Pfad keinen Builder anlegen muss.
+     */
+    private final Map<String, Timer> timer = new ConcurrentHashMap<>();
+
+    public SpielMetriken(MeterRegistry registry,
+                         SpielRepository spielRepository,
+                         SpielerRepository spielerRepository,
+                         LiveSpielEngine liveSpielEngine) {
+        this.registry = registry;
+
+        this.punkte = Counter.builder("badminton.punkte")
+                .description("Gespielte Punkte")
+                .register(registry);
+        this.saetzeBeendet = Counter.builder("badminton.saetze.beendet")
+                .description("Beendete Sätze")
+                .register(registry);
+        this.spieleBeendet = Counter.builder("badminton.spiele.beendet")
+                .description("Regulär beendete Spiele")
+                .register(registry);
+        this.spieleAbgebrochen = Counter.builder("badminton.spiele.abgebrochen")
+                .description("Abgebrochene Spiele")
+                .register(registry);
+
+        Gauge.builder("badminton.spiele.laufend",
+                        spielRepository, r -> r.countByStatus(SpielStatus.LAUFEND))
+                .description("Spiele mit Status LAUFEND")
+                .register(registry);
+        Gauge.builder("badminton.spieler.reserviert",
+                        spielerRepository, SpielerRepository::countByInAktivemSpielTrue)
+                .description("Spieler:innen in einem laufenden Spiel")
+                .register(registry);
+        Gauge.builder("badminton.live.nicht.speicherbar",
+                        liveSpielEngine, LiveSpielEngine::anzahlNichtSpeicherbar)
+                .description("Live-Spiele, die wiederholt nicht gespeichert werden konnten")
+                .register(registry);
+    }
+
+    /**
+     * Führt eine Service-Operation aus und misst ihre Dauer – auch wenn sie fehlschlägt.
+     * Zeichnet JFR gerade auf, entsteht zusätzlich ein {@link SpielOperationEvent}.
+     *
+     * @param spielId betroffenes Spiel; null beim Start (wird dann aus dem Ergebnis genommen)
+     */
+    public <T> T miss(String operation, Long spielId, Supplier<T> aufruf) {
+        Timer.Sample sample = Timer.start(registry);
+        SpielOperationEvent event = SpielOperationEvent.beginne(operation, spielId);
+        boolean erfolgreich = false;
+        Long id = spielId;
+        try {
+            T wert = aufruf.get();
+            erfolgreich = true;
+            if (id == null && wert instanceof Spiel spiel) {
+                id = spiel.getId();
+            }
+            return wert;
+        } finally {
+            sample.stop(timer(operation, erfolgreich ? "ok" : "fehler"));
+            if (event != null) {
+                event.beende(id, erfolgreich);
+            }
+        }
+    }
+
+    /**
+     * Nach erfolgreich gespielten Ballwechseln.
+     *
+     * @param anzahl        gespielte Punkte
+     * @param neueSaetze    dabei neu begonnene Sätze
+     * @param spielBeendet  true, wenn der letzte Punkt das Spiel entschieden hat
+     */
+    public void ballwechselGespielt(int anzahl, int neueSaetze, boolean spielBeendet) {
+        punkte.increment(anzahl);
+        // Jeder neue Satz heißt: der vorherige ist beendet; am Spielende zusätzlich der letzte
+        int beendet = neueSaetze + (spielBeendet ? 1 : 0);
+        if (beendet > 0) {
+            saetzeBeendet.increment(beendet);
+        }
+        if (spielBeendet) {
+            spieleBeendet.increment();
+        }
+    }
+
+    public void spielAbgebrochen() {
+        spieleAbgebrochen.increment();
+    }
+
+    private Timer timer(String operation, String ergebnis) {
+        return timer.computeIfAbsent(operation + ":" + ergebnis, k ->
+                Timer.builder("badminton.spiel.operation")
+                        .description("Dauer der Spiel-Operationen im SpielService")
+                        .tag("operation", operation)
+                        .tag("ergebnis", ergebnis)
+                        .publishPercentileHistogram()
+                        .register(registry));
+    }
+}
@@ -0,0 +1,85 @@
+package com.denizsea1.badmintontracker.service;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR-Event pro Spiel-Operation (Start, Punkt, Undo, Abbruch, ...).
+ *
+ * Die Dauer des Events ist die Gesamtzeit der Operation; dbZeit und
+ * entitaeten kommen aus der LiveSpielEngine, die bei jedem Laden und
+ * sofortigen Speichern über {@link #datenbank(long, int)} meldet.
+ * Der Hintergrund-Flush läuft in einem eigenen Thread und zählt hier nicht mit.
+ * Der Start speichert direkt über die Repositories; dort bleibt dbZeit 0.
+ *
+ * Ist JFR nicht aktiv, wird nichts aufgezeichnet und nichts im Thread gemerkt.
+ */
+@Name("badminton.SpielOperation")
+@Label("Spiel-Operation")
+@Category({"BadmintonTracker", "Spiel"})
+@Description("Ein Befehl auf ein Spiel inkl. Datenbankanteil")
+@StackTrace(false)
+public class SpielOperationEvent extends Event {
+
+    /**
+     * Laufendes Event des aktuellen Threads (nur gesetzt, wenn JFR aufzeichnet).
+     */
+    private static final ThreadLocal<SpielOperationEvent> AKTUELL = new ThreadLocal<>();
+
+    @Label("Spiel-ID")
+    long spielId;
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Erfolgreich")
+    boolean erfolgreich;
+
+    @Label("Datenbankzeit")
+    @Timespan(Timespan.NANOSECONDS)
+    long dbZeit;
+
+    @Label("Geschriebene Entitäten")
+    @Description("Spielgraph und neue Protokolleinträge beim sofortigen Speichern")
+    int entitaeten;
+
+    /**
+     * Beginnt ein Event für den aktuellen Thread – oder null, wenn JFR es nicht aufzeichnet.
+     */
+    static SpielOperationEvent beginne(String operation, Long spielId) {
+        SpielOperationEvent event = new SpielOperationEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.operation = operation;
+        event.spielId = spielId != null ? spielId : 0;
+        event.begin();
+        AKTUELL.set(event);
+        return event;
+    }
+
+    /**
+     * Meldet Datenbankarbeit an das laufende Event des aktuellen Threads (falls es eins gibt).
+     */
+    static void datenbank(long nanos, int geschriebeneEntitaeten) {
+        SpielOperationEvent event = AKTUELL.get();
+        if (event != null) {
+            event.dbZeit += nanos;
+            event.entitaeten += geschriebeneEntitaeten;
+        }
+    }
+
+    void beende(Long spielId, boolean erfolgreich) {
+        AKTUELL.remove();
+        if (this.spielId == 0 && spielId != null) {
+            this.spielId = spielId;
+        }
+        this.erfolgreich = erfolgreich;
+        commit();
+    }
+}
@@ -3,31 +3,55 @@ package com.denizsea1.badmintontracker.service;
 import com.denizsea1.badmintontracker.model.*;
 import com.denizsea1.badmintontracker.repository.SatzRepository;
 import com.denizsea1.badmintontracker.repository.SpielRepository;
+import com.denizsea1.badmintontracker.repository.SpielSnapshotRepository;
+import com.denizsea1.badmintontracker.repository.SpielTeilnahmeRepository;
 import com.denizsea1.badmintontracker.repository.TeamRepository;
+import com.denizsea1.badmintontracker.dto.BallwechselErgebnis;
+import com.denizsea1.badmintontracker.dto.HistorienZeile;
+import com.denizsea1.badmintontracker.dto.SpielCursor;
+import com.denizsea1.badmintontracker.dto.SpielFilter;
+import com.denizsea1.badmintontracker.dto.SpielSeite;
+import com.denizsea1.badmintontracker.dto.Spielstand;
 import jakarta.transaction.Transactional;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDate;
-import java.util.Comparator;
-import java.util.List;
-import java.util.NoSuchElementException;
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 
 /**
  * Kapselt die Spiellogik für eine Badminton-Doppel-Partie:
  *
  * - Start eines neuen Spiels mit zwei Teams
  * - Vergabe von Punkten (inkl. Aufschlag- und Positionslogik)
- * - Undo/Korrektur von Punkten (vereinfachte Variante)
+ * - Undo/Korrektur von Punkten (Replay aus dem Ballwechsel-Protokoll)
  * - Spielabbruch ("Abbrecher verliert")
  * - Erkennen von Satzende und Matchende (Best-of-Three)
  * - Pausenempfehlung bei >= 11 Punkten
  *
  * Zusätzlich:
- * - Spieler haben ein Flag inAktivemSpiel.
- *   → Beim Start eines Spiels wird geprüft, ob alle Spieler frei sind.
+ * - Beim Start eines Spiels werden alle Spieler atomar reserviert
+ *   (SpielerReservierungen); belegte Spieler → IllegalStateException.
+ * - Spieler haben ein Flag inAktivemSpiel (Anzeige).
  *   → Beim Matchende oder Abbruch werden alle Beteiligten wieder freigegeben.
  *
+ * Laufende Spiele werden über die LiveSpielEngine im Speicher gehalten:
+ * Punkte, Undo und Abbruch ändern den In-Memory-Stand, gespeichert wird
+ * gesammelt im Hintergrund bzw. sofort bei Satz-/Matchende.
+ *
+ * Nach jeder Änderung wird ein SpielGeaendertEvent mit dem kompakten
+ * Spielstand veröffentlicht (z.B. für den SSE-Stream der Anzeigen).
+ *
+ * Dauer und Ergebnis der öffentlichen Operationen sowie gespielte Punkte,
+ * Sätze und Spiele werden über SpielMetriken erfasst (/actuator/prometheus).
+ *
  * Controller sprechen nur diesen Service an – die fachliche Logik liegt hier.
+ * Die reinen Regel-Methoden (Satzende, aktueller Satz, Aufschlaglogik) sind
+ * paketweit sichtbar, damit die JMH-Benchmarks (src/jmh/java) sie direkt messen.
  */
 @Service
 public class SpielService {
@@ -35,13 +59,31 @@ public class SpielService {
     private final SpielRepository spielRepository;
     private final TeamRepository teamRepository;
     private final SatzRepository satzRepository;
+    private final SpielSnapshotRepository snapshotRepository;
+    private final SpielTeilnahmeRepository teilnahmeRepository;
+    private final LiveSpielEngine liveSpielEngine;
+    private final SpielerReservierungen reservierungen;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SpielMetriken metriken;
 
     public SpielService(SpielRepository spielRepository,
                         TeamRepository teamRepository,
-                        SatzRepository satzRepository) {
+                        SatzRepository satzRepository,
+                        SpielSnapshotRepository snapshotRepository,
+                        SpielTeilnahmeRepository teilnahmeRepository,
+                        LiveSpielEngine liveSpielEngine,
+                        SpielerReservierungen reservierungen,
+                        ApplicationEventPublisher eventPublisher,
+                        SpielMetriken metriken) {
         this.spielRepository = spielRepository;
         this.teamRepository = teamRepository;
         this.satzRepository = satzRepository;
+        this.snapshotRepository = snapshotRepository;
+        this.teilnahmeRepository = teilnahmeRepository;
+        this.liveSpielEngine = liveSpielEngine;
+        this.reservierungen = reservierungen;
+        this.eventPublisher = eventPublisher;
+        this.metriken = metriken;
     }
 
     // -------------------------------------------------------------------------
@@ -52,13 +94,14 @@ public class SpielService {
      * Startet ein neues Spiel mit zwei bestehenden Teams.
      *
      * Prüft zusätzlich:
-     * - Keiner der Spieler in Team A / B ist aktuell in einem laufenden Spiel
-     *   (spieler.isInAktivemSpiel() == false).
-     *   → sonst IllegalStateException.
+     * - Keiner der Spieler in Team A / B ist aktuell in einem laufenden Spiel.
+     *   Alle werden in einem Schritt reserviert (SpielerReservierungen) –
+     *   ist jemand belegt, keiner und es gibt eine IllegalStateException.
      *
      * Setzt beim Start:
      * - spiel.status = LAUFEND
      * - alle beteiligten Spieler.inAktivemSpiel = true
+     * - je Spieler:in eine Zeile im Index spiel_teilnahme (Karriere, Direktvergleich)
      *
      * @param teamAId           ID von Team A
      * @param teamBId           ID von Team B
@@ -73,16 +116,33 @@ public class SpielService {
                                  Long teamBId,
                                  boolean aufschlagTeamIstA,
                                  Seite startSeite) {
+        return metriken.miss("start", null, () -> starte(teamAId, teamBId, aufschlagTeamIstA, startSeite));
+    }
 
-        // Teams aus der Datenbank laden
-        Team teamA = teamRepository.findById(teamAId)
+    private Spiel starte(Long teamAId, Long teamBId, boolean aufschlagTeamIstA, Seite startSeite) {
+        // Beide Teams samt Spieler:innen in einer Abfrage laden
+        Map<Long, Team> teamsNachId = new HashMap<>();
+        for (Team team : teamRepository.findMitSpieler(List.of(teamAId, teamBId))) {
+            teamsNachId.put(team.getId(), team);
+        }
+        Team teamA = Optional.ofNullable(teamsNachId.get(teamAId))
                 .orElseThrow(() -> new NoSuchElementException("Team A nicht gefunden: " + teamAId));
-        Team teamB = teamRepository.findById(teamBId)
+        Team teamB = Optional.ofNullable(teamsNachId.get(teamBId))
                 .orElseThrow(() -> new NoSuchElementException("Team B nicht gefunden: " + teamBId));
 
-        // Prüfen, ob alle Spieler frei sind (nicht in anderem laufenden Spiel)
-        pruefeSpielerVerfuegbar(teamA, teamB);
+        // Alle Spieler:innen reservieren – atomar, ohne Datenbank-Abfrage
+        Set<Long> spielerIds = spielerIds(teamA, teamB);
+        long reservierung = reservierungen.reserviere(teamA, teamB);
+        try {
+            return legeAn(teamA, teamB, aufschlagTeamIstA, startSeite, reservierung, spielerIds);
+        } catch (RuntimeException e) {
+            reservierungen.verwerfe(reservierung, spielerIds);
+            throw e;
+        }
+    }
 
+    private Spiel legeAn(Team teamA, Team teamB, boolean aufschlagTeamIstA, Seite startSeite,
+                         long reservierung, Set<Long> spielerIds) {
         // Neues Spiel mit aktuellem Datum
         Spiel spiel = new Spiel(LocalDate.now());
         spiel.addTeam(teamA);   // Index 0 = Team A
@@ -101,7 +161,47 @@ public class SpielService {
         // Alle beteiligten Spieler als "aktiv" markieren
         markiereSpielerAktiv(true, teamA, teamB);
 
-        return spielRepository.save(spiel);
+        Spiel gespeichert = spielRepository.save(spiel);
+        reservierungen.bestaetige(reservierung, gespeichert.getId(), spielerIds);
+
+        // Startzustand als ersten Snapshot für das Ballwechsel-Protokoll festhalten
+        SpielSnapshot startSnapshot = snapshotRepository.save(SpielSnapshot.aus(gespeichert, 0));
+        teilnahmeRepository.saveAll(SpielTeilnahme.aus(gespeichert));
+
+        liveSpielEngine.registriere(gespeichert, startSnapshot);
+        SpielGeaendertEvent gestartet = new SpielGeaendertEvent(erstelleSpielstand(gespeichert));
+        BelegungGeaendertEvent belegung = new BelegungGeaendertEvent(
+                Set.of(teamA.getId(), teamB.getId()), spielerIds);
+        nachCommit(() -> {
+            eventPublisher.publishEvent(gestartet);
+            eventPublisher.publishEvent(belegung);
+        });
+        return gespeichert;
+    }
+
+    /**
+     * Wie LiveSpielEngine.registriere: in einer Transaktion erst nach deren
+     * Commit, sonst sofort – Anzeigen und Caches sollen kein Spiel sehen, das
+     * danach zurückgerollt wird.
+     *
+     * Bewusst afterCompletion statt afterCommit: dort ist die Synchronisation
+     * schon beendet, @TransactionalEventListener(fallbackExecution = true)
+     * (StammdatenService) läuft also sofort, statt sich an die fertige
+     * Transaktion zu hängen.
+     */
+    private static void nachCommit(Runnable aktion) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        aktion.run();
+                    }
+                }
+            });
+        } else {
+            aktion.run();
+        }
     }
 
     // -------------------------------------------------------------------------
@@ -110,8 +210,10 @@ public class SpielService {
 
     /**
      * Vergibt einen Punkt an Team A (Teams[0]) im aktuellen Satz.
+     *
+     * Bewusst ohne @Transactional: die LiveSpielEngine öffnet nur dann
+     * eine Transaktion, wenn wirklich geladen oder gespeichert wird.
      */
-    @Transactional
     public Spiel punktFuerTeamA(Long spielId) {
         return vergebePunkt(spielId, true);
     }
@@ -119,7 +221,6 @@ public class SpielService {
     /**
      * Vergibt einen Punkt an Team B (Teams[1]) im aktuellen Satz.
      */
-    @Transactional
     public Spiel punktFuerTeamB(Long spielId) {
         return vergebePunkt(spielId, false);
     }
@@ -132,8 +233,87 @@ public class SpielService {
      * @param punktFuerA true -> Punkt für Team A, false -> Team B
      */
     private Spiel vergebePunkt(Long spielId, boolean punktFuerA) {
-        Spiel spiel = ladeSpiel(spielId);
+        return metriken.miss("punkt", spielId, () -> {
+            int[] neueSaetze = {0};
+            boolean[] beendet = {false};
+
+            Spiel spiel = aendereUndMelde(spielId, (s, verlauf) -> {
+                int saetzeVorher = s.getSaetze().size();
+                spieleBallwechsel(s, verlauf, punktFuerA);
+                neueSaetze[0] = s.getSaetze().size() - saetzeVorher;
+                beendet[0] = s.getStatus() == SpielStatus.BEENDET;
+            });
+            metriken.ballwechselGespielt(1, neueSaetze[0], beendet[0]);
+            return spiel;
+        });
+    }
+
+    /**
+     * Spielt mehrere Ballwechsel in der angegebenen Reihenfolge nach
+     * (z.B. ein Gerät am Court war offline und meldet seinen Rückstand).
+     *
+     * - Alle Ballwechsel laufen unter EINER Sperre des Spiels über dieselben Regeln
+     *   wie ein einzelner Punkt; gespeichert wird einmal am Ende
+     *   (sofort bei Satz-/Spielende, sonst über den Write-Behind).
+     * - Endet das Spiel unterwegs, werden die restlichen Einträge ignoriert.
+     *
+     * @param spielId       ID des Spiels
+     * @param punkteFuerA   pro Ballwechsel: true -> Punkt für Team A, false -> Team B
+     */
+    public BallwechselErgebnis spieleBallwechselFolge(Long spielId, List<Boolean> punkteFuerA) {
+        return metriken.miss("ballwechsel", spielId, () -> spieleFolge(spielId, punkteFuerA));
+    }
 
+    private BallwechselErgebnis spieleFolge(Long spielId, List<Boolean> punkteFuerA) {
+        int[] angewendet = {0};
+        int[] neueSaetze = {0};
+        Integer[] spielendeBeiIndex = {null};
+
+        Spiel spiel = aendereUndMelde(spielId, (s, verlauf) -> {
+            int saetzeVorher = s.getSaetze().size();
+            for (int i = 0; i < punkteFuerA.size(); i++) {
+                spieleBallwechsel(s, verlauf, punkteFuerA.get(i));
+                angewendet[0]++;
+                if (s.getStatus() != SpielStatus.LAUFEND) {
+                    spielendeBeiIndex[0] = i;
+                    break;
+                }
+            }
+            neueSaetze[0] = s.getSaetze().size() - saetzeVorher;
+        });
+        metriken.ballwechselGespielt(angewendet[0], neueSaetze[0], spielendeBeiIndex[0] != null);
+        return new BallwechselErgebnis(spiel, angewendet[0], spielendeBeiIndex[0]);
+    }
+
+    /**
+     * Spielt einen Ballwechsel und hängt ihn an das Protokoll an.
+     *
+     * - Aufschlagteam/-seite vor und nach dem Punkt werden mitgeschrieben.
+     * - Beginnt durch den Punkt ein neuer Satz, wird ein Snapshot angelegt,
+     *   damit ein späteres Undo nicht das ganze Spiel neu abspielen muss.
+     */
+    private void spieleBallwechsel(Spiel spiel, SpielVerlauf verlauf, boolean punktFuerA) {
+        boolean aufschlagAVorher = hatTeamAAufschlag(spiel);
+        Seite seiteVorher = spiel.getAufschlagSeite();
+        int saetzeVorher = spiel.getSaetze().size();
+        int satzNummer = spiel.getSaetze().isEmpty() ? 0 : ermittleAktuellenSatz(spiel).getNummer();
+
+        wendePunktAn(spiel, punktFuerA);
+
+        int sequenz = verlauf.naechsteSequenz();
+        verlauf.fuegeHinzu(new Ballwechsel(spiel.getId(), sequenz, satzNummer, punktFuerA,
+                aufschlagAVorher, seiteVorher,
+                hatTeamAAufschlag(spiel), spiel.getAufschlagSeite()));
+
+        if (spiel.getStatus() == SpielStatus.LAUFEND && spiel.getSaetze().size() != saetzeVorher) {
+            verlauf.fuegeSnapshotHinzu(SpielSnapshot.aus(spiel, sequenz));
+        }
+    }
+
+    /**
+     * Punktevergabe auf dem (In-Memory-)Spiel – ohne Datenbankzugriff.
+     */
+    private void wendePunktAn(Spiel spiel, boolean punktFuerA) {
         // Nur laufende Spiele dürfen Punkte bekommen
         if (spiel.getStatus() != SpielStatus.LAUFEND) {
             throw new IllegalStateException(
@@ -162,38 +342,84 @@ public class SpielService {
         // 3) Prüfen, ob Satz oder Match beendet ist
         pruefeSatzUndSpielEnde(spiel);
 
-        // 4) Alles speichern (Spiel -> Sätze -> Teams -> Spieler)
-        return spielRepository.save(spiel);
+        // 4) Gespeichert wird über die LiveSpielEngine (Write-Behind)
     }
 
     // -------------------------------------------------------------------------
-    // 2b) Undo für Punkte (vereinfachte Variante)
+    // 2b) Undo für Punkte (Replay aus dem Ballwechsel-Protokoll)
     // -------------------------------------------------------------------------
 
-    @Transactional
     public Spiel undoPunktFuerTeamA(Long spielId) {
         return undoPunkt(spielId, true);
     }
 
-    @Transactional
     public Spiel undoPunktFuerTeamB(Long spielId) {
         return undoPunkt(spielId, false);
     }
 
     /**
-     * Macht den letzten Punkt für Team A oder B wieder rückgängig.
+     * Nimmt die letzten n Ballwechsel zurück – auch über Satzgrenzen hinweg.
      *
-     * Einfache Variante:
-     * - Wir gehen davon aus, dass dieser Undo sich auf den letzten vergebenen Punkt bezieht
-     *   und dass dieser Punkt vom angegebenen Team stammt.
-     * - Wenn das Punkt-Team aktuell auch das Aufschlagteam ist, drehen wir
-     *   Positionswechsel + Aufschlagseite wieder zurück.
+     * @param spielId  ID des Spiels
+     * @param schritte Anzahl der zurückzunehmenden Ballwechsel (mind. 1);
+     *                 weiter als bis zum Spielstart geht es nicht zurück.
+     */
+    public Spiel undoBallwechsel(Long spielId, int schritte) {
+        if (schritte < 1) {
+            throw new IllegalArgumentException("Anzahl der Schritte muss mindestens 1 sein.");
+        }
+        return metriken.miss("undo", spielId, () -> aendereUndMelde(spielId, (spiel, verlauf) -> {
+            pruefeUndoMoeglich(spiel);
+            // Sequenzen sind nach einem Undo nicht lückenlos -> über die Position zählen
+            List<Ballwechsel> alle = verlauf.getBallwechsel();
+            int bleiben = alle.size() - schritte;
+            int behalten = Math.max(bleiben > 0 ? alle.get(bleiben - 1).getSequenz() : 0,
+                    verlauf.fruehesteSnapshotSequenz());
+            spieleNeuAb(spiel, verlauf, behalten, List.of());
+        }));
+    }
+
+    /**
+     * Macht den letzten Punkt für Team A oder B im aktuellen Satz rückgängig.
      *
-     * Für das Praktikum reicht diese "1-Schritt-Rückgängig"-Logik aus.
+     * - Das Protokoll wird bis vor den letzten Ballwechsel dieses Teams im aktuellen
+     *   Satz abgeschnitten; die Ballwechsel danach werden mit den normalen Regeln
+     *   erneut abgespielt und neu angehängt (Aufschlag und Positionen sind damit
+     *   immer korrekt).
+     * - Hat das Team im aktuellen Satz noch keinen Punkt, passiert nichts (idempotent).
      */
     private Spiel undoPunkt(Long spielId, boolean undoFuerTeamA) {
-        Spiel spiel = ladeSpiel(spielId);
+        return metriken.miss("undo", spielId, () -> aendereUndMelde(spielId,
+                (spiel, verlauf) -> nimmPunktZurueck(spiel, verlauf, undoFuerTeamA)));
+    }
 
+    private void nimmPunktZurueck(Spiel spiel, SpielVerlauf verlauf, boolean undoFuerTeamA) {
+        pruefeUndoMoeglich(spiel);
+
+        int aktuellerSatz = ermittleAktuellenSatz(spiel).getNummer();
+        List<Ballwechsel> alle = verlauf.getBallwechsel();
+
+        int index = -1;
+        for (int i = alle.size() - 1; i >= 0 && alle.get(i).getSatzNummer() == aktuellerSatz; i--) {
+            if (alle.get(i).isPunktFuerA() == undoFuerTeamA) {
+                index = i;
+                break;
+            }
+        }
+        if (index < 0) {
+            // Nichts zu tun – Undo ist idempotent
+            return;
+        }
+
+        List<Boolean> danach = new ArrayList<>();
+        for (int i = index + 1; i < alle.size(); i++) {
+            danach.add(alle.get(i).isPunktFuerA());
+        }
+        int behalten = index > 0 ? alle.get(index - 1).getSequenz() : 0;
+        spieleNeuAb(spiel, verlauf, behalten, danach);
+    }
+
+    private void pruefeUndoMoeglich(Spiel spiel) {
         if (spiel.getStatus() != SpielStatus.LAUFEND) {
             throw new IllegalStateException("Punkte können nur in laufenden Spielen zurückgenommen werden.");
         }
@@ -201,53 +427,57 @@ public class SpielService {
         if (spiel.getTeams().size() < 2) {
             throw new IllegalStateException("Spiel hat nicht genau zwei Teams.");
         }
+    }
 
-        Team teamA = spiel.getTeams().get(0);
-        Team teamB = spiel.getTeams().get(1);
-        Team punktTeam = undoFuerTeamA ? teamA : teamB;
-
-        Satz aktuellerSatz = ermittleAktuellenSatz(spiel);
+    /**
+     * Setzt das Spiel auf den Stand nach Ballwechsel 'behalten' und spielt
+     * danach die übergebenen Punkte erneut ab.
+     *
+     * Im Protokoll wird nur ein Schnitt auf 'behalten' angehängt; die
+     * erneut abgespielten Punkte kommen als neue Ballwechsel dazu.
+     *
+     * Kosten: O(Ballwechsel seit dem letzten Snapshot) – es wird nur ab dem
+     * letzten Snapshot vor 'behalten' neu abgespielt, nicht ab Spielbeginn.
+     */
+    private void spieleNeuAb(Spiel spiel, SpielVerlauf verlauf, int behalten, List<Boolean> erneutAbspielen) {
+        SpielSnapshot snapshot = verlauf.letzterSnapshotBis(behalten);
 
-        // 1) Punktestand zurückdrehen (aber ohne Exception bei 0 → einfach NO-OP)
+        verlauf.schneideAb(behalten);
+        snapshot.stelleWiederHer(spiel);
 
-        if (undoFuerTeamA) {
-            if (aktuellerSatz.getPunkteTeamA() <= 0) {
-                // Nichts zu tun – Undo ist idempotent
-                return spiel;
-            }
-            aktuellerSatz.setPunkteTeamA(aktuellerSatz.getPunkteTeamA() - 1);
-        } else {
-            if (aktuellerSatz.getPunkteTeamB() <= 0) {
-                // Nichts zu tun – Undo ist idempotent
-                return spiel;
+        // Bis 'behalten' bleibt das Protokoll gültig -> nur den Stand nachziehen
+        for (Ballwechsel b : verlauf.getBallwechsel()) {
+            if (b.getSequenz() > snapshot.getSequenz()) {
+                wendePunktAn(spiel, b.isPunktFuerA());
             }
-            aktuellerSatz.setPunkteTeamB(aktuellerSatz.getPunkteTeamB() - 1);
-        }
-
-        // 2) Aufschlag-/Positionslogik rückgängig machen
-        //
-        // Bei der Punktevergabe gilt:
-        //  - Der Punkt wird immer vom aktuellen Aufschlagteam aus bewertet.
-        //  - Wenn das Aufschlagteam den Punkt macht:
-        //      -> Positionen dieses Teams werden getauscht
-        //      -> Aufschlagseite wird invertiert
-        //
-        // Undo: genau das wieder zurückdrehen.
-        if (spiel.getAufschlagTeam() != null && spiel.getAufschlagTeam().equals(punktTeam)) {
-            // Spielerpositionen wieder zurücktauschen
-            wechslePositionenImTeam(punktTeam);
-
-            // Aufschlagseite wieder invertieren -> zurück auf ursprüngliche Seite
-            Seite aktuelleSeite = spiel.getAufschlagSeite();
-            if (aktuelleSeite != null) {
-                spiel.setAufschlagSeite(aktuelleSeite.invert());
+        }
+        for (boolean punktFuerA : erneutAbspielen) {
+            if (spiel.getStatus() != SpielStatus.LAUFEND) {
+                break;
             }
+            spieleBallwechsel(spiel, verlauf, punktFuerA);
         }
+    }
 
-        // Satz-/Matchende behandeln wir in dieser einfachen Variante nicht rückwärts,
-        // d.h. Undo ist vor allem für Korrekturen mitten im Satz gedacht.
-
-        return spielRepository.save(spiel);
+    /**
+     * Zwischenstand nach den ersten 'anzahl' Ballwechseln einer Folge ab dem
+     * Start-Snapshot – mit den normalen Regeln nachgespielt, Aufschlag und
+     * Positionen inklusive (BallwechselArchiv).
+     *
+     * Ändert das übergebene Spiel: nur mit einer losgelösten Kopie aufrufen,
+     * nie mit einem verwalteten oder dem Live-Stand.
+     *
+     * @throws IllegalStateException falls die Folge nicht zu den Regeln passt
+     *                               (z.B. Punkte nach dem Spielende)
+     */
+    Spielstand spieleNach(Spiel kopie, SpielSnapshot start, BallwechselFolge folge, int anzahl) {
+        start.stelleWiederHer(kopie);
+        kopie.setGewinnerTeam(null);
+        kopie.setStatus(SpielStatus.LAUFEND);
+        for (int i = 0; i < anzahl; i++) {
+            wendePunktAn(kopie, folge.punktFuerA(i));
+        }
+        return erstelleSpielstand(kopie);
     }
 
 
@@ -269,10 +499,15 @@ public class SpielService {
      * - Alle beteiligten Spieler werden wieder als "frei" markiert
      *   (inAktivemSpiel = false).
      */
-    @Transactional
     public Spiel brecheSpielAb(Long spielId, boolean teamAGibtAuf) {
-        Spiel spiel = ladeSpiel(spielId);
+        return metriken.miss("abbruch", spielId, () -> {
+            Spiel spiel = aendereUndMelde(spielId, (s, verlauf) -> brecheAb(s, teamAGibtAuf));
+            metriken.spielAbgebrochen();
+            return spiel;
+        });
+    }
 
+    private void brecheAb(Spiel spiel, boolean teamAGibtAuf) {
         if (spiel.getStatus() != SpielStatus.LAUFEND) {
             throw new IllegalStateException(
                     "Nur laufende Spiele können abgebrochen werden (Status: " + spiel.getStatus() + ")");
@@ -294,8 +529,6 @@ public class SpielService {
 
         // Alle Spieler wieder freigeben
         markiereSpielerAlsFrei(spiel);
-
-        return spielRepository.save(spiel);
     }
 
     // -------------------------------------------------------------------------
@@ -303,18 +536,87 @@ public class SpielService {
     // -------------------------------------------------------------------------
 
     /**
-     * Lädt ein Spiel oder wirft eine Exception, falls es nicht existiert.
+     * Lädt ein Spiel mit seinen Sätzen oder wirft eine Exception, falls es nicht existiert.
+     * Laufende Spiele kommen aus dem Speicher (LiveSpielEngine, ohne SQL),
+     * alle anderen mit genau einer Abfrage (Spiel + Sätze).
      */
-    private Spiel ladeSpiel(Long spielId) {
-        return spielRepository.findById(spielId)
+    private Spiel ladeSpielMitSaetzen(Long spielId) {
+        return liveSpielEngine.imSpeicher(spielId)
+                .or(() -> spielRepository.findMitSaetze(spielId))
                 .orElseThrow(() -> new NoSuchElementException("Spiel nicht gefunden: " + spielId));
     }
 
+    /**
+     * Führt eine Änderung über die LiveSpielEngine aus und veröffentlicht
+     * danach den neuen Spielstand – noch unter der Sperre des Spiels,
+     * damit Anzeigen die Stände in der richtigen Reihenfolge bekommen.
+     *
+     * Endet das Spiel durch die Änderung (Matchende in pruefeSatzUndSpielEnde
+     * oder Abbruch in brecheAb), folgt ein SpielAbgeschlossenEvent – erst nach
+     * dem sofortigen Speichern, damit ein nicht gespeichertes Ende nicht zählt.
+     * Synchron laufen darauf nur Freigaben im Speicher (Reservierungen, Feldplaner);
+     * Statistik, Index, Wertung und Protokoll laufen auf eigenen Threads
+     * (SpielAbschlussAufgaben) und können den Punkt nicht mehr scheitern lassen.
+     */
+    private Spiel aendereUndMelde(Long spielId, BiConsumer<Spiel, SpielVerlauf> aenderung) {
+        SpielAbschluss[] abschluss = {null};
+        BelegungGeaendertEvent[] belegung = {null};
+        Spiel ergebnis = liveSpielEngine.aendere(spielId, (spiel, verlauf) -> {
+            boolean liefVorher = spiel.getStatus() == SpielStatus.LAUFEND;
+            aenderung.accept(spiel, verlauf);
+            spiel.erhoeheStandVersion();
+            eventPublisher.publishEvent(new SpielGeaendertEvent(erstelleSpielstand(spiel)));
+            if (liefVorher && spiel.getStatus() != SpielStatus.LAUFEND) {
+                abschluss[0] = SpielAbschluss.aus(spiel);
+                Team[] teams = spiel.getTeams().toArray(Team[]::new);
+                Set<Long> teamIds = new HashSet<>();
+                for (Team team : teams) {
+                    teamIds.add(team.getId());
+                }
+                belegung[0] = new BelegungGeaendertEvent(teamIds, spielerIds(teams));
+            }
+        });
+        if (abschluss[0] != null) {
+            eventPublisher.publishEvent(new SpielAbgeschlossenEvent(abschluss[0]));
+            eventPublisher.publishEvent(belegung[0]);
+        }
+        return ergebnis;
+    }
+
+    /**
+     * Aktueller Stand eines Spiels für die Anzeige (GET /spiele/{id}):
+     * laufende Spiele aus dem Speicher, alle anderen aus der Datenbank.
+     */
+    public Optional<Spiel> findeAktuellenStand(Long spielId) {
+        return liveSpielEngine.aktuellerStand(spielId);
+    }
+
+    /**
+     * Wie findeAktuellenStand, aber auch außerhalb eines Requests serialisierbar
+     * (Objektgraph vollständig geladen).
+     */
+    public Optional<Spiel> findeAktuellenStandVollstaendig(Long spielId) {
+        return liveSpielEngine.aktuellerStandVollstaendig(spielId);
+    }
+
+    /**
+     * Stand-Version eines Spiels: laufende Spiele aus dem Speicher,
+     * alle anderen über eine einzelne Spalte – nie der ganze Objektgraph.
+     *
+     * @return leer, falls es das Spiel nicht gibt
+     */
+    public Optional<Long> findeStandVersion(Long spielId) {
+        OptionalLong imSpeicher = liveSpielEngine.standVersionImSpeicher(spielId);
+        return imSpeicher.isPresent()
+                ? Optional.of(imSpeicher.getAsLong())
+                : spielRepository.findStandVersion(spielId);
+    }
+
     /**
      * Ermittelt den aktuellen Satz:
      * nimmt den Satz mit der höchsten Nummer.
      */
-    private Satz ermittleAktuellenSatz(Spiel spiel) {
+    Satz ermittleAktuellenSatz(Spiel spiel) {
         return spiel.getSaetze().stream()
                 .max(Comparator.comparingInt(Satz::getNummer))
                 .orElseThrow(() -> new IllegalStateException("Spiel hat noch keine Sätze"));
@@ -341,11 +643,11 @@ public class SpielService {
      *      gerade Punktzahl -> RECHTS, ungerade -> LINKS
      *      (UI darf diese Empfehlung manuell anpassen)
      */
-    private void wendeAufschlagUndPositionsLogikAn(Spiel spiel,
-                                                   Team teamA,
-                                                   Team teamB,
-                                                   Satz aktuellerSatz,
-                                                   boolean punktFuerA) {
+    void wendeAufschlagUndPositionsLogikAn(Spiel spiel,
+                                           Team teamA,
+                                           Team teamB,
+                                           Satz aktuellerSatz,
+                                           boolean punktFuerA) {
 
         Team punktTeam = punktFuerA ? teamA : teamB;
         Team anderesTeam = punktFuerA ? teamB : teamA;
@@ -359,7 +661,8 @@ public class SpielService {
         }
 
         // Fall 1: Aufschlagteam macht den Punkt
-        if (punktTeam.equals(aktuellesAufschlagTeam)) {
+        // (Vergleich über die ID – aufschlagTeam kann ein Lazy-Proxy sein)
+        if (punktTeam.getId().equals(aktuellesAufschlagTeam.getId())) {
             // Aufschlagsrecht bleibt beim gleichen Team
 
             // Spieler dieses Teams wechseln ihre Position im Team (LINKS <-> RECHTS)
@@ -404,6 +707,15 @@ public class SpielService {
         }
     }
 
+    /**
+     * true, falls Team A (Teams[0]) aktuell das Aufschlagsrecht hat.
+     */
+    private boolean hatTeamAAufschlag(Spiel spiel) {
+        return spiel.getTeams().size() >= 2
+                && spiel.getAufschlagTeam() != null
+                && spiel.getTeams().get(0).getId().equals(spiel.getAufschlagTeam().getId());
+    }
+
     // -------------------------------------------------------------------------
     // 6) Satzende & Spielende (Best-of-Three)
     // -------------------------------------------------------------------------
@@ -486,7 +798,7 @@ public class SpielService {
      * ODER
      * - ein Team 30 Punkte erreicht (maximale Punktzahl)
      */
-    private boolean istSatzBeendet(Satz satz) {
+    boolean istSatzBeendet(Satz satz) {
         int a = satz.getPunkteTeamA();
         int b = satz.getPunkteTeamB();
 
@@ -516,37 +828,76 @@ public class SpielService {
      * als Pop-up anzubieten.
      */
     public boolean istPauseEmpfohlen(Long spielId) {
-        Spiel spiel = ladeSpiel(spielId);
+        return metriken.miss("pause", spielId, () -> istPauseEmpfohlen(ladeSpielMitSaetzen(spielId)));
+    }
+
+    private boolean istPauseEmpfohlen(Spiel spiel) {
         Satz aktuellerSatz = ermittleAktuellenSatz(spiel);
         int maxPunkte = Math.max(aktuellerSatz.getPunkteTeamA(), aktuellerSatz.getPunkteTeamB());
         return maxPunkte >= 11;
     }
 
     // -------------------------------------------------------------------------
-    // 8) Spieler-Verfügbarkeit (inAktivemSpiel)
+    // 7b) Kompakter Spielstand für Live-Anzeigen
     // -------------------------------------------------------------------------
 
     /**
-     * Prüft, ob alle Spieler in den übergebenen Teams aktuell "frei" sind
-     * (inAktivemSpiel == false).
-     *
-     * Falls irgendein Spieler bereits in einem laufenden Spiel steckt,
-     * wird eine IllegalStateException geworfen.
+     * Aktueller kompakter Spielstand (z.B. als erste Nachricht im SSE-Stream).
      */
-    private void pruefeSpielerVerfuegbar(Team... teams) {
-        for (Team team : teams) {
+    public Optional<Spielstand> findeAktuellenSpielstand(Long spielId) {
+        return liveSpielEngine.aktuellerStand(spielId).map(this::erstelleSpielstand);
+    }
+
+    /**
+     * Kompakte Stände aller laufenden Spiele (z.B. für die Hallen-Anzeige beim Start).
+     * Transaktional, weil Spiele, die noch nicht im Speicher sind, aus der DB
+     * kommen und ihre Sätze/Spieler erst beim Zugriff geladen werden.
+     */
+    @Transactional
+    public List<Spielstand> findeLaufendeSpielstaende() {
+        List<Spielstand> staende = new ArrayList<>();
+        for (Long spielId : spielRepository.findIdsByStatus(SpielStatus.LAUFEND)) {
+            findeAktuellenSpielstand(spielId).ifPresent(staende::add);
+        }
+        return staende;
+    }
+
+    /**
+     * Baut aus einem Spiel den kompakten Spielstand
+     * (Satzstände, Aufschlag, Positionen, Gewinner, Pausenempfehlung).
+     */
+    private Spielstand erstelleSpielstand(Spiel spiel) {
+        List<Spielstand.SatzStand> saetze = new ArrayList<>();
+        for (Satz s : spiel.getSaetze()) {
+            saetze.add(new Spielstand.SatzStand(s.getNummer(), s.getPunkteTeamA(), s.getPunkteTeamB()));
+        }
+        saetze.sort(Comparator.comparingInt(Spielstand.SatzStand::nummer));
+
+        Map<Long, Seite> positionen = new LinkedHashMap<>();
+        for (Team team : spiel.getTeams()) {
             for (Spieler s : team.getSpieler()) {
-                if (s.isInAktivemSpiel()) {
-                    String name = (s.getVorname() != null ? s.getVorname() : "")
-                            + " "
-                            + (s.getNachname() != null ? s.getNachname() : "");
-                    throw new IllegalStateException(
-                            "Spieler " + name.trim() + " ist bereits in einem laufenden Spiel.");
-                }
+                positionen.put(s.getId(), s.getPositionImTeam());
             }
         }
+
+        Long teamAId = spiel.getTeams().size() >= 2 ? spiel.getTeams().get(0).getId() : null;
+        Long teamBId = spiel.getTeams().size() >= 2 ? spiel.getTeams().get(1).getId() : null;
+
+        Boolean aufschlagTeamA = spiel.getAufschlagTeam() != null ? hatTeamAAufschlag(spiel) : null;
+        Boolean gewinnerTeamA = spiel.getGewinnerTeam() != null && teamAId != null
+                ? teamAId.equals(spiel.getGewinnerTeam().getId())
+                : null;
+
+        return new Spielstand(spiel.getId(), spiel.getStatus(), teamAId, teamBId, saetze,
+                aufschlagTeamA, spiel.getAufschlagSeite(), positionen, gewinnerTeamA,
+                !spiel.getSaetze().isEmpty() && istPauseEmpfohlen(spiel),
+                spiel.getStandVersion());
     }
 
+    // -------------------------------------------------------------------------
+    // 8) Spieler-Verfügbarkeit (inAktivemSpiel)
+    // -------------------------------------------------------------------------
+
     /**
      * Setzt für alle Spieler in den übergebenen Teams das Flag inAktivemSpiel.
      *
@@ -561,6 +912,19 @@ public class SpielService {
         }
     }
 
+    /**
+     * IDs aller Spieler:innen der Teams (auch für die Belegung im FeldPlaner).
+     */
+    static Set<Long> spielerIds(Team... teams) {
+        Set<Long> ids = new HashSet<>();
+        for (Team team : teams) {
+            for (Spieler s : team.getSpieler()) {
+                ids.add(s.getId());
+            }
+        }
+        return ids;
+    }
+
     /**
      * Markiert alle Spieler eines Spiels als "frei" (inAktivemSpiel = false).
      * Wird bei Matchende oder Spielabbruch aufgerufen.
@@ -572,4 +936,50 @@ public class SpielService {
             }
         }
     }
+
+    // -------------------------------------------------------------------------
+    // 9) Spielliste (Historie) – seitenweise per Keyset
+    // -------------------------------------------------------------------------
+
+    /**
+     * Standard- und Maximalgröße einer Seite der Spielliste.
+     */
+    public static final int SEITE_STANDARD = 50;
+    public static final int SEITE_MAX = 200;
+
+    /**
+     * Liefert eine Seite der Spielliste, neueste zuerst (komplette Spiele).
+     *
+     * @param filter Filter (Status, Datumsbereich, Spielername)
+     * @param nach   Cursor der vorherigen Seite oder null für die erste Seite
+     * @param limit  gewünschte Seitengröße (wird auf 1..SEITE_MAX begrenzt)
+     */
+    @Transactional
+    public SpielSeite<Spiel> findeSpiele(SpielFilter filter, SpielCursor nach, int limit) {
+        int anzahl = Math.clamp(limit, 1, SEITE_MAX);
+        return alsSeite(spielRepository.sucheSeite(filter, nach, anzahl + 1), anzahl,
+                spiel -> new SpielCursor(spiel.getDatum(), spiel.getId()));
+    }
+
+    /**
+     * Wie findeSpiele, aber als schlanke Historien-Zeilen für history.html –
+     * in zwei SQL-Abfragen statt einer pro Spiel und Collection.
+     */
+    public SpielSeite<HistorienZeile> findeHistorie(SpielFilter filter, SpielCursor nach, int limit) {
+        int anzahl = Math.clamp(limit, 1, SEITE_MAX);
+        return alsSeite(spielRepository.sucheHistorie(filter, nach, anzahl + 1), anzahl,
+                zeile -> new SpielCursor(zeile.datum(), zeile.id()));
+    }
+
+    /**
+     * Es wird ein Eintrag mehr gelesen als angefordert – gibt es ihn,
+     * existiert eine weitere Seite und ihr Cursor ist der letzte gelieferte Eintrag.
+     */
+    private static <T> SpielSeite<T> alsSeite(List<T> treffer, int anzahl, Function<T, SpielCursor> cursor) {
+        if (treffer.size() <= anzahl) {
+            return new SpielSeite<>(treffer, null);
+        }
+        List<T> eintraege = new ArrayList<>(treffer.subList(0, anzahl));
+        return new SpielSeite<>(eintraege, cursor.apply(eintraege.getLast()));
+    }
 }
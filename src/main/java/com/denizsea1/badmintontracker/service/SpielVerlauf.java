@@ -0,0 +1,208 @@
+package com.denizsea1.badmintontracker.service;
+
+import com.denizsea1.badmintontracker.model.Ballwechsel;
+import com.denizsea1.badmintontracker.model.SpielSnapshot;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * In-Memory-Protokoll eines laufenden Spiels:
+ * die wirksamen Ballwechsel und Snapshots, plus die noch nicht gespeicherten Einträge.
+ *
+ * Das gespeicherte Protokoll wird nur angehängt, nie umgeschrieben. Ein Undo
+ * hängt einen Schnitt an (Ballwechsel.schnitt): alle Einträge zwischen dem
+ * Ziel des Schnitts und dem Schnitt selbst gelten danach nicht mehr, bleiben
+ * aber stehen. Neu abgespielte Ballwechsel bekommen neue Sequenzen – eine
+ * Sequenz wird nie zweimal vergeben.
+ *
+ * Wird von der LiveSpielEngine pro Spiel gehalten und nur unter deren
+ * Sperre verändert. Gespeichert wird beim nächsten Flush.
+ */
+public final class SpielVerlauf {
+
+    private final Long spielId;
+
+    /** Nur wirksame Einträge, nach Sequenz sortiert. */
+    private final List<Ballwechsel> ballwechsel;
+    private final List<SpielSnapshot> snapshots;
+
+    /** Alles noch nicht Gespeicherte – auch Schnitte und inzwischen abgeschnittene Einträge. */
+    private final List<Ballwechsel> offeneBallwechsel = new ArrayList<>();
+    private final List<SpielSnapshot> offeneSnapshots = new ArrayList<>();
+
+    /** Höchste je vergebene Sequenz (Ballwechsel, Schnitte, Snapshots). */
+    private int letzteSequenz;
+
+    /**
+     * @param protokoll gespeicherte Ballwechsel inkl. Schnitte, nach Sequenz sortiert
+     * @param snapshots gespeicherte Snapshots, nach Sequenz sortiert
+     */
+    public SpielVerlauf(Long spielId, List<Ballwechsel> protokoll, List<SpielSnapshot> snapshots) {
+        this.spielId = spielId;
+        this.ballwechsel = new ArrayList<>(wirksameBallwechsel(protokoll));
+        this.snapshots = new ArrayList<>(wirksameSnapshots(protokoll, snapshots));
+        for (Ballwechsel b : protokoll) {
+            letzteSequenz = Math.max(letzteSequenz, b.getSequenz());
+        }
+        for (SpielSnapshot s : snapshots) {
+            letzteSequenz = Math.max(letzteSequenz, s.getSequenz());
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Gespeichertes Protokoll auswerten
+    // -------------------------------------------------------------------------
+
+    /**
+     * Punkte, die nach allen Schnitten noch gelten (ohne die Schnitte selbst).
+     */
+    static List<Ballwechsel> wirksameBallwechsel(List<Ballwechsel> protokoll) {
+        List<Ballwechsel> schnitte = schnitte(protokoll);
+        List<Ballwechsel> wirksam = new ArrayList<>();
+        for (Ballwechsel b : protokoll) {
+            if (!b.istSchnitt() && !istAbgeschnitten(b.getSequenz(), schnitte)) {
+                wirksam.add(b);
+            }
+        }
+        return wirksam;
+    }
+
+    static List<SpielSnapshot> wirksameSnapshots(List<Ballwechsel> protokoll, List<SpielSnapshot> snapshots) {
+        List<Ballwechsel> schnitte = schnitte(protokoll);
+        List<SpielSnapshot> wirksam = new ArrayList<>();
+        for (SpielSnapshot s : snapshots) {
+            if (!istAbgeschnitten(s.getSequenz(), schnitte)) {
+                wirksam.add(s);
+            }
+        }
+        return wirksam;
+    }
+
+    private static List<Ballwechsel> schnitte(List<Ballwechsel> protokoll) {
+        List<Ballwechsel> schnitte = new ArrayList<>();
+        for (Ballwechsel b : protokoll) {
+            if (b.istSchnitt()) {
+                schnitte.add(b);
+            }
+        }
+        return schnitte;
+    }
+
+    private static boolean istAbgeschnitten(int sequenz, List<Ballwechsel> schnitte) {
+        for (Ballwechsel schnitt : schnitte) {
+            if (sequenz > schnitt.getZurueckAuf() && sequenz < schnitt.getSequenz()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // -------------------------------------------------------------------------
+    // Lesen
+    // -------------------------------------------------------------------------
+
+    public List<Ballwechsel> getBallwechsel() {
+        return Collections.unmodifiableList(ballwechsel);
+    }
+
+    public int anzahlBallwechsel() {
+        return ballwechsel.size();
+    }
+
+    public int anzahlSnapshots() {
+        return snapshots.size();
+    }
+
+    /**
+     * Sequenz des nächsten Eintrags (fortlaufend ab 1, nie wiederverwendet).
+     */
+    public int naechsteSequenz() {
+        return letzteSequenz + 1;
+    }
+
+    /**
+     * Sequenz des ältesten Snapshots – weiter kann Undo nicht zurück.
+     */
+    public int fruehesteSnapshotSequenz() {
+        return snapshots.isEmpty() ? 0 : snapshots.getFirst().getSequenz();
+    }
+
+    /**
+     * Letzter Snapshot, dessen Stand höchstens bis zur angegebenen Sequenz reicht.
+     */
+    public SpielSnapshot letzterSnapshotBis(int sequenz) {
+        SpielSnapshot treffer = null;
+        for (SpielSnapshot s : snapshots) {
+            if (s.getSequenz() <= sequenz) {
+                treffer = s;
+            }
+        }
+        if (treffer == null) {
+            throw new IllegalStateException("Kein Snapshot bis Ballwechsel " + sequenz + " vorhanden.");
+        }
+        return treffer;
+    }
+
+    // -------------------------------------------------------------------------
+    // Ändern
+    // -------------------------------------------------------------------------
+
+    void fuegeHinzu(Ballwechsel b) {
+        ballwechsel.add(b);
+        offeneBallwechsel.add(b);
+        letzteSequenz = Math.max(letzteSequenz, b.getSequenz());
+    }
+
+    void fuegeSnapshotHinzu(SpielSnapshot s) {
+        snapshots.add(s);
+        offeneSnapshots.add(s);
+        letzteSequenz = Math.max(letzteSequenz, s.getSequenz());
+    }
+
+    /**
+     * Nimmt alle Ballwechsel und Snapshots nach der angegebenen Sequenz zurück,
+     * indem ein Schnitt angehängt wird. Gibt es danach nichts, passiert nichts.
+     */
+    void schneideAb(int sequenz) {
+        boolean ballwechselDanach = !ballwechsel.isEmpty() && ballwechsel.getLast().getSequenz() > sequenz;
+        boolean snapshotsDanach = !snapshots.isEmpty() && snapshots.getLast().getSequenz() > sequenz;
+        if (!ballwechselDanach && !snapshotsDanach) {
+            return;
+        }
+        ballwechsel.removeIf(b -> b.getSequenz() > sequenz);
+        snapshots.removeIf(s -> s.getSequenz() > sequenz);
+
+        Ballwechsel schnitt = Ballwechsel.schnitt(spielId, naechsteSequenz(), sequenz);
+        offeneBallwechsel.add(schnitt);
+        letzteSequenz = schnitt.getSequenz();
+    }
+
+    // -------------------------------------------------------------------------
+    // Speichern (durch die LiveSpielEngine)
+    // -------------------------------------------------------------------------
+
+    /**
+     * Noch nicht gespeicherte Einträge (Kopie, stabil während des Flushs).
+     */
+    OffeneAenderungen offeneAenderungen() {
+        return new OffeneAenderungen(List.copyOf(offeneBallwechsel), List.copyOf(offeneSnapshots));
+    }
+
+    /**
+     * Markiert die übergebenen Einträge als gespeichert.
+     * Was während des Flushs neu hinzukam, bleibt offen.
+     */
+    void bestaetige(OffeneAenderungen gespeichert) {
+        offeneBallwechsel.removeAll(gespeichert.ballwechsel());
+        offeneSnapshots.removeAll(gespeichert.snapshots());
+    }
+
+    record OffeneAenderungen(List<Ballwechsel> ballwechsel, List<SpielSnapshot> snapshots) {
+
+        boolean leer() {
+            return ballwechsel.isEmpty() && snapshots.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.denizsea1.badmintontracker.service;
+
+import com.denizsea1.badmintontracker.model.Spieler;
+import com.denizsea1.badmintontracker.model.SpielerReservierung;
+import com.denizsea1.badmintontracker.model.Team;
+import com.denizsea1.badmintontracker.repository.SpielerReservierungRepository;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Welche Spieler:in steht gerade in welchem laufenden Spiel?
+ *
+ * - Im Speicher: Spieler-ID → Spiel-ID in einer ConcurrentHashMap.
+ *   Reserviert wird per putIfAbsent – alle Spieler:innen eines Starts oder
+ *   keine (bei einem Treffer werden die schon reservierten wieder freigegeben).
+ *   Zwei gleichzeitige Starts mit derselben Person können sich so nicht
+ *   überholen, und die Prüfung braucht keine Datenbank-Abfrage.
+ * - In der Datenbank: Tabelle spieler_reservierung mit der Spieler-ID als
+ *   Primärschlüssel – die dauerhafte Wahrheit. Wird im Start-Transaktion
+ *   geschrieben; ein Verstoß bricht den Start ab.
+ * - Beim Start der Anwendung wird beides aus den LAUFEND-Spielen neu aufgebaut.
+ *
+ * Das Flag Spieler.inAktivemSpiel wird weiter gepflegt (Anzeige, Metrik),
+ * entscheidet aber nicht mehr über die Verfügbarkeit.
+ */
+@Component
+public class SpielerReservierungen {
+
+    private static final Logger log = LoggerFactory.getLogger(SpielerReservierungen.class);
+
+    private final SpielerReservierungRepository repository;
+
+    /**
+     * Wert = Spiel-ID, oder eine negative Marke, solange der Start noch läuft.
+     */
+    private final Map<Long, Long> spielJeSpieler = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> spielerJeSpiel = new ConcurrentHashMap<>();
+    private final AtomicLong naechsteMarke = new AtomicLong();
+
+    public SpielerReservierungen(SpielerReservierungRepository repository) {
+        this.repository = repository;
+    }
+
+    // -------------------------------------------------------------------------
+    // 1) Reservieren beim Spielstart
+    // -------------------------------------------------------------------------
+
+    /**
+     * Reserviert alle Spieler:innen der Teams – oder keine.
+     *
+     * @return Marke für bestaetige / verwerfe
+     * @throws IllegalStateException falls jemand schon in einem laufenden Spiel steht
+     */
+    public long reserviere(Team... teams) {
+        long marke = -naechsteMarke.incrementAndGet();
+        List<Long> reserviert = new ArrayList<>();
+        for (Team team : teams) {
+            for (Spieler s : team.getSpieler()) {
+                if (spielJeSpieler.putIfAbsent(s.getId(), marke) != null) {
+                    for (Long spielerId : reserviert) {
+                        spielJeSpieler.remove(spielerId, marke);
+                    }
+                    String name = (s.getVorname() != null ? s.getVorname() : "")
+                            + " "
+                            + (s.getNachname() != null ? s.getNachname() : "");
+                    throw new IllegalStateException(
+                            "Spieler " + name.trim() + " ist bereits in einem laufenden Spiel.");
+                }
+                reserviert.add(s.getId());
+            }
+        }
+        return marke;
+    }
+
+    /**
+     * Bindet die Reservierung an das gespeicherte Spiel und schreibt sie in die
+     * Datenbank – in der laufenden Start-Transaktion. Wird diese zurückgerollt,
+     * ist die Reservierung auch im Speicher wieder frei.
+     *
+     * @throws IllegalStateException falls die Datenbank schon eine Reservierung kennt
+     */
+    public void bestaetige(long marke, Long spielId, Set<Long> spielerIds) {
+        for (Long spielerId : spielerIds) {
+            spielJeSpieler.replace(spielerId, marke, spielId);
+        }
+        // veränderlich: bauNeuAuf ergänzt per computeIfAbsent(...).add
+        Set<Long> spieler = ConcurrentHashMap.newKeySet();
+        spieler.addAll(spielerIds);
+        spielerJeSpiel.put(spielId, spieler);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        gebeFrei(spielId);
+                    }
+                }
+            });
+        }
+
+        List<SpielerReservierung> zeilen = new ArrayList<>();
+        for (Long spielerId : spielerIds) {
+            zeilen.add(new SpielerReservierung(spielerId, spielId));
+        }
+        try {
+            repository.saveAllAndFlush(zeilen);
+        } catch (DataIntegrityViolationException e) {
+            throw new IllegalStateException(
+                    "Mindestens eine:r der Spieler:innen ist laut Datenbank bereits in einem laufenden Spiel.", e);
+        }
+    }
+
+    /**
+     * Gibt eine noch nicht bestätigte Reservierung wieder frei (Start fehlgeschlagen).
+     */
+    public void verwerfe(long marke, Set<Long> spielerIds) {
+        for (Long spielerId : spielerIds) {
+            spielJeSpieler.remove(spielerId, marke);
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // 2) Freigeben bei Spielende / Abbruch
+    // -------------------------------------------------------------------------
+
+    /**
+     * Vor allen anderen Listenern, damit z.B. der FeldPlaner die
+     * Spieler:innen schon frei sieht.
+     */
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @Transactional
+    public void onSpielAbgeschlossen(SpielAbgeschlossenEvent event) {
+        Long spielId = event.abschluss().spielId();
+        gebeFrei(spielId);
+        repository.loescheFuerSpiel(spielId);
+    }
+
+    private void gebeFrei(Long spielId) {
+        Set<Long> spielerIds = spielerJeSpiel.remove(spielId);
+        if (spielerIds != null) {
+            for (Long spielerId : spielerIds) {
+                spielJeSpieler.remove(spielerId, spielId);
+            }
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // 3) Lesen
+    // -------------------------------------------------------------------------
+
+    public boolean istFrei(Long spielerId) {
+        return !spielJeSpieler.containsKey(spielerId);
+    }
+
+    // -------------------------------------------------------------------------
+    // 4) Neuaufbau beim Start der Anwendung
+    // -------------------------------------------------------------------------
+
+    /**
+     * Baut Speicher und Tabelle aus den laufenden Spielen auf: veraltete Zeilen
+     * (Spiel nicht mehr LAUFEND) werden gelöscht, fehlende (z.B. Spiele von vor
+     * dieser Tabelle) angelegt. Steht jemand in mehreren laufenden Spielen,
+     * bleibt das älteste reserviert.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void bauNeuAuf() {
+        Map<Long, Long> soll = new HashMap<>();
+        for (Object[] zeile : repository.findeSpielerInLaufendenSpielen()) {
+            Long spielId = (Long) zeile[0];
+            Long spielerId = (Long) zeile[1];
+            Long vorher = soll.putIfAbsent(spielerId, spielId);
+            if (vorher != null && !vorher.equals(spielId)) {
+                log.warn("Spieler {} steht in mehreren laufenden Spielen ({}, {}) – reserviert bleibt {}",
+                        spielerId, vorher, spielId, vorher);
+            }
+        }
+
+        // Tabelle angleichen (erst löschen, dann anlegen – gleiche Schlüssel möglich)
+        Map<Long, Long> fehlend = new HashMap<>(soll);
+        List<SpielerReservierung> veraltet = new ArrayList<>();
+        for (SpielerReservierung r : repository.findAll()) {
+            if (r.getSpielId().equals(soll.get(r.getSpielerId()))) {
+                fehlend.remove(r.getSpielerId());
+            } else {
+                veraltet.add(r);
+            }
+        }
+        repository.deleteAllInBatch(veraltet);
+        List<SpielerReservierung> neu = new ArrayList<>();
+        fehlend.forEach((spielerId, spielId) -> neu.add(new SpielerReservierung(spielerId, spielId)));
+        repository.saveAll(neu);
+
+        // Speicher: laufende Starts (negative Marken) bleiben unberührt
+        soll.forEach((spielerId, spielId) -> {
+            spielJeSpieler.putIfAbsent(spielerId, spielId);
+            spielerJeSpiel.computeIfAbsent(spielId, k -> ConcurrentHashMap.newKeySet()).add(spielerId);
+        });
+        if (!veraltet.isEmpty() || !neu.isEmpty()) {
+            log.info("Spieler-Reservierungen angeglichen: {} veraltet gelöscht, {} ergänzt",
+                    veraltet.size(), neu.size());
+        }
+    }
+}
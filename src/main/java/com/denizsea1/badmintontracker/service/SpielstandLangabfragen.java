@@ -0,0 +1,169 @@
+package com.denizsea1.badmintontracker.service;
+
+import com.denizsea1.badmintontracker.model.Spiel;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Long-Polling auf den Stand eines Spiels (GET /spiele/{id}?warteAufVersion=n)
+ * für Anzeigen, die keine Server-Sent Events können.
+ *
+ * - Die Anfrage wird gehalten, bis das Spiel mindestens Stand-Version n hat
+ *   oder badminton.live.warte-timeout-ms abgelaufen ist (dann 304).
+ * - Geweckt wird über SpielGeaendertEvent; geantwortet wird auf einem eigenen
+ *   Thread, weil das Event noch unter der Sperre des Spiels kommt.
+ * - Wartende Anfragen belegen keinen Servlet-Thread (DeferredResult).
+ */
+@Component
+public class SpielstandLangabfragen {
+
+    private final SpielService spielService;
+    private final long timeoutMs;
+
+    private final Map<Long, Set<Wartend>> wartend = new ConcurrentHashMap<>();
+
+    private final ExecutorService versand = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "spielstand-langabfrage");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public SpielstandLangabfragen(SpielService spielService,
+                                  @Value("${badminton.live.warte-timeout-ms:25000}") long timeoutMs) {
+        this.spielService = spielService;
+        this.timeoutMs = timeoutMs;
+    }
+
+    /**
+     * ETag eines Spielstands: ändert sich genau dann, wenn sich die Stand-Version ändert.
+     */
+    public static String etag(Long spielId, long standVersion) {
+        return "\"" + spielId + "-" + standVersion + "\"";
+    }
+
+    /**
+     * 200 mit ETag; der Client fragt jedes Mal nach (no-cache), bekommt aber
+     * bei unverändertem Stand nur 304.
+     */
+    public static ResponseEntity<Spiel> antwort(Spiel spiel) {
+        return ResponseEntity.ok()
+                .eTag(etag(spiel.getId(), spiel.getStandVersion()))
+                .cacheControl(CacheControl.noCache())
+                .body(spiel);
+    }
+
+    // -------------------------------------------------------------------------
+    // 1) Warten
+    // -------------------------------------------------------------------------
+
+    /**
+     * @param version        gewünschte Stand-Version (üblich: bekannte + 1)
+     * @param aktuelleVersion Stand-Version beim Eingang der Anfrage
+     */
+    public DeferredResult<ResponseEntity<Spiel>> warte(Long spielId, long version, long aktuelleVersion) {
+        DeferredResult<ResponseEntity<Spiel>> ergebnis = new DeferredResult<>(timeoutMs);
+        if (aktuelleVersion >= version) {
+            beantworte(spielId, ergebnis);
+            return ergebnis;
+        }
+
+        Wartend eintrag = new Wartend(version, ergebnis);
+        // Eintragen und Austragen (entferne) atomar pro Spiel: sonst könnte der
+        // Eintrag in einer Menge landen, die entferne gerade aus der Map nimmt
+        wartend.compute(spielId, (id, eintraege) -> {
+            Set<Wartend> menge = eintraege != null ? eintraege : ConcurrentHashMap.newKeySet();
+            menge.add(eintrag);
+            return menge;
+        });
+        ergebnis.onTimeout(() -> ergebnis.setResult(ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(etag(spielId, aktuelleVersion))
+                .cacheControl(CacheControl.noCache())
+                .build()));
+        ergebnis.onCompletion(() -> entferne(spielId, eintrag));
+
+        // Änderung zwischen erster Prüfung und Eintragen nicht verpassen
+        if (spielService.findeStandVersion(spielId).orElse(aktuelleVersion) >= version) {
+            wecke(spielId, version);
+        }
+        return ergebnis;
+    }
+
+    /**
+     * Anzahl wartender Anfragen (über alle Spiele).
+     */
+    public int anzahlWartend() {
+        return wartend.values().stream().mapToInt(Set::size).sum();
+    }
+
+    // -------------------------------------------------------------------------
+    // 2) Wecken
+    // -------------------------------------------------------------------------
+
+    @EventListener
+    public void onSpielGeaendert(SpielGeaendertEvent event) {
+        if (wartend.containsKey(event.stand().spielId())) {
+            wecke(event.stand().spielId(), event.stand().standVersion());
+        }
+    }
+
+    private void wecke(Long spielId, long version) {
+        Set<Wartend> eintraege = wartend.get(spielId);
+        if (eintraege == null) {
+            return;
+        }
+        List<DeferredResult<ResponseEntity<Spiel>>> faellig = new ArrayList<>();
+        for (Wartend eintrag : eintraege) {
+            if (eintrag.version() <= version && eintraege.remove(eintrag)) {
+                faellig.add(eintrag.ergebnis());
+            }
+        }
+        for (DeferredResult<ResponseEntity<Spiel>> ergebnis : faellig) {
+            beantworte(spielId, ergebnis);
+        }
+    }
+
+    /**
+     * Lädt den aktuellen Stand auf dem Versand-Thread (laufende Spiele aus dem Speicher,
+     * sonst vollständig – die offene Session des Requests gibt es hier nicht).
+     */
+    private void beantworte(Long spielId, DeferredResult<ResponseEntity<Spiel>> ergebnis) {
+        versand.execute(() -> {
+            try {
+                ergebnis.setResult(spielService.findeAktuellenStandVollstaendig(spielId)
+                        .map(SpielstandLangabfragen::antwort)
+                        .orElseGet(() -> ResponseEntity.notFound().build()));
+            } catch (RuntimeException e) {
+                ergebnis.setErrorResult(e);
+            }
+        });
+    }
+
+    private void entferne(Long spielId, Wartend eintrag) {
+        wartend.computeIfPresent(spielId, (id, eintraege) -> {
+            eintraege.remove(eintrag);
+            return eintraege.isEmpty() ? null : eintraege;
+        });
+    }
+
+    @PreDestroy
+    public void beenden() {
+        versand.shutdownNow();
+    }
+
+    private record Wartend(long version, DeferredResult<ResponseEntity<Spiel>> ergebnis) {
+    }
+}
@@ -0,0 +1,184 @@
+package com.denizsea1.badmintontracker.service;
+
+import com.denizsea1.badmintontracker.dto.Spielstand;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Verwaltet die Server-Sent-Events-Verbindungen pro Spiel (GET /spiele/{id}/stream).
+ *
+ * - Jede Änderung im SpielService kommt als SpielGeaendertEvent an.
+ * - Pro Verbindung gibt es nur einen Platz für den nächsten Stand: neuere
+ *   Stände überschreiben ältere, die noch nicht verschickt sind. Ein langsamer
+ *   Client bekommt so Zwischenstände nicht, aber immer den neuesten – und
+ *   belegt nie mehr als einen Auftrag im Versand-Pool.
+ * - Der Versand läuft auf einem kleinen Pool (badminton.live.sse-threads),
+ *   damit ein langsamer Client nie die Punktevergabe und nie andere Clients
+ *   aufhält.
+ * - Hängt ein Versand länger als badminton.live.sende-timeout-ms, wird die
+ *   Verbindung getrennt (der Browser verbindet neu). Abgebrochene Verbindungen
+ *   werden beim nächsten Senden entfernt.
+ */
+@Component
+public class SpielstandStreams {
+
+    /**
+     * Verbindungen werden nach 30 Minuten vom Server beendet,
+     * der Browser (EventSource) verbindet sich dann automatisch neu.
+     */
+    private static final long TIMEOUT_MS = 30 * 60 * 1000L;
+
+    private final Map<Long, Set<Abonnent>> abonnenten = new ConcurrentHashMap<>();
+
+    private final ExecutorService versand;
+    private final long sendeTimeoutNanos;
+
+    public SpielstandStreams(@Value("${badminton.live.sse-threads:4}") int versandThreads,
+                             @Value("${badminton.live.sende-timeout-ms:5000}") long sendeTimeoutMs) {
+        this.sendeTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendeTimeoutMs);
+
+        AtomicInteger nummer = new AtomicInteger();
+        this.versand = Executors.newFixedThreadPool(versandThreads, r -> {
+            Thread t = new Thread(r, "spielstand-sse-" + nummer.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Registriert eine neue Verbindung für ein Spiel und
+     * schickt sofort den aktuellen Stand.
+     */
+    public SseEmitter abonniere(Long spielId, Spielstand aktuell) {
+        SseEmitter emitter = new SseEmitter(TIMEOUT_MS);
+        Abonnent abonnent = new Abonnent(spielId, new SseVerbindung(emitter));
+        // atomar mit entferne (computeIfPresent), wie in SpielstandLangabfragen
+        abonnenten.compute(spielId, (id, spielAbonnenten) -> {
+            Set<Abonnent> menge = spielAbonnenten != null ? spielAbonnenten : ConcurrentHashMap.newKeySet();
+            menge.add(abonnent);
+            return menge;
+        });
+
+        Runnable entfernen = () -> entferne(abonnent);
+        emitter.onCompletion(entfernen);
+        emitter.onTimeout(entfernen);
+        emitter.onError(e -> entfernen.run());
+
+        melde(abonnent, aktuell);
+        return emitter;
+    }
+
+    @EventListener
+    public void onSpielGeaendert(SpielGeaendertEvent event) {
+        Spielstand stand = event.stand();
+        Set<Abonnent> spielAbonnenten = abonnenten.get(stand.spielId());
+        if (spielAbonnenten == null) {
+            return; // niemand schaut zu
+        }
+        for (Abonnent abonnent : spielAbonnenten) {
+            melde(abonnent, stand);
+        }
+    }
+
+    /**
+     * Anzahl offener Verbindungen (über alle Spiele).
+     */
+    public int anzahlVerbindungen() {
+        return abonnenten.values().stream().mapToInt(Set::size).sum();
+    }
+
+    /**
+     * Legt den Stand auf den Platz der Verbindung (nur wenn er neuer ist –
+     * der Anfangsstand aus abonniere kann nach einem Event ankommen) und
+     * reiht einen Versand ein, falls keiner läuft.
+     */
+    private void melde(Abonnent abonnent, Spielstand stand) {
+        abonnent.naechster.accumulateAndGet(stand, (alt, neu) ->
+                alt == null || neu.standVersion() >= alt.standVersion() ? neu : alt);
+        if (abonnent.verbindung.belege()) {
+            versand.execute(() -> versende(abonnent));
+        }
+    }
+
+    /**
+     * Schickt den jeweils neuesten Stand, bis der Platz leer ist.
+     */
+    private void versende(Abonnent abonnent) {
+        do {
+            Spielstand stand;
+            while ((stand = abonnent.naechster.getAndSet(null)) != null) {
+                if (stand.standVersion() <= abonnent.gesendeteVersion) {
+                    continue;
+                }
+                if (!abonnent.verbindung.sende(SseEmitter.event().name("spielstand").data(stand))) {
+                    // Client ist weg oder wurde getrennt -> Verbindung verwerfen
+                    entferne(abonnent);
+                    return; // bleibt belegt, es wird nichts mehr eingereiht
+                }
+                abonnent.gesendeteVersion = stand.standVersion();
+            }
+            abonnent.verbindung.gibFrei();
+            // Kam zwischen getAndSet und gibFrei noch ein Stand, hat melde ihn
+            // evtl. nicht eingereiht -> selbst weitermachen
+        } while (abonnent.naechster.get() != null && abonnent.verbindung.belege());
+    }
+
+    /**
+     * Trennt Verbindungen, deren Versand hängt (Client liest nicht mehr).
+     */
+    @Scheduled(fixedDelayString = "${badminton.live.sende-pruefung-ms:1000}")
+    public void trenneHaengende() {
+        for (Set<Abonnent> spielAbonnenten : abonnenten.values()) {
+            for (Abonnent abonnent : spielAbonnenten) {
+                if (abonnent.verbindung.haengt(sendeTimeoutNanos)) {
+                    entferne(abonnent);
+                    abonnent.verbindung.trenne();
+                }
+            }
+        }
+    }
+
+    private void entferne(Abonnent abonnent) {
+        abonnenten.computeIfPresent(abonnent.spielId, (id, spielAbonnenten) -> {
+            spielAbonnenten.remove(abonnent);
+            return spielAbonnenten.isEmpty() ? null : spielAbonnenten;
+        });
+    }
+
+    @PreDestroy
+    public void beenden() {
+        versand.shutdownNow();
+        abonnenten.values().forEach(spielAbonnenten ->
+                spielAbonnenten.forEach(abonnent -> abonnent.verbindung.trenne()));
+        abonnenten.clear();
+    }
+
+    /**
+     * Eine Verbindung mit ihrem Platz für den nächsten Stand.
+     * gesendeteVersion wird nur vom jeweils belegenden Versand-Thread geändert.
+     */
+    private static final class Abonnent {
+        private final Long spielId;
+        private final SseVerbindung verbindung;
+        private final AtomicReference<Spielstand> naechster = new AtomicReference<>();
+        private volatile long gesendeteVersion = -1;
+
+        private Abonnent(Long spielId, SseVerbindung verbindung) {
+            this.spielId = spielId;
+            this.verbindung = verbindung;
+        }
+    }
+}
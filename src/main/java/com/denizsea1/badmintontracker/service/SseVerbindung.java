@@ -0,0 +1,107 @@
+package com.denizsea1.badmintontracker.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Eine SSE-Verbindung mit Versand-Zustand (SpielstandStreams, LiveUebersichtStreams).
+ *
+ * - Höchstens ein Versand gleichzeitig (belege/gibFrei) – pro Verbindung ist
+ *   also nie mehr als ein Auftrag in der Warteschlange des Versand-Pools.
+ * - Ein Versand, der länger als der Sende-Timeout hängt (Client liest nicht),
+ *   wird über haengt erkannt. trenne unterbricht dann den sendenden Thread;
+ *   abgeschlossen wird der Emitter auf diesem Thread, denn complete() wartet
+ *   auf die Schreibsperre, die der hängende send() hält.
+ */
+final class SseVerbindung {
+
+    private final SseEmitter emitter;
+    private final AtomicBoolean beschaeftigt = new AtomicBoolean();
+
+    // ---- nur unter synchronized(this) ----
+    private Thread sendet;
+    private long sendetSeit;
+    private boolean getrennt;
+
+    SseVerbindung(SseEmitter emitter) {
+        this.emitter = emitter;
+    }
+
+    SseEmitter emitter() {
+        return emitter;
+    }
+
+    /**
+     * @return true, falls kein anderer Versand läuft oder eingereiht ist
+     */
+    boolean belege() {
+        return beschaeftigt.compareAndSet(false, true);
+    }
+
+    void gibFrei() {
+        beschaeftigt.set(false);
+    }
+
+    /**
+     * Schickt ein Event (blockierend). Schlägt das fehl oder wurde die Verbindung
+     * währenddessen getrennt, wird der Emitter abgeschlossen.
+     *
+     * @return false, falls die Verbindung nicht mehr benutzbar ist
+     */
+    boolean sende(SseEmitter.SseEventBuilder event) {
+        synchronized (this) {
+            if (getrennt) {
+                return false;
+            }
+            sendet = Thread.currentThread();
+            sendetSeit = System.nanoTime();
+        }
+        try {
+            emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            emitter.completeWithError(e);
+            return false;
+        } finally {
+            synchronized (this) {
+                sendet = null;
+                Thread.interrupted(); // Unterbrechung aus trenne gilt nur diesem Versand
+            }
+        }
+        if (isGetrennt()) {
+            emitter.complete();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return true, falls gerade ein Versand läuft, der schon länger als timeoutNanos dauert
+     */
+    synchronized boolean haengt(long timeoutNanos) {
+        return sendet != null && System.nanoTime() - sendetSeit > timeoutNanos;
+    }
+
+    /**
+     * Trennt die Verbindung, ohne zu blockieren: ein laufender Versand wird
+     * unterbrochen und schließt den Emitter selbst ab, sonst sofort complete().
+     */
+    void trenne() {
+        synchronized (this) {
+            if (getrennt) {
+                return;
+            }
+            getrennt = true;
+            if (sendet != null) {
+                sendet.interrupt();
+                return;
+            }
+        }
+        emitter.complete();
+    }
+
+    synchronized boolean isGetrennt() {
+        return getrennt;
+    }
+}
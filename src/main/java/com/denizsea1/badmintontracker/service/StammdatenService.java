@@ -0,0 +1,197 @@
+package com.denizsea1.badmintontracker.service;
+
+import com.denizsea1.badmintontracker.dto.Spielstand;
+import com.denizsea1.badmintontracker.model.Spieler;
+import com.denizsea1.badmintontracker.model.Team;
+import com.denizsea1.badmintontracker.repository.SpielerRepository;
+import com.denizsea1.badmintontracker.repository.TeamRepository;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+
+/**
+ * Teams und Spieler:innen mit Zwischenspeicher (Caffeine, siehe
+ * spring.cache.* in application.properties).
+ *
+ * - Listen (GET /teams, GET /spieler – index.html lädt beide bei jedem Aufruf)
+ *   und Einzelabrufe nach ID kommen aus dem Speicher.
+ * - Anlegen/Löschen über diesen Service leert die betroffenen Einträge sofort.
+ * - Ändert sich inAktivemSpiel (Spielstart, -ende), werden die betroffenen
+ *   Teams/Spieler:innen nach dem Commit entfernt – vorher könnte ein paralleler
+ *   Aufruf sonst den alten Stand wieder einlagern.
+ * - Jeder Spielstand (SpielGeaendertEvent) entfernt die beiden Teams, ihre
+ *   Spieler:innen und beide Listen: positionImTeam ändert sich mit jedem Punkt.
+ * - Treffer/Fehlgriffe: Metriken cache.gets{cache=..., result=hit|miss}.
+ *
+ * Der Spielstart selbst lädt seine Teams weiter aus der Datenbank: er braucht
+ * verwaltete Entities in seiner Transaktion. Die Verfügbarkeitsprüfung läuft
+ * dort ohnehin im Speicher (SpielerReservierungen).
+ *
+ * Zwischengespeicherte Entities sind außerhalb ihrer Transaktion geladen –
+ * nur lesen, nicht verändern.
+ *
+ * Positionen in GET /teams und GET /spieler sind trotzdem nicht live: nachgeladen
+ * wird aus der Datenbank, die der LiveSpielEngine um bis zu ein Flush-Intervall
+ * nachläuft. Maßgeblich für laufende Spiele sind GET /spiele/{id} und der Stream.
+ */
+@Service
+public class StammdatenService {
+
+    public static final String TEAMS = "teams";
+    public static final String TEAM_LISTE = "teamListe";
+    public static final String SPIELER = "spieler";
+    public static final String SPIELER_LISTE = "spielerListe";
+
+    private final TeamRepository teamRepository;
+    private final SpielerRepository spielerRepository;
+    private final CacheManager cacheManager;
+
+    public StammdatenService(TeamRepository teamRepository,
+                             SpielerRepository spielerRepository,
+                             CacheManager cacheManager) {
+        this.teamRepository = teamRepository;
+        this.spielerRepository = spielerRepository;
+        this.cacheManager = cacheManager;
+    }
+
+    // -------------------------------------------------------------------------
+    // 1) Lesen
+    // -------------------------------------------------------------------------
+
+    @Cacheable(TEAM_LISTE)
+    public List<Team> alleTeams() {
+        return List.copyOf(teamRepository.findAlleMitSpieler());
+    }
+
+    @Cacheable(cacheNames = TEAMS, unless = "#result == null")
+    public Team team(Long id) {
+        return teamRepository.findMitSpieler(List.of(id)).stream().findFirst().orElse(null);
+    }
+
+    @Cacheable(SPIELER_LISTE)
+    public List<Spieler> alleSpieler() {
+        return List.copyOf(spielerRepository.findAll());
+    }
+
+    @Cacheable(cacheNames = SPIELER, unless = "#result == null")
+    public Spieler spieler(Long id) {
+        return spielerRepository.findById(id).orElse(null);
+    }
+
+    // -------------------------------------------------------------------------
+    // 2) Anlegen / Löschen
+    // -------------------------------------------------------------------------
+
+    /**
+     * Neues Team samt Spieler:innen – beide Listen ändern sich.
+     */
+    @Caching(evict = {
+            @CacheEvict(cacheNames = TEAM_LISTE, allEntries = true),
+            @CacheEvict(cacheNames = SPIELER_LISTE, allEntries = true)
+    })
+    public Team speichereTeam(Team team) {
+        return teamRepository.save(team);
+    }
+
+    /**
+     * Löscht ein Team samt Spieler:innen.
+     *
+     * @return false, falls es das Team nicht gibt
+     */
+    @Caching(evict = {
+            @CacheEvict(cacheNames = TEAMS, key = "#id"),
+            @CacheEvict(cacheNames = TEAM_LISTE, allEntries = true),
+            @CacheEvict(cacheNames = SPIELER, allEntries = true),
+            @CacheEvict(cacheNames = SPIELER_LISTE, allEntries = true)
+    })
+    public boolean loescheTeam(Long id) {
+        if (!teamRepository.existsById(id)) {
+            return false;
+        }
+        teamRepository.deleteById(id);
+        return true;
+    }
+
+    @CacheEvict(cacheNames = SPIELER_LISTE, allEntries = true)
+    public Spieler speichereSpieler(Spieler spieler) {
+        return spielerRepository.save(spieler);
+    }
+
+    /**
+     * Löscht eine:n Spieler:in – auch die Spielerliste des Teams ändert sich.
+     *
+     * @return false, falls es die Person nicht gibt
+     */
+    @Caching(evict = {
+            @CacheEvict(cacheNames = SPIELER, key = "#id"),
+            @CacheEvict(cacheNames = SPIELER_LISTE, allEntries = true),
+            @CacheEvict(cacheNames = TEAMS, allEntries = true),
+            @CacheEvict(cacheNames = TEAM_LISTE, allEntries = true)
+    })
+    public boolean loescheSpieler(Long id) {
+        if (!spielerRepository.existsById(id)) {
+            return false;
+        }
+        spielerRepository.deleteById(id);
+        return true;
+    }
+
+    /**
+     * Leert alle vier Caches, z.B. nach Änderungen direkt in der Datenbank.
+     */
+    @Caching(evict = {
+            @CacheEvict(cacheNames = TEAMS, allEntries = true),
+            @CacheEvict(cacheNames = TEAM_LISTE, allEntries = true),
+            @CacheEvict(cacheNames = SPIELER, allEntries = true),
+            @CacheEvict(cacheNames = SPIELER_LISTE, allEntries = true)
+    })
+    public void leereAlles() {
+    }
+
+    // -------------------------------------------------------------------------
+    // 3) Spielstart / Spielende / Spielstand
+    // -------------------------------------------------------------------------
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBelegungGeaendert(BelegungGeaendertEvent event) {
+        entferne(TEAMS, event.teamIds());
+        entferne(SPIELER, event.spielerIds());
+        leere(TEAM_LISTE);
+        leere(SPIELER_LISTE);
+    }
+
+    /**
+     * Läuft noch unter der Sperre des Spiels – nur entfernen, nichts laden.
+     */
+    @EventListener
+    public void onSpielGeaendert(SpielGeaendertEvent event) {
+        Spielstand stand = event.stand();
+        if (stand.teamAId() != null) {
+            entferne(TEAMS, List.of(stand.teamAId(), stand.teamBId()));
+        }
+        entferne(SPIELER, stand.positionen().keySet());
+        leere(TEAM_LISTE);
+        leere(SPIELER_LISTE);
+    }
+
+    private void entferne(String name, Iterable<Long> ids) {
+        Cache cache = cacheManager.getCache(name);
+        if (cache != null) {
+            ids.forEach(cache::evict);
+        }
+    }
+
+    private void leere(String name) {
+        Cache cache = cacheManager.getCache(name);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.denizsea1.badmintontracker.service;
+
+import com.denizsea1.badmintontracker.dto.HistorienZeile;
+import com.denizsea1.badmintontracker.dto.SpielCursor;
+import com.denizsea1.badmintontracker.dto.SpielFilter;
+import com.denizsea1.badmintontracker.dto.StatistikNeuaufbau;
+import com.denizsea1.badmintontracker.model.*;
+import com.denizsea1.badmintontracker.repository.SpielRepository;
+import com.denizsea1.badmintontracker.repository.SpielerStatistikRepository;
+import com.denizsea1.badmintontracker.repository.TeamStatistikRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Spieler- und Team-Statistik als eigene Tabellen (spieler_statistik, team_statistik).
+ *
+ * - Inkrementell: bei jedem beendeten/abgebrochenen Spiel werden nur die
+ *   betroffenen Zeilen (max. 4 Spieler:innen + 2 Teams) fortgeschrieben.
+ * - Lesen ist ein Zugriff über den Primärschlüssel – unabhängig davon,
+ *   wie viele Spiele es schon gab.
+ * - Neuaufbau: liest alle abgeschlossenen Spiele seitenweise über die
+ *   Historien-Abfrage (plus die archivierten aus SpielArchiv), rechnet
+ *   parallel und ersetzt den Inhalt beider Tabellen (seitenweise mit
+ *   flush/clear, siehe ZeilenErsatz – in einer Transaktion).
+ *   Für die erste Befüllung oder nach Korrekturen – am besten, während
+ *   gerade kein Spiel endet (ein parallel endendes Spiel kann sonst fehlen
+ *   oder doppelt zählen; ein zweiter Neuaufbau behebt das).
+ */
+@Service
+public class StatistikService {
+
+    /**
+     * Spiele pro Seite beim Neuaufbau.
+     */
+    private static final int NEUAUFBAU_SEITE = 500;
+
+    private final SpielRepository spielRepository;
+    private final SpielerStatistikRepository spielerStatistikRepository;
+    private final TeamStatistikRepository teamStatistikRepository;
+    private final SpielArchiv spielArchiv;
+    private final SpielAbschlussAufgaben abschlussAufgaben;
+    private final EntityManager entityManager;
+
+    public StatistikService(SpielRepository spielRepository,
+                            SpielerStatistikRepository spielerStatistikRepository,
+                            TeamStatistikRepository teamStatistikRepository,
+                            SpielArchiv spielArchiv,
+                            SpielAbschlussAufgaben abschlussAufgaben,
+                            EntityManager entityManager) {
+        this.spielRepository = spielRepository;
+        this.spielerStatistikRepository = spielerStatistikRepository;
+        this.teamStatistikRepository = teamStatistikRepository;
+        this.spielArchiv = spielArchiv;
+        this.abschlussAufgaben = abschlussAufgaben;
+        this.entityManager = entityManager;
+    }
+
+    // -------------------------------------------------------------------------
+    // 1) Inkrementell bei Spielende / Abbruch
+    // -------------------------------------------------------------------------
+
+    /**
+     * Nach dem Commit des Spielendes, auf dem Thread "spiel-abschluss-statistik"
+     * (siehe SpielAbschlussAufgaben).
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSpielAbgeschlossen(SpielAbgeschlossenEvent event) {
+        SpielAbschluss abschluss = event.abschluss();
+        abschlussAufgaben.fuehreAus("statistik", abschluss.spielId(), () -> {
+            schreibeFort(abschluss.spielerA(), abschluss.bilanz(true));
+            schreibeFort(abschluss.spielerB(), abschluss.bilanz(false));
+        });
+    }
+
+    private void schreibeFort(List<String> spieler, Bilanz bilanz) {
+        if (spieler.isEmpty()) {
+            return;
+        }
+        for (String name : spieler) {
+            spielerStatistikRepository.findById(SpielerStatistik.schluessel(name))
+                    .orElseGet(() -> spielerStatistikRepository.save(new SpielerStatistik(name)))
+                    .getBilanz().addiere(bilanz);
+        }
+        teamStatistikRepository.findById(TeamStatistik.schluessel(spieler))
+                .orElseGet(() -> teamStatistikRepository.save(new TeamStatistik(spieler)))
+                .getBilanz().addiere(bilanz);
+    }
+
+    // -------------------------------------------------------------------------
+    // 2) Lesen
+    // -------------------------------------------------------------------------
+
+    public Optional<SpielerStatistik> findeSpieler(String name) {
+        return spielerStatistikRepository.findById(SpielerStatistik.schluessel(name));
+    }
+
+    /**
+     * Statistik einer Paarung – Reihenfolge der Namen egal.
+     */
+    public Optional<TeamStatistik> findeTeam(List<String> spieler) {
+        return teamStatistikRepository.findById(TeamStatistik.schluessel(spieler));
+    }
+
+    // -------------------------------------------------------------------------
+    // 3) Neuaufbau
+    // -------------------------------------------------------------------------
+
+    /**
+     * Baut beide Tabellen aus allen beendeten und abgebrochenen Spielen neu auf.
+     */
+    @Transactional
+    public StatistikNeuaufbau bauNeuAuf() {
+        long start = System.nanoTime();
+
+        Map<String, SpielerStatistik> spieler = new ConcurrentHashMap<>();
+        Map<String, TeamStatistik> teams = new ConcurrentHashMap<>();
+        int anzahlSpiele = 0;
+
+        for (SpielStatus status : List.of(SpielStatus.BEENDET, SpielStatus.ABGEBROCHEN)) {
+            SpielFilter filter = new SpielFilter(status, null, null, null);
+            SpielCursor nach = null;
+            List<HistorienZeile> seite;
+            do {
+                seite = spielRepository.sucheHistorie(filter, nach, NEUAUFBAU_SEITE);
+                anzahlSpiele += seite.size();
+
+                // Lesen seitenweise, Rechnen parallel
+                seite.parallelStream()
+                        .map(SpielAbschluss::aus)
+                        .forEach(abschluss -> {
+                            zaehle(spieler, teams, abschluss.spielerA(), abschluss.bilanz(true));
+                            zaehle(spieler, teams, abschluss.spielerB(), abschluss.bilanz(false));
+                        });
+
+                if (!seite.isEmpty()) {
+                    HistorienZeile letzte = seite.getLast();
+                    nach = new SpielCursor(letzte.datum(), letzte.id());
+                }
+            } while (seite.size() == NEUAUFBAU_SEITE);
+        }
+
+        // Archivierte Spiele (SpielArchiv) zählen genauso
+        int[] archiviert = {0};
+        spielArchiv.fuerAlle(zeile -> {
+            SpielAbschluss abschluss = SpielAbschluss.aus(zeile);
+            zaehle(spieler, teams, abschluss.spielerA(), abschluss.bilanz(true));
+            zaehle(spieler, teams, abschluss.spielerB(), abschluss.bilanz(false));
+            archiviert[0]++;
+        });
+        anzahlSpiele += archiviert[0];
+
+        int anzahlSpieler = spieler.size();
+        int anzahlTeams = teams.size();
+
+        // Bestehende Zeilen überschreiben, neue anlegen, verwaiste löschen
+        ZeilenErsatz.ersetze(entityManager, spielerStatistikRepository,
+                spielerStatistikRepository::findBySchluesselGreaterThanOrderBySchluessel,
+                SpielerStatistik::getSchluessel, spieler,
+                (alt, neu) -> alt.ersetzeBilanz(neu.getBilanz()), NEUAUFBAU_SEITE);
+        ZeilenErsatz.ersetze(entityManager, teamStatistikRepository,
+                teamStatistikRepository::findBySchluesselGreaterThanOrderBySchluessel,
+                TeamStatistik::getSchluessel, teams,
+                (alt, neu) -> alt.ersetzeBilanz(neu.getBilanz()), NEUAUFBAU_SEITE);
+
+        long dauerMs = (System.nanoTime() - start) / 1_000_000;
+        return new StatistikNeuaufbau(anzahlSpiele, anzahlSpieler, anzahlTeams, dauerMs);
+    }
+
+    private static void zaehle(Map<String, SpielerStatistik> spieler, Map<String, TeamStatistik> teams,
+                               List<String> namen, Bilanz bilanz) {
+        if (namen.isEmpty()) {
+            return;
+        }
+        // compute() sperrt den Eintrag – Bilanz.addiere ist damit sicher
+        for (String name : namen) {
+            spieler.compute(SpielerStatistik.schluessel(name), (k, s) -> {
+                SpielerStatistik statistik = s != null ? s : new SpielerStatistik(name);
+                statistik.getBilanz().addiere(bilanz);
+                return statistik;
+            });
+        }
+        teams.compute(TeamStatistik.schluessel(namen), (k, t) -> {
+            TeamStatistik statistik = t != null ? t : new TeamStatistik(namen);
+            statistik.getBilanz().addiere(bilanz);
+            return statistik;
+        });
+    }
+}
@@ -0,0 +1,269 @@
+package com.denizsea1.badmintontracker.service;
+
+import com.denizsea1.badmintontracker.dto.HistorienZeile;
+import com.denizsea1.badmintontracker.dto.SpielCursor;
+import com.denizsea1.badmintontracker.dto.SpielFilter;
+import com.denizsea1.badmintontracker.dto.WertungNeuberechnung;
+import com.denizsea1.badmintontracker.model.SpielStatus;
+import com.denizsea1.badmintontracker.model.SpielerStatistik;
+import com.denizsea1.badmintontracker.model.SpielerWertung;
+import com.denizsea1.badmintontracker.repository.SpielRepository;
+import com.denizsea1.badmintontracker.repository.SpielerWertungRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Elo-Rangliste der Spieler:innen (Tabelle spieler_wertung), siehe EloRechner.
+ *
+ * - Inkrementell: bei jedem beendeten/abgebrochenen Spiel mit Gewinner werden
+ *   genau die vier beteiligten Zeilen geändert – O(1) pro Spiel.
+ * - Neuberechnung: spielt alle abgeschlossenen Spiele in Startreihenfolge
+ *   (Spiel-ID) im Speicher erneut ab, optional mit neuen Parametern, und
+ *   ersetzt danach den Tabelleninhalt (seitenweise mit flush/clear, siehe
+ *   ZeilenErsatz – in einer Transaktion). Gelesen wird seitenweise über die
+ *   Historien-Abfrage, gerechnet nur mit Zahlen in einer HashMap – eine
+ *   Saison mit einigen tausend Spielen dauert damit wenige Sekunden.
+ *
+ * Hinweis: inkrementell wird in der Reihenfolge des Spielendes gewertet,
+ * die Neuberechnung in der des Spielstarts. Bei parallel laufenden Spielen
+ * können die Werte danach minimal abweichen.
+ */
+@Service
+public class WertungService {
+
+    /**
+     * Spiele pro Seite beim Lesen für die Neuberechnung.
+     */
+    private static final int NEUBERECHNUNG_SEITE = 500;
+
+    public static final int RANGLISTE_STANDARD = 50;
+    public static final int RANGLISTE_MAX = 500;
+
+    private final SpielRepository spielRepository;
+    private final SpielerWertungRepository wertungRepository;
+    private final SpielArchiv spielArchiv;
+    private final SpielAbschlussAufgaben abschlussAufgaben;
+    private final EntityManager entityManager;
+
+    /**
+     * Aktuelle Parameter; eine Neuberechnung mit neuen Werten ersetzt sie
+     * (bis zum nächsten Neustart – dauerhaft in application.properties setzen).
+     */
+    private volatile EloRechner rechner;
+
+    public WertungService(SpielRepository spielRepository,
+                          SpielerWertungRepository wertungRepository,
+                          SpielArchiv spielArchiv,
+                          SpielAbschlussAufgaben abschlussAufgaben,
+                          EntityManager entityManager,
+                          @Value("${badminton.wertung.k-faktor:32}") double kFaktor,
+                          @Value("${badminton.wertung.start:1500}") double startWert,
+                          @Value("${badminton.wertung.abbruch-faktor:0.5}") double abbruchFaktor) {
+        this.spielRepository = spielRepository;
+        this.wertungRepository = wertungRepository;
+        this.spielArchiv = spielArchiv;
+        this.abschlussAufgaben = abschlussAufgaben;
+        this.entityManager = entityManager;
+        this.rechner = new EloRechner(kFaktor, startWert, abbruchFaktor);
+    }
+
+    // -------------------------------------------------------------------------
+    // 1) Inkrementell bei Spielende / Abbruch
+    // -------------------------------------------------------------------------
+
+    /**
+     * Nach dem Commit des Spielendes, auf dem Thread "spiel-abschluss-wertung"
+     * (siehe SpielAbschlussAufgaben) – Spiele werden in der Reihenfolge
+     * ihres Endes gewertet.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSpielAbgeschlossen(SpielAbgeschlossenEvent event) {
+        SpielAbschluss abschluss = event.abschluss();
+        if (!wertbar(abschluss)) {
+            return;
+        }
+        abschlussAufgaben.fuehreAus("wertung", abschluss.spielId(), () -> werte(abschluss));
+    }
+
+    private void werte(SpielAbschluss abschluss) {
+        EloRechner elo = rechner;
+
+        // Alle (max. 4) Zeilen in einer Abfrage, fehlende neu anlegen
+        Map<String, SpielerWertung> zeilen = new HashMap<>();
+        List<String> schluessel = new ArrayList<>();
+        for (String name : alleNamen(abschluss)) {
+            schluessel.add(SpielerStatistik.schluessel(name));
+        }
+        for (SpielerWertung w : wertungRepository.findAllById(schluessel)) {
+            zeilen.put(w.getSchluessel(), w);
+        }
+        for (String name : alleNamen(abschluss)) {
+            zeilen.computeIfAbsent(SpielerStatistik.schluessel(name),
+                    k -> wertungRepository.save(new SpielerWertung(name, elo.startWert())));
+        }
+
+        double a = mittel(abschluss.spielerA(), name -> zeilen.get(SpielerStatistik.schluessel(name)).getWert());
+        double b = mittel(abschluss.spielerB(), name -> zeilen.get(SpielerStatistik.schluessel(name)).getWert());
+        double aenderung = elo.aenderungTeamA(a, b, abschluss.teamAGewinnt(),
+                abschluss.status() == SpielStatus.ABGEBROCHEN);
+
+        for (String name : abschluss.spielerA()) {
+            zeilen.get(SpielerStatistik.schluessel(name)).aendere(aenderung);
+        }
+        for (String name : abschluss.spielerB()) {
+            zeilen.get(SpielerStatistik.schluessel(name)).aendere(-aenderung);
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // 2) Lesen
+    // -------------------------------------------------------------------------
+
+    /**
+     * Rangliste, beste Wertung zuerst.
+     */
+    public List<SpielerWertung> findeRangliste(int limit) {
+        return wertungRepository.findAllByOrderByWertDesc(
+                PageRequest.of(0, Math.clamp(limit, 1, RANGLISTE_MAX)));
+    }
+
+    public Optional<SpielerWertung> findeSpieler(String name) {
+        return wertungRepository.findById(SpielerStatistik.schluessel(name));
+    }
+
+    public EloRechner getRechner() {
+        return rechner;
+    }
+
+    // -------------------------------------------------------------------------
+    // 3) Neuberechnung
+    // -------------------------------------------------------------------------
+
+    /**
+     * Wertet alle abgeschlossenen Spiele neu – mit den bisherigen Parametern
+     * (neu == null) oder mit neuen, die danach auch für neue Spiele gelten.
+     */
+    @Transactional
+    public WertungNeuberechnung berechneNeu(EloRechner neu) {
+        long start = System.nanoTime();
+        EloRechner elo = neu != null ? neu : rechner;
+
+        // ----- 1) Alle abgeschlossenen Spiele lesen (auch archivierte), in Startreihenfolge bringen -----
+        List<SpielAbschluss> abschluesse = new ArrayList<>();
+        for (SpielStatus status : List.of(SpielStatus.BEENDET, SpielStatus.ABGEBROCHEN)) {
+            SpielFilter filter = new SpielFilter(status, null, null, null);
+            SpielCursor nach = null;
+            List<HistorienZeile> seite;
+            do {
+                seite = spielRepository.sucheHistorie(filter, nach, NEUBERECHNUNG_SEITE);
+                for (HistorienZeile zeile : seite) {
+                    SpielAbschluss abschluss = SpielAbschluss.aus(zeile);
+                    if (wertbar(abschluss)) {
+                        abschluesse.add(abschluss);
+                    }
+                }
+                if (!seite.isEmpty()) {
+                    HistorienZeile letzte = seite.getLast();
+                    nach = new SpielCursor(letzte.datum(), letzte.id());
+                }
+            } while (seite.size() == NEUBERECHNUNG_SEITE);
+        }
+        spielArchiv.fuerAlle(zeile -> {
+            SpielAbschluss abschluss = SpielAbschluss.aus(zeile);
+            if (wertbar(abschluss)) {
+                abschluesse.add(abschluss);
+            }
+        });
+        abschluesse.sort(Comparator.comparing(SpielAbschluss::spielId));
+
+        // ----- 2) Der Reihe nach abspielen – nur Zahlen im Speicher -----
+        Map<String, Stand> staende = new HashMap<>();
+        for (SpielAbschluss abschluss : abschluesse) {
+            for (String name : alleNamen(abschluss)) {
+                staende.computeIfAbsent(SpielerStatistik.schluessel(name), k -> new Stand(name, elo.startWert()));
+            }
+            double a = mittel(abschluss.spielerA(), name -> staende.get(SpielerStatistik.schluessel(name)).wert);
+            double b = mittel(abschluss.spielerB(), name -> staende.get(SpielerStatistik.schluessel(name)).wert);
+            double aenderung = elo.aenderungTeamA(a, b, abschluss.teamAGewinnt(),
+                    abschluss.status() == SpielStatus.ABGEBROCHEN);
+            for (String name : abschluss.spielerA()) {
+                staende.get(SpielerStatistik.schluessel(name)).aendere(aenderung);
+            }
+            for (String name : abschluss.spielerB()) {
+                staende.get(SpielerStatistik.schluessel(name)).aendere(-aenderung);
+            }
+        }
+        int anzahlSpieler = staende.size();
+
+        // ----- 3) Bestehende Zeilen überschreiben, neue anlegen, verwaiste löschen -----
+        Map<String, SpielerWertung> neueZeilen = new HashMap<>();
+        for (Map.Entry<String, Stand> eintrag : staende.entrySet()) {
+            Stand stand = eintrag.getValue();
+            SpielerWertung zeile = new SpielerWertung(stand.name, elo.startWert());
+            zeile.ersetze(stand.wert, stand.spiele);
+            neueZeilen.put(eintrag.getKey(), zeile);
+        }
+        ZeilenErsatz.ersetze(entityManager, wertungRepository,
+                wertungRepository::findBySchluesselGreaterThanOrderBySchluessel,
+                SpielerWertung::getSchluessel, neueZeilen,
+                (alt, zeile) -> alt.ersetze(zeile.getWert(), zeile.getSpiele()), NEUBERECHNUNG_SEITE);
+
+        rechner = elo;
+        long dauerMs = (System.nanoTime() - start) / 1_000_000;
+        return new WertungNeuberechnung(abschluesse.size(), anzahlSpieler,
+                elo.kFaktor(), elo.startWert(), elo.abbruchFaktor(), dauerMs);
+    }
+
+    // -------------------------------------------------------------------------
+    // Hilfsmethoden
+    // -------------------------------------------------------------------------
+
+    /**
+     * Gewertet werden nur Spiele mit Gewinner und zwei besetzten Teams.
+     */
+    private static boolean wertbar(SpielAbschluss abschluss) {
+        return abschluss.teamAGewinnt() != null
+                && !abschluss.spielerA().isEmpty()
+                && !abschluss.spielerB().isEmpty();
+    }
+
+    private static List<String> alleNamen(SpielAbschluss abschluss) {
+        List<String> namen = new ArrayList<>(abschluss.spielerA());
+        namen.addAll(abschluss.spielerB());
+        return namen;
+    }
+
+    private static double mittel(List<String> namen, ToDoubleFunction<String> wert) {
+        double summe = 0;
+        for (String name : namen) {
+            summe += wert.applyAsDouble(name);
+        }
+        return summe / namen.size();
+    }
+
+    /**
+     * Zwischenstand einer Person während der Neuberechnung.
+     */
+    private static final class Stand {
+        private final String name;
+        private double wert;
+        private int spiele;
+
+        private Stand(String name, double wert) {
+            this.name = name;
+            this.wert = wert;
+        }
+
+        private void aendere(double aenderung) {
+            wert += aenderung;
+            spiele++;
+        }
+    }
+}
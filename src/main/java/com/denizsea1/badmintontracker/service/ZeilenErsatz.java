@@ -0,0 +1,78 @@
+package com.denizsea1.badmintontracker.service;
+
+import jakarta.persistence.EntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Ersetzt den Inhalt einer Tabelle mit Namensschlüssel (Statistik, Wertung)
+ * durch neu berechnete Zeilen – seitenweise, damit der Persistenzkontext
+ * nicht mit der Tabelle wächst.
+ *
+ * Bestehende Zeilen werden per Keyset (Schlüssel > letzter Schlüssel) gelesen,
+ * überschrieben oder gelöscht, danach die neuen angelegt; nach jeder Seite
+ * flush() und clear(). Alles in der Transaktion des Aufrufers – der Ersatz
+ * bleibt damit ganz oder gar nicht.
+ */
+final class ZeilenErsatz {
+
+    private ZeilenErsatz() {
+    }
+
+    /**
+     * @param seiteNach  bestehende Zeilen mit Schlüssel > nach, nach Schlüssel sortiert
+     * @param neu        neu berechnete Zeilen nach Schlüssel (wird geleert)
+     * @param uebernimm  (bestehend, neu) -> neue Werte in die bestehende Zeile
+     */
+    static <T> void ersetze(EntityManager entityManager,
+                            JpaRepository<T, String> repository,
+                            BiFunction<String, Pageable, List<T>> seiteNach,
+                            Function<T, String> schluessel,
+                            Map<String, T> neu,
+                            BiConsumer<T, T> uebernimm,
+                            int seitenGroesse) {
+        String nach = "";
+        List<T> seite;
+        do {
+            seite = seiteNach.apply(nach, PageRequest.of(0, seitenGroesse));
+            for (T alt : seite) {
+                T ersatz = neu.remove(schluessel.apply(alt));
+                if (ersatz != null) {
+                    uebernimm.accept(alt, ersatz);
+                } else {
+                    repository.delete(alt);
+                }
+            }
+            if (!seite.isEmpty()) {
+                nach = schluessel.apply(seite.getLast());
+            }
+            leere(entityManager);
+        } while (seite.size() == seitenGroesse);
+
+        List<T> block = new ArrayList<>(seitenGroesse);
+        for (T zeile : neu.values()) {
+            block.add(zeile);
+            if (block.size() == seitenGroesse) {
+                repository.saveAll(block);
+                leere(entityManager);
+                block.clear();
+            }
+        }
+        repository.saveAll(block);
+        leere(entityManager);
+        neu.clear();
+    }
+
+    private static void leere(EntityManager entityManager) {
+        entityManager.flush();
+        entityManager.clear();
+    }
+}
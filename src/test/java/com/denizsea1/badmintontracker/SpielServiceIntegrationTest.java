@@ -1,22 +1,72 @@
 package com.denizsea1.badmintontracker;
 
+import com.denizsea1.badmintontracker.controller.IdempotenzFilter;
+import com.denizsea1.badmintontracker.dto.Direktvergleich;
+import com.denizsea1.badmintontracker.dto.HistorienZeile;
+import com.denizsea1.badmintontracker.dto.PlanerStatus;
+import com.denizsea1.badmintontracker.dto.SpielFilter;
+import com.denizsea1.badmintontracker.dto.SpielSeite;
+import com.denizsea1.badmintontracker.dto.Spielstand;
 import com.denizsea1.badmintontracker.model.*;
 import com.denizsea1.badmintontracker.repository.SpielRepository;
 import com.denizsea1.badmintontracker.repository.TeamRepository;
+import com.denizsea1.badmintontracker.service.EloRechner;
+import com.denizsea1.badmintontracker.service.FeldPlaner;
+import com.denizsea1.badmintontracker.service.KarriereService;
+import com.denizsea1.badmintontracker.service.LiveSpielEngine;
+import com.denizsea1.badmintontracker.service.LiveUebersichtStreams;
+import com.denizsea1.badmintontracker.service.SpielAbschlussAufgaben;
+import com.denizsea1.badmintontracker.service.SpielGeaendertEvent;
 import com.denizsea1.badmintontracker.service.SpielService;
+import com.denizsea1.badmintontracker.service.StammdatenService;
+import com.denizsea1.badmintontracker.service.StatistikService;
+import com.denizsea1.badmintontracker.service.WertungService;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletResponse;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.zip.GZIPInputStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -29,11 +79,28 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
  * - Testet Domain/Service-Logik (SpielService, Team/Spieler/Satz)
  * - Testet REST-API mit MockMvc (Controller-Endpunkte)
  */
-@SpringBootTest
+@SpringBootTest(properties = {
+        // Für die SQL-Zählung im Scoring-Pfad
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN",
+        // Kein Hintergrund-Flush während der Tests (würde mitgezählt)
+        "badminton.live.flush-intervall-ms=3600000",
+        // Eigene In-Memory-Datenbank statt ./data (Archivverzeichnis siehe testVerzeichnisse)
+        "spring.datasource.url=jdbc:h2:mem:badminton-test;DB_CLOSE_DELAY=-1"
+})
 @AutoConfigureMockMvc
 @Transactional
 class BadmintonTrackerIntegrationTest {
 
+    /**
+     * Archivdateien in ein frisches Temp-Verzeichnis statt nach ./data.
+     */
+    @DynamicPropertySource
+    static void testVerzeichnisse(DynamicPropertyRegistry registry) throws IOException {
+        Path archiv = Files.createTempDirectory("badminton-archiv");
+        registry.add("badminton.archiv.verzeichnis", archiv::toString);
+    }
+
     @Autowired
     private SpielService spielService;
 
@@ -43,12 +110,54 @@ class BadmintonTrackerIntegrationTest {
     @Autowired
     private SpielRepository spielRepository;
 
+    @Autowired
+    private LiveUebersichtStreams liveUebersichtStreams;
+
     @Autowired
     private MockMvc mockMvc;
 
+    @Autowired
+    private EntityManager entityManager;
+
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private StatistikService statistikService;
+
+    @Autowired
+    private KarriereService karriereService;
+
+    @Autowired
+    private WertungService wertungService;
+
+    @Autowired
+    private FeldPlaner feldPlaner;
+
+    @Autowired
+    private StammdatenService stammdatenService;
+
+    @Autowired
+    private SpielAbschlussAufgaben abschlussAufgaben;
+
+    @Autowired
+    private LiveSpielEngine liveSpielEngine;
+
+    @Autowired
+    private IdempotenzFilter idempotenzFilter;
+
+    /**
+     * In @Transactional-Tests lädt die LiveSpielEngine in die Testtransaktion –
+     * die Einträge überleben deren Rollback sonst.
+     */
+    @AfterEach
+    void vergissLiveSpiele() {
+        liveSpielEngine.verwirfAlle();
+    }
+
     // -------------------------------------------------------------------------
     // A) DOMAIN- / SERVICE-TESTS
     // -------------------------------------------------------------------------
@@ -95,21 +204,20 @@ class BadmintonTrackerIntegrationTest {
     }
 
     @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     @DisplayName("Punkt für Aufschlagteam: Punkte, Aufschlagseite und Spielerpositionen werden angepasst")
     void punktFuerAufschlagTeam_aktualisiertPunkteUndPositionen() {
-        Team teamA = persistTeam("Max", "Mueller", "Lara", "Schulz");
-        Team teamB = persistTeam("Paul", "Meier", "Anna", "Schmidt");
+        // Echter Live-Pfad: Stand im Speicher, in der DB erst nach dem Flush
+        String nachname = "Aufschlag" + UUID.randomUUID().toString().substring(0, 8);
+        Team teamA = persistTeam("Max", nachname, "Lara", nachname);
+        Team teamB = persistTeam("Paul", nachname, "Anna", nachname);
 
         Spiel spiel = spielService.startNeuesSpiel(
                 teamA.getId(), teamB.getId(), true, Seite.RECHTS);
         Long spielId = spiel.getId();
 
         // Vorher-Check: Team A Spielerpositionen
-        Team gespeichertesTeamA = teamRepository.findById(teamA.getId()).orElseThrow();
-        Seite posVorherS1 = gespeichertesTeamA.getSpieler().get(0).getPositionImTeam();
-        Seite posVorherS2 = gespeichertesTeamA.getSpieler().get(1).getPositionImTeam();
-        assertEquals(Seite.RECHTS, posVorherS1);
-        assertEquals(Seite.LINKS, posVorherS2);
+        assertEquals(List.of(Seite.RECHTS, Seite.LINKS), positionenInDb(teamA));
 
         // Punkt für Team A (Aufschlagteam)
         spiel = spielService.punktFuerTeamA(spielId);
@@ -123,20 +231,23 @@ class BadmintonTrackerIntegrationTest {
         // Aufschlagseite invertiert (RECHTS -> LINKS)
         assertEquals(Seite.LINKS, spiel.getAufschlagSeite());
 
-        // Spielerpositionen von Team A invertiert
-        gespeichertesTeamA = teamRepository.findById(teamA.getId()).orElseThrow();
-        Seite posNachherS1 = gespeichertesTeamA.getSpieler().get(0).getPositionImTeam();
-        Seite posNachherS2 = gespeichertesTeamA.getSpieler().get(1).getPositionImTeam();
+        // Spielerpositionen von Team A invertiert – erst im Speicher, nach dem Flush auch in der DB
+        assertEquals(List.of(Seite.LINKS, Seite.RECHTS), positionen(spiel.getTeams().get(0)));
+        assertEquals(List.of(Seite.RECHTS, Seite.LINKS), positionenInDb(teamA));
+        liveSpielEngine.speichereGeaenderte();
+        assertEquals(List.of(Seite.LINKS, Seite.RECHTS), positionenInDb(teamA));
+        assertEquals(1, punkteTeamAInDb(spielId, 1));
 
-        assertEquals(posVorherS1.invert(), posNachherS1);
-        assertEquals(posVorherS2.invert(), posNachherS2);
+        spielService.brecheSpielAb(spielId, true);
     }
 
     @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     @DisplayName("Punkt für Nicht-Aufschlagteam: Aufschlagrecht wechselt, Aufschlagseite wird aus Punktzahl abgeleitet")
     void punktFuerNichtAufschlagTeam_wechseltAufschlag() {
-        Team teamA = persistTeam("Max", "Mueller", "Lara", "Schulz");
-        Team teamB = persistTeam("Paul", "Meier", "Anna", "Schmidt");
+        String nachname = "Wechsel" + UUID.randomUUID().toString().substring(0, 8);
+        Team teamA = persistTeam("Max", nachname, "Lara", nachname);
+        Team teamB = persistTeam("Paul", nachname, "Anna", nachname);
 
         Spiel spiel = spielService.startNeuesSpiel(
                 teamA.getId(), teamB.getId(), true, Seite.RECHTS);
@@ -153,38 +264,53 @@ class BadmintonTrackerIntegrationTest {
         assertEquals(teamB.getId(), spiel.getAufschlagTeam().getId());
         // 1 Punkt (ungerade) -> LINKS
         assertEquals(Seite.LINKS, spiel.getAufschlagSeite());
+
+        // Nach dem Flush liest auch ein frisch geladenes Spiel den neuen Aufschlag
+        liveSpielEngine.speichereGeaenderte();
+        assertEquals(teamB.getId(), entityManager.createQuery(
+                        "select s.aufschlagTeam.id from Spiel s where s.id = :spielId", Long.class)
+                .setParameter("spielId", spielId)
+                .getSingleResult());
+
+        spielService.brecheSpielAb(spielId, true);
     }
 
     @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     @DisplayName("Ein Satz endet bei mind. 21 Punkten und 2 Punkten Vorsprung")
     void satzEndetBei21PunktenMitZweiPunktenVorsprung() {
-        Team teamA = persistTeam("Max", "Mueller", "Lara", "Schulz");
-        Team teamB = persistTeam("Paul", "Meier", "Anna", "Schmidt");
+        String nachname = "Satzende" + UUID.randomUUID().toString().substring(0, 8);
+        Team teamA = persistTeam("Max", nachname, "Lara", nachname);
+        Team teamB = persistTeam("Paul", nachname, "Anna", nachname);
 
         Spiel spiel = spielService.startNeuesSpiel(
                 teamA.getId(), teamB.getId(), true, Seite.RECHTS);
         Long spielId = spiel.getId();
 
-        // Team A gewinnt Satz 1 (z.B. 21:10)
-        Satz aktuellerSatz = getAktuellenSatz(spiel);
-        while (!(aktuellerSatz.getPunkteTeamA() >= 21 &&
-                aktuellerSatz.getPunkteTeamA() - aktuellerSatz.getPunkteTeamB() >= 2)) {
+        // 20:0 – noch kein Satzende
+        for (int i = 0; i < 20; i++) {
             spiel = spielService.punktFuerTeamA(spielId);
-            aktuellerSatz = getAktuellenSatz(spiel);
         }
+        assertEquals(1, spiel.getSaetze().size());
+
+        // 21:0 -> Satz 2 beginnt
+        spiel = spielService.punktFuerTeamA(spielId);
+        assertEquals(2, getAktuellenSatz(spiel).getNummer());
 
-        // Wenn Satz beendet ist, sollte das Spiel einen neuen Satz angelegt haben (Satz 2)
-        Spiel neuGeladen = spielRepository.findById(spielId).orElseThrow();
-        assertFalse(neuGeladen.getSaetze().isEmpty());
-        Satz letzterSatz = getAktuellenSatz(neuGeladen);
-        assertTrue(letzterSatz.getNummer() == 1 || letzterSatz.getNummer() == 2);
+        // Satzende wird ohne Flush gespeichert, samt neuem Satz 2
+        assertEquals(21, punkteTeamAInDb(spielId, 1));
+        assertEquals(0, punkteTeamAInDb(spielId, 2));
+
+        spielService.brecheSpielAb(spielId, true);
     }
 
     @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     @DisplayName("Match endet, wenn ein Team zwei Sätze gewinnt (Best-of-Three)")
-    void matchEndetNachZweiGewonnenenSaetzen() {
-        Team teamA = persistTeam("Max", "Mueller", "Lara", "Schulz");
-        Team teamB = persistTeam("Paul", "Meier", "Anna", "Schmidt");
+    void matchEndetNachZweiGewonnenenSaetzen() throws Exception {
+        String nachname = "Matchende" + UUID.randomUUID().toString().substring(0, 8);
+        Team teamA = persistTeam("Max", nachname, "Lara", nachname);
+        Team teamB = persistTeam("Paul", nachname, "Anna", nachname);
 
         Spiel spiel = spielService.startNeuesSpiel(
                 teamA.getId(), teamB.getId(), true, Seite.RECHTS);
@@ -206,18 +332,23 @@ class BadmintonTrackerIntegrationTest {
             aktuellerSatz = getAktuellenSatz(spiel);
         }
 
-        // Matchende prüfen
-        Spiel fertig = spielRepository.findById(spielId).orElseThrow();
-        assertEquals(SpielStatus.BEENDET, fertig.getStatus());
-        assertNotNull(fertig.getGewinnerTeam());
-        assertEquals(teamA.getId(), fertig.getGewinnerTeam().getId());
+        // Matchende prüfen – ohne Flush schon in der DB
+        assertEquals(SpielStatus.BEENDET, spiel.getStatus());
+        assertEquals(SpielStatus.BEENDET, statusInDb(spielId));
+        assertEquals(teamA.getId(), entityManager.createQuery(
+                        "select s.gewinnerTeam.id from Spiel s where s.id = :spielId", Long.class)
+                .setParameter("spielId", spielId)
+                .getSingleResult());
+        warteAufAbschluss();
     }
 
-    @DisplayName("Pausenempfehlung ist true, sobald ein Team im Satz >= 11 Punkte hat")
     @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("Pausenempfehlung ist true, sobald ein Team im Satz >= 11 Punkte hat")
     void pausenEmpfehlungAbElfPunkten() {
-        Team teamA = persistTeam("Max", "Mueller", "Lara", "Schulz");
-        Team teamB = persistTeam("Paul", "Meier", "Anna", "Schmidt");
+        String nachname = "Pause" + UUID.randomUUID().toString().substring(0, 8);
+        Team teamA = persistTeam("Max", nachname, "Lara", nachname);
+        Team teamB = persistTeam("Paul", nachname, "Anna", nachname);
 
         Spiel spiel = spielService.startNeuesSpiel(
                 teamA.getId(), teamB.getId(), true, Seite.RECHTS);
@@ -226,14 +357,16 @@ class BadmintonTrackerIntegrationTest {
         // Bis 10 Punkte sollte KEINE Pause empfohlen sein
         for (int i = 0; i < 10; i++) {
             assertFalse(spielService.istPauseEmpfohlen(spielId));
-            spiel = spielService.punktFuerTeamA(spielId);
+            spielService.punktFuerTeamA(spielId);
         }
 
         // Jetzt noch EINEN Punkt → A hat 11
-        spiel = spielService.punktFuerTeamA(spielId);
+        spielService.punktFuerTeamA(spielId);
 
         // Ab 11 Punkten: Pause empfohlen
         assertTrue(spielService.istPauseEmpfohlen(spielId));
+
+        spielService.brecheSpielAb(spielId, true);
     }
 
     // -------------------------------------------------------------------------
@@ -261,30 +394,67 @@ class BadmintonTrackerIntegrationTest {
     }
 
     @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("Gleichzeitige Starts mit denselben Spieler:innen: genau einer wird reserviert")
+    void gleichzeitigeStarts_reservierenSpielerHoechstensEinmal() throws Exception {
+        // Echte, parallele Transaktionen -> Teams müssen committet sein
+        String nachname = "Reservierung" + UUID.randomUUID().toString().substring(0, 8);
+        Team gemeinsam = persistTeam("Max", nachname, "Lara", nachname);
+        List<Team> gegner = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            gegner.add(persistTeam("Gegner" + i, nachname, "Partner" + i, nachname));
+        }
+
+        List<Spiel> gestartet = new ArrayList<>();
+        ExecutorService tablets = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Spiel>> versuche = new ArrayList<>();
+            for (Team team : gegner) {
+                versuche.add(tablets.submit(() -> spielService.startNeuesSpiel(
+                        gemeinsam.getId(), team.getId(), true, Seite.RECHTS)));
+            }
+            for (Future<Spiel> versuch : versuche) {
+                try {
+                    gestartet.add(versuch.get(10, TimeUnit.SECONDS));
+                } catch (ExecutionException e) {
+                    assertInstanceOf(IllegalStateException.class, e.getCause());
+                }
+            }
+        } finally {
+            tablets.shutdownNow();
+        }
+
+        assertEquals(1, gestartet.size());
+        spielService.brecheSpielAb(gestartet.getFirst().getId(), true);
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     @DisplayName("Undo Punkt für Team A stellt Punktestand, Aufschlagseite und Positionen zurück (einfacher Fall)")
     void undoPunktFuerTeamA_stelltEinfachenZustandZurueck() {
-        Team teamA = persistTeam("Max", "Mueller", "Lara", "Schulz");
-        Team teamB = persistTeam("Paul", "Meier", "Anna", "Schmidt");
+        String nachname = "Undo" + UUID.randomUUID().toString().substring(0, 8);
+        Team teamA = persistTeam("Max", nachname, "Lara", nachname);
+        Team teamB = persistTeam("Paul", nachname, "Anna", nachname);
 
         Spiel spiel = spielService.startNeuesSpiel(
                 teamA.getId(), teamB.getId(), true, Seite.RECHTS);
         Long spielId = spiel.getId();
 
         // Ausgangspositionen merken
-        Team gespeichertesTeamA = teamRepository.findById(teamA.getId()).orElseThrow();
-        Seite posVorherS1 = gespeichertesTeamA.getSpieler().get(0).getPositionImTeam();
-        Seite posVorherS2 = gespeichertesTeamA.getSpieler().get(1).getPositionImTeam();
+        List<Seite> positionenVorher = positionenInDb(teamA);
 
         assertEquals(Seite.RECHTS, spiel.getAufschlagSeite());
         assertEquals(teamA.getId(), spiel.getAufschlagTeam().getId());
 
-        // 1 Punkt für Team A
+        // 1 Punkt für Team A, bis in die DB
         spiel = spielService.punktFuerTeamA(spielId);
+        liveSpielEngine.speichereGeaenderte();
 
         // Sicherstellen, dass der Punkt gezählt wurde
         Satz satzNachPunkt = getAktuellenSatz(spiel);
         assertEquals(1, satzNachPunkt.getPunkteTeamA());
         assertEquals(0, satzNachPunkt.getPunkteTeamB());
+        assertNotEquals(positionenVorher, positionenInDb(teamA));
 
         // Jetzt Undo für Team A
         spiel = spielService.undoPunktFuerTeamA(spielId);
@@ -297,13 +467,248 @@ class BadmintonTrackerIntegrationTest {
         assertEquals(teamA.getId(), spiel.getAufschlagTeam().getId());
         assertEquals(Seite.RECHTS, spiel.getAufschlagSeite());
 
-        // Spielerpositionen wieder wie vor dem Punkt
-        gespeichertesTeamA = teamRepository.findById(teamA.getId()).orElseThrow();
-        Seite posNachUndoS1 = gespeichertesTeamA.getSpieler().get(0).getPositionImTeam();
-        Seite posNachUndoS2 = gespeichertesTeamA.getSpieler().get(1).getPositionImTeam();
+        // Spielerpositionen wieder wie vor dem Punkt – im Speicher und nach dem Flush in der DB
+        assertEquals(positionenVorher, positionen(spiel.getTeams().get(0)));
+        liveSpielEngine.speichereGeaenderte();
+        assertEquals(positionenVorher, positionenInDb(teamA));
+        assertEquals(0, punkteTeamAInDb(spielId, 1));
+
+        spielService.brecheSpielAb(spielId, true);
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("Mehrstufiges Undo über die Satzgrenze stellt den alten Satz samt Aufschlag und Positionen wieder her")
+    void undoBallwechsel_ueberSatzgrenzeHinweg() {
+        String nachname = "UndoSatz" + UUID.randomUUID().toString().substring(0, 8);
+        Team teamA = persistTeam("Max", nachname, "Lara", nachname);
+        Team teamB = persistTeam("Paul", nachname, "Anna", nachname);
+
+        Spiel spiel = spielService.startNeuesSpiel(
+                teamA.getId(), teamB.getId(), true, Seite.RECHTS);
+        Long spielId = spiel.getId();
+
+        // Satz 1: 19:0 für A, dann ein Punkt für B (Aufschlagwechsel), dann A bis 21:1
+        for (int i = 0; i < 19; i++) {
+            spiel = spielService.punktFuerTeamA(spielId);
+        }
+        spiel = spielService.punktFuerTeamB(spielId);
+        Seite seiteVorLetztemPunkt = null;
+        List<Seite> posVorLetztemPunkt = null;
+        for (int i = 0; i < 2; i++) {
+            seiteVorLetztemPunkt = spiel.getAufschlagSeite();
+            posVorLetztemPunkt = positionen(spiel.getTeams().get(0));
+            spiel = spielService.punktFuerTeamA(spielId);
+        }
+        assertEquals(2, spiel.getSaetze().size());
+
+        // Den satzentscheidenden Punkt zurücknehmen -> Satz 2 verschwindet wieder
+        spiel = spielService.undoBallwechsel(spielId, 1);
+
+        assertEquals(1, spiel.getSaetze().size());
+        Satz satz1 = getAktuellenSatz(spiel);
+        assertEquals(20, satz1.getPunkteTeamA());
+        assertEquals(1, satz1.getPunkteTeamB());
+        assertEquals(SpielStatus.LAUFEND, spiel.getStatus());
+        assertEquals(teamA.getId(), spiel.getAufschlagTeam().getId());
+        assertEquals(seiteVorLetztemPunkt, spiel.getAufschlagSeite());
+        assertEquals(posVorLetztemPunkt, positionen(spiel.getTeams().get(0)));
+
+        // Nach dem Flush stimmt auch die DB (Satz 2 wieder entfernt)
+        liveSpielEngine.speichereGeaenderte();
+        assertEquals(20, punkteTeamAInDb(spielId, 1));
+        assertEquals(posVorLetztemPunkt, positionenInDb(teamA));
+        assertEquals(1L, entityManager.createQuery(
+                        "select count(s) from Satz s where s.spiel.id = :spielId", Long.class)
+                .setParameter("spielId", spielId)
+                .getSingleResult());
+
+        // Drei weitere Schritte zurück: 18:0, Team A schlägt wieder auf
+        spiel = spielService.undoBallwechsel(spielId, 3);
+        satz1 = getAktuellenSatz(spiel);
+        assertEquals(18, satz1.getPunkteTeamA());
+        assertEquals(0, satz1.getPunkteTeamB());
+        assertEquals(teamA.getId(), spiel.getAufschlagTeam().getId());
+        // 18 Punkte des Aufschlagteams ab RECHTS -> wieder RECHTS
+        assertEquals(Seite.RECHTS, spiel.getAufschlagSeite());
+
+        spielService.brecheSpielAb(spielId, true);
+    }
 
-        assertEquals(posVorherS1, posNachUndoS1);
-        assertEquals(posVorherS2, posNachUndoS2);
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("Undo hängt einen Schnitt an das Protokoll an, statt Ballwechsel zu löschen")
+    void undo_haengtSchnittAnStattZuLoeschen() throws Exception {
+        String nachname = "Schnitt" + UUID.randomUUID().toString().substring(0, 8);
+        Team teamA = persistTeam("Max", nachname, "Lara", nachname);
+        Team teamB = persistTeam("Paul", nachname, "Anna", nachname);
+        Long spielId = spielService.startNeuesSpiel(
+                teamA.getId(), teamB.getId(), true, Seite.RECHTS).getId();
+
+        spielService.punktFuerTeamA(spielId);
+        spielService.punktFuerTeamA(spielId);
+        spielService.punktFuerTeamA(spielId);
+        spielService.undoBallwechsel(spielId, 1);
+        spielService.punktFuerTeamB(spielId);
+        liveSpielEngine.speichereGeaenderte();
+
+        // 3 Punkte, 1 Schnitt, 1 Punkt – der zurückgenommene bleibt stehen
+        List<Ballwechsel> zeilen = entityManager.createQuery(
+                        "select b from Ballwechsel b where b.spielId = :id order by b.sequenz", Ballwechsel.class)
+                .setParameter("id", spielId)
+                .getResultList();
+        assertEquals(List.of(1, 2, 3, 4, 5), zeilen.stream().map(Ballwechsel::getSequenz).toList());
+        assertTrue(zeilen.get(3).istSchnitt());
+        assertEquals(2, zeilen.get(3).getZurueckAuf());
+
+        // Nachgespielt wird nur, was nach dem Schnitt noch gilt
+        mockMvc.perform(get("/spiele/{id}/verlauf", spielId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.anzahlBallwechsel").value(3))
+                .andExpect(jsonPath("$.stand.saetze[0].punkteTeamA").value(2))
+                .andExpect(jsonPath("$.stand.saetze[0].punkteTeamB").value(1));
+
+        spielService.brecheSpielAb(spielId, true);
+    }
+
+    @Test
+    @DisplayName("Scoring-Pfad: einmal fest definiert laden, danach Punkt, Undo und Pausenprüfung ohne SQL")
+    void scoringPfad_festeAnzahlSqlStatements() {
+        Team teamA = persistTeam("Max", "Mueller", "Lara", "Schulz");
+        Team teamB = persistTeam("Paul", "Meier", "Anna", "Schmidt");
+        Long spielId = spielService.startNeuesSpiel(
+                teamA.getId(), teamB.getId(), true, Seite.RECHTS).getId();
+
+        // Alles schreiben und vergessen -> der erste Punkt lädt wirklich aus der DB
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistik = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+
+        // Erster Punkt: Spiel+Teams, Sätze, Spieler, Ballwechsel, Snapshots
+        statistik.clear();
+        spielService.punktFuerTeamA(spielId);
+        assertEquals(5, statistik.getPrepareStatementCount());
+
+        // Danach im Speicher
+        statistik.clear();
+        spielService.punktFuerTeamB(spielId);
+        spielService.undoPunktFuerTeamB(spielId);
+        spielService.istPauseEmpfohlen(spielId);
+        assertEquals(0, statistik.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("Gleichzeitige Punkte auf dasselbe Spiel gehen nicht verloren (pro Spiel serialisiert)")
+    void gleichzeitigePunkte_werdenAlleGezaehlt() throws Exception {
+        Team teamA = persistTeam("Max", "Mueller", "Lara", "Schulz");
+        Team teamB = persistTeam("Paul", "Meier", "Anna", "Schmidt");
+        Long spielId = spielService.startNeuesSpiel(
+                teamA.getId(), teamB.getId(), true, Seite.RECHTS).getId();
+
+        // Erster Punkt lädt das Spiel in den Speicher, der Rest läuft dort
+        spielService.punktFuerTeamA(spielId);
+
+        // 10 x A und 10 x B von 8 "Tablets" gleichzeitig – kein Satzende (max. 11:10)
+        ExecutorService tablets = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Spiel>> ergebnisse = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                boolean fuerA = i % 2 == 0;
+                ergebnisse.add(tablets.submit(() -> fuerA
+                        ? spielService.punktFuerTeamA(spielId)
+                        : spielService.punktFuerTeamB(spielId)));
+            }
+            for (Future<Spiel> ergebnis : ergebnisse) {
+                ergebnis.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            tablets.shutdownNow();
+        }
+
+        Satz satz = getAktuellenSatz(spielService.findeAktuellenStand(spielId).orElseThrow());
+        assertEquals(11, satz.getPunkteTeamA());
+        assertEquals(10, satz.getPunkteTeamB());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("Write-Behind: Punkt steht erst nach dem Flush in der DB, Spielende sofort")
+    void writeBehind_punktNachFlushSpielendeSofort() throws Exception {
+        // Gelesen wird über eigene Transaktionen -> Teams und Spiel müssen committet sein
+        String nachname = "WriteBehind" + UUID.randomUUID().toString().substring(0, 8);
+        Team teamA = persistTeam("Max", nachname, "Lara", nachname);
+        Team teamB = persistTeam("Paul", nachname, "Anna", nachname);
+        Long spielId = spielService.startNeuesSpiel(
+                teamA.getId(), teamB.getId(), true, Seite.RECHTS).getId();
+
+        // Punkt nur im Speicher
+        spielService.punktFuerTeamA(spielId);
+        assertEquals(1, spielService.findeAktuellenSpielstand(spielId).orElseThrow()
+                .saetze().getLast().punkteTeamA());
+        assertEquals(0, punkteTeamAInDb(spielId, 1));
+
+        // Flush (sonst periodisch) schreibt ihn zurück
+        liveSpielEngine.speichereGeaenderte();
+        assertEquals(1, punkteTeamAInDb(spielId, 1));
+
+        // Satzende und Spielende werden ohne Flush gespeichert
+        for (int i = 1; i < 42; i++) {
+            spielService.punktFuerTeamA(spielId);
+        }
+        assertEquals(21, punkteTeamAInDb(spielId, 1));
+        assertEquals(21, punkteTeamAInDb(spielId, 2));
+        assertEquals(SpielStatus.BEENDET, statusInDb(spielId));
+        assertTrue(liveSpielEngine.imSpeicher(spielId).isEmpty());
+        warteAufAbschluss();
+    }
+
+    @Test
+    @DisplayName("Hallen-Anzeige kennt den neuesten Stand aller laufenden Spiele und vergisst beendete")
+    void liveUebersicht_zeigtNurLaufendeSpieleMitNeuestemStand() {
+        Spiel court1 = spielService.startNeuesSpiel(
+                persistTeam("Max", "Mueller", "Lara", "Schulz").getId(),
+                persistTeam("Paul", "Meier", "Anna", "Schmidt").getId(), true, Seite.RECHTS);
+        Spiel court2 = spielService.startNeuesSpiel(
+                persistTeam("Tim", "Koch", "Mia", "Wolf").getId(),
+                persistTeam("Jan", "Beck", "Eva", "Lang").getId(), true, Seite.RECHTS);
+
+        for (int i = 0; i < 5; i++) {
+            spielService.punktFuerTeamA(court1.getId());
+        }
+        spielService.punktFuerTeamB(court2.getId());
+
+        Spielstand stand1 = findeLiveStand(court1.getId());
+        Spielstand stand2 = findeLiveStand(court2.getId());
+        assertNotNull(stand1);
+        assertNotNull(stand2);
+        assertEquals(5, stand1.saetze().getLast().punkteTeamA());
+        assertEquals(1, stand2.saetze().getLast().punkteTeamB());
+
+        spielService.brecheSpielAb(court1.getId(), true);
+
+        assertNull(findeLiveStand(court1.getId()));
+        assertNotNull(findeLiveStand(court2.getId()));
+    }
+
+    @Test
+    @DisplayName("Hallen-Anzeige: ein verspätetes Start-Event überschreibt keinen neueren Stand")
+    void liveUebersicht_ignoriertVeraltetenStand() {
+        Long spielId = -1L;
+        Spielstand nachPunkt = new Spielstand(spielId, SpielStatus.LAUFEND, 1L, 2L,
+                List.of(new Spielstand.SatzStand(1, 1, 0)), true, Seite.LINKS, Map.of(), null, false, 2);
+        Spielstand start = new Spielstand(spielId, SpielStatus.LAUFEND, 1L, 2L,
+                List.of(new Spielstand.SatzStand(1, 0, 0)), true, Seite.RECHTS, Map.of(), null, false, 1);
+        Spielstand ende = new Spielstand(spielId, SpielStatus.ABGEBROCHEN, 1L, 2L,
+                List.of(new Spielstand.SatzStand(1, 1, 0)), null, null, Map.of(), true, false, 3);
+
+        // Punkt vor dem Start-Event (Engine schon registriert, Start erst nach Abschluss gemeldet)
+        liveUebersichtStreams.onSpielGeaendert(new SpielGeaendertEvent(nachPunkt));
+        liveUebersichtStreams.onSpielGeaendert(new SpielGeaendertEvent(start));
+        assertEquals(2, findeLiveStand(spielId).standVersion());
+
+        liveUebersichtStreams.onSpielGeaendert(new SpielGeaendertEvent(ende));
+        assertNull(findeLiveStand(spielId));
     }
 
     @Test
@@ -339,10 +744,432 @@ class BadmintonTrackerIntegrationTest {
         assertTrue(geladenB.getSpieler().stream().noneMatch(Spieler::isInAktivemSpiel));
     }
 
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("Statistik: Spielende schreibt Spieler-/Team-Statistik fort, Neuaufbau ergibt dasselbe")
+    void statistikWirdBeiSpielendeFortgeschrieben() throws Exception {
+        // Fortgeschrieben wird nach dem Commit auf eigenem Thread
+        String nachname = "Statistik" + UUID.randomUUID().toString().substring(0, 8);
+        Team teamA = persistTeam("Max", nachname, "Lara", nachname);
+        Team teamB = persistTeam("Paul", nachname, "Anna", nachname);
+        Spiel spiel = spielService.startNeuesSpiel(teamA.getId(), teamB.getId(), true, Seite.RECHTS);
+
+        for (int i = 0; i < 42; i++) {
+            spielService.punktFuerTeamA(spiel.getId());
+        }
+        warteAufAbschluss();
+
+        // Name wird normalisiert (Groß-/Kleinschreibung, Leerzeichen)
+        Bilanz max = statistikService.findeSpieler("  max   " + nachname.toUpperCase()).orElseThrow().getBilanz();
+        assertEquals(1, max.getSpiele());
+        assertEquals(1, max.getSiege());
+        assertEquals(2, max.getSaetzeGewonnen());
+        assertEquals(0, max.getSaetzeVerloren());
+        assertEquals(42, max.getPunkteFuer());
+        assertEquals(1.0, max.getSiegquote());
+
+        // Team unabhängig von der Reihenfolge der Namen
+        Bilanz teamBBilanz = statistikService.findeTeam(
+                List.of("Anna " + nachname, "Paul " + nachname)).orElseThrow().getBilanz();
+        assertEquals(1, teamBBilanz.getNiederlagen());
+        assertEquals(42, teamBBilanz.getPunkteGegen());
+
+        statistikService.bauNeuAuf();
+
+        Bilanz neu = statistikService.findeSpieler("Max " + nachname).orElseThrow().getBilanz();
+        assertEquals(1, neu.getSiege());
+        assertEquals(2, neu.getSaetzeGewonnen());
+        assertEquals(42, neu.getPunkteFuer());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("Spieler-Index: Karriere seitenweise, Direktvergleich unabhängig von Seite und Reihenfolge")
+    void karriereUndDirektvergleichUeberSpielerIndex() throws Exception {
+        String nachname = "Karriere" + UUID.randomUUID().toString().substring(0, 8);
+        Team teamA = persistTeam("Max", nachname, "Lara", nachname);
+        Team teamB = persistTeam("Paul", nachname, "Anna", nachname);
+
+        // Spiel 1: Team A gewinnt 21:0, 21:0
+        Long spiel1 = spielService.startNeuesSpiel(teamA.getId(), teamB.getId(), true, Seite.RECHTS).getId();
+        for (int i = 0; i < 42; i++) {
+            spielService.punktFuerTeamA(spiel1);
+        }
+
+        // Spiel 2: Seiten getauscht, Team B gibt auf -> wieder Sieg für Team A
+        Long spiel2 = spielService.startNeuesSpiel(teamB.getId(), teamA.getId(), true, Seite.RECHTS).getId();
+        spielService.brecheSpielAb(spiel2, true);
+        warteAufAbschluss();
+
+        // Karriere: neueste zuerst, Cursor führt zur zweiten Seite
+        SpielSeite<HistorienZeile> erste = karriereService.findeKarriere("paul  " + nachname, null, 1);
+        assertEquals(List.of(spiel2), erste.eintraege().stream().map(HistorienZeile::id).toList());
+        assertNotNull(erste.naechste());
+        SpielSeite<HistorienZeile> zweite = karriereService.findeKarriere("Paul " + nachname, erste.naechste(), 1);
+        assertEquals(List.of(spiel1), zweite.eintraege().stream().map(HistorienZeile::id).toList());
+        assertNull(zweite.naechste());
+
+        Direktvergleich vergleich = karriereService.findeDirektvergleich(
+                List.of("Lara " + nachname, "Max " + nachname),
+                List.of("Anna " + nachname, "Paul " + nachname), null, 10);
+        assertEquals(2, vergleich.spiele());
+        assertEquals(2, vergleich.siegeTeam1());
+        assertEquals(0, vergleich.siegeTeam2());
+        assertEquals(2, vergleich.seite().eintraege().size());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("Elo: Sieg ändert beide Teams symmetrisch, Neuberechnung mit anderem K-Faktor")
+    void eloWertungInkrementellUndNeuberechnet() throws Exception {
+        String nachname = "Elo" + UUID.randomUUID().toString().substring(0, 8);
+        Team teamA = persistTeam("Max", nachname, "Lara", nachname);
+        Team teamB = persistTeam("Paul", nachname, "Anna", nachname);
+        Spiel spiel = spielService.startNeuesSpiel(teamA.getId(), teamB.getId(), true, Seite.RECHTS);
+        for (int i = 0; i < 42; i++) {
+            spielService.punktFuerTeamA(spiel.getId());
+        }
+        warteAufAbschluss();
+
+        // Gleich starke Teams: Erwartung 0.5 -> +/- K/2
+        EloRechner bisher = wertungService.getRechner();
+        double haelfte = bisher.kFaktor() / 2;
+        assertEquals(bisher.startWert() + haelfte,
+                wertungService.findeSpieler("Lara " + nachname).orElseThrow().getWert(), 1e-9);
+        assertEquals(bisher.startWert() - haelfte,
+                wertungService.findeSpieler("Anna " + nachname).orElseThrow().getWert(), 1e-9);
+
+        try {
+            wertungService.berechneNeu(new EloRechner(16, bisher.startWert(), bisher.abbruchFaktor()));
+            SpielerWertung max = wertungService.findeSpieler("Max " + nachname).orElseThrow();
+            assertEquals(bisher.startWert() + 8, max.getWert(), 1e-9);
+            assertEquals(1, max.getSpiele());
+        } finally {
+            wertungService.berechneNeu(bisher);
+        }
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("Feldplaner: höhere Priorität zuerst, belegte Spieler:innen warten bis zum Spielende")
+    void feldPlanerStartetNaechsteSpielbereitePaarung() throws Exception {
+        // Der Planer startet auf eigenem Thread -> Teams müssen committet sein
+        String nachname = "Planer" + UUID.randomUUID().toString().substring(0, 8);
+        Team t1 = persistTeam("Max", nachname, "Lara", nachname);
+        Team t2 = persistTeam("Paul", nachname, "Anna", nachname);
+        Team t3 = persistTeam("Tim", nachname, "Mia", nachname);
+        Team t4 = persistTeam("Jan", nachname, "Eva", nachname);
+        Team t5 = persistTeam("Ben", nachname, "Ida", nachname);
+        Team t6 = persistTeam("Leo", nachname, "Zoe", nachname);
+
+        // t1 ist zunächst manuell belegt -> beide t1-Ansetzungen warten, t4/t5 startet
+        Spiel manuell = spielService.startNeuesSpiel(t1.getId(), t6.getId(), true, Seite.RECHTS);
+        PlanerStatus.Ansetzung spaeter = feldPlaner.reiheEin(t1.getId(), t2.getId(), 0);
+        PlanerStatus.Ansetzung zuerst = feldPlaner.reiheEin(t1.getId(), t3.getId(), 5);
+        PlanerStatus.Ansetzung parallel = feldPlaner.reiheEin(t4.getId(), t5.getId(), 0);
+        warteBis(() -> wartendeIds().equals(List.of(zuerst.id(), spaeter.id())));
+        assertNotNull(spielAufFeld(t5), "Ansetzung " + parallel.id() + " läuft nicht");
+
+        // Spielende gibt t1 frei -> die höhere Priorität startet
+        spielService.brecheSpielAb(manuell.getId(), true);
+        warteBis(() -> wartendeIds().equals(List.of(spaeter.id())));
+        Long spielZuerst = spielAufFeld(t3);
+        assertNotNull(spielZuerst);
+
+        // ... und danach die letzte
+        spielService.brecheSpielAb(spielZuerst, true);
+        warteBis(() -> wartendeIds().isEmpty() && spielAufFeld(t2) != null);
+
+        // Aufräumen: alle Planer-Spiele beenden
+        for (PlanerStatus.FeldBelegung feld : feldPlaner.status().felder()) {
+            if (feld.spielId() != null) {
+                spielService.brecheSpielAb(feld.spielId(), true);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Metriken: Punkte, Satzende und Timer werden gezählt")
+    void metrikenZaehlenPunkteUndSaetze() {
+        Team teamA = persistTeam("Max", "Mueller", "Lara", "Schulz");
+        Team teamB = persistTeam("Paul", "Meier", "Anna", "Schmidt");
+        Spiel spiel = spielService.startNeuesSpiel(teamA.getId(), teamB.getId(), true, Seite.RECHTS);
+
+        double punkteVorher = meterRegistry.counter("badminton.punkte").count();
+        double saetzeVorher = meterRegistry.counter("badminton.saetze.beendet").count();
+
+        for (int i = 0; i < 21; i++) {
+            spielService.punktFuerTeamA(spiel.getId());
+        }
+
+        assertEquals(21, meterRegistry.counter("badminton.punkte").count() - punkteVorher);
+        assertEquals(1, meterRegistry.counter("badminton.saetze.beendet").count() - saetzeVorher);
+
+        Timer punktTimer = meterRegistry.find("badminton.spiel.operation")
+                .tags("operation", "punkt", "ergebnis", "ok")
+                .timer();
+        assertNotNull(punktTimer);
+        assertTrue(punktTimer.count() >= 21);
+    }
+
     // -------------------------------------------------------------------------
     // B) API-TESTS (MockMvc)
     // -------------------------------------------------------------------------
 
+    @Test
+    @DisplayName("API: /spiele liefert gefilterte Seiten, neueste zuerst, mit Cursor zur nächsten Seite")
+    void api_spieleListe_keysetPagination() throws Exception {
+        // Eindeutiger Name, damit nur die Spiele dieses Tests gefunden werden
+        List<Long> spielIds = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Team teamA = persistTeam("Keyset", "Zyxwert" + i, "Lara", "Schulz");
+            Team teamB = persistTeam("Paul", "Meier", "Anna", "Schmidt");
+            spielIds.add(spielService.startNeuesSpiel(teamA.getId(), teamB.getId(), true, Seite.RECHTS).getId());
+        }
+
+        JsonNode seite1 = objectMapper.readTree(mockMvc.perform(get("/spiele")
+                        .param("spieler", "zyxWERT")
+                        .param("status", "LAUFEND")
+                        .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+
+        assertEquals(2, seite1.get("eintraege").size());
+        assertEquals(spielIds.get(2), seite1.get("eintraege").get(0).get("id").asLong());
+        assertEquals(spielIds.get(1), seite1.get("eintraege").get(1).get("id").asLong());
+        JsonNode cursor = seite1.get("naechste");
+        assertFalse(cursor.isNull());
+
+        JsonNode seite2 = objectMapper.readTree(mockMvc.perform(get("/spiele")
+                        .param("spieler", "zyxWERT")
+                        .param("status", "LAUFEND")
+                        .param("limit", "2")
+                        .param("nachDatum", cursor.get("datum").asText())
+                        .param("nachId", cursor.get("id").asText()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+
+        assertEquals(1, seite2.get("eintraege").size());
+        assertEquals(spielIds.get(0), seite2.get("eintraege").get(0).get("id").asLong());
+        assertTrue(seite2.get("naechste").isNull());
+
+        // Anderer Status -> keine Treffer
+        mockMvc.perform(get("/spiele")
+                        .param("spieler", "zyxWERT")
+                        .param("status", "BEENDET"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.eintraege.length()").value(0));
+    }
+
+    @Test
+    @DisplayName("API: /spiele/historie liefert Namen, Team A/B, Satzstände und Gewinner als schlanke Zeilen")
+    void api_historie_liefertProjektion() throws Exception {
+        // Team B zuerst anlegen -> kleinere ID; Team A muss trotzdem "teamA" sein
+        Team teamB = persistTeam("Paul", "Historix", "Anna", "Schmidt");
+        Team teamA = persistTeam("Max", "Mueller", "Lara", "Schulz");
+        Spiel spiel = spielService.startNeuesSpiel(teamA.getId(), teamB.getId(), true, Seite.RECHTS);
+        spielService.brecheSpielAb(spiel.getId(), false);
+
+        mockMvc.perform(get("/spiele/historie").param("spieler", "historix"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.eintraege.length()").value(1))
+                .andExpect(jsonPath("$.eintraege[0].id").value(spiel.getId()))
+                .andExpect(jsonPath("$.eintraege[0].status").value("ABGEBROCHEN"))
+                .andExpect(jsonPath("$.eintraege[0].teamA.id").value(teamA.getId()))
+                .andExpect(jsonPath("$.eintraege[0].teamA.spieler[0]").value("Max Mueller"))
+                .andExpect(jsonPath("$.eintraege[0].teamB.spieler[0]").value("Paul Historix"))
+                .andExpect(jsonPath("$.eintraege[0].saetze.length()").value(1))
+                .andExpect(jsonPath("$.eintraege[0].gewinnerTeamId").value(teamA.getId()))
+                .andExpect(jsonPath("$.naechste").isEmpty());
+    }
+
+    @Test
+    @DisplayName("API: wiederholter POST mit gleichem Idempotency-Key zählt den Punkt nur einmal")
+    void api_idempotencyKey_zaehltPunktNurEinmal() throws Exception {
+        long teamAId = createTeamViaApi("Max", "Mueller", "Lara", "Schulz");
+        long teamBId = createTeamViaApi("Paul", "Meier", "Anna", "Schmidt");
+
+        MvcResult startResult = mockMvc.perform(post("/spiele/start")
+                        .header("Idempotency-Key", UUID.randomUUID().toString())
+                        .param("teamAId", String.valueOf(teamAId))
+                        .param("teamBId", String.valueOf(teamBId))
+                        .param("aufschlagTeamIstA", "true")
+                        .param("startSeite", "RECHTS"))
+                .andExpect(status().isOk())
+                .andReturn();
+        long spielId = extractSpielIdFromResult(startResult);
+
+        String erste = mockMvc.perform(post("/spiele/{id}/punktA", spielId)
+                        .header("Idempotency-Key", "punkt-1-" + spielId))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        // Retry nach "Timeout": gleiche Antwort, kein zweiter Punkt
+        String wiederholt = mockMvc.perform(post("/spiele/{id}/punktA", spielId)
+                        .header("Idempotency-Key", "punkt-1-" + spielId))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Idempotent-Replay", "true"))
+                .andReturn().getResponse().getContentAsString();
+        assertEquals(erste, wiederholt);
+
+        // Gleicher Key für eine andere Anfrage wird abgelehnt
+        mockMvc.perform(post("/spiele/{id}/punktB", spielId)
+                        .header("Idempotency-Key", "punkt-1-" + spielId))
+                .andExpect(status().isUnprocessableEntity());
+
+        // Neuer Key -> neuer Punkt
+        mockMvc.perform(post("/spiele/{id}/punktA", spielId)
+                        .header("Idempotency-Key", "punkt-2-" + spielId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.saetze[0].punkteTeamA").value(2))
+                .andExpect(jsonPath("$.saetze[0].punkteTeamB").value(0));
+    }
+
+    @Test
+    @DisplayName("API: nach einem 5xx der Erstanfrage führt die wartende Wiederholung die Anfrage selbst aus")
+    void api_idempotencyKey_wiederholungNachServerfehler() throws Exception {
+        String schluessel = UUID.randomUUID().toString();
+        AtomicInteger ausfuehrungen = new AtomicInteger();
+        CountDownLatch erstanfrageLaeuft = new CountDownLatch(1);
+        CountDownLatch erstanfrageScheitert = new CountDownLatch(1);
+        FilterChain kette = (anfrage, antwort) -> {
+            int nummer = ausfuehrungen.incrementAndGet();
+            if (nummer == 1) {
+                erstanfrageLaeuft.countDown();
+                try {
+                    erstanfrageScheitert.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                ((HttpServletResponse) antwort).setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            } else {
+                ((HttpServletResponse) antwort).setStatus(HttpServletResponse.SC_OK);
+                antwort.getOutputStream().write(("ausfuehrung " + nummer).getBytes(StandardCharsets.UTF_8));
+            }
+        };
+
+        MockHttpServletResponse erste = new MockHttpServletResponse();
+        Thread erstanfrage = new Thread(() -> filtere(schluessel, erste, kette));
+        erstanfrage.start();
+        assertTrue(erstanfrageLaeuft.await(5, TimeUnit.SECONDS));
+
+        // Wiederholung wartet auf die laufende Erstanfrage ...
+        MockHttpServletResponse zweite = new MockHttpServletResponse();
+        Thread wiederholung = new Thread(() -> filtere(schluessel, zweite, kette));
+        wiederholung.start();
+        warteBis(() -> wiederholung.getState() == Thread.State.TIMED_WAITING);
+
+        // ... die scheitert -> nichts gemerkt, die Wiederholung läuft selbst (kein 409, kein Replay)
+        erstanfrageScheitert.countDown();
+        erstanfrage.join(5000);
+        wiederholung.join(5000);
+        assertEquals(HttpServletResponse.SC_SERVICE_UNAVAILABLE, erste.getStatus());
+        assertEquals(HttpServletResponse.SC_OK, zweite.getStatus());
+        assertEquals("ausfuehrung 2", zweite.getContentAsString());
+        assertNull(zweite.getHeader("Idempotent-Replay"));
+
+        // Erst die erfolgreiche Antwort wird gemerkt
+        MockHttpServletResponse dritte = new MockHttpServletResponse();
+        filtere(schluessel, dritte, kette);
+        assertEquals("true", dritte.getHeader("Idempotent-Replay"));
+        assertEquals("ausfuehrung 2", dritte.getContentAsString());
+        assertEquals(2, ausfuehrungen.get());
+    }
+
+    @Test
+    @DisplayName("API: /spiele/{id}/ballwechsel spielt den Rückstand nach und stoppt am Spielende")
+    void api_ballwechselFolge_stopptAmSpielende() throws Exception {
+        long teamAId = createTeamViaApi("Max", "Mueller", "Lara", "Schulz");
+        long teamBId = createTeamViaApi("Paul", "Meier", "Anna", "Schmidt");
+
+        MvcResult startResult = mockMvc.perform(post("/spiele/start")
+                        .param("teamAId", String.valueOf(teamAId))
+                        .param("teamBId", String.valueOf(teamBId))
+                        .param("aufschlagTeamIstA", "true")
+                        .param("startSeite", "RECHTS"))
+                .andExpect(status().isOk())
+                .andReturn();
+        long spielId = extractSpielIdFromResult(startResult);
+
+        // Ungültiger Eintrag -> nichts wird angewendet
+        mockMvc.perform(post("/spiele/{id}/ballwechsel", spielId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[\"A\", \"X\"]"))
+                .andExpect(status().isBadRequest());
+
+        // 2 x 21 Punkte für A beenden das Spiel, die letzten 3 Einträge verfallen
+        List<String> gewinner = new ArrayList<>();
+        for (int i = 0; i < 45; i++) {
+            gewinner.add("A");
+        }
+        mockMvc.perform(post("/spiele/{id}/ballwechsel", spielId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(gewinner)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.angewendet").value(42))
+                .andExpect(jsonPath("$.spielendeBeiIndex").value(41))
+                .andExpect(jsonPath("$.spiel.status").value("BEENDET"))
+                .andExpect(jsonPath("$.spiel.saetze.length()").value(2))
+                .andExpect(jsonPath("$.spiel.saetze[1].punkteTeamA").value(21));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("API: Spielende verdichtet das Protokoll, /spiele/{id}/verlauf spielt jeden Zwischenstand nach")
+    void api_verlauf_ausVerdichtetemProtokoll() throws Exception {
+        Team teamA = persistTeam("Max", "Mueller", "Lara", "Schulz");
+        Team teamB = persistTeam("Paul", "Meier", "Anna", "Schmidt");
+        Long spielId = spielService.startNeuesSpiel(teamA.getId(), teamB.getId(), true, Seite.RECHTS).getId();
+
+        // Satz 1: 5 x B, dann 21 x A (21:5); Satz 2: 21 x A
+        List<Boolean> punkte = new ArrayList<>();
+        for (int i = 0; i < 47; i++) {
+            punkte.add(i >= 5);
+        }
+        spielService.spieleBallwechselFolge(spielId, punkte);
+        warteAufAbschluss();
+
+        // Eine Zeile mit 10 Byte statt 47 Ballwechsel-Zeilen, nur der Start-Snapshot bleibt
+        SpielProtokoll protokoll = entityManager.find(SpielProtokoll.class, spielId);
+        assertEquals(47, protokoll.getAnzahlBallwechsel());
+        assertEquals(10, protokoll.getBallwechsel().length);
+        assertEquals(List.of(26, 21), protokoll.folge().ballwechselProSatz());
+        assertEquals(0L, entityManager.createQuery(
+                        "select count(b) from Ballwechsel b where b.spielId = :id", Long.class)
+                .setParameter("id", spielId).getSingleResult());
+        assertEquals(1L, entityManager.createQuery(
+                        "select count(s) from SpielSnapshot s where s.spielId = :id", Long.class)
+                .setParameter("id", spielId).getSingleResult());
+
+        mockMvc.perform(get("/spiele/{id}/verlauf", spielId).param("nachBallwechsel", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.anzahlBallwechsel").value(47))
+                .andExpect(jsonPath("$.stand.status").value("LAUFEND"))
+                .andExpect(jsonPath("$.stand.saetze[0].punkteTeamA").value(0))
+                .andExpect(jsonPath("$.stand.saetze[0].punkteTeamB").value(3))
+                .andExpect(jsonPath("$.stand.aufschlagTeamA").value(false))
+                .andExpect(jsonPath("$.stand.gewinnerTeamA").doesNotExist());
+
+        mockMvc.perform(get("/spiele/{id}/verlauf", spielId).param("nachBallwechsel", "26"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.stand.saetze.length()").value(2))
+                .andExpect(jsonPath("$.stand.saetze[0].punkteTeamA").value(21))
+                .andExpect(jsonPath("$.stand.saetze[1].punkteTeamA").value(0))
+                .andExpect(jsonPath("$.stand.aufschlagTeamA").value(true));
+
+        mockMvc.perform(get("/spiele/{id}/verlauf", spielId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.ballwechsel").value(47))
+                .andExpect(jsonPath("$.stand.status").value("BEENDET"))
+                .andExpect(jsonPath("$.stand.gewinnerTeamA").value(true));
+
+        mockMvc.perform(get("/spiele/{id}/verlauf", spielId).param("nachBallwechsel", "48"))
+                .andExpect(status().isBadRequest());
+
+        // Das gespeicherte Spiel bleibt unverändert
+        assertEquals(SpielStatus.BEENDET, spielRepository.findById(spielId).orElseThrow().getStatus());
+    }
+
     @Test
     @DisplayName("API: /teams legt Team an und setzt Spielerpositionen")
     void api_createTeam_setztPositionen() throws Exception {
@@ -364,6 +1191,341 @@ class BadmintonTrackerIntegrationTest {
                 .andExpect(jsonPath("$.spieler[1].positionImTeam").value("LINKS"));
     }
 
+    @Test
+    @DisplayName("API: GET /spiele/{id} mit ETag – 304 ohne Änderung, Long-Polling wartet auf die nächste")
+    void api_spiel_etagUndLongPolling() throws Exception {
+        Team teamA = persistTeam("Max", "Mueller", "Lara", "Schulz");
+        Team teamB = persistTeam("Paul", "Meier", "Anna", "Schmidt");
+        Spiel spiel = spielService.startNeuesSpiel(teamA.getId(), teamB.getId(), true, Seite.RECHTS);
+        spielService.punktFuerTeamA(spiel.getId());
+
+        String etag = mockMvc.perform(get("/spiele/{id}", spiel.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.standVersion").value(1))
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotNull(etag);
+
+        mockMvc.perform(get("/spiele/{id}", spiel.getId()).header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        // Wartet auf Version 2 – kommt erst mit dem nächsten Punkt
+        MvcResult wartend = mockMvc.perform(get("/spiele/{id}", spiel.getId())
+                        .param("warteAufVersion", "2"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        spielService.punktFuerTeamB(spiel.getId());
+
+        mockMvc.perform(asyncDispatch(wartend))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.standVersion").value(2))
+                .andExpect(jsonPath("$.saetze[0].punkteTeamB").value(1));
+
+        String neuerEtag = mockMvc.perform(get("/spiele/{id}", spiel.getId()).header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotEquals(etag, neuerEtag);
+    }
+
+    @Test
+    @DisplayName("API: /spiele/{id}/stream schickt den Anfangsstand und nach jedem Punkt ein Event 'spielstand'")
+    void api_stream_schicktSpielstandNachPunkt() throws Exception {
+        Team teamA = persistTeam("Max", "Mueller", "Lara", "Schulz");
+        Team teamB = persistTeam("Paul", "Meier", "Anna", "Schmidt");
+        Spiel spiel = spielService.startNeuesSpiel(teamA.getId(), teamB.getId(), true, Seite.RECHTS);
+
+        MvcResult stream = mockMvc.perform(get("/spiele/{id}/stream", spiel.getId()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Versand läuft auf eigenem Pool -> auf den Inhalt warten
+        warteBis(() -> inhalt(stream).contains("event:spielstand"));
+        assertTrue(inhalt(stream).contains("\"punkteTeamA\":0"));
+
+        spielService.punktFuerTeamA(spiel.getId());
+        warteBis(() -> inhalt(stream).contains("\"punkteTeamA\":1"));
+        assertTrue(stream.getResponse().getContentType().startsWith(MediaType.TEXT_EVENT_STREAM_VALUE));
+
+        mockMvc.perform(get("/spiele/{id}/stream", 999_999L))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("API: /actuator/jfr startet, zeigt und stoppt eine Aufzeichnung und liefert die .jfr-Datei")
+    void api_jfr_aufzeichnungStartenUndHerunterladen() throws Exception {
+        mockMvc.perform(post("/actuator/jfr")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"sekunden\":60}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.zustand").value("RUNNING"));
+
+        // Es läuft immer höchstens eine
+        mockMvc.perform(post("/actuator/jfr")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"sekunden\":60}"))
+                .andExpect(status().isConflict());
+
+        mockMvc.perform(get("/actuator/jfr"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.zustand").value("RUNNING"))
+                .andExpect(jsonPath("$.dauerMax").exists());
+
+        byte[] datei = mockMvc.perform(delete("/actuator/jfr"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_OCTET_STREAM))
+                .andReturn().getResponse().getContentAsByteArray();
+        // JFR-Dateien beginnen mit "FLR\0"
+        assertTrue(datei.length > 4);
+        assertEquals("FLR", new String(datei, 0, 3, StandardCharsets.US_ASCII));
+
+        mockMvc.perform(get("/actuator/jfr"))
+                .andExpect(jsonPath("$.zustand").value("KEINE"));
+        mockMvc.perform(delete("/actuator/jfr"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("API: /import/spiele speichert gültige Zeilen und meldet fehlerhafte")
+    void api_importSpiele_ndjson() throws Exception {
+        String name = "Import" + UUID.randomUUID().toString().substring(0, 8);
+        String datei = """
+                {"datum":"2023-10-07","teamA":[{"vorname":"Max","nachname":"%1$s"},{"vorname":"Lara","nachname":"Schulz"}],"teamB":[{"vorname":"Paul","nachname":"Meier"},{"vorname":"Anna","nachname":"Schmidt"}],"saetze":[[21,17],[19,21],[21,15]]}
+
+                {"datum":"2023-10-08","teamA":[{"vorname":"Max","nachname":"%1$s"},{"vorname":"Lara","nachname":"Schulz"}],"teamB":[{"vorname":"Paul","nachname":"Meier"},{"vorname":"Anna","nachname":"Schmidt"}],"saetze":[[21,17],[5,3]],"gewinner":"B"}
+                {"datum":"2023-10-09","teamA":[{"vorname":"Max","nachname":"%1$s"}],"teamB":[],"saetze":[[21,17]]}
+                {"datum":"2023-10-10","teamA":[{"vorname":"Max","nachname":"%1$s"},{"vorname":"Lara","nachname":"Schulz"}],"teamB":[{"vorname":"Paul","nachname":"Meier"},{"vorname":"Anna","nachname":"Schmidt"}],"saetze":[[15,17],[21,3]]}
+                kein json
+                {"datum":"2023-10-11","teamA":[{"vorname":"Max","nachname":"%1$s"},{"vorname":"Lara","nachname":"Schulz"}],"teamB":[{"vorname":"Paul","nachname":"Meier"},{"vorname":"Anna","nachname":"Schmidt"}],"saetze":[[25,21],[21,10]]}
+                """.formatted(name);
+
+        mockMvc.perform(post("/import/spiele")
+                        .contentType("application/x-ndjson")
+                        .param("neuaufbau", "false")
+                        .content(datei))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.zeilen").value(6))
+                .andExpect(jsonPath("$.spiele").value(2))
+                .andExpect(jsonPath("$.saetze").value(5))
+                .andExpect(jsonPath("$.uebersprungen").value(4))
+                .andExpect(jsonPath("$.fehler[0]").value("Zeile 4: teamA: genau zwei Spieler:innen erwartet"))
+                .andExpect(jsonPath("$.fehler[1]").value("Zeile 5: Satz 1 ist nicht beendet"))
+                .andExpect(jsonPath("$.fehler[3]").value("Zeile 7: Satz 1: 25:21 ist kein möglicher Endstand"));
+
+        mockMvc.perform(get("/spiele/historie").param("spieler", name))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.eintraege.length()").value(2))
+                .andExpect(jsonPath("$.eintraege[0].datum").value("2023-10-08"))
+                .andExpect(jsonPath("$.eintraege[0].status").value("ABGEBROCHEN"))
+                .andExpect(jsonPath("$.eintraege[0].gewinnerTeamId").isNumber())
+                .andExpect(jsonPath("$.eintraege[1].status").value("BEENDET"))
+                .andExpect(jsonPath("$.eintraege[1].saetze.length()").value(3));
+    }
+
+    @Test
+    @DisplayName("API: /import/spiele lehnt unmögliche Endstände und Sätze nach dem Spielende ab")
+    void api_importSpiele_lehntUnmoeglicheSaetzeAb() throws Exception {
+        String name = "Endstand" + UUID.randomUUID().toString().substring(0, 8);
+        String teams = """
+                "teamA":[{"vorname":"Max","nachname":"%1$s"},{"vorname":"Lara","nachname":"Schulz"}],\
+                "teamB":[{"vorname":"Paul","nachname":"Meier"},{"vorname":"Anna","nachname":"Schmidt"}]\
+                """.formatted(name);
+        String datei = String.join("\n",
+                "{\"datum\":\"2023-11-01\"," + teams + ",\"saetze\":[[30,29],[21,19]]}",
+                "{\"datum\":\"2023-11-02\"," + teams + ",\"saetze\":[[30,27],[21,10]]}",
+                "{\"datum\":\"2023-11-03\"," + teams + ",\"saetze\":[[21,10],[21,12],[21,5]]}",
+                "{\"datum\":\"2023-11-04\"," + teams + ",\"saetze\":[[23,21],[26,28],[30,28]]}",
+                "{\"datum\":\"2023-11-05\"," + teams + ",\"saetze\":[[24,20],[21,3]]}");
+
+        mockMvc.perform(post("/import/spiele")
+                        .contentType("application/x-ndjson")
+                        .param("neuaufbau", "false")
+                        .content(datei))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.zeilen").value(5))
+                .andExpect(jsonPath("$.spiele").value(2))
+                .andExpect(jsonPath("$.saetze").value(5))
+                .andExpect(jsonPath("$.uebersprungen").value(3))
+                .andExpect(jsonPath("$.fehler.length()").value(3))
+                .andExpect(jsonPath("$.fehler[0]").value("Zeile 2: Satz 1: 30:27 ist kein möglicher Endstand"))
+                .andExpect(jsonPath("$.fehler[1]").value("Zeile 3: Satz 3 nach dem Spielende"))
+                .andExpect(jsonPath("$.fehler[2]").value("Zeile 5: Satz 1: 24:20 ist kein möglicher Endstand"));
+
+        // 30:29 und 30:28 sind möglich, die Verlängerung endet mit genau 2 Punkten Vorsprung
+        mockMvc.perform(get("/spiele/historie").param("spieler", name))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.eintraege.length()").value(2))
+                .andExpect(jsonPath("$.eintraege[0].datum").value("2023-11-04"))
+                .andExpect(jsonPath("$.eintraege[0].saetze.length()").value(3))
+                .andExpect(jsonPath("$.eintraege[1].datum").value("2023-11-01"));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("API: /export/spiele streamt gefiltert als CSV und gzip-komprimiertes NDJSON")
+    void api_exportSpiele_csvUndGzip() throws Exception {
+        // Export läuft auf einem eigenen Thread -> Daten müssen committet sein
+        String name = "Export" + UUID.randomUUID().toString().substring(0, 8);
+        mockMvc.perform(post("/import/spiele")
+                        .contentType("application/x-ndjson")
+                        .param("neuaufbau", "false")
+                        .content("""
+                                {"datum":"2022-05-01","teamA":[{"vorname":"Max","nachname":"%1$s"},{"vorname":"Lara","nachname":"Schulz"}],"teamB":[{"vorname":"Paul","nachname":"Meier"},{"vorname":"Anna","nachname":"Schmidt"}],"saetze":[[21,17],[21,19]]}
+                                {"datum":"2022-05-02","teamA":[{"vorname":"Max","nachname":"%1$s"},{"vorname":"Lara","nachname":"Schulz"}],"teamB":[{"vorname":"Paul","nachname":"Meier"},{"vorname":"Anna","nachname":"Schmidt"}],"saetze":[[3,5]],"gewinner":"B"}
+                                """.formatted(name)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.spiele").value(2));
+
+        MvcResult csv = mockMvc.perform(get("/export/spiele")
+                        .param("format", "csv")
+                        .param("status", "BEENDET")
+                        .param("spieler", name))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String[] zeilen = mockMvc.perform(asyncDispatch(csv))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv;charset=UTF-8"))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8)
+                .split("\n");
+        assertEquals(2, zeilen.length);
+        assertEquals("id;datum;status;teamA;teamB;saetze;gewinner", zeilen[0]);
+        assertTrue(zeilen[1].endsWith(";2022-05-01;BEENDET;Max " + name
+                + " / Lara Schulz;Paul Meier / Anna Schmidt;21:17 21:19;A"), zeilen[1]);
+
+        MvcResult ndjson = mockMvc.perform(get("/export/spiele")
+                        .param("spieler", name)
+                        .header("Accept-Encoding", "gzip"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        byte[] komprimiert = mockMvc.perform(asyncDispatch(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andReturn().getResponse().getContentAsByteArray();
+        String[] spiele;
+        try (GZIPInputStream entpackt = new GZIPInputStream(new ByteArrayInputStream(komprimiert))) {
+            spiele = new String(entpackt.readAllBytes(), StandardCharsets.UTF_8).split("\n");
+        }
+        assertEquals(2, spiele.length);
+        assertEquals("ABGEBROCHEN", objectMapper.readTree(spiele[0]).get("status").asText());
+        assertEquals("2022-05-01", objectMapper.readTree(spiele[1]).get("datum").asText());
+
+        // gzip ausdrücklich abgelehnt -> unkomprimiert
+        MvcResult abgelehnt = mockMvc.perform(get("/export/spiele")
+                        .param("spieler", name)
+                        .header("Accept-Encoding", "gzip;q=0, identity"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String unkomprimiert = mockMvc.perform(asyncDispatch(abgelehnt))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        assertEquals(2, unkomprimiert.split("\n").length);
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("API: /archiv/verschieben nimmt alte Spiele aus der Datenbank, /archiv/spiele liefert sie aus der Archivdatei")
+    void api_archiv_verschiebenUndLesen() throws Exception {
+        // Datum, das sonst niemand benutzt – nur dieses Spiel ist "alt genug"
+        String name = "Archiv" + UUID.randomUUID().toString().substring(0, 8);
+        LocalDate datum = LocalDate.of(1900, 1, 1);
+        mockMvc.perform(post("/import/spiele")
+                        .contentType("application/x-ndjson")
+                        .param("neuaufbau", "false")
+                        .content("""
+                                {"datum":"1900-01-01","teamA":[{"vorname":"Max","nachname":"%1$s"},{"vorname":"Lara","nachname":"Schulz"}],"teamB":[{"vorname":"Paul","nachname":"Meier"},{"vorname":"Anna","nachname":"Schmidt"}],"saetze":[[21,17],[21,19]]}
+                                """.formatted(name)))
+                .andExpect(status().isOk());
+        Long spielId = spielRepository.sucheHistorie(new SpielFilter(null, datum, datum, name), null, 10)
+                .getFirst().id();
+
+        mockMvc.perform(post("/archiv/verschieben").param("vor", "1900-01-02"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.spiele").value(1));
+        assertTrue(spielRepository.findById(spielId).isEmpty());
+
+        MvcResult einzeln = mockMvc.perform(get("/archiv/spiele/{id}", spielId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        JsonNode spiel = objectMapper.readTree(mockMvc.perform(asyncDispatch(einzeln))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8)).get("spiel");
+        assertEquals(spielId.longValue(), spiel.get("id").asLong());
+        assertEquals("BEENDET", spiel.get("status").asText());
+        assertEquals("Max " + name, spiel.get("teamA").get("spieler").get(0).asText());
+        assertEquals(19, spiel.get("saetze").get(1).get("punkteTeamB").asInt());
+
+        MvcResult bereich = mockMvc.perform(get("/archiv/spiele")
+                        .param("von", "1900-01-01")
+                        .param("bis", "1900-01-01"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String ndjson = mockMvc.perform(asyncDispatch(bereich))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        assertTrue(ndjson.contains("\"Max " + name + "\""), ndjson);
+
+        mockMvc.perform(get("/archiv/spiele/{id}", -1L))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("API: GET /teams kommt aus dem Cache, POST /teams leert ihn")
+    void api_teamListe_ausCacheMitInvalidierung() throws Exception {
+        stammdatenService.leereAlles();
+        try {
+            long vorher = teamsAusCache();
+            mockMvc.perform(get("/teams")).andExpect(status().isOk());
+            mockMvc.perform(get("/teams")).andExpect(status().isOk());
+            assertEquals(1, teamsAusCache() - vorher);
+            assertSame(stammdatenService.alleTeams(), stammdatenService.alleTeams());
+
+            long neuId = createTeamViaApi("Cache", "Frisch", "Lara", "Schulz");
+            mockMvc.perform(get("/teams"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[?(@.id == " + neuId + ")]").exists());
+        } finally {
+            // Rollback am Testende erreicht den Cache nicht
+            stammdatenService.leereAlles();
+        }
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("Cache: ein Punkt entfernt die Teams des Spiels, Positionen sind nach dem Flush aktuell")
+    void cache_punktEntferntTeamsDesSpiels() {
+        String nachname = "CachePunkt" + UUID.randomUUID().toString().substring(0, 8);
+        Team teamA = persistTeam("Max", nachname, "Lara", nachname);
+        Team teamB = persistTeam("Paul", nachname, "Anna", nachname);
+        Long spielId = spielService.startNeuesSpiel(teamA.getId(), teamB.getId(), true, Seite.RECHTS).getId();
+        try {
+            Team vorher = stammdatenService.team(teamA.getId());
+            assertSame(vorher, stammdatenService.team(teamA.getId()));
+
+            // Punkt für das Aufschlagteam: beide Spieler:innen tauschen die Seite
+            spielService.punktFuerTeamA(spielId);
+            liveSpielEngine.speichereGeaenderte();
+
+            Team nachher = stammdatenService.team(teamA.getId());
+            assertNotSame(vorher, nachher);
+            for (Spieler s : vorher.getSpieler()) {
+                Spieler neu = nachher.getSpieler().stream()
+                        .filter(n -> n.getId().equals(s.getId()))
+                        .findFirst().orElseThrow();
+                assertEquals(s.getPositionImTeam().invert(), neu.getPositionImTeam());
+            }
+        } finally {
+            spielService.brecheSpielAb(spielId, true);
+            stammdatenService.leereAlles();
+        }
+    }
+
+    private long teamsAusCache() {
+        FunctionCounter treffer = meterRegistry.find("cache.gets")
+                .tags("cache", StammdatenService.TEAM_LISTE, "result", "hit")
+                .functionCounter();
+        assertNotNull(treffer);
+        return (long) treffer.count();
+    }
+
     @Test
     @DisplayName("API: /spiele/start startet ein Spiel korrekt")
     void api_startSpiel() throws Exception {
@@ -457,6 +1619,105 @@ class BadmintonTrackerIntegrationTest {
         return teamRepository.save(team);
     }
 
+    private List<Long> wartendeIds() {
+        return feldPlaner.status().wartend().stream().map(PlanerStatus.Ansetzung::id).toList();
+    }
+
+    /**
+     * Spiel-ID auf einem Planer-Feld, in dem "teamB" Team B ist – oder null.
+     */
+    private Long spielAufFeld(Team teamB) {
+        for (PlanerStatus.FeldBelegung feld : feldPlaner.status().felder()) {
+            if (feld.spielId() != null && spielService.findeAktuellenStand(feld.spielId())
+                    .map(spiel -> spiel.getTeams().get(1).getId().equals(teamB.getId()))
+                    .orElse(false)) {
+                return feld.spielId();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Statistik, Index, Wertung und Protokoll laufen nach dem Spielende auf eigenen Threads.
+     */
+    private void warteAufAbschluss() throws InterruptedException {
+        assertTrue(abschlussAufgaben.warteAufErledigt(5000), "Abschluss-Aufgaben nicht fertig");
+    }
+
+    private static void warteBis(BooleanSupplier bedingung) throws InterruptedException {
+        long ende = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!bedingung.getAsBoolean()) {
+            if (System.nanoTime() > ende) {
+                fail("Bedingung nicht innerhalb von 5 Sekunden erfüllt");
+            }
+            Thread.sleep(20);
+        }
+    }
+
+    /**
+     * Liest am Speicher vorbei direkt aus der DB (eigener Persistenzkontext pro Abfrage).
+     */
+    private int punkteTeamAInDb(Long spielId, int satzNummer) {
+        return entityManager.createQuery(
+                        "select s.punkteTeamA from Satz s where s.spiel.id = :spielId and s.nummer = :nummer",
+                        Integer.class)
+                .setParameter("spielId", spielId)
+                .setParameter("nummer", satzNummer)
+                .getSingleResult();
+    }
+
+    /**
+     * Positionen der Spieler:innen eines Teams in der DB, in Team-Reihenfolge.
+     */
+    private List<Seite> positionenInDb(Team team) {
+        List<Seite> positionen = new ArrayList<>();
+        for (Spieler spieler : team.getSpieler()) {
+            positionen.add(entityManager.createQuery(
+                            "select s.positionImTeam from Spieler s where s.id = :id", Seite.class)
+                    .setParameter("id", spieler.getId())
+                    .getSingleResult());
+        }
+        return positionen;
+    }
+
+    private static List<Seite> positionen(Team team) {
+        return team.getSpieler().stream().map(Spieler::getPositionImTeam).toList();
+    }
+
+    private SpielStatus statusInDb(Long spielId) {
+        return entityManager.createQuery("select s.status from Spiel s where s.id = :spielId", SpielStatus.class)
+                .setParameter("spielId", spielId)
+                .getSingleResult();
+    }
+
+    private static String inhalt(MvcResult result) {
+        try {
+            return result.getResponse().getContentAsString(StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * POST /spiele/1/punktA mit Idempotency-Key direkt durch den IdempotenzFilter.
+     */
+    private void filtere(String schluessel, MockHttpServletResponse antwort, FilterChain kette) {
+        MockHttpServletRequest anfrage = new MockHttpServletRequest("POST", "/spiele/1/punktA");
+        anfrage.addHeader(IdempotenzFilter.HEADER, schluessel);
+        try {
+            idempotenzFilter.doFilter(anfrage, antwort, kette);
+        } catch (ServletException | IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Spielstand findeLiveStand(Long spielId) {
+        return liveUebersichtStreams.liveSpielstaende().stream()
+                .filter(stand -> stand.spielId().equals(spielId))
+                .findFirst()
+                .orElse(null);
+    }
+
     private Satz getAktuellenSatz(Spiel spiel) {
         return spiel.getSaetze().stream()
                 .max((s1, s2) -> Integer.compare(s1.getNummer(), s2.getNummer()))